@@ -0,0 +1,28 @@
+function uuid() {
+  return 'xxxxxxxx-xxxx-4xxx-yxxx-xxxxxxxxxxxx'.replace(/[xy]/g, c => {
+    const r = Math.random() * 16 | 0;
+    const v = c === 'x' ? r : (r & 0x3 | 0x8);
+    return v.toString(16);
+  });
+}
+
+function callNative(method) {
+  return new Promise((resolve) => {
+    const id = crypto?.randomUUID ? crypto.randomUUID() : uuid();
+    window.__nativePromises[id] = resolve;
+    window.NativeApi[method](id);
+  });
+}
+
+// Content provider metrics only exist inside the admin app; the web build has none
+export const hasProviderMetrics = Boolean(window.NativeApi);
+
+export async function getProviderMetrics() {
+  if (!hasProviderMetrics) return null;
+  return callNative("getProviderMetrics");
+}
+
+export async function resetProviderMetrics() {
+  if (!hasProviderMetrics) return null;
+  return callNative("resetProviderMetrics");
+}
@@ -0,0 +1,101 @@
+import React, { useEffect, useState } from "react";
+import { Activity, RotateCcw } from "lucide-react";
+import { getProviderMetrics, resetProviderMetrics } from "../../API/metrics.js";
+
+const REFRESH_MS = 10000;
+
+function formatUs(us) {
+  if (us >= 1000) return `${(us / 1000).toFixed(1)} ms`;
+  return `${us} µs`;
+}
+
+function formatBytes(bytes) {
+  if (bytes >= 1024) return `${(bytes / 1024).toFixed(1)} KB`;
+  return `${bytes} B`;
+}
+
+export default function ProviderMetricsPanel() {
+  const [metrics, setMetrics] = useState(null);
+
+  async function load() {
+    const result = await getProviderMetrics();
+    if (result) setMetrics(result);
+  }
+
+  async function reset() {
+    await resetProviderMetrics();
+    load();
+  }
+
+  useEffect(() => {
+    load();
+    const timer = setInterval(load, REFRESH_MS);
+    return () => clearInterval(timer);
+  }, []);
+
+  const ops = Object.entries(metrics?.ops || {});
+
+  return (
+    <div className="bg-white p-6 rounded-2xl border border-gray-100 shadow-sm">
+      <div className="flex justify-between items-center mb-4">
+        <h3 className="text-lg font-bold text-gray-800 flex items-center gap-2">
+          <Activity size={20} className="text-blue-600" />
+          Counter Sync Performance
+        </h3>
+        <div className="flex items-center gap-3">
+          {metrics && (
+            <span className="text-xs font-bold text-gray-400 bg-gray-50 px-2 py-1 rounded-md">
+              last {Math.round(metrics.sinceMs / 60000)} min
+            </span>
+          )}
+          <button
+            onClick={reset}
+            className="p-2 rounded-lg text-gray-500 hover:bg-gray-50 hover:text-gray-900"
+            title="Reset"
+          >
+            <RotateCcw size={16} />
+          </button>
+        </div>
+      </div>
+
+      {ops.length === 0 ? (
+        <p className="text-sm text-gray-500">No requests from the counter yet.</p>
+      ) : (
+        <div className="overflow-x-auto">
+          <table className="w-full text-sm">
+            <thead>
+              <tr className="text-left text-xs uppercase text-gray-400 border-b border-gray-100">
+                <th className="py-2 pr-4">Operation</th>
+                <th className="py-2 pr-4 text-right">Calls</th>
+                <th className="py-2 pr-4 text-right">Errors</th>
+                <th className="py-2 pr-4 text-right">p50</th>
+                <th className="py-2 pr-4 text-right">p95</th>
+                <th className="py-2 pr-4 text-right">p99</th>
+                <th className="py-2 pr-4 text-right">DB p50</th>
+                <th className="py-2 pr-4 text-right">JSON p50</th>
+                <th className="py-2 text-right">Payload p50</th>
+              </tr>
+            </thead>
+            <tbody>
+              {ops.map(([name, op]) => (
+                <tr key={name} className="border-b border-gray-50">
+                  <td className="py-2 pr-4 font-semibold text-gray-700">{name}</td>
+                  <td className="py-2 pr-4 text-right text-gray-900">{op.count}</td>
+                  <td className={`py-2 pr-4 text-right ${op.errors > 0 ? "text-red-600 font-bold" : "text-gray-400"}`}>
+                    {op.errors}
+                  </td>
+                  <td className="py-2 pr-4 text-right text-gray-900">{formatUs(op.totalUs.p50)}</td>
+                  <td className="py-2 pr-4 text-right text-gray-900">{formatUs(op.totalUs.p95)}</td>
+                  <td className="py-2 pr-4 text-right font-bold text-gray-900">{formatUs(op.totalUs.p99)}</td>
+                  <td className="py-2 pr-4 text-right text-gray-600">{formatUs(op.dbUs.p50)}</td>
+                  <td className="py-2 pr-4 text-right text-gray-600">{formatUs(op.serializeUs.p50)}</td>
+                  <td className="py-2 text-right text-gray-600">{formatBytes(op.bytes.p50)}</td>
+                </tr>
+              ))}
+            </tbody>
+          </table>
+        </div>
+      )}
+    </div>
+  );
+}
@@ -11,6 +11,8 @@ import OrderSizeBehavior from "../components/analytics/OrderSizeBehavior";
 import DishPerformanceTable from "../components/analytics/DishPerformanceTable";
 import CategoryModal from "../components/analytics/CategoryModal";
 import DishModal from "../components/analytics/DishModal";
+import ProviderMetricsPanel from "../components/analytics/ProviderMetricsPanel";
+import { hasProviderMetrics } from "../API/metrics.js";
 
 export default function Analytics() {
   const [dateRange, setDateRange] = useState("Last 7 Days");
@@ -155,6 +157,9 @@ export default function Analytics() {
           />
         </div>
 
+        {/* --- COUNTER SYNC (admin app only) --- */}
+        {hasProviderMetrics && <ProviderMetricsPanel />}
+
       </div>
 
       <CategoryModal 
@@ -42,6 +42,7 @@ dependencies {
     implementation(libs.gson)
     implementation(libs.room.runtime.android)
     testImplementation(libs.junit)
+    testImplementation(libs.sqlite.jdbc)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
 }
\ No newline at end of file
@@ -6,27 +6,50 @@ import android.content.UriMatcher;
 import android.database.Cursor;
 import android.database.MatrixCursor;
 import android.net.Uri;
-import android.util.Log; // Import Log
+import android.os.Build;
+import android.util.Log;
+
+import androidx.room.InvalidationTracker;
+import androidx.sqlite.db.SupportSQLiteDatabase;
 
 import com.google.gson.Gson;
 import com.karan.admin_sunset_point.data.AppDatabase;
-import com.karan.admin_sunset_point.data.Responses.OrderItemResponse;
-import com.karan.admin_sunset_point.data.Responses.OrderResponse;
+import com.karan.admin_sunset_point.data.Responses.CursorRows;
+import com.karan.admin_sunset_point.data.Responses.ResponseWriter;
+import com.karan.admin_sunset_point.data.dao.OrderQueries;
 import com.karan.admin_sunset_point.data.entity.*;
-import com.karan.admin_sunset_point.data.entity.OrderWithItemsRow;
-
-import org.json.JSONArray;
-import org.json.JSONObject;
-
+import com.karan.admin_sunset_point.data.handler.AnalyticsCache;
+import com.karan.admin_sunset_point.data.handler.MenuSnapshot;
+import com.karan.admin_sunset_point.data.handler.OpenOrderStore;
+import com.karan.admin_sunset_point.data.handler.ProviderMetrics;
+import com.karan.admin_sunset_point.data.handler.ProviderMetrics.Op;
+import com.karan.admin_sunset_point.data.handler.ReadExecutor;
+import com.karan.admin_sunset_point.data.handler.WriteQueue;
+
+import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class MyContentProvider extends ContentProvider {
 
     // TAG for filtering in Logcat
     private static final String TAG = "OrderProvider";
+    // Per-call debug lines; enable with "adb shell setprop log.tag.OrderProvider DEBUG"
+    // and restart the app. Warnings and errors are always logged.
+    private static final boolean VERBOSE = Log.isLoggable(TAG, Log.DEBUG);
 
     private AppDatabase db;
+    private WriteQueue writes;
+    private OpenOrderStore openOrders;
+    // Set when the last load of openOrders failed; the next orders query retries
+    private final AtomicBoolean openOrdersFailed = new AtomicBoolean();
+    private final ProviderMetrics metrics = ProviderMetrics.getInstance();
+    // Rebuilt on the first "dishes" query after the dishes table changes
+    private volatile MenuSnapshot menu;
+    private final AtomicLong menuGeneration = new AtomicLong();
     private Gson gson = new Gson();
 
     private static final String AUTHORITY =
@@ -37,6 +60,13 @@ public class MyContentProvider extends ContentProvider {
     private static final int DISHES = 2;
     private static final int ORDER_PRINT = 3;
     private static final int DELETE_ITEM = 4;
+    private static final int ORDER_ROWS = 5;
+    private static final int ORDERS_SINCE = 6;
+    private static final int METRICS = 7;
+    private static final int ORDERS_PRINT = 8;
+
+    // Ids per "orderPrint?ids=" call; well under SQLite's 999 bound variables
+    private static final int MAX_PRINT_BATCH = 100;
 
     private static final UriMatcher uriMatcher;
 
@@ -45,15 +75,30 @@ public class MyContentProvider extends ContentProvider {
         uriMatcher.addURI(AUTHORITY, "orders", ORDERS);
         uriMatcher.addURI(AUTHORITY, "dishes", DISHES);
         uriMatcher.addURI(AUTHORITY, "orderPrint/#", ORDER_PRINT);
+        uriMatcher.addURI(AUTHORITY, "orderPrint", ORDERS_PRINT);
         uriMatcher.addURI(AUTHORITY, "deleteItem/#", DELETE_ITEM);
+        uriMatcher.addURI(AUTHORITY, "orders/rows", ORDER_ROWS);
+        uriMatcher.addURI(AUTHORITY, "orders/since/#", ORDERS_SINCE);
+        uriMatcher.addURI(AUTHORITY, "metrics", METRICS);
     }
 
     @Override
     public boolean onCreate() {
-        Log.d(TAG, "onCreate: Initializing MyContentProvider...");
+        if (VERBOSE) Log.d(TAG, "onCreate: Initializing MyContentProvider...");
         try {
             db = AppDatabase.getInstance(getContext());
-            Log.d(TAG, "onCreate: Database instance obtained.");
+            writes = WriteQueue.getInstance(db::runInTransaction);
+            openOrders = OpenOrderStore.getInstance();
+            // Room refuses queries on the main thread; until this finishes
+            // "orders" is answered from SQLite
+            reloadOpenOrders();
+            db.getInvalidationTracker().addObserver(new InvalidationTracker.Observer("dishes") {
+                @Override
+                public void onInvalidated(Set<String> tables) {
+                    onDishesChanged();
+                }
+            });
+            if (VERBOSE) Log.d(TAG, "onCreate: Database instance obtained.");
             return true;
         } catch (Exception e) {
             Log.e(TAG, "onCreate: Failed to initialize DB", e);
@@ -70,43 +115,118 @@ public class MyContentProvider extends ContentProvider {
                         String selection, String[] selectionArgs,
                         String sortOrder) {
 
-        Log.d(TAG, "query: Incoming URI -> " + uri.toString());
+        if (VERBOSE) Log.d(TAG, "query: Incoming URI -> " + uri);
+
+        int match = uriMatcher.match(uri);
+
+        if (match == METRICS) {
+            // Compact ProviderMetrics snapshot, see ProviderMetrics.toJson
+            MatrixCursor cursor = new MatrixCursor(new String[]{"json"});
+            try {
+                cursor.addRow(new Object[]{ metrics.toJson() });
+            } catch (IOException e) {
+                Log.e(TAG, "query: metrics snapshot failed", e);
+                cursor.addRow(new Object[]{"{}"});
+            }
+            return cursor;
+        }
+
+        if (match == ORDER_ROWS) {
+            // Typed rows of OrderQueries.TODAY_ORDERS, one per order item (or
+            // one per order without items), ordered so each order's rows are
+            // contiguous. The framework ships this cursor to the caller one
+            // CursorWindow at a time instead of as a single JSON cell.
+            ProviderMetrics.Sample m = metrics.begin(Op.QUERY_ORDER_ROWS);
+            try {
+                // The query itself runs as the caller reads the first window,
+                // outside this call; this only times preparing it
+                return db.orderDao().streamTodayOrders();
+            } finally {
+                m.db();
+                metrics.end(m);
+            }
+        }
+
+        if (match == DISHES && uri.getQueryParameter("v") != null) {
+            // Conditional menu fetch: {"version", "body"}, where body is the
+            // UTF-8 JSON, or null when the caller already holds this version
+            return queryDishes(uri.getQueryParameter("v"));
+        }
+
         MatrixCursor cursor = new MatrixCursor(new String[]{"json"});
+        ProviderMetrics.Sample m = null;
 
         try {
-            String jsonResult = "{}";
+            String jsonResult;
 
-            switch (uriMatcher.match(uri)) {
+            switch (match) {
 
                 case ORDERS:
-                    Log.d(TAG, "query: Matched ORDERS. Fetching all orders...");
-                    jsonResult = getOrdersJson();
-                    Log.d(TAG, "query: Orders JSON generated. Length: " + jsonResult.length());
+                    m = metrics.begin(Op.QUERY_ORDERS);
+                    jsonResult = openOrders.ordersJson();
+                    if (jsonResult == null) {
+                        if (openOrdersFailed.compareAndSet(true, false)) reloadOpenOrders();
+                        jsonResult = getOrdersJson(m);
+                    } else {
+                        m.serialize();
+                    }
+                    if (VERBOSE) Log.d(TAG, "query: Orders JSON length " + jsonResult.length());
                     break;
 
                 case DISHES:
-                    Log.d(TAG, "query: Matched DISHES. Fetching menu...");
-                    jsonResult = getDishesJson();
-                    Log.d(TAG, "query: Dishes JSON generated. Length: " + jsonResult.length());
+                    m = metrics.begin(Op.QUERY_DISHES);
+                    jsonResult = menu(m).json;
+                    break;
+
+                case ORDERS_SINCE:
+                    m = metrics.begin(Op.QUERY_ORDERS_SINCE);
+                    // "orders/since/{seq}?day=": the seq and day of the caller's last delta
+                    long since = Long.parseLong(uri.getLastPathSegment());
+                    String day = uri.getQueryParameter("day");
+                    jsonResult = openOrders.ordersSinceJson(since, day);
+                    if (jsonResult == null) {
+                        if (openOrdersFailed.compareAndSet(true, false)) reloadOpenOrders();
+                        jsonResult = getOrdersSinceJson(since, day, m);
+                    } else {
+                        m.serialize();
+                    }
+                    if (VERBOSE) Log.d(TAG, "query: Orders since " + since + " JSON length " + jsonResult.length());
                     break;
 
                 case ORDER_PRINT:
-                    String idStr = uri.getLastPathSegment();
-                    Log.d(TAG, "query: Matched ORDER_PRINT. ID: " + idStr);
-                    int orderId = Integer.parseInt(idStr);
-                    jsonResult = getOrderPrintJson(orderId);
+                    m = metrics.begin(Op.QUERY_PRINT);
+                    int orderId = Integer.parseInt(uri.getLastPathSegment());
+                    jsonResult = getOrderPrintJson(orderId, m);
+                    break;
+
+                case ORDERS_PRINT:
+                    // "orderPrint?ids=3,4,9": the orders as a JSON array in
+                    // id order; ids with no order are left out
+                    String kot = uri.getQueryParameter("kot");
+                    if (kot == null) {
+                        m = metrics.begin(Op.QUERY_PRINT_BATCH);
+                        jsonResult = getOrdersPrintJson(printIds(uri.getQueryParameter("ids")), m);
+                    } else {
+                        m = metrics.begin(Op.QUERY_PRINT_KOT);
+                        jsonResult = printKots(printIds(uri.getQueryParameter("ids")), kot, m);
+                    }
                     break;
 
                 default:
-                    Log.e(TAG, "query: Unknown URI match.");
+                    Log.e(TAG, "query: Unknown URI " + uri);
                     throw new IllegalArgumentException("Unknown URI: " + uri);
             }
 
+            // Characters, which is the UTF-8 size for all but non-ASCII names
+            m.bytes(jsonResult.length());
             cursor.addRow(new Object[]{ jsonResult });
 
         } catch (Exception e){
             Log.e(TAG, "query: EXCEPTION occurred", e);
+            if (m != null) m.failed();
             cursor.addRow(new Object[]{"{}"});
+        } finally {
+            if (m != null) metrics.end(m);
         }
 
         return cursor;
@@ -119,28 +239,36 @@ public class MyContentProvider extends ContentProvider {
     @Override
     public Uri insert(Uri uri, ContentValues values) {
 
-        Log.d(TAG, "insert: Incoming URI -> " + uri.toString());
-
-        try {
-
-            if (uri.getPath().contains("createOrder")) {
-                String tag = values.getAsString("tag");
-                String itemsJson = values.getAsString("items");
-
-                Log.d(TAG, "insert: Creating Order. Tag: " + tag + ", ItemsJSON Length: " + (itemsJson != null ? itemsJson.length() : "null"));
+        if (VERBOSE) Log.d(TAG, "insert: Incoming URI -> " + uri);
 
-                List<OrderItem> items = Arrays.asList(
-                        gson.fromJson(itemsJson, OrderItem[].class)
-                );
+        if (!uri.getPath().contains("createOrder")) {
+            Log.w(TAG, "insert: URI path did not match 'createOrder'.");
+            return uri;
+        }
 
-                createOrder(tag, items);
-                Log.d(TAG, "insert: Order creation logic completed.");
-            } else {
-                Log.w(TAG, "insert: URI path did not match 'createOrder'.");
-            }
+        ProviderMetrics.Sample m = metrics.begin(Op.INSERT_ORDER);
+        try {
+            String tag = values.getAsString("tag");
+            String itemsJson = values.getAsString("items");
+            if (itemsJson != null) m.bytes(itemsJson.length());
+
+            List<OrderItem> items = Arrays.asList(
+                    gson.fromJson(itemsJson, OrderItem[].class)
+            );
+            m.serialize();
+
+            int orderId = createOrder(tag, items);
+            m.db();
+            notifyOrderChanged(orderId);
+            if (VERBOSE) Log.d(TAG, "insert: Created order " + orderId + " (" + tag + ") with " + items.size() + " items");
+            // The new order's URI, so the caller learns its id
+            return orderUri(orderId);
 
         } catch (Exception e){
             Log.e(TAG, "insert: EXCEPTION", e);
+            m.failed();
+        } finally {
+            metrics.end(m);
         }
 
         return uri;
@@ -154,43 +282,102 @@ public class MyContentProvider extends ContentProvider {
     public int update(Uri uri, ContentValues values,
                       String selection, String[] selectionArgs) {
 
-        Log.d(TAG, "update: Incoming URI -> " + uri.toString());
+        if (VERBOSE) Log.d(TAG, "update: Incoming URI -> " + uri);
+        String path = uri.getPath();
+
+        if (path.contains("resetMetrics")) {
+            metrics.reset();
+            return 1;
+        }
+
+        Op op = updateOp(path);
+        if (op == null) return 0;
+
         int result = 0; // Default to 0 (Failure)
+        ProviderMetrics.Sample m = metrics.begin(op);
 
         try {
-            String path = uri.getPath();
-
-            if (path.contains("toggleServed")) {
-                int orderId = values.getAsInteger("orderId");
-                int itemId = values.getAsInteger("itemId");
-                // Store the result (1 or 2)
-                result = toggleServed(orderId, itemId);
-                Log.d(TAG, "update: toggleServed returned state code: " + result);
-
-            } else if (path.contains("togglePayment")) {
-                int orderId = values.getAsInteger("orderId");
-                // Store the result (1 or 2)
-                result = togglePayment(orderId);
-                Log.d(TAG, "update: togglePayment returned state code: " + result);
-
-            } else if (path.contains("closeOrder")) {
-                int orderId = values.getAsInteger("orderId");
-                closeOrder(orderId);
-                result = 1; // Standard success
-
-            } else if (path.contains("cancelOrder")) {
-                int orderId = values.getAsInteger("orderId");
-                cancelOrder(orderId);
-                result = 1; // Standard success
+            switch (op) {
+                case UPDATE_SERVED: {
+                    int orderId = values.getAsInteger("orderId");
+                    int itemId = values.getAsInteger("itemId");
+                    // Store the result (1 or 2)
+                    result = toggleServed(orderId, itemId);
+                    m.db();
+                    if (VERBOSE) Log.d(TAG, "update: toggleServed returned state code: " + result);
+                    if (result != 0) notifyOrderChanged(orderId);
+                    break;
+                }
+                case UPDATE_PAYMENT: {
+                    int orderId = values.getAsInteger("orderId");
+                    // Store the result (1 or 2)
+                    result = togglePayment(orderId);
+                    m.db();
+                    if (VERBOSE) Log.d(TAG, "update: togglePayment returned state code: " + result);
+                    if (result != 0) notifyOrderChanged(orderId);
+                    break;
+                }
+                case UPDATE_CLOSE: {
+                    int orderId = values.getAsInteger("orderId");
+                    closeOrder(orderId);
+                    m.db();
+                    notifyOrderChanged(orderId);
+                    result = 1; // Standard success
+                    break;
+                }
+                case UPDATE_CANCEL: {
+                    int orderId = values.getAsInteger("orderId");
+                    cancelOrder(orderId);
+                    m.db();
+                    notifyOrderChanged(orderId);
+                    result = 1; // Standard success
+                    break;
+                }
+                case UPDATE_REBUILD_ROLLUPS:
+                    Log.i(TAG, "update: Rebuilding analytics rollups from order history");
+                    db.rollupDao().rebuildAll();
+                    m.db();
+                    AnalyticsCache.getInstance().invalidateAll();
+                    result = 1;
+                    break;
+                case UPDATE_CHECK_TOTALS:
+                    // Number of orders repaired, 0 when all were consistent
+                    result = checkOrderTotals();
+                    m.db();
+                    break;
+                case UPDATE_RELEASE_KOT: {
+                    // "kotSeqs": "2,3", the KOTs of the order the counter's
+                    // print queue dropped before they printed
+                    int orderId = values.getAsInteger("orderId");
+                    List<Integer> kotSeqs = printIds(values.getAsString("kotSeqs"));
+                    result = writes.submit(() -> db.orderItemDao().releaseKot(orderId, kotSeqs));
+                    m.db();
+                    break;
+                }
             }
 
         } catch (Exception e){
             Log.e(TAG, "update: EXCEPTION", e);
+            m.failed();
             result = 0;
+        } finally {
+            metrics.end(m);
         }
 
         return result;
     }
+
+    private static Op updateOp(String path) {
+        if (path.contains("toggleServed")) return Op.UPDATE_SERVED;
+        if (path.contains("togglePayment")) return Op.UPDATE_PAYMENT;
+        if (path.contains("closeOrder")) return Op.UPDATE_CLOSE;
+        if (path.contains("cancelOrder")) return Op.UPDATE_CANCEL;
+        if (path.contains("rebuildRollups")) return Op.UPDATE_REBUILD_ROLLUPS;
+        if (path.contains("checkOrderTotals")) return Op.UPDATE_CHECK_TOTALS;
+        if (path.contains("releaseKot")) return Op.UPDATE_RELEASE_KOT;
+        return null;
+    }
+
     // =====================================================
     // DELETE
     // =====================================================
@@ -198,22 +385,26 @@ public class MyContentProvider extends ContentProvider {
     @Override
     public int delete(Uri uri, String selection, String[] selectionArgs) {
 
-        Log.d(TAG, "delete: Incoming URI -> " + uri.toString());
+        if (VERBOSE) Log.d(TAG, "delete: Incoming URI -> " + uri);
 
-        try {
+        if (uriMatcher.match(uri) != DELETE_ITEM) {
+            Log.w(TAG, "delete: URI did not match DELETE_ITEM.");
+            return 1;
+        }
 
-            if (uriMatcher.match(uri) == DELETE_ITEM) {
-                String idStr = uri.getLastPathSegment();
-                Log.d(TAG, "delete: Removing Item ID: " + idStr);
-                int itemId = Integer.parseInt(idStr);
-                db.orderItemDao().deleteItem(itemId);
-                Log.d(TAG, "delete: Item removed successfully.");
-            } else {
-                Log.w(TAG, "delete: URI did not match DELETE_ITEM.");
-            }
+        ProviderMetrics.Sample m = metrics.begin(Op.DELETE_ITEM);
+        try {
+            int itemId = Integer.parseInt(uri.getLastPathSegment());
+            Order order = deleteItem(itemId);
+            m.db();
+            if (order != null) notifyOrderChanged(order.order_id);
+            if (VERBOSE) Log.d(TAG, "delete: Removed item " + itemId);
 
         } catch (Exception e){
             Log.e(TAG, "delete: EXCEPTION", e);
+            m.failed();
+        } finally {
+            metrics.end(m);
         }
 
         return 1;
@@ -223,173 +414,439 @@ public class MyContentProvider extends ContentProvider {
     // JSON BUILDERS
     // =====================================================
 
-    private String getOrdersJson() {
-        Log.d(TAG, "getOrdersJson: Querying DB for today's orders...");
-        List<OrderWithItemsRow> rows = db.orderDao().getTodayOrders();
-        Log.d(TAG, "getOrdersJson: DB returned " + rows.size() + " raw rows.");
-
-        Map<Integer, OrderResponse> map = new LinkedHashMap<>();
-
-        for (OrderWithItemsRow row : rows) {
-            OrderResponse order = map.get(row.order_id);
-            if (order == null) {
-                order = new OrderResponse();
-                order.id = row.order_id;
-                order.tag = row.order_tag;
-                order.createdAt = row.created_at;
-                order.status = row.order_status;
-                order.paymentDone = row.is_payment_done;
-                order.orderTotal = row.order_total;
-                map.put(row.order_id, order);
-            }
+    /**
+     * getCount() runs the query and fills the first cursor window, so that
+     * much is timed as database work; rows past the first window are read
+     * while writing and count as serialization.
+     */
+    private String getOrdersJson(ProviderMetrics.Sample m) throws IOException {
+        try (Cursor c = db.orderDao().streamTodayOrders()) {
+            int rows = c.getCount();
+            m.db();
+            String json = ResponseWriter.writeOrders(new CursorRows(c));
+            m.serialize();
+            if (VERBOSE) Log.d(TAG, "getOrdersJson: " + rows + " rows from SQLite");
+            return json;
+        }
+    }
 
-            if (row.order_item_id != null) {
-                OrderItemResponse item = new OrderItemResponse();
-                item.id = row.order_item_id;
-                item.quantity = row.quantity;
-                item.status = row.item_status;
-                item.name = row.dish_name;
-                item.category = row.category;
-                item.price = row.price;
-                order.items.add(item);
+    /**
+     * Orders changed after {@code since}, see ResponseWriter.writeOrderDelta.
+     * Falls back to the full list when the log no longer reaches back that far,
+     * the caller's seq comes from another database, or the caller's list is
+     * from an earlier day: closed orders leave the list at the rollover
+     * without a change entry. Callers that send no day are not checked.
+     */
+    private String getOrdersSinceJson(long since, String day, ProviderMetrics.Sample m) throws Exception {
+        return readTransaction(() -> {
+            long latest = db.orderChangeDao().latestSeq();
+            long oldest = db.orderChangeDao().oldestSeq();
+            String today = db.orderChangeDao().today();
+            boolean full = since <= 0 || since > latest || oldest > since + 1
+                    || (day != null && !day.equals(today));
+
+            if (full) {
+                try (Cursor c = db.orderDao().streamTodayOrders()) {
+                    c.getCount();
+                    m.db();
+                    String json = ResponseWriter.writeOrderDelta(new CursorRows(c), latest, today, true,
+                            Collections.emptyList());
+                    m.serialize();
+                    return json;
+                }
             }
-        }
 
-        Log.d(TAG, "getOrdersJson: Processed into " + map.size() + " unique orders.");
-        return gson.toJson(new ArrayList<>(map.values()));
+            List<Integer> changed = db.orderChangeDao().changedOrderIds(since);
+            try (Cursor c = db.orderChangeDao().streamTodayOrdersChangedSince(since)) {
+                c.getCount();
+                m.db();
+                if (VERBOSE) Log.d(TAG, "getOrdersSinceJson: " + changed.size() + " changed orders since " + since);
+                String json = ResponseWriter.writeOrderDelta(new CursorRows(c), latest, today, false, changed);
+                m.serialize();
+                return json;
+            }
+        });
     }
 
-    private String getDishesJson() throws Exception {
-        Log.d(TAG, "getDishesJson: Querying all dishes...");
-        List<Dish> dishes = db.dishDao().getAllDishes();
-        Log.d(TAG, "getDishesJson: Found " + dishes.size() + " dishes.");
+    /** Loads openOrders on the read pool; a failure is logged, counted and retried by the next orders query. */
+    private void reloadOpenOrders() {
+        ReadExecutor.getInstance().submit("loadOpenOrders", this::loadOpenOrders)
+                .whenComplete((ignored, e) -> {
+                    if (e == null) return;
+                    Log.e(TAG, "loadOpenOrders: Failed, orders are read from SQLite until a retry", e);
+                    openOrdersFailed.set(true);
+                });
+    }
 
-        Map<String, JSONArray> grouped = new LinkedHashMap<>();
+    private Void loadOpenOrders() throws Exception {
+        ProviderMetrics.Sample m = metrics.begin(Op.LOAD_OPEN_ORDERS);
+        try {
+            return readTransaction(() -> {
+                long seq = db.orderChangeDao().latestSeq();
+                try (Cursor c = db.orderDao().streamTodayOrders()) {
+                    openOrders.load(new CursorRows(c), seq);
+                }
+                m.db();
+                if (VERBOSE) Log.d(TAG, "loadOpenOrders: Loaded open orders as of seq " + seq);
+                return null;
+            });
+        } catch (Exception e) {
+            m.failed();
+            throw e;
+        } finally {
+            metrics.end(m);
+        }
+    }
 
-        for (Dish d : dishes) {
-            if (!grouped.containsKey(d.category))
-                grouped.put(d.category, new JSONArray());
+    /**
+     * Runs {@code read} on one snapshot of the database. From API 35 that is
+     * a deferred read-only transaction on a WAL reader connection, which
+     * neither waits for nor holds up the write queue; before, the platform
+     * only has BEGIN IMMEDIATE, which still takes its turn with the writer.
+     */
+    private <T> T readTransaction(Callable<T> read) throws Exception {
+        SupportSQLiteDatabase sql = db.getOpenHelper().getWritableDatabase();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.VANILLA_ICE_CREAM) {
+            sql.beginTransactionReadOnly();
+        } else {
+            sql.beginTransactionNonExclusive();
+        }
+        try {
+            T result = read.call();
+            sql.setTransactionSuccessful();
+            return result;
+        } finally {
+            sql.endTransaction();
+        }
+    }
 
-            JSONObject j = new JSONObject();
-            j.put("id", d.dish_id);
-            j.put("name", d.dish_name);
-            j.put("price", d.price);
+    private Cursor queryDishes(String knownVersion) {
+        MatrixCursor cursor = new MatrixCursor(new String[]{"version", "body"});
+        ProviderMetrics.Sample m = metrics.begin(Op.QUERY_DISHES);
+        try {
+            MenuSnapshot snap = menu(m);
+            boolean notModified = snap.isVersion(knownVersion);
+            if (VERBOSE) Log.d(TAG, "queryDishes: version " + snap.version + (notModified ? " not modified" : " sent"));
+            m.bytes(notModified ? 0 : snap.utf8.length);
+            cursor.addRow(new Object[]{ snap.version, notModified ? null : snap.utf8 });
+        } catch (Exception e) {
+            Log.e(TAG, "queryDishes: EXCEPTION occurred", e);
+            m.failed();
+        } finally {
+            metrics.end(m);
+        }
+        return cursor;
+    }
 
-            grouped.get(d.category).put(j);
+    private MenuSnapshot menu(ProviderMetrics.Sample m) throws IOException {
+        MenuSnapshot snap = menu;
+        if (snap != null) return snap;
+
+        long generation = menuGeneration.get();
+        if (VERBOSE) Log.d(TAG, "menu: Rebuilding menu snapshot...");
+        try (Cursor c = db.dishDao().streamDishesByCategory()) {
+            c.getCount();
+            m.db();
+            snap = MenuSnapshot.build(new CursorRows(c));
+            m.serialize();
+        }
+        synchronized (menuGeneration) {
+            // A dish write that landed meanwhile must not be hidden behind this copy
+            if (menuGeneration.get() == generation) menu = snap;
         }
+        return snap;
+    }
 
-        JSONObject res = new JSONObject();
-        for (Map.Entry<String, JSONArray> e : grouped.entrySet()) {
-            res.put(e.getKey(), e.getValue());
+    private void onDishesChanged() {
+        synchronized (menuGeneration) {
+            menuGeneration.incrementAndGet();
+            menu = null;
         }
+        // Order JSON carries each dish's category from the dishes table
+        openOrders.reset();
+        reloadOpenOrders();
+        if (VERBOSE) Log.d(TAG, "onDishesChanged: Menu snapshot and open orders invalidated");
+    }
 
-        return res.toString();
+    private String getOrderPrintJson(int orderId, ProviderMetrics.Sample m) throws IOException {
+        try (Cursor c = db.orderDao().streamOrderForPrint(orderId)) {
+            if (c.getCount() == 0) {
+                Log.w(TAG, "getOrderPrintJson: No rows found for Order ID: " + orderId);
+            }
+            m.db();
+            String json = ResponseWriter.writeOrder(new CursorRows(c));
+            m.serialize();
+            return json;
+        }
     }
 
-    private String getOrderPrintJson(int orderId) {
-        Log.d(TAG, "getOrderPrintJson: Fetching order details for ID: " + orderId);
-        List<OrderWithItemsRow> rows = db.orderDao().getOrderForPrint(orderId);
+    private String getOrdersPrintJson(List<Integer> orderIds, ProviderMetrics.Sample m) throws IOException {
+        try (Cursor c = db.orderDao().streamOrdersForPrint(orderIds)) {
+            c.getCount();
+            m.db();
+            String json = ResponseWriter.writeOrders(new CursorRows(c));
+            m.serialize();
+            return json;
+        }
+    }
 
-        if(rows.isEmpty()){
-            Log.w(TAG, "getOrderPrintJson: No rows found for Order ID: " + orderId);
-            return "{}";
+    /**
+     * "orderPrint?ids=..&kot=all|new": the orders for a KOT that is about to
+     * print, recording their unprinted items as sent on the order's next KOT
+     * (see OrderItemDao.claimForKot). "all" is the whole order, as without
+     * "kot"; "new" is only the items this KOT sends, as a ticket for the
+     * items added since the last one, and leaves out orders with none. Each
+     * order this KOT sent items for carries its number as "kotSeq", for the
+     * counter to give back if the ticket never prints; "new" tickets also
+     * have "addOn": true, which is what makes them an add-on KOT.
+     */
+    private String printKots(List<Integer> orderIds, String kot, ProviderMetrics.Sample m) throws Exception {
+        boolean onlyNew;
+        if ("new".equals(kot)) {
+            onlyNew = true;
+        } else if ("all".equals(kot)) {
+            onlyNew = false;
+        } else {
+            throw new IllegalArgumentException("Unknown kot: " + kot);
         }
 
-        Map<Integer, OrderResponse> map = new LinkedHashMap<>();
-
-        for (OrderWithItemsRow row : rows) {
-            OrderResponse order = map.get(row.order_id);
-            if (order == null) {
-                order = new OrderResponse();
-                order.id = row.order_id;
-                order.tag = row.order_tag;
-                order.createdAt = row.created_at;
-                order.status = row.order_status;
-                order.paymentDone = row.is_payment_done;
-                order.orderTotal = row.order_total;
-                map.put(row.order_id, order);
+        // Claimed and read in one transaction, so no item is on two KOTs;
+        // the counter's print queue makes sure a claimed KOT gets printed.
+        // The rows are copied out and written after it commits: the write
+        // queue waits for as long as the transaction is open.
+        ClaimedKots claimed = writes.submit(() -> {
+            Map<Integer, Integer> kotSeqs = new HashMap<>();
+            for (int orderId : orderIds) {
+                int kotSeq = db.orderItemDao().claimForKot(orderId);
+                if (kotSeq > 0) kotSeqs.put(orderId, kotSeq);
+            }
+            if (onlyNew && kotSeqs.isEmpty()) return new ClaimedKots(kotSeqs, null);
+            List<Integer> ids = onlyNew ? new ArrayList<>(kotSeqs.keySet()) : orderIds;
+            try (Cursor c = onlyNew
+                    ? db.orderDao().streamKotDeltaForPrint(ids)
+                    : db.orderDao().streamOrdersForPrint(ids)) {
+                return new ClaimedKots(kotSeqs, copyRows(c));
             }
+        });
+        m.db();
+        if (claimed.rows == null) return "[]";
+        try (Cursor c = claimed.rows) {
+            String json = ResponseWriter.writeOrders(new CursorRows(c), claimed.kotSeqs, onlyNew);
+            m.serialize();
+            return json;
+        }
+    }
+
+    /** The KOT numbers of one printKots batch and its rows, read in the claiming transaction. */
+    private static final class ClaimedKots {
+        final Map<Integer, Integer> kotSeqs;
+        final Cursor rows;
+
+        ClaimedKots(Map<Integer, Integer> kotSeqs, Cursor rows) {
+            this.kotSeqs = kotSeqs;
+            this.rows = rows;
+        }
+    }
 
-            if (row.order_item_id != null) {
-                OrderItemResponse item = new OrderItemResponse();
-                item.id = row.order_item_id;
-                item.quantity = row.quantity;
-                item.status = row.item_status;
-                item.name = row.dish_name;
-                item.category = row.category;
-                item.price = row.price;
-                order.items.add(item);
+    /** Copies the rows of {@code c} into memory, so they outlive its transaction. */
+    private static Cursor copyRows(Cursor c) {
+        MatrixCursor copy = new MatrixCursor(c.getColumnNames(), c.getCount());
+        Object[] row = new Object[c.getColumnCount()];
+        while (c.moveToNext()) {
+            for (int i = 0; i < row.length; i++) {
+                switch (c.getType(i)) {
+                    case Cursor.FIELD_TYPE_NULL: row[i] = null; break;
+                    case Cursor.FIELD_TYPE_INTEGER: row[i] = c.getLong(i); break;
+                    case Cursor.FIELD_TYPE_FLOAT: row[i] = c.getDouble(i); break;
+                    case Cursor.FIELD_TYPE_BLOB: row[i] = c.getBlob(i); break;
+                    default: row[i] = c.getString(i);
+                }
             }
+            copy.addRow(row);
         }
+        return copy;
+    }
 
-        return gson.toJson(map.values().iterator().next());
+    private static List<Integer> printIds(String ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("orderPrint needs ids");
+        }
+        Set<Integer> unique = new LinkedHashSet<>();
+        for (String id : ids.split(",")) {
+            unique.add(Integer.parseInt(id.trim()));
+        }
+        if (unique.size() > MAX_PRINT_BATCH) {
+            throw new IllegalArgumentException("At most " + MAX_PRINT_BATCH + " orders per print batch");
+        }
+        return new ArrayList<>(unique);
     }
 
     // =====================================================
     // DB ACTIONS
     // =====================================================
 
-    private void createOrder(String tag, List<OrderItem> items) {
-        Log.d(TAG, "createOrder: processing DB insert...");
+    private int createOrder(String tag, List<OrderItem> items) throws Exception {
         Order order = new Order();
         order.order_tag = tag;
         SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault());
         order.created_at = sdf.format(new Date());
+        // order_total and item_count start at 0; the order_items triggers add
+        // each item as it is inserted
 
-        long id = db.orderDao().insertOrder(order);
-        Log.d(TAG, "createOrder: Order Header inserted. New ID: " + id);
+        // Header, items and change log commit together, in the same group
+        // transaction as any other write from this burst; no half-written
+        // order after a crash
+        return writes.submit(() -> {
+            int id = (int) db.orderDao().insertOrder(order);
 
-        for (OrderItem i : items) {
-            i.order_id = (int) id;
-            db.orderItemDao().insertItem(i);
-        }
-        Log.d(TAG, "createOrder: " + items.size() + " items inserted.");
+            for (OrderItem i : items) {
+                i.order_id = id;
+            }
+            db.orderItemDao().insertItems(items);
 
-        db.orderDao().recalcOrderTotal((int) id);
-        Log.d(TAG, "createOrder: Total recalculated.");
+            logChange(id);
+            db.orderChangeDao().prune(OrderQueries.RETAINED_CHANGES);
+            return id;
+        });
     }
 
-    private int toggleServed(int orderId, int itemId) {
-        OrderItem item = db.orderItemDao().getOrderItemById(orderId, itemId);
-
-        if(item == null) return 0;
+    private int toggleServed(int orderId, int itemId) throws Exception {
+        return writes.submit(() -> {
+            ItemStatus status = db.orderItemDao().toggleServed(orderId, itemId);
+            if(status == null) return 0;
 
-        // Toggle logic
-        if (item.item_status == ItemStatus.SERVED) {
-            item.item_status = ItemStatus.PENDING;
-        } else {
-            item.item_status = ItemStatus.SERVED;
-        }
+            logChange(orderId);
 
-        db.orderItemDao().updateItemStatus(itemId, item.item_status);
-
-        // Return 1 if SERVED, 2 if PENDING
-        return (item.item_status == ItemStatus.SERVED) ? 1 : 2;
+            // Return 1 if SERVED, 2 if PENDING
+            return (status == ItemStatus.SERVED) ? 1 : 2;
+        });
     }
 
     /**
      * Returns 1 for PAID (True), 2 for UNPAID (False), 0 for Error
      */
-    private int togglePayment(int orderId) {
-        Order o = db.orderDao().getOrderById(orderId);
+    private int togglePayment(int orderId) throws Exception {
+        Order o = writes.submit(() -> {
+            Order order = db.orderDao().togglePayment(orderId);
+            if(order == null) return null;
+
+            logChange(orderId);
+            refreshRollups(order);
+            return order;
+        });
         if(o == null) return 0;
-
-        boolean newVal = !o.is_payment_done;
-        db.orderDao().setIsPayment(newVal, orderId);
+        invalidateAnalytics(o);
 
         // Return 1 if True (Paid), 2 if False (Not Paid)
-        return newVal ? 1 : 2;
+        return o.is_payment_done ? 1 : 2;
+    }
+
+    private void closeOrder(int orderId) throws Exception {
+        if (VERBOSE) Log.d(TAG, "closeOrder: Closing order " + orderId);
+        Order o = writes.submit(() -> {
+            db.orderItemDao().setServed(orderId);
+            db.orderDao().closeOrder(orderId);
+            logChange(orderId);
+            Order order = db.orderDao().getOrderById(orderId);
+            refreshRollups(order);
+            return order;
+        });
+        invalidateAnalytics(o);
+    }
+
+    private void cancelOrder(int orderId) throws Exception {
+        if (VERBOSE) Log.d(TAG, "cancelOrder: Cancelling order " + orderId);
+        Order o = writes.submit(() -> {
+            Order order = db.orderDao().getOrderById(orderId);
+            db.orderDao().cancelOrder(orderId);
+            logChange(orderId);
+            refreshRollups(order);
+            return order;
+        });
+        invalidateAnalytics(o);
+    }
+
+    private Order deleteItem(int itemId) throws Exception {
+        Order o = writes.submit(() -> {
+            Order order = db.orderDao().getOrderForItem(itemId);
+            db.orderItemDao().deleteItem(itemId);
+            if (order != null) logChange(order.order_id);
+            refreshRollups(order);
+            return order;
+        });
+        invalidateAnalytics(o);
+        return o;
+    }
+
+    /**
+     * Compares every order's item_count / order_total with its items and
+     * recomputes the ones that differ, along with their rollup day. The
+     * triggers keep them equal, so any repair points at a write that went
+     * around them.
+     */
+    private int checkOrderTotals() throws Exception {
+        List<Order> repaired = writes.submit(() -> {
+            List<Order> orders = new ArrayList<>();
+            for (OrderTotalsMismatch x : db.orderDao().findTotalsMismatches()) {
+                Log.w(TAG, "checkOrderTotals: Repairing " + x);
+                db.orderDao().recalcOrderTotals(x.order_id);
+                logChange(x.order_id);
+                Order order = db.orderDao().getOrderById(x.order_id);
+                refreshRollups(order);
+                orders.add(order);
+            }
+            return orders;
+        });
+        for (Order o : repaired) {
+            invalidateAnalytics(o);
+            notifyOrderChanged(o.order_id);
+        }
+        Log.i(TAG, "checkOrderTotals: " + repaired.size() + " order(s) repaired");
+        return repaired.size();
     }
 
-    private void closeOrder(int orderId) {
-        Log.d(TAG, "closeOrder: Closing order " + orderId);
-        db.orderItemDao().setServed(orderId);
-        db.orderDao().closeOrder(orderId);
+    /**
+     * Logs the change for the counter's delta sync and, once the write
+     * commits, publishes the order's new state to the open-orders store.
+     * Must run inside the mutation, after the order was changed.
+     */
+    private void logChange(int orderId) throws IOException {
+        long seq = db.orderChangeDao().logChange(orderId);
+        OpenOrderStore.Version version;
+        try (Cursor c = db.orderDao().streamOrderForPrint(orderId)) {
+            version = OpenOrderStore.version(new CursorRows(c), orderId, seq);
+        }
+        writes.afterCommit(() -> openOrders.publish(version));
+    }
+
+    /**
+     * Rollups only hold CLOSED orders, so changes to open orders can skip the
+     * per-day recompute. Must run inside the mutation's transaction.
+     */
+    private void refreshRollups(Order order) {
+        if (order == null || order.order_status != OrderStatus.CLOSED) return;
+        db.rollupDao().refreshDayOf(order.created_at);
+    }
+
+    /**
+     * Drops cached dashboard results that include this order. Runs after the
+     * commit so a concurrent read cannot cache the old numbers again.
+     */
+    private void invalidateAnalytics(Order order) {
+        if (order == null || order.order_status != OrderStatus.CLOSED) return;
+        AnalyticsCache.getInstance().invalidate(order.created_at);
+    }
+
+    /**
+     * Tells observers of "orders" (with descendants) that this order changed.
+     * Called after the write committed, so a reader woken by it sees the change.
+     */
+    private void notifyOrderChanged(int orderId) {
+        getContext().getContentResolver().notifyChange(orderUri(orderId), null);
     }
 
-    private void cancelOrder(int orderId) {
-        Log.d(TAG, "cancelOrder: Cancelling order " + orderId);
-        db.orderDao().cancelOrder(orderId);
+    private static Uri orderUri(int orderId) {
+        return Uri.parse("content://" + AUTHORITY + "/orders/" + orderId);
     }
 
     @Override
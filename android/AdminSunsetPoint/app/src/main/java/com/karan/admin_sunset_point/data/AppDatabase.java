@@ -9,54 +9,97 @@ import androidx.room.Room;
 import androidx.room.RoomDatabase;
 import androidx.sqlite.db.SupportSQLiteDatabase;
 
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
 import com.karan.admin_sunset_point.data.dao.DishDao;
+import com.karan.admin_sunset_point.data.dao.OrderChangeDao;
 import com.karan.admin_sunset_point.data.dao.OrderDao;
 import com.karan.admin_sunset_point.data.dao.OrderItemDao;
+import com.karan.admin_sunset_point.data.dao.OrderTotalsQueries;
+import com.karan.admin_sunset_point.data.dao.RollupDao;
+import com.karan.admin_sunset_point.data.entity.DailyCategorySales;
+import com.karan.admin_sunset_point.data.entity.DailyDishSales;
+import com.karan.admin_sunset_point.data.entity.DailySales;
 import com.karan.admin_sunset_point.data.entity.Dish;
+import com.karan.admin_sunset_point.data.entity.HourlyOrders;
 import com.karan.admin_sunset_point.data.entity.Order;
+import com.karan.admin_sunset_point.data.entity.OrderChange;
 import com.karan.admin_sunset_point.data.entity.OrderItem;
 
-import java.lang.reflect.Type;
-import java.util.List;
 import java.util.concurrent.Executors;
 
 @Database(
         entities = {
                 Dish.class,
                 OrderItem.class,
-                Order.class
+                Order.class,
+                DailySales.class,
+                HourlyOrders.class,
+                DailyDishSales.class,
+                DailyCategorySales.class,
+                OrderChange.class
         },
-        version = 4
+        version = 9
 )
 public abstract class AppDatabase extends RoomDatabase {
 
+    private static final String TAG = "AppDatabase";
+    private static final boolean VERBOSE = Log.isLoggable(TAG, Log.DEBUG);
+
     private static AppDatabase INSTANCE;
 
     public abstract DishDao dishDao();
     public abstract OrderDao orderDao();
     public abstract OrderItemDao orderItemDao();
+    public abstract RollupDao rollupDao();
+    public abstract OrderChangeDao orderChangeDao();
 
     public static synchronized AppDatabase getInstance(Context context) {
+        return getInstance(context, StorageProfile.DEFAULT);
+    }
+
+    /** The profile only takes effect on the call that opens the database. */
+    public static synchronized AppDatabase getInstance(Context context, StorageProfile profile) {
         if (INSTANCE == null) {
             INSTANCE = Room.databaseBuilder(
                     context.getApplicationContext(),
                     AppDatabase.class,
                     "pos_db"
-            ).fallbackToDestructiveMigration(true)
+            ).setJournalMode(profile.writeAheadLog
+                    ? JournalMode.WRITE_AHEAD_LOGGING
+                    : JournalMode.TRUNCATE)
+            .addMigrations(Migrations.ALL)
+            .fallbackToDestructiveMigration(true)
             .addCallback(new RoomDatabase.Callback() {
                 @Override
                 public void onOpen(@NonNull SupportSQLiteDatabase db) {
                     super.onOpen(db);
+                    applyPragmas(db, profile);
+                    createTriggers(db);
                     seedIfNeeded();
                 }
             })
             .build();
+            if (VERBOSE) Log.d(TAG, "Opened with storage profile: " + profile);
         }
         return INSTANCE;
     }
 
+    private static void applyPragmas(SupportSQLiteDatabase db, StorageProfile profile) {
+        // execSQL, not query: queries may run on a pooled reader connection
+        for (String pragma : profile.pragmas()) {
+            db.execSQL(pragma);
+        }
+    }
+
+    // Room has no trigger support, so the schema it creates (fresh install or
+    // after a destructive migration, where Room calls onCreate too) has none.
+    // One place covers every path: onOpen runs after each of them, and IF NOT
+    // EXISTS makes it a no-op once the migration or a previous open made them
+    private static void createTriggers(SupportSQLiteDatabase db) {
+        for (String sql : OrderTotalsQueries.TRIGGERS) {
+            db.execSQL(sql);
+        }
+    }
+
     private static void seedIfNeeded() {
 
         Executors.newSingleThreadExecutor().execute(() -> {
@@ -66,15 +109,7 @@ public abstract class AppDatabase extends RoomDatabase {
                 return;
             }
 
-            String dishSeed = "[{\"dish_name\":\"Tea\",\"category\":\"Hot Beverage\",\"price\":20},{\"dish_name\":\"Green Tea\",\"category\":\"Hot Beverage\",\"price\":30},{\"dish_name\":\"Black Tea\",\"category\":\"Hot Beverage\",\"price\":20},{\"dish_name\":\"Hot Coffee\",\"category\":\"Hot Beverage\",\"price\":30},{\"dish_name\":\"Black Coffee\",\"category\":\"Hot Beverage\",\"price\":25},{\"dish_name\":\"Plain Hot Chocolate\",\"category\":\"Hot Beverage\",\"price\":40},{\"dish_name\":\"Cold Coffee\",\"category\":\"Cold Coffee\",\"price\":50},{\"dish_name\":\"Cold Coffee with Crush\",\"category\":\"Cold Coffee\",\"price\":70},{\"dish_name\":\"Lemon Ice Tea\",\"category\":\"Refresher\",\"price\":50},{\"dish_name\":\"Peach Ice Tea\",\"category\":\"Refresher\",\"price\":50},{\"dish_name\":\"Mint Mojito\",\"category\":\"Refresher\",\"price\":80},{\"dish_name\":\"Green Apple Mojito\",\"category\":\"Refresher\",\"price\":80},{\"dish_name\":\"Blue Berry Smoothie\",\"category\":\"Smoothie\",\"price\":110},{\"dish_name\":\"Strawberry Smoothie\",\"category\":\"Smoothie\",\"price\":110},{\"dish_name\":\"Mango Smoothie\",\"category\":\"Smoothie\",\"price\":110},{\"dish_name\":\"Oreo Smoothie\",\"category\":\"Smoothie\",\"price\":120},{\"dish_name\":\"Dark Chocolate Smoothie\",\"category\":\"Smoothie\",\"price\":130},{\"dish_name\":\"Kit Kat Shake\",\"category\":\"Shake\",\"price\":110},{\"dish_name\":\"Java Choco Chip Shake\",\"category\":\"Shake\",\"price\":120},{\"dish_name\":\"Brownie Shake\",\"category\":\"Shake\",\"price\":130},{\"dish_name\":\"Nutella Shake\",\"category\":\"Shake\",\"price\":140},{\"dish_name\":\"Oreo Shake\",\"category\":\"Shake\",\"price\":100},{\"dish_name\":\"Butter Scotch Shake\",\"category\":\"Shake\",\"price\":100},{\"dish_name\":\"Rose Shake\",\"category\":\"Shake\",\"price\":90},{\"dish_name\":\"Green Chatni Sandwich\",\"category\":\"Sandwich\",\"price\":60},{\"dish_name\":\"Triple Cheese Sandwich\",\"category\":\"Sandwich\",\"price\":80},{\"dish_name\":\"Chocolate Sandwich\",\"category\":\"Sandwich\",\"price\":80},{\"dish_name\":\"Bombay Masala Sandwich\",\"category\":\"Sandwich\",\"price\":80},{\"dish_name\":\"Classic Club Sandwich\",\"category\":\"Sandwich\",\"price\":100},{\"dish_name\":\"Paneer Sandwich\",\"category\":\"Sandwich\",\"price\":120},{\"dish_name\":\"Mexican Sandwich\",\"category\":\"Sandwich\",\"price\":130},{\"dish_name\":\"Cheese Corn Sandwich\",\"category\":\"Sandwich\",\"price\":110},{\"dish_name\":\"Extra Spicy Sandwich\",\"category\":\"Sandwich\",\"price\":120},{\"dish_name\":\"Plain Maggi\",\"category\":\"Maggi\",\"price\":50},{\"dish_name\":\"Masala Maggi\",\"category\":\"Maggi\",\"price\":60},{\"dish_name\":\"Cheese Masala Maggi\",\"category\":\"Maggi\",\"price\":70},{\"dish_name\":\"Italian Maggi\",\"category\":\"Maggi\",\"price\":90},{\"dish_name\":\"Peri Peri Cheese Maggi\",\"category\":\"Maggi\",\"price\":80},{\"dish_name\":\"Cheese Corn Maggi\",\"category\":\"Maggi\",\"price\":80},{\"dish_name\":\"Alfredo Pasta (White)\",\"category\":\"Pasta\",\"price\":160},{\"dish_name\":\"Arrabiata Pasta (Red)\",\"category\":\"Pasta\",\"price\":160},{\"dish_name\":\"Pink Pasta (Red + White)\",\"category\":\"Pasta\",\"price\":180},{\"dish_name\":\"Indian Pasta (All Veggies)\",\"category\":\"Pasta\",\"price\":120},{\"dish_name\":\"Salted Fries\",\"category\":\"Fries\",\"price\":60},{\"dish_name\":\"Peri Peri Fries\",\"category\":\"Fries\",\"price\":80},{\"dish_name\":\"Cheese Peri Peri Fries\",\"category\":\"Fries\",\"price\":100},{\"dish_name\":\"Chipotle Fries\",\"category\":\"Fries\",\"price\":120},{\"dish_name\":\"Cheese Corn Balls (6 pcs)\",\"category\":\"Fries\",\"price\":120},{\"dish_name\":\"Margarita Pizza\",\"category\":\"Pizza\",\"price\":100},{\"dish_name\":\"Cheese Chilli Toast\",\"category\":\"Pizza\",\"price\":80},{\"dish_name\":\"Cheese Burst Pizza\",\"category\":\"Pizza\",\"price\":100},{\"dish_name\":\"Corn Cheese Pizza\",\"category\":\"Pizza\",\"price\":110},{\"dish_name\":\"Mexican Cheese Pizza\",\"category\":\"Pizza\",\"price\":140},{\"dish_name\":\"Tandoori Paneer Pizza\",\"category\":\"Pizza\",\"price\":150},{\"dish_name\":\"Mix Veg Cheese Pizza\",\"category\":\"Pizza\",\"price\":160},{\"dish_name\":\"Pasta Pizza\",\"category\":\"Pizza\",\"price\":180},{\"dish_name\":\"Special Pizza\",\"category\":\"Pizza\",\"price\":200},{\"dish_name\":\"Crispy Veg Burger\",\"category\":\"Burger\",\"price\":80},{\"dish_name\":\"Crispy Veg Cheese Burger\",\"category\":\"Burger\",\"price\":100},{\"dish_name\":\"Crispy Veg Schezwan Burger\",\"category\":\"Burger\",\"price\":100},{\"dish_name\":\"Crispy Paneer Burger\",\"category\":\"Burger\",\"price\":120},{\"dish_name\":\"Crispy Paneer Cheese Burger\",\"category\":\"Burger\",\"price\":130},{\"dish_name\":\"Crispy Paneer Schezwan Burger\",\"category\":\"Burger\",\"price\":140},{\"dish_name\":\"Crispy Paneer Chipotle Burger\",\"category\":\"Burger\",\"price\":150},{\"dish_name\":\"Crispy Paneer + Veg Burger\",\"category\":\"Burger\",\"price\":200},{\"dish_name\":\"Crispy Double Decker Burger\",\"category\":\"Burger\",\"price\":190},{\"dish_name\":\"Veg Steam Momo\",\"category\":\"Momo\",\"price\":80},{\"dish_name\":\"Paneer Steam Momo\",\"category\":\"Momo\",\"price\":90},{\"dish_name\":\"Veg Fried Momo\",\"category\":\"Momo\",\"price\":90},{\"dish_name\":\"Paneer Fried Momo\",\"category\":\"Momo\",\"price\":100},{\"dish_name\":\"Veg Tandoori Momo\",\"category\":\"Momo\",\"price\":120},{\"dish_name\":\"Paneer Tandoori Momo\",\"category\":\"Momo\",\"price\":130},{\"dish_name\":\"Veg Mexican Momo\",\"category\":\"Momo\",\"price\":150},{\"dish_name\":\"Paneer Mexican Momo\",\"category\":\"Momo\",\"price\":160},{\"dish_name\":\"Veg + Paneer Steam Momo\",\"category\":\"Momo\",\"price\":100},{\"dish_name\":\"Veg + Paneer Fried Momo\",\"category\":\"Momo\",\"price\":120},{\"dish_name\":\"Cheese\",\"category\":\"Extra\",\"price\":30},{\"dish_name\":\"Water Bottle\",\"category\":\"Misc\",\"price\":20},{\"dish_name\":\"Cigarettes\",\"category\":\"Misc\",\"price\":25}]";
-
-            Gson gson = new Gson();
-
-            Type listType = new TypeToken<List<Dish>>() {}.getType();
-            List<Dish> dishes = gson.fromJson(dishSeed, listType);
-
-            for (Dish dish : dishes) {
-                dish.price*=100;
+            for (Dish dish : MenuSeed.dishes()) {
                 Log.d("dishName", dish.dish_name);
                 db.dishDao().insertDish(dish);
             }
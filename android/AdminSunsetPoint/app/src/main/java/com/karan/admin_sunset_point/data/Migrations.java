@@ -0,0 +1,128 @@
+package com.karan.admin_sunset_point.data;
+
+import androidx.annotation.NonNull;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import com.karan.admin_sunset_point.data.dao.OrderTotalsQueries;
+import com.karan.admin_sunset_point.data.dao.RollupQueries;
+
+/**
+ * Hand written schema migrations. Order history must survive app updates, so
+ * schema changes from version 4 onwards go through here instead of the
+ * destructive fallback.
+ */
+public final class Migrations {
+
+    private Migrations() {}
+
+    /** Composite / covering indexes for the analytics range queries. */
+    public static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("DROP INDEX IF EXISTS `index_order_items_order_id`");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_orders_status_payment_created_total` " +
+                    "ON `orders` (`order_status`, `is_payment_done`, `created_at`, `order_total`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_orders_created_at` " +
+                    "ON `orders` (`created_at`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_order_items_order_status_dish` " +
+                    "ON `order_items` (`order_id`, `item_status`, `dish_id`, `quantity`, `price_snapshot`)");
+            db.execSQL("ANALYZE");
+        }
+    };
+
+    /** Analytics rollup tables, backfilled from the existing order history. */
+    public static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `daily_sales` (" +
+                    "`day` TEXT NOT NULL, " +
+                    "`total_revenue` INTEGER NOT NULL, " +
+                    "`total_orders` INTEGER NOT NULL, " +
+                    "`total_items` INTEGER NOT NULL, " +
+                    "`size_1` INTEGER NOT NULL, " +
+                    "`size_2` INTEGER NOT NULL, " +
+                    "`size_3_4` INTEGER NOT NULL, " +
+                    "`size_5_plus` INTEGER NOT NULL, " +
+                    "PRIMARY KEY(`day`))");
+            db.execSQL("CREATE TABLE IF NOT EXISTS `hourly_orders` (" +
+                    "`day` TEXT NOT NULL, " +
+                    "`hour` INTEGER NOT NULL, " +
+                    "`orders` INTEGER NOT NULL, " +
+                    "PRIMARY KEY(`day`, `hour`))");
+            db.execSQL("CREATE TABLE IF NOT EXISTS `daily_dish_sales` (" +
+                    "`day` TEXT NOT NULL, " +
+                    "`dish_id` INTEGER NOT NULL, " +
+                    "`dish_name` TEXT NOT NULL, " +
+                    "`quantity` INTEGER NOT NULL, " +
+                    "`revenue` INTEGER NOT NULL, " +
+                    "PRIMARY KEY(`day`, `dish_id`, `dish_name`))");
+            db.execSQL("CREATE TABLE IF NOT EXISTS `daily_category_sales` (" +
+                    "`day` TEXT NOT NULL, " +
+                    "`category` TEXT NOT NULL, " +
+                    "`quantity` INTEGER NOT NULL, " +
+                    "`sales` INTEGER NOT NULL, " +
+                    "PRIMARY KEY(`day`, `category`))");
+
+            Object[] allDays = {RollupQueries.ALL_FROM, RollupQueries.ALL_TO};
+            for (String sql : RollupQueries.REBUILD) {
+                db.execSQL(sql, allDays);
+            }
+        }
+    };
+
+    /** Change log the counter uses to sync only what changed. */
+    public static final Migration MIGRATION_6_7 = new Migration(6, 7) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `order_changes` (" +
+                    "`seq` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                    "`order_id` INTEGER NOT NULL)");
+        }
+    };
+
+    /**
+     * Per-order item count and an order_total that leaves out cancelled
+     * items, both kept by triggers. The covering index gains item_count, and
+     * the rollups are rebuilt since their revenue comes from order_total.
+     */
+    public static final Migration MIGRATION_7_8 = new Migration(7, 8) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `orders` ADD COLUMN `item_count` INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("DROP INDEX IF EXISTS `index_orders_status_payment_created_total`");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_orders_status_payment_created_total_items` " +
+                    "ON `orders` (`order_status`, `is_payment_done`, `created_at`, `order_total`, `item_count`)");
+            db.execSQL(OrderTotalsQueries.RECOMPUTE_ALL);
+            for (String sql : OrderTotalsQueries.TRIGGERS) {
+                db.execSQL(sql);
+            }
+
+            Object[] allDays = {RollupQueries.ALL_FROM, RollupQueries.ALL_TO};
+            for (String sql : RollupQueries.REBUILD) {
+                db.execSQL(sql, allDays);
+            }
+        }
+    };
+
+    /**
+     * Which KOT sent each item to the kitchen, for KOTs of only the items
+     * added since the last one. Items already in the database count as
+     * printed on the order's first KOT.
+     */
+    public static final Migration MIGRATION_8_9 = new Migration(8, 9) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `order_items` ADD COLUMN `kot_seq` INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("UPDATE `order_items` SET `kot_seq` = 1 WHERE `item_status` != 'CANCELLED'");
+        }
+    };
+
+    public static final Migration[] ALL = {
+            MIGRATION_4_5,
+            MIGRATION_5_6,
+            MIGRATION_6_7,
+            MIGRATION_7_8,
+            MIGRATION_8_9
+    };
+}
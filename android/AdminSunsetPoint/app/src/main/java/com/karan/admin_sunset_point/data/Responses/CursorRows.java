@@ -0,0 +1,48 @@
+package com.karan.admin_sunset_point.data.Responses;
+
+import android.database.CharArrayBuffer;
+import android.database.Cursor;
+
+/** Feeds a Room cursor to {@link ResponseWriter}. */
+public final class CursorRows implements ResponseWriter.Rows {
+
+    private final Cursor cursor;
+    // Target of copyStringToBuffer; grows to the longest value read
+    private final CharArrayBuffer chars = new CharArrayBuffer(64);
+
+    public CursorRows(Cursor cursor) {
+        this.cursor = cursor;
+    }
+
+    @Override
+    public boolean moveToNext() {
+        return cursor.moveToNext();
+    }
+
+    @Override
+    public int getColumnIndexOrThrow(String column) {
+        return cursor.getColumnIndexOrThrow(column);
+    }
+
+    @Override
+    public boolean isNull(int column) {
+        return cursor.isNull(column);
+    }
+
+    @Override
+    public int getInt(int column) {
+        return cursor.getInt(column);
+    }
+
+    @Override
+    public String getString(int column) {
+        return cursor.getString(column);
+    }
+
+    @Override
+    public String getPooledString(int column, StringPool pool) {
+        if (cursor.isNull(column)) return null;
+        cursor.copyStringToBuffer(column, chars);
+        return pool.intern(chars.data, chars.sizeCopied);
+    }
+}
@@ -0,0 +1,387 @@
+package com.karan.admin_sunset_point.data.Responses;
+
+import com.google.gson.stream.JsonWriter;
+import com.karan.admin_sunset_point.data.entity.Dish;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes provider payloads straight from query rows with a {@link JsonWriter},
+ * without building OrderResponse objects first. The output is what Gson
+ * produces for the equivalent {@link OrderResponse} list.
+ *
+ * Each thread reuses one character buffer, so serializing a busy day only
+ * allocates the final String. Rows arrive ordered by order_id, so orders are
+ * grouped by watching the id change, with no map or per-row objects; status,
+ * dish name and category come from a per-thread StringPool.
+ */
+public final class ResponseWriter {
+
+    /** The subset of a cursor the writer needs. See CursorRows. */
+    public interface Rows {
+        boolean moveToNext();
+        int getColumnIndexOrThrow(String column);
+        boolean isNull(int column);
+        int getInt(int column);
+        String getString(int column);
+
+        /**
+         * The column's text as the {@code pool}'s String, or null. Used for
+         * columns that repeat a few values across rows; CursorRows copies
+         * the chars out of the window instead of allocating a String per cell.
+         */
+        default String getPooledString(int column, StringPool pool) {
+            return pool.intern(getString(column));
+        }
+    }
+
+    /**
+     * Largest builder capacity a thread keeps between calls (512 KB). The
+     * builder doubles as it grows, so one that outgrew this but whose output
+     * still fits is swapped for one sized to that output: a busy day just past
+     * a power of two must not regrow on every call.
+     */
+    private static final int MAX_RETAINED_CHARS = 256 * 1024;
+    /** Room for a large menu's dish names and categories plus the statuses. */
+    private static final int POOLED_STRINGS = 512;
+
+    private static final ThreadLocal<Buffer> BUFFER = ThreadLocal.withInitial(Buffer::new);
+    private static final ThreadLocal<StringPool> STRINGS =
+            ThreadLocal.withInitial(() -> new StringPool(POOLED_STRINGS));
+
+    private ResponseWriter() {}
+
+    /**
+     * Writes the rows of OrderQueries.TODAY_ORDERS as a JSON array of orders.
+     * Rows of one order must be contiguous.
+     */
+    public static String writeOrders(Rows rows) throws IOException {
+        return writeOrders(rows, null, false);
+    }
+
+    /**
+     * Like {@link #writeOrders(Rows)}, with each order whose id is in
+     * {@code kotSeqs} also carrying its value as "kotSeq", the number of the
+     * KOT being printed for it, and, if the rows are only that KOT's items,
+     * "addOn": true. See MyContentProvider.printKots.
+     */
+    public static String writeOrders(Rows rows, Map<Integer, Integer> kotSeqs, boolean addOn)
+            throws IOException {
+        Buffer buffer = acquire();
+        JsonWriter json = newWriter(buffer, true);
+        writeOrderArray(json, rows, null, kotSeqs, addOn);
+        json.flush();
+        return release(buffer);
+    }
+
+    /**
+     * Writes a delta for the counter:
+     * {"seq": n, "day": "yyyy-MM-dd", "full": bool, "orders": [...], "removed": [ids]}.
+     * {@code rows} are the changed orders still in today's list; every id in
+     * {@code changedIds} that has no rows there is reported as removed.
+     * A full response replaces the caller's list and has no removals.
+     * {@code day} is the list's day, which the caller sends back with its seq.
+     */
+    public static String writeOrderDelta(Rows rows, long seq, String day, boolean full,
+                                         Collection<Integer> changedIds) throws IOException {
+        Buffer buffer = acquire();
+        JsonWriter json = newWriter(buffer, true);
+        Set<Integer> written = new HashSet<>();
+
+        json.beginObject();
+        json.name("seq").value(seq);
+        json.name("day").value(day);
+        json.name("full").value(full);
+        json.name("orders");
+        writeOrderArray(json, rows, written, null, false);
+        json.name("removed").beginArray();
+        if (!full) {
+            for (Integer id : changedIds) {
+                if (!written.contains(id)) json.value(id);
+            }
+        }
+        json.endArray();
+        json.endObject();
+        json.flush();
+        return release(buffer);
+    }
+
+    private static void writeOrderArray(JsonWriter json, Rows rows, Set<Integer> written,
+                                        Map<Integer, Integer> kotSeqs, boolean addOn) throws IOException {
+        OrderColumns c = new OrderColumns(rows, STRINGS.get());
+        c.kotSeqs = kotSeqs;
+        c.addOn = addOn;
+
+        json.beginArray();
+        int current = 0;
+        boolean open = false;
+        while (rows.moveToNext()) {
+            int orderId = rows.getInt(c.orderId);
+            if (!open || orderId != current) {
+                if (open) endOrder(json, c);
+                beginOrder(json, rows, c);
+                if (written != null) written.add(orderId);
+                current = orderId;
+                open = true;
+            }
+            writeItem(json, rows, c);
+        }
+        if (open) endOrder(json, c);
+        json.endArray();
+    }
+
+    /** Receives each order of {@link #writeEachOrder} as its own JSON object. */
+    public interface OrderSink {
+        void accept(int orderId, String createdAt, String status, String json);
+    }
+
+    /**
+     * Like {@link #writeOrders}, but hands every order to {@code sink} as a
+     * separate JSON object, byte for byte what the array would contain.
+     */
+    public static void writeEachOrder(Rows rows, OrderSink sink) throws IOException {
+        Buffer buffer = acquire();
+        OrderColumns c = new OrderColumns(rows, STRINGS.get());
+        JsonWriter json = null;
+        boolean open = false;
+        while (rows.moveToNext()) {
+            int orderId = rows.getInt(c.orderId);
+            if (!open || orderId != c.id) {
+                if (open) emitOrder(json, c, buffer, sink);
+                json = newWriter(buffer, true);
+                beginOrder(json, rows, c);
+                open = true;
+            }
+            writeItem(json, rows, c);
+        }
+        if (open) emitOrder(json, c, buffer, sink);
+        release(buffer);
+    }
+
+    private static void emitOrder(JsonWriter json, OrderColumns c, Buffer buffer,
+                                  OrderSink sink) throws IOException {
+        endOrder(json, c);
+        json.flush();
+        sink.accept(c.id, c.createdAt, c.status, buffer.chars.toString());
+        buffer.chars.setLength(0);
+    }
+
+    /** Writes the rows of OrderQueries.ORDER_FOR_PRINT as one order, or "{}". */
+    public static String writeOrder(Rows rows) throws IOException {
+        Buffer buffer = acquire();
+        JsonWriter json = newWriter(buffer, true);
+        OrderColumns c = new OrderColumns(rows, STRINGS.get());
+
+        if (!rows.moveToNext()) {
+            release(buffer);
+            return "{}";
+        }
+        beginOrder(json, rows, c);
+        do {
+            writeItem(json, rows, c);
+        } while (rows.moveToNext());
+        endOrder(json, c);
+        json.flush();
+        return release(buffer);
+    }
+
+    /**
+     * Writes the menu as {"category": [{"id", "name", "price"}, ...], ...}.
+     * Rows of one category must be contiguous, see DishDao.streamDishesByCategory.
+     */
+    public static String writeDishes(Rows rows) throws IOException {
+        return writeDishes(groupDishes(rows));
+    }
+
+    /** Writes dishes already grouped by category, in the map's iteration order. */
+    public static String writeDishes(Map<String, List<Dish>> byCategory) throws IOException {
+        Buffer buffer = acquire();
+        JsonWriter json = newWriter(buffer, false);
+        json.beginObject();
+        for (Map.Entry<String, List<Dish>> category : byCategory.entrySet()) {
+            json.name(category.getKey()).beginArray();
+            for (Dish dish : category.getValue()) {
+                json.beginObject();
+                json.name("id").value(dish.dish_id);
+                json.name("name").value(dish.dish_name);
+                json.name("price").value(dish.price);
+                json.endObject();
+            }
+            json.endArray();
+        }
+        json.endObject();
+        json.flush();
+        return release(buffer);
+    }
+
+    /** Groups the rows of DishDao.streamDishesByCategory, keeping their order. */
+    public static Map<String, List<Dish>> groupDishes(Rows rows) {
+        int id = rows.getColumnIndexOrThrow("dish_id");
+        int name = rows.getColumnIndexOrThrow("dish_name");
+        int category = rows.getColumnIndexOrThrow("category");
+        int price = rows.getColumnIndexOrThrow("price");
+
+        Map<String, List<Dish>> byCategory = new LinkedHashMap<>();
+        while (rows.moveToNext()) {
+            Dish dish = new Dish();
+            dish.dish_id = rows.getInt(id);
+            dish.dish_name = rows.getString(name);
+            dish.category = rows.getString(category);
+            dish.price = rows.getInt(price);
+            byCategory.computeIfAbsent(dish.category, k -> new ArrayList<>()).add(dish);
+        }
+        return byCategory;
+    }
+
+    // Field order follows OrderResponse, which is what Gson used to emit
+    private static void beginOrder(JsonWriter json, Rows rows, OrderColumns c) throws IOException {
+        c.id = rows.getInt(c.orderId);
+        json.beginObject();
+        json.name("id").value(c.id);
+        json.name("items").beginArray();
+        c.tag = rows.isNull(c.orderTag) ? null : rows.getString(c.orderTag);
+        c.createdAt = rows.isNull(c.createdAtColumn) ? null : rows.getString(c.createdAtColumn);
+        c.status = rows.getPooledString(c.orderStatus, c.strings);
+        c.paymentDone = rows.getInt(c.isPaymentDone) != 0;
+        c.total = rows.getInt(c.orderTotal);
+    }
+
+    // Gson writes these after the items; the values were kept from the first row
+    private static void endOrder(JsonWriter json, OrderColumns c) throws IOException {
+        json.endArray();
+        json.name("tag").value(c.tag);
+        json.name("createdAt").value(c.createdAt);
+        json.name("status").value(c.status);
+        json.name("paymentDone").value(c.paymentDone);
+        json.name("orderTotal").value(c.total);
+        Integer kotSeq = c.kotSeqs == null ? null : c.kotSeqs.get(c.id);
+        if (kotSeq != null) {
+            json.name("kotSeq").value(kotSeq);
+            if (c.addOn) json.name("addOn").value(true);
+        }
+        json.endObject();
+    }
+
+    private static void writeItem(JsonWriter json, Rows rows, OrderColumns c) throws IOException {
+        if (rows.isNull(c.orderItemId)) return;
+        json.beginObject();
+        json.name("id").value(rows.getInt(c.orderItemId));
+        json.name("quantity").value(rows.getInt(c.quantity));
+        json.name("status").value(rows.getPooledString(c.itemStatus, c.strings));
+        json.name("name").value(rows.getPooledString(c.dishName, c.strings));
+        json.name("category").value(rows.getPooledString(c.category, c.strings));
+        json.name("price").value(rows.getInt(c.price));
+        json.endObject();
+    }
+
+    private static JsonWriter newWriter(Buffer buffer, boolean htmlSafe) {
+        JsonWriter json = new JsonWriter(buffer);
+        // Gson.toJson escapes HTML characters by default; keep the bytes identical
+        json.setHtmlSafe(htmlSafe);
+        json.setSerializeNulls(false);
+        return json;
+    }
+
+    private static Buffer acquire() {
+        Buffer buffer = BUFFER.get();
+        buffer.chars.setLength(0);
+        return buffer;
+    }
+
+    private static String release(Buffer buffer) {
+        String out = buffer.chars.toString();
+        if (buffer.chars.capacity() <= MAX_RETAINED_CHARS) {
+            buffer.chars.setLength(0);
+        } else if (out.length() <= MAX_RETAINED_CHARS) {
+            BUFFER.set(new Buffer(out.length()));
+        } else {
+            BUFFER.remove();
+        }
+        return out;
+    }
+
+    /** Column positions plus the order-level values of the order being written. */
+    private static final class OrderColumns {
+        final int orderId;
+        final int orderTag;
+        final int createdAtColumn;
+        final int orderStatus;
+        final int isPaymentDone;
+        final int orderTotal;
+        final int orderItemId;
+        final int quantity;
+        final int itemStatus;
+        final int price;
+        final int dishName;
+        final int category;
+        final StringPool strings;
+        // Only for KOTs being printed, see writeOrders
+        Map<Integer, Integer> kotSeqs;
+        boolean addOn;
+
+        int id;
+        String tag;
+        String createdAt;
+        String status;
+        boolean paymentDone;
+        int total;
+
+        OrderColumns(Rows rows, StringPool strings) {
+            this.strings = strings;
+            orderId = rows.getColumnIndexOrThrow("order_id");
+            orderTag = rows.getColumnIndexOrThrow("order_tag");
+            createdAtColumn = rows.getColumnIndexOrThrow("created_at");
+            orderStatus = rows.getColumnIndexOrThrow("order_status");
+            isPaymentDone = rows.getColumnIndexOrThrow("is_payment_done");
+            orderTotal = rows.getColumnIndexOrThrow("order_total");
+            orderItemId = rows.getColumnIndexOrThrow("order_item_id");
+            quantity = rows.getColumnIndexOrThrow("quantity");
+            itemStatus = rows.getColumnIndexOrThrow("item_status");
+            price = rows.getColumnIndexOrThrow("price");
+            dishName = rows.getColumnIndexOrThrow("dish_name");
+            category = rows.getColumnIndexOrThrow("category");
+        }
+    }
+
+    /** Unsynchronized Writer over a reusable StringBuilder. */
+    private static final class Buffer extends Writer {
+        final StringBuilder chars;
+
+        Buffer() {
+            this(8 * 1024);
+        }
+
+        Buffer(int capacity) {
+            chars = new StringBuilder(capacity);
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            chars.append(cbuf, off, len);
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            chars.append(str, off, off + len);
+        }
+
+        @Override
+        public void write(int c) {
+            chars.append((char) c);
+        }
+
+        @Override
+        public void flush() {}
+
+        @Override
+        public void close() {}
+    }
+}
@@ -0,0 +1,80 @@
+package com.karan.admin_sunset_point.data.Responses;
+
+import java.util.Arrays;
+
+/**
+ * Canonical Strings for columns that repeat a handful of values across rows:
+ * item status, dish name, category. Looking up the chars copied out of a
+ * cursor window returns the String made the first time, so a repeated value
+ * costs no allocation.
+ *
+ * Open addressing over a fixed table. When it fills up (a renamed menu, say)
+ * it starts over instead of growing. Not thread-safe; ResponseWriter keeps
+ * one per thread.
+ */
+public final class StringPool {
+
+    private final String[] table;
+    private final int limit;
+    private int size;
+
+    /** @param capacity distinct values kept before the pool starts over */
+    public StringPool(int capacity) {
+        int slots = Integer.highestOneBit(Math.max(capacity, 4) * 2 - 1) * 2;
+        table = new String[slots];
+        limit = capacity;
+    }
+
+    /** The pooled String equal to {@code chars[0, length)}. */
+    public String intern(char[] chars, int length) {
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        int mask = table.length - 1;
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            String s = table[slot];
+            if (s == null) return add(slot, new String(chars, 0, length));
+            if (s.hashCode() == hash && contentEquals(s, chars, length)) return s;
+        }
+    }
+
+    /** The pooled String equal to {@code value}, or null. */
+    public String intern(String value) {
+        if (value == null) return null;
+        int hash = value.hashCode();
+        int mask = table.length - 1;
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            String s = table[slot];
+            if (s == null) return add(slot, value);
+            if (s.hashCode() == hash && s.equals(value)) return s;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private String add(int slot, String value) {
+        if (size == limit) {
+            Arrays.fill(table, null);
+            size = 0;
+            slot = spread(value.hashCode()) & (table.length - 1);
+        }
+        table[slot] = value;
+        size++;
+        return value;
+    }
+
+    private static boolean contentEquals(String s, char[] chars, int length) {
+        if (s.length() != length) return false;
+        for (int i = 0; i < length; i++) {
+            if (s.charAt(i) != chars[i]) return false;
+        }
+        return true;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
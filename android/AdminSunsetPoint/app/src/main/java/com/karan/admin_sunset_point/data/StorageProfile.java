@@ -0,0 +1,59 @@
+package com.karan.admin_sunset_point.data;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * SQLite settings {@link AppDatabase} opens with.
+ *
+ * {@link #DEFAULT} runs in WAL mode: the counter's writes through the
+ * provider append to the log while dashboard reads keep reading the last
+ * committed snapshot, so neither waits for the other. With WAL on, the
+ * framework also gives Room a pool of reader connections next to the single
+ * writer (its size is a platform setting, typically 4). The pool is what
+ * lets ReadExecutor's threads run at the same time.
+ *
+ * synchronous=NORMAL skips the fsync on every commit and syncs at
+ * checkpoints instead. A power cut can lose the last few commits, but it
+ * never corrupts the file.
+ *
+ * Per-connection settings such as mmap_size or cache_size are left out on
+ * purpose: the framework opens the pool's reader connections itself and
+ * offers no hook to configure them, so they would only reach the writer.
+ */
+public final class StorageProfile {
+
+    /** WAL, synchronous=NORMAL. */
+    public static final StorageProfile DEFAULT = new StorageProfile(true, "NORMAL");
+
+    /** What the database used before profiles: rollback journal, full sync. */
+    public static final StorageProfile LEGACY = new StorageProfile(false, "FULL");
+
+    public final boolean writeAheadLog;
+    public final String synchronous;
+
+    public StorageProfile(boolean writeAheadLog, @NonNull String synchronous) {
+        this.writeAheadLog = writeAheadLog;
+        this.synchronous = synchronous;
+    }
+
+    /**
+     * Settings for the writer connection, the only one synchronous matters
+     * for. Applied from {@code onOpen} with execSQL, which runs on the writer.
+     */
+    public List<String> pragmas() {
+        List<String> pragmas = new ArrayList<>();
+        pragmas.add("PRAGMA synchronous = " + synchronous);
+        return Collections.unmodifiableList(pragmas);
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return (writeAheadLog ? "WAL" : "TRUNCATE") +
+                ", synchronous=" + synchronous;
+    }
+}
@@ -1,5 +1,7 @@
 package com.karan.admin_sunset_point.data.dao;
 
+import android.database.Cursor;
+
 import androidx.room.Dao;
 import androidx.room.Delete;
 import androidx.room.Insert;
@@ -25,6 +27,10 @@ public interface DishDao {
     @Query("SELECT * FROM dishes ORDER BY dish_id ASC")
     List<Dish> getAllDishes();
 
+    /** See DishQueries.DISHES_BY_CATEGORY. */
+    @Query(DishQueries.DISHES_BY_CATEGORY)
+    Cursor streamDishesByCategory();
+
     @Query("SELECT * FROM dishes WHERE category = :category")
     List<Dish> getDishesByCategory(String category);
 
@@ -0,0 +1,20 @@
+package com.karan.admin_sunset_point.data.dao;
+
+/**
+ * SQL used by {@link DishDao}, as plain constants like {@link OrderQueries} so
+ * the JVM tests and benchmarks run the same text without going through Room.
+ */
+public final class DishQueries {
+
+    private DishQueries() {}
+
+    /**
+     * All dishes with each category's rows next to each other. Categories keep
+     * the order of their first dish, dishes keep dish_id order.
+     */
+    public static final String DISHES_BY_CATEGORY =
+            "SELECT d.* FROM dishes d " +
+            "JOIN (SELECT category, MIN(dish_id) AS first_id FROM dishes GROUP BY category) c " +
+            "ON c.category = d.category " +
+            "ORDER BY c.first_id, d.dish_id";
+}
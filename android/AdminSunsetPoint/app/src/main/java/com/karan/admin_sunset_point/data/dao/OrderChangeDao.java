@@ -0,0 +1,36 @@
+package com.karan.admin_sunset_point.data.dao;
+
+import android.database.Cursor;
+
+import androidx.room.Dao;
+import androidx.room.Query;
+
+import java.util.List;
+
+@Dao
+public interface OrderChangeDao {
+
+    /** Returns the seq of the new entry. */
+    @Query("INSERT INTO order_changes (order_id) VALUES (:orderId)")
+    long logChange(int orderId);
+
+    @Query("SELECT COALESCE(MAX(seq), 0) FROM order_changes")
+    long latestSeq();
+
+    @Query("SELECT COALESCE(MIN(seq), 0) FROM order_changes")
+    long oldestSeq();
+
+    /** The day of today's order list, see OrderQueries.TODAY_KEY. */
+    @Query(OrderQueries.TODAY_KEY)
+    String today();
+
+    @Query("SELECT DISTINCT order_id FROM order_changes WHERE seq > :since")
+    List<Integer> changedOrderIds(long since);
+
+    @Query(OrderQueries.TODAY_ORDERS_CHANGED_SINCE)
+    Cursor streamTodayOrdersChangedSince(long since);
+
+    /** Keeps the last {@code keep} entries, see OrderQueries.RETAINED_CHANGES. */
+    @Query(OrderQueries.PRUNE_CHANGES)
+    void prune(int keep);
+}
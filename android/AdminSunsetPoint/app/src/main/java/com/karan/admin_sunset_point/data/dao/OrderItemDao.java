@@ -3,6 +3,7 @@ package com.karan.admin_sunset_point.data.dao;
 import androidx.room.Dao;
 import androidx.room.Insert;
 import androidx.room.Query;
+import androidx.room.Transaction;
 
 import com.karan.admin_sunset_point.data.entity.ItemStatus;
 import com.karan.admin_sunset_point.data.entity.OrderItem;
@@ -15,6 +16,10 @@ public interface OrderItemDao {
     @Insert
     void insertItem(OrderItem item);
 
+    /** One prepared statement for the whole order, see MyContentProvider.createOrder. */
+    @Insert
+    void insertItems(List<OrderItem> items);
+
     @Query("SELECT * FROM order_items WHERE order_id = :orderId")
     List<OrderItem> getItemsForOrder(int orderId);
 
@@ -27,6 +32,40 @@ public interface OrderItemDao {
     @Query("SELECT * FROM order_items WHERE order_id = :orderId AND order_item_id = :itemId")
     OrderItem getOrderItemById(int orderId, int itemId);
 
-    @Query("UPDATE order_items SET item_status = 'SERVED' WHERE order_id = :orderId")
+    @Query(OrderQueries.TOGGLE_ITEM_SERVED)
+    int flipServed(int orderId, int itemId);
+
+    @Query("SELECT item_status FROM order_items WHERE order_item_id = :itemId")
+    ItemStatus getItemStatus(int itemId);
+
+    /** Flips the item between SERVED and PENDING; returns the new status, or null if there is no such item. */
+    @Transaction
+    default ItemStatus toggleServed(int orderId, int itemId) {
+        if (flipServed(orderId, itemId) == 0) return null;
+        return getItemStatus(itemId);
+    }
+
+    @Query(OrderQueries.NEXT_KOT_SEQ)
+    int nextKotSeq(int orderId);
+
+    @Query(OrderQueries.MARK_PRINTED)
+    int markPrinted(int orderId, int kotSeq);
+
+    /** Undoes claimForKot for KOTs the counter dropped unprinted; returns the items freed. */
+    @Query(OrderQueries.RELEASE_KOT)
+    int releaseKot(int orderId, List<Integer> kotSeqs);
+
+    /**
+     * Records the order's unprinted items as sent on its next KOT. Returns
+     * that KOT's number, or 0 if there was nothing new to send.
+     */
+    @Transaction
+    default int claimForKot(int orderId) {
+        int kotSeq = nextKotSeq(orderId);
+        return markPrinted(orderId, kotSeq) > 0 ? kotSeq : 0;
+    }
+
+    /** Serves the pending items; cancelled ones stay cancelled. */
+    @Query("UPDATE order_items SET item_status = 'SERVED' WHERE order_id = :orderId AND item_status = 'PENDING'")
     void setServed(int orderId);
 }
@@ -0,0 +1,573 @@
+package com.karan.admin_sunset_point.data.dao;
+
+/**
+ * SQL used by {@link OrderDao}. Kept as plain constants so the same text can be
+ * checked by the JVM query-plan tests without going through Room.
+ *
+ * <p>The analytics section is in two parts: the reference definitions over raw
+ * order rows, and the rollup-backed versions the DAO actually runs. Both must
+ * return the same rows for any range.</p>
+ */
+public final class OrderQueries {
+
+    private OrderQueries() {}
+
+    /* ---------------- TODAY ORDERS ---------------- */
+
+    private static final String ORDER_ROWS_FROM =
+            "        SELECT\n" +
+            "          o.order_id,\n" +
+            "          o.order_tag,\n" +
+            "          o.created_at,\n" +
+            "          o.order_status,\n" +
+            "          o.is_payment_done,\n" +
+            "          o.order_total,\n" +
+            "\n" +
+            "          oi.order_item_id,\n" +
+            "          oi.quantity,\n" +
+            "          oi.item_status,\n" +
+            "          oi.price_snapshot AS price,\n" +
+            "          oi.dish_name_snapshot AS dish_name,\n" +
+            "\n" +
+            "          d.dish_id,\n" +
+            "          d.category\n" +
+            "        FROM orders o\n" +
+            "        LEFT JOIN order_items oi ON o.order_id = oi.order_id\n" +
+            "        LEFT JOIN dishes d ON oi.dish_id = d.dish_id\n";
+
+    private static final String IS_TODAY_ORDER =
+            "            (\n" +
+            "              (\n" +
+            "                o.created_at >= datetime('now', 'start of day')\n" +
+            "                AND o.created_at <  datetime('now', 'start of day', '+1 day')\n" +
+            "              )\n" +
+            "              OR o.order_status = 'OPEN'\n" +
+            "            )\n";
+
+    /**
+     * The day IS_TODAY_ORDER lists, yyyy-MM-dd. datetime('now') is UTC, so
+     * this rolls over at UTC midnight, not the counter's.
+     */
+    public static final String TODAY_KEY = "SELECT date('now')";
+
+    // order_id breaks created_at ties so each order's rows stay contiguous;
+    // ResponseWriter relies on that to stream one order at a time.
+    private static final String ORDER_ROWS_ORDER =
+            "        ORDER BY o.created_at, o.order_id, oi.order_item_id";
+
+    public static final String TODAY_ORDERS =
+            ORDER_ROWS_FROM +
+            "        WHERE\n" +
+            IS_TODAY_ORDER +
+            ORDER_ROWS_ORDER;
+
+    /**
+     * Today's orders touched by a change after :since. Orders that changed
+     * but are no longer in today's list are reported as removed by the caller.
+     */
+    public static final String TODAY_ORDERS_CHANGED_SINCE =
+            ORDER_ROWS_FROM +
+            "        WHERE\n" +
+            "            o.order_id IN (SELECT order_id FROM order_changes WHERE seq > :since)\n" +
+            "            AND\n" +
+            IS_TODAY_ORDER +
+            ORDER_ROWS_ORDER;
+
+    /** How many change log entries to keep; older ones force a full resync. */
+    public static final int RETAINED_CHANGES = 5000;
+
+    public static final String PRUNE_CHANGES =
+            "DELETE FROM order_changes WHERE seq <= (SELECT MAX(seq) FROM order_changes) - :keep";
+
+    /* ---------------- PRINT ---------------- */
+
+    private static final String PRINT_ROWS_FROM =
+            "        SELECT\n" +
+            "          o.order_id,\n" +
+            "          o.order_tag,\n" +
+            "          o.created_at,\n" +
+            "          o.order_status,\n" +
+            "          o.is_payment_done,\n" +
+            "          o.order_total,\n" +
+            "\n" +
+            "          oi.order_item_id,\n" +
+            "          oi.quantity,\n" +
+            "          oi.item_status,\n" +
+            "          oi.price_snapshot AS price,\n" +
+            "          oi.dish_name_snapshot AS dish_name,\n" +
+            "\n" +
+            "          d.dish_id,\n" +
+            "          d.category\n" +
+            "        FROM orders o\n" +
+            "        LEFT JOIN order_items oi ON o.order_id = oi.order_id\n" +
+            "        LEFT JOIN dishes d ON oi.dish_id = d.dish_id\n";
+
+    public static final String ORDER_FOR_PRINT =
+            PRINT_ROWS_FROM +
+            "        WHERE o.order_id = :orderId\n" +
+            "        ORDER BY oi.order_item_id";
+
+    /**
+     * ORDER_FOR_PRINT for several orders in one round trip ("orderPrint?ids="),
+     * each order's rows contiguous and in id order.
+     */
+    public static final String ORDERS_FOR_PRINT =
+            PRINT_ROWS_FROM +
+            "        WHERE o.order_id IN (:orderIds)\n" +
+            "        ORDER BY o.order_id, oi.order_item_id";
+
+    /**
+     * The items of each order that went out on its latest KOT, see
+     * OrderItemDao.markPrinted. Orders must have printed items.
+     */
+    public static final String KOT_DELTA_FOR_PRINT =
+            PRINT_ROWS_FROM +
+            "        WHERE o.order_id IN (:orderIds)\n" +
+            "          AND oi.kot_seq = (SELECT MAX(i.kot_seq) FROM order_items i WHERE i.order_id = o.order_id)\n" +
+            "        ORDER BY o.order_id, oi.order_item_id";
+
+    /* ---------------- KOT ---------------- */
+
+    public static final String NEXT_KOT_SEQ =
+            "SELECT COALESCE(MAX(kot_seq), 0) + 1 FROM order_items WHERE order_id = :orderId";
+
+    // Cancelled items are not sent; one served again later is printed then
+    public static final String MARK_PRINTED =
+            "UPDATE order_items SET kot_seq = :kotSeq\n" +
+            "WHERE order_id = :orderId AND kot_seq = 0 AND item_status != 'CANCELLED'";
+
+    // A claimed KOT that never printed gives its items back to the next one
+    public static final String RELEASE_KOT =
+            "UPDATE order_items SET kot_seq = 0\n" +
+            "WHERE order_id = :orderId AND kot_seq IN (:kotSeqs)";
+
+    /* ---------------- TOGGLES ---------------- */
+
+    // Flipped inside the UPDATE, so two taps can never both read the old
+    // value. SQLite on API 26 has no RETURNING; the DAOs read the new value
+    // back in the same transaction.
+
+    /** Used by OrderItemDao. CANCELLED items count as not served, like PENDING. */
+    public static final String TOGGLE_ITEM_SERVED =
+            "        UPDATE order_items\n" +
+            "        SET item_status = CASE item_status WHEN 'SERVED' THEN 'PENDING' ELSE 'SERVED' END\n" +
+            "        WHERE order_id = :orderId AND order_item_id = :itemId";
+
+    public static final String TOGGLE_PAYMENT =
+            "        UPDATE orders\n" +
+            "        SET is_payment_done = CASE is_payment_done WHEN 0 THEN 1 ELSE 0 END\n" +
+            "        WHERE order_id = :orderId";
+
+    /* ---------------- SUMMARY ---------------- */
+
+    // Item counts come from a correlated subquery so only the orders in range
+    // are probed; a grouped derived table would aggregate every order_items row.
+    public static final String ORDER_SUMMARY =
+            "        SELECT\n" +
+            "            COALESCE(SUM(o.order_total), 0) AS total_revenue,\n" +
+            "            COUNT(o.order_id)               AS total_orders,\n" +
+            "            AVG(o.order_total)              AS avg_order_value,\n" +
+            "            AVG(COALESCE((\n" +
+            "                SELECT SUM(oi.quantity)\n" +
+            "                FROM order_items oi\n" +
+            "                WHERE oi.order_id = o.order_id\n" +
+            "                  AND oi.item_status != 'CANCELLED'\n" +
+            "            ), 0))                          AS avg_number_of_items_per_order\n" +
+            "        FROM orders o\n" +
+            "        WHERE\n" +
+            "            o.order_status = 'CLOSED'\n" +
+            "            AND o.is_payment_done = 1\n" +
+            "            AND o.created_at >= datetime(:start, 'start of day')\n" +
+            "            AND o.created_at <  datetime(:end, '+1 day')";
+
+    /* ---------------- CATEGORY PERFORMANCE ---------------- */
+
+    public static final String TOP_CATEGORIES =
+            "        SELECT\n" +
+            "            d.category AS name,\n" +
+            "            SUM(oi.quantity * oi.price_snapshot) AS sales,\n" +
+            "            SUM(oi.quantity) AS quantity\n" +
+            "        FROM order_items oi\n" +
+            "        JOIN orders o ON o.order_id = oi.order_id\n" +
+            "        JOIN dishes d ON d.dish_id = oi.dish_id\n" +
+            "        WHERE\n" +
+            "            o.order_status = 'CLOSED'\n" +
+            "            AND o.is_payment_done = 1\n" +
+            "            AND o.created_at >= datetime(:start, 'start of day')\n" +
+            "            AND o.created_at <  datetime(:end, '+1 day')\n" +
+            "        GROUP BY d.category\n" +
+            "        ORDER BY sales DESC\n" +
+            "        LIMIT 4";
+
+    /* ---------------- HOURLY RUSH ---------------- */
+
+    public static final String HOURLY_RUSH =
+            "\n" +
+            "        WITH RECURSIVE hours(hour) AS (\n" +
+            "            SELECT 0\n" +
+            "            UNION ALL\n" +
+            "            SELECT hour + 1 FROM hours WHERE hour < 23\n" +
+            "        ),\n" +
+            "        hourly_orders AS (\n" +
+            "            SELECT\n" +
+            "                CAST(strftime('%H', o.created_at) AS INTEGER) AS hour,\n" +
+            "                COUNT(o.order_id) AS orders\n" +
+            "            FROM orders o\n" +
+            "            WHERE\n" +
+            "                o.order_status = 'CLOSED'\n" +
+            "                AND o.is_payment_done = 1\n" +
+            "                AND o.created_at >= datetime(:start, 'start of day')\n" +
+            "                AND o.created_at <  datetime(:end, '+1 day')\n" +
+            "            GROUP BY hour\n" +
+            "        )\n" +
+            "        SELECT\n" +
+            "            h.hour AS hour,\n" +
+            "            COALESCE(ROUND(AVG(o.orders)), 0) AS avg_orders\n" +
+            "        FROM hours h\n" +
+            "        LEFT JOIN hourly_orders o ON o.hour = h.hour\n" +
+            "        GROUP BY h.hour\n" +
+            "        ORDER BY h.hour\n" +
+            "    ";
+
+    /* ---------------- SALES TREND ---------------- */
+
+    public static final String SALES_TREND =
+            "\n" +
+            "        WITH RECURSIVE days(day) AS (\n" +
+            "            SELECT date(:startDate)\n" +
+            "            UNION ALL\n" +
+            "            SELECT date(day, '+1 day')\n" +
+            "            FROM days\n" +
+            "            WHERE day < date(:endDate)\n" +
+            "        ),\n" +
+            "        aggregated AS (\n" +
+            "            SELECT\n" +
+            "                date(o.created_at) AS day,\n" +
+            "                SUM(o.order_total) AS sales,\n" +
+            "                COUNT(o.order_id)  AS orders,\n" +
+            "                ROUND(AVG(o.order_total)) AS aov\n" +
+            "            FROM orders o\n" +
+            "            WHERE\n" +
+            "                o.order_status = 'CLOSED'\n" +
+            "                AND o.is_payment_done = 1\n" +
+            "                AND o.created_at >= datetime(:startDate, 'start of day')\n" +
+            "                AND o.created_at <  datetime(:endDate, '+1 day')\n" +
+            "            GROUP BY date(o.created_at)\n" +
+            "        )\n" +
+            "        SELECT\n" +
+            "            d.day AS date,\n" +
+            "            COALESCE(a.sales, 0)  AS sales,\n" +
+            "            COALESCE(a.orders, 0) AS orders,\n" +
+            "            COALESCE(a.aov, 0)    AS aov\n" +
+            "        FROM days d\n" +
+            "        LEFT JOIN aggregated a ON a.day = d.day\n" +
+            "        ORDER BY d.day";
+
+    /* ---------------- ORDER SIZE DISTRIBUTION ---------------- */
+
+    public static final String ORDER_SIZE_DISTRIBUTION =
+            "WITH order_item_counts AS (\n" +
+            "            SELECT\n" +
+            "                o.order_id,\n" +
+            "                SUM(oi.quantity) AS item_count\n" +
+            "            FROM orders o\n" +
+            "            JOIN order_items oi ON oi.order_id = o.order_id\n" +
+            "            WHERE\n" +
+            "                o.order_status = 'CLOSED'\n" +
+            "                AND o.is_payment_done = 1\n" +
+            "                AND oi.item_status != 'CANCELLED'\n" +
+            "                AND o.created_at >= datetime(:start, 'start of day')\n" +
+            "                AND o.created_at <  datetime(:end, '+1 day')\n" +
+            "            GROUP BY o.order_id\n" +
+            "        )\n" +
+            "        SELECT\n" +
+            "            CASE\n" +
+            "                WHEN item_count = 1 THEN '1 Item'\n" +
+            "                WHEN item_count = 2 THEN '2 Items'\n" +
+            "                WHEN item_count BETWEEN 3 AND 4 THEN '3-4 Items'\n" +
+            "                ELSE '5+ Items'\n" +
+            "            END AS size,\n" +
+            "            COUNT(*) AS count\n" +
+            "        FROM order_item_counts\n" +
+            "        GROUP BY\n" +
+            "            CASE\n" +
+            "                WHEN item_count = 1 THEN '1 Item'\n" +
+            "                WHEN item_count = 2 THEN '2 Items'\n" +
+            "                WHEN item_count BETWEEN 3 AND 4 THEN '3-4 Items'\n" +
+            "                ELSE '5+ Items'\n" +
+            "            END\n" +
+            "        ORDER BY\n" +
+            "            CASE\n" +
+            "                WHEN item_count = 1 THEN 1\n" +
+            "                WHEN item_count = 2 THEN 2\n" +
+            "                WHEN item_count BETWEEN 3 AND 4 THEN 3\n" +
+            "                ELSE 4\n" +
+            "            END\n" +
+            "    ";
+
+    /* ---------------- DISH PERFORMANCE ---------------- */
+
+    public static final String TOP_DISHES_BY_REVENUE =
+            "SELECT\n" +
+            "        d.dish_id                    AS id,\n" +
+            "        oi.dish_name_snapshot        AS name,\n" +
+            "        d.category                   AS category,\n" +
+            "        SUM(oi.quantity)             AS sales,\n" +
+            "        SUM(oi.quantity * oi.price_snapshot) AS revenue\n" +
+            "    FROM order_items oi\n" +
+            "    JOIN orders o ON o.order_id = oi.order_id\n" +
+            "    JOIN dishes d ON d.dish_id = oi.dish_id\n" +
+            "    WHERE\n" +
+            "        o.order_status = 'CLOSED'\n" +
+            "        AND o.is_payment_done = 1\n" +
+            "        AND oi.item_status != 'CANCELLED'\n" +
+            "        AND o.created_at >= datetime(:start, 'start of day')\n" +
+            "        AND o.created_at <  datetime(:end, '+1 day')\n" +
+            "    GROUP BY\n" +
+            "        d.dish_id,\n" +
+            "        oi.dish_name_snapshot,\n" +
+            "        d.category\n" +
+            "    ORDER BY revenue DESC\n" +
+            "    LIMIT :limit";
+
+    public static final String TOP_DISHES_BY_QUANTITY =
+            "    SELECT\n" +
+            "        d.dish_id                    AS id,\n" +
+            "        oi.dish_name_snapshot        AS name,\n" +
+            "        d.category                   AS category,\n" +
+            "        SUM(oi.quantity)             AS sales,\n" +
+            "        SUM(oi.quantity * oi.price_snapshot) AS revenue\n" +
+            "    FROM order_items oi\n" +
+            "    JOIN orders o ON o.order_id = oi.order_id\n" +
+            "    JOIN dishes d ON d.dish_id = oi.dish_id\n" +
+            "    WHERE\n" +
+            "        o.order_status = 'CLOSED'\n" +
+            "        AND o.is_payment_done = 1\n" +
+            "        AND oi.item_status != 'CANCELLED'\n" +
+            "        AND o.created_at >= datetime(:start, 'start of day')\n" +
+            "        AND o.created_at <  datetime(:end, '+1 day')\n" +
+            "    GROUP BY\n" +
+            "        d.dish_id,\n" +
+            "        oi.dish_name_snapshot,\n" +
+            "        d.category\n" +
+            "    ORDER BY sales DESC\n" +
+            "    LIMIT :limit";
+
+    /* ================= ROLLUP-BACKED ANALYTICS ================= */
+
+    // Whole days inside [start of :start, :end + 1 day) come from the rollup
+    // tables. Only the trailing partial day (when the range ends mid-day) is
+    // read from raw orders, using the item_count / order_total columns the
+    // order_items triggers keep (see OrderTotalsQueries).
+
+    private static final String ROLLUP_DAYS =
+            "day >= date(datetime(:start, 'start of day'))\n" +
+            "              AND day < date(datetime(:end, '+1 day'))";
+
+    private static final String PARTIAL_DAY_ORDERS =
+            "o.order_status = 'CLOSED'\n" +
+            "              AND o.is_payment_done = 1\n" +
+            "              AND o.created_at >= max(datetime(:start, 'start of day'),\n" +
+            "                                      date(datetime(:end, '+1 day')))\n" +
+            "              AND o.created_at <  datetime(:end, '+1 day')";
+
+    public static final String ROLLUP_ORDER_SUMMARY =
+            "        WITH parts AS (\n" +
+            "            SELECT total_revenue AS revenue, total_orders AS orders, total_items AS items\n" +
+            "            FROM daily_sales\n" +
+            "            WHERE " + ROLLUP_DAYS + "\n" +
+            "            UNION ALL\n" +
+            "            SELECT o.order_total, 1, o.item_count\n" +
+            "            FROM orders o\n" +
+            "            WHERE " + PARTIAL_DAY_ORDERS + "\n" +
+            "        )\n" +
+            "        SELECT\n" +
+            "            COALESCE(SUM(revenue), 0)             AS total_revenue,\n" +
+            "            COALESCE(SUM(orders), 0)              AS total_orders,\n" +
+            "            CAST(SUM(revenue) AS REAL) / SUM(orders) AS avg_order_value,\n" +
+            "            CAST(SUM(items) AS REAL) / SUM(orders)   AS avg_number_of_items_per_order\n" +
+            "        FROM parts";
+
+    public static final String ROLLUP_TOP_CATEGORIES =
+            "        SELECT\n" +
+            "            name,\n" +
+            "            SUM(sales)    AS sales,\n" +
+            "            SUM(quantity) AS quantity\n" +
+            "        FROM (\n" +
+            "            SELECT category AS name, sales, quantity\n" +
+            "            FROM daily_category_sales\n" +
+            "            WHERE " + ROLLUP_DAYS + "\n" +
+            "            UNION ALL\n" +
+            "            SELECT d.category, oi.quantity * oi.price_snapshot, oi.quantity\n" +
+            "            FROM orders o\n" +
+            "            JOIN order_items oi ON oi.order_id = o.order_id\n" +
+            "            JOIN dishes d ON d.dish_id = oi.dish_id\n" +
+            "            WHERE " + PARTIAL_DAY_ORDERS + "\n" +
+            "        )\n" +
+            "        GROUP BY name\n" +
+            "        ORDER BY sales DESC\n" +
+            "        LIMIT 4";
+
+    public static final String ROLLUP_HOURLY_RUSH =
+            "        WITH RECURSIVE hours(hour) AS (\n" +
+            "            SELECT 0\n" +
+            "            UNION ALL\n" +
+            "            SELECT hour + 1 FROM hours WHERE hour < 23\n" +
+            "        ),\n" +
+            "        counts AS (\n" +
+            "            SELECT hour, orders\n" +
+            "            FROM hourly_orders\n" +
+            "            WHERE " + ROLLUP_DAYS + "\n" +
+            "            UNION ALL\n" +
+            "            SELECT CAST(strftime('%H', o.created_at) AS INTEGER), 1\n" +
+            "            FROM orders o\n" +
+            "            WHERE " + PARTIAL_DAY_ORDERS + "\n" +
+            "        )\n" +
+            "        SELECT\n" +
+            "            h.hour AS hour,\n" +
+            "            COALESCE(SUM(c.orders), 0) AS avg_orders\n" +
+            "        FROM hours h\n" +
+            "        LEFT JOIN counts c ON c.hour = h.hour\n" +
+            "        GROUP BY h.hour\n" +
+            "        ORDER BY h.hour";
+
+    public static final String ROLLUP_SALES_TREND =
+            "        WITH RECURSIVE days(day) AS (\n" +
+            "            SELECT date(:start)\n" +
+            "            UNION ALL\n" +
+            "            SELECT date(day, '+1 day')\n" +
+            "            FROM days\n" +
+            "            WHERE day < date(:end)\n" +
+            "        ),\n" +
+            "        parts AS (\n" +
+            "            SELECT day, total_revenue AS sales, total_orders AS orders\n" +
+            "            FROM daily_sales\n" +
+            "            WHERE " + ROLLUP_DAYS + "\n" +
+            "            UNION ALL\n" +
+            "            SELECT date(o.created_at), o.order_total, 1\n" +
+            "            FROM orders o\n" +
+            "            WHERE " + PARTIAL_DAY_ORDERS + "\n" +
+            "        ),\n" +
+            "        aggregated AS (\n" +
+            "            SELECT\n" +
+            "                day,\n" +
+            "                SUM(sales)  AS sales,\n" +
+            "                SUM(orders) AS orders,\n" +
+            "                ROUND(CAST(SUM(sales) AS REAL) / SUM(orders)) AS aov\n" +
+            "            FROM parts\n" +
+            "            GROUP BY day\n" +
+            "        )\n" +
+            "        SELECT\n" +
+            "            d.day AS date,\n" +
+            "            COALESCE(a.sales, 0)  AS sales,\n" +
+            "            COALESCE(a.orders, 0) AS orders,\n" +
+            "            COALESCE(a.aov, 0)    AS aov\n" +
+            "        FROM days d\n" +
+            "        LEFT JOIN aggregated a ON a.day = d.day\n" +
+            "        ORDER BY d.day";
+
+    public static final String ROLLUP_ORDER_SIZE_DISTRIBUTION =
+            "        WITH parts AS (\n" +
+            "            SELECT size_1 AS s1, size_2 AS s2, size_3_4 AS s3, size_5_plus AS s4\n" +
+            "            FROM daily_sales\n" +
+            "            WHERE " + ROLLUP_DAYS + "\n" +
+            "            UNION ALL\n" +
+            "            SELECT\n" +
+            "                o.item_count = 1,\n" +
+            "                o.item_count = 2,\n" +
+            "                o.item_count BETWEEN 3 AND 4,\n" +
+            "                o.item_count > 4\n" +
+            "            FROM orders o\n" +
+            "            WHERE " + PARTIAL_DAY_ORDERS + "\n" +
+            "              AND o.item_count > 0\n" +
+            "        ),\n" +
+            "        totals AS (\n" +
+            "            SELECT SUM(s1) AS s1, SUM(s2) AS s2, SUM(s3) AS s3, SUM(s4) AS s4\n" +
+            "            FROM parts\n" +
+            "        )\n" +
+            "        SELECT size, count FROM (\n" +
+            "            SELECT 1 AS position, '1 Item'    AS size, s1 AS count FROM totals\n" +
+            "            UNION ALL\n" +
+            "            SELECT 2,             '2 Items',           s2          FROM totals\n" +
+            "            UNION ALL\n" +
+            "            SELECT 3,             '3-4 Items',         s3          FROM totals\n" +
+            "            UNION ALL\n" +
+            "            SELECT 4,             '5+ Items',          s4          FROM totals\n" +
+            "        )\n" +
+            "        WHERE count > 0\n" +
+            "        ORDER BY position";
+
+    private static final String ROLLUP_DISH_SALES =
+            "        SELECT\n" +
+            "            d.dish_id      AS id,\n" +
+            "            x.name         AS name,\n" +
+            "            d.category     AS category,\n" +
+            "            SUM(x.quantity) AS sales,\n" +
+            "            SUM(x.revenue)  AS revenue\n" +
+            "        FROM (\n" +
+            "            SELECT dish_id, dish_name AS name, quantity, revenue\n" +
+            "            FROM daily_dish_sales\n" +
+            "            WHERE " + ROLLUP_DAYS + "\n" +
+            "            UNION ALL\n" +
+            "            SELECT\n" +
+            "                oi.dish_id,\n" +
+            "                oi.dish_name_snapshot,\n" +
+            "                oi.quantity,\n" +
+            "                oi.quantity * oi.price_snapshot\n" +
+            "            FROM orders o\n" +
+            "            JOIN order_items oi ON oi.order_id = o.order_id\n" +
+            "            WHERE " + PARTIAL_DAY_ORDERS + "\n" +
+            "              AND oi.item_status != 'CANCELLED'\n" +
+            "        ) x\n" +
+            "        JOIN dishes d ON d.dish_id = x.dish_id\n" +
+            "        GROUP BY\n" +
+            "            d.dish_id,\n" +
+            "            x.name,\n" +
+            "            d.category\n";
+
+    public static final String ROLLUP_TOP_DISHES_BY_REVENUE =
+            ROLLUP_DISH_SALES +
+            "        ORDER BY revenue DESC\n" +
+            "        LIMIT :limit";
+
+    public static final String ROLLUP_TOP_DISHES_BY_QUANTITY =
+            ROLLUP_DISH_SALES +
+            "        ORDER BY sales DESC\n" +
+            "        LIMIT :limit";
+
+    /* ---------------- SINGLE PASS ANALYTICS ---------------- */
+
+    // Every row the dashboard needs for one range, in one statement. `kind`
+    // tells the reader which columns are meaningful:
+    //   1 day rollup      day, orders, revenue, items, s1..s4
+    //   2 hour rollup     hour, orders
+    //   3 category rollup name, revenue (= sales), items (= quantity)
+    //   4 partial-day order  day, hour, revenue, items (NULL = no live items)
+    //   5 partial-day item   name, revenue (= sales), items (= quantity)
+    public static final String ANALYTICS_ROWS =
+            "        SELECT 1 AS kind, day, NULL AS hour, NULL AS name,\n" +
+            "               total_orders AS orders, total_revenue AS revenue, total_items AS items,\n" +
+            "               size_1 AS s1, size_2 AS s2, size_3_4 AS s3, size_5_plus AS s4\n" +
+            "        FROM daily_sales\n" +
+            "        WHERE " + ROLLUP_DAYS + "\n" +
+            "        UNION ALL\n" +
+            "        SELECT 2, day, hour, NULL, orders, 0, 0, 0, 0, 0, 0\n" +
+            "        FROM hourly_orders\n" +
+            "        WHERE " + ROLLUP_DAYS + "\n" +
+            "        UNION ALL\n" +
+            "        SELECT 3, day, NULL, category, 0, sales, quantity, 0, 0, 0, 0\n" +
+            "        FROM daily_category_sales\n" +
+            "        WHERE " + ROLLUP_DAYS + "\n" +
+            "        UNION ALL\n" +
+            "        SELECT 4, date(o.created_at), CAST(strftime('%H', o.created_at) AS INTEGER), NULL,\n" +
+            "               1, o.order_total, NULLIF(o.item_count, 0), 0, 0, 0, 0\n" +
+            "        FROM orders o\n" +
+            "        WHERE " + PARTIAL_DAY_ORDERS + "\n" +
+            "        UNION ALL\n" +
+            "        SELECT 5, date(o.created_at), NULL, d.category,\n" +
+            "               0, oi.quantity * oi.price_snapshot, oi.quantity, 0, 0, 0, 0\n" +
+            "        FROM orders o\n" +
+            "        JOIN order_items oi ON oi.order_id = o.order_id\n" +
+            "        JOIN dishes d ON d.dish_id = oi.dish_id\n" +
+            "        WHERE " + PARTIAL_DAY_ORDERS;
+}
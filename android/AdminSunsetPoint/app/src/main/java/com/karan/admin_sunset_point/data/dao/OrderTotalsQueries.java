@@ -0,0 +1,94 @@
+package com.karan.admin_sunset_point.data.dao;
+
+/**
+ * Keeps {@code orders.item_count} and {@code orders.order_total} equal to the
+ * sums over the order's live (not CANCELLED) items. Triggers on order_items
+ * apply every insert, delete and change inside the writing statement, so the
+ * columns can never disagree with a committed item, whichever code path wrote
+ * it. The analytics queries read the columns instead of aggregating items.
+ */
+public final class OrderTotalsQueries {
+
+    private OrderTotalsQueries() {}
+
+    /** Created with IF NOT EXISTS, so running them again is harmless. */
+    public static final String[] TRIGGERS = {
+            "CREATE TRIGGER IF NOT EXISTS `order_items_totals_insert`\n" +
+            "        AFTER INSERT ON order_items\n" +
+            "        WHEN NEW.item_status != 'CANCELLED'\n" +
+            "        BEGIN\n" +
+            "            UPDATE orders\n" +
+            "            SET item_count  = item_count + NEW.quantity,\n" +
+            "                order_total = order_total + NEW.quantity * NEW.price_snapshot\n" +
+            "            WHERE order_id = NEW.order_id;\n" +
+            "        END",
+            "CREATE TRIGGER IF NOT EXISTS `order_items_totals_delete`\n" +
+            "        AFTER DELETE ON order_items\n" +
+            "        WHEN OLD.item_status != 'CANCELLED'\n" +
+            "        BEGIN\n" +
+            "            UPDATE orders\n" +
+            "            SET item_count  = item_count - OLD.quantity,\n" +
+            "                order_total = order_total - OLD.quantity * OLD.price_snapshot\n" +
+            "            WHERE order_id = OLD.order_id;\n" +
+            "        END",
+            // PENDING <-> SERVED leaves the sums alone, so the served toggle
+            // does not rewrite the order row
+            "CREATE TRIGGER IF NOT EXISTS `order_items_totals_update`\n" +
+            "        AFTER UPDATE OF order_id, quantity, price_snapshot, item_status ON order_items\n" +
+            "        WHEN (OLD.item_status = 'CANCELLED') != (NEW.item_status = 'CANCELLED')\n" +
+            "          OR OLD.order_id != NEW.order_id\n" +
+            "          OR OLD.quantity != NEW.quantity\n" +
+            "          OR OLD.price_snapshot != NEW.price_snapshot\n" +
+            "        BEGIN\n" +
+            "            UPDATE orders\n" +
+            "            SET item_count  = item_count - OLD.quantity,\n" +
+            "                order_total = order_total - OLD.quantity * OLD.price_snapshot\n" +
+            "            WHERE order_id = OLD.order_id AND OLD.item_status != 'CANCELLED';\n" +
+            "            UPDATE orders\n" +
+            "            SET item_count  = item_count + NEW.quantity,\n" +
+            "                order_total = order_total + NEW.quantity * NEW.price_snapshot\n" +
+            "            WHERE order_id = NEW.order_id AND NEW.item_status != 'CANCELLED';\n" +
+            "        END"
+    };
+
+    /**
+     * Orders whose stored columns differ from their items, with the expected
+     * values. Reads every order; meant for the on-demand consistency check.
+     */
+    public static final String MISMATCHES =
+            "        SELECT\n" +
+            "            o.order_id,\n" +
+            "            o.item_count,\n" +
+            "            o.order_total,\n" +
+            "            COALESCE(SUM(oi.quantity), 0)                     AS expected_item_count,\n" +
+            "            COALESCE(SUM(oi.quantity * oi.price_snapshot), 0) AS expected_order_total\n" +
+            "        FROM orders o\n" +
+            "        LEFT JOIN order_items oi\n" +
+            "               ON oi.order_id = o.order_id AND oi.item_status != 'CANCELLED'\n" +
+            "        GROUP BY o.order_id\n" +
+            "        HAVING o.item_count != expected_item_count\n" +
+            "            OR o.order_total != expected_order_total\n" +
+            "        ORDER BY o.order_id";
+
+    private static final String LIVE_ITEMS =
+            "            FROM order_items oi\n" +
+            "            WHERE oi.order_id = orders.order_id\n" +
+            "              AND oi.item_status != 'CANCELLED'\n";
+
+    /** Rewrites both columns of every order from its items; the migration backfill. */
+    public static final String RECOMPUTE_ALL =
+            "        UPDATE orders\n" +
+            "        SET item_count = (\n" +
+            "            SELECT COALESCE(SUM(oi.quantity), 0)\n" +
+            LIVE_ITEMS +
+            "        ),\n" +
+            "        order_total = (\n" +
+            "            SELECT COALESCE(SUM(oi.quantity * oi.price_snapshot), 0)\n" +
+            LIVE_ITEMS +
+            "        )";
+
+    /** Same as RECOMPUTE_ALL for one order, used to repair what MISMATCHES found. */
+    public static final String RECOMPUTE_ORDER =
+            RECOMPUTE_ALL + "\n" +
+            "        WHERE order_id = :orderId";
+}
@@ -0,0 +1,64 @@
+package com.karan.admin_sunset_point.data.dao;
+
+import androidx.room.Dao;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import java.time.LocalDate;
+
+@Dao
+public interface RollupDao {
+
+    @Query(RollupQueries.DELETE_DAILY_SALES)
+    void deleteDailySales(String fromDay, String toDay);
+
+    @Query(RollupQueries.DELETE_HOURLY_ORDERS)
+    void deleteHourlyOrders(String fromDay, String toDay);
+
+    @Query(RollupQueries.DELETE_DAILY_DISH_SALES)
+    void deleteDailyDishSales(String fromDay, String toDay);
+
+    @Query(RollupQueries.DELETE_DAILY_CATEGORY_SALES)
+    void deleteDailyCategorySales(String fromDay, String toDay);
+
+    @Query(RollupQueries.INSERT_DAILY_SALES)
+    void insertDailySales(String fromDay, String toDay);
+
+    @Query(RollupQueries.INSERT_HOURLY_ORDERS)
+    void insertHourlyOrders(String fromDay, String toDay);
+
+    @Query(RollupQueries.INSERT_DAILY_DISH_SALES)
+    void insertDailyDishSales(String fromDay, String toDay);
+
+    @Query(RollupQueries.INSERT_DAILY_CATEGORY_SALES)
+    void insertDailyCategorySales(String fromDay, String toDay);
+
+    /** Recomputes every rollup row for days in [fromDay, toDay). */
+    @Transaction
+    default void rebuildRange(String fromDay, String toDay) {
+        deleteDailySales(fromDay, toDay);
+        deleteHourlyOrders(fromDay, toDay);
+        deleteDailyDishSales(fromDay, toDay);
+        deleteDailyCategorySales(fromDay, toDay);
+
+        insertDailySales(fromDay, toDay);
+        insertHourlyOrders(fromDay, toDay);
+        insertDailyDishSales(fromDay, toDay);
+        insertDailyCategorySales(fromDay, toDay);
+    }
+
+    /**
+     * Recomputes the rollups of the day an order was created on.
+     * @param createdAt the order's created_at, yyyy-MM-dd HH:mm:ss
+     */
+    default void refreshDayOf(String createdAt) {
+        if (createdAt == null || createdAt.length() < 10) return;
+        String day = createdAt.substring(0, 10);
+        rebuildRange(day, LocalDate.parse(day).plusDays(1).toString());
+    }
+
+    /** Backfills the rollups from the complete order history. */
+    default void rebuildAll() {
+        rebuildRange(RollupQueries.ALL_FROM, RollupQueries.ALL_TO);
+    }
+}
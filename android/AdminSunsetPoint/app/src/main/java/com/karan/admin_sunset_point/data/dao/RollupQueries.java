@@ -0,0 +1,106 @@
+package com.karan.admin_sunset_point.data.dao;
+
+/**
+ * Maintenance SQL for the analytics rollup tables. Every statement works on a
+ * half-open day range [:fromDay, :toDay) given as yyyy-MM-dd, so refreshing a
+ * single day and backfilling the whole history share the same text.
+ */
+public final class RollupQueries {
+
+    private RollupQueries() {}
+
+    /** Lower / upper bounds that cover every stored order, used by a full rebuild. */
+    public static final String ALL_FROM = "0000-01-01";
+    public static final String ALL_TO = "9999-12-31";
+
+    private static final String QUALIFYING_ORDERS =
+            "            o.order_status = 'CLOSED'\n" +
+            "            AND o.is_payment_done = 1\n" +
+            "            AND o.created_at >= :fromDay\n" +
+            "            AND o.created_at <  :toDay\n";
+
+    public static final String DELETE_DAILY_SALES =
+            "DELETE FROM daily_sales WHERE day >= :fromDay AND day < :toDay";
+
+    public static final String DELETE_HOURLY_ORDERS =
+            "DELETE FROM hourly_orders WHERE day >= :fromDay AND day < :toDay";
+
+    public static final String DELETE_DAILY_DISH_SALES =
+            "DELETE FROM daily_dish_sales WHERE day >= :fromDay AND day < :toDay";
+
+    public static final String DELETE_DAILY_CATEGORY_SALES =
+            "DELETE FROM daily_category_sales WHERE day >= :fromDay AND day < :toDay";
+
+    public static final String INSERT_DAILY_SALES =
+            "        INSERT INTO daily_sales (\n" +
+            "            day, total_revenue, total_orders, total_items,\n" +
+            "            size_1, size_2, size_3_4, size_5_plus\n" +
+            "        )\n" +
+            "        SELECT\n" +
+            "            date(created_at),\n" +
+            "            SUM(order_total),\n" +
+            "            COUNT(*),\n" +
+            "            SUM(item_count),\n" +
+            "            SUM(CASE WHEN item_count = 1 THEN 1 ELSE 0 END),\n" +
+            "            SUM(CASE WHEN item_count = 2 THEN 1 ELSE 0 END),\n" +
+            "            SUM(CASE WHEN item_count BETWEEN 3 AND 4 THEN 1 ELSE 0 END),\n" +
+            "            SUM(CASE WHEN item_count > 4 THEN 1 ELSE 0 END)\n" +
+            "        FROM orders o\n" +
+            "        WHERE\n" +
+            QUALIFYING_ORDERS +
+            "        GROUP BY date(created_at)";
+
+    public static final String INSERT_HOURLY_ORDERS =
+            "        INSERT INTO hourly_orders (day, hour, orders)\n" +
+            "        SELECT\n" +
+            "            date(o.created_at),\n" +
+            "            CAST(strftime('%H', o.created_at) AS INTEGER),\n" +
+            "            COUNT(*)\n" +
+            "        FROM orders o\n" +
+            "        WHERE\n" +
+            QUALIFYING_ORDERS +
+            "        GROUP BY 1, 2";
+
+    public static final String INSERT_DAILY_DISH_SALES =
+            "        INSERT INTO daily_dish_sales (day, dish_id, dish_name, quantity, revenue)\n" +
+            "        SELECT\n" +
+            "            date(o.created_at),\n" +
+            "            oi.dish_id,\n" +
+            "            oi.dish_name_snapshot,\n" +
+            "            SUM(oi.quantity),\n" +
+            "            SUM(oi.quantity * oi.price_snapshot)\n" +
+            "        FROM orders o\n" +
+            "        JOIN order_items oi ON oi.order_id = o.order_id\n" +
+            "        WHERE\n" +
+            QUALIFYING_ORDERS +
+            "            AND oi.item_status != 'CANCELLED'\n" +
+            "        GROUP BY 1, 2, 3";
+
+    // Cancelled items are counted here on purpose: the raw category query never
+    // filtered them out and the dashboard numbers must not shift.
+    public static final String INSERT_DAILY_CATEGORY_SALES =
+            "        INSERT INTO daily_category_sales (day, category, quantity, sales)\n" +
+            "        SELECT\n" +
+            "            date(o.created_at),\n" +
+            "            d.category,\n" +
+            "            SUM(oi.quantity),\n" +
+            "            SUM(oi.quantity * oi.price_snapshot)\n" +
+            "        FROM orders o\n" +
+            "        JOIN order_items oi ON oi.order_id = o.order_id\n" +
+            "        JOIN dishes d ON d.dish_id = oi.dish_id\n" +
+            "        WHERE\n" +
+            QUALIFYING_ORDERS +
+            "        GROUP BY 1, 2";
+
+    /** Statements in the order a rebuild has to run them. */
+    public static final String[] REBUILD = {
+            DELETE_DAILY_SALES,
+            DELETE_HOURLY_ORDERS,
+            DELETE_DAILY_DISH_SALES,
+            DELETE_DAILY_CATEGORY_SALES,
+            INSERT_DAILY_SALES,
+            INSERT_HOURLY_ORDERS,
+            INSERT_DAILY_DISH_SALES,
+            INSERT_DAILY_CATEGORY_SALES
+    };
+}
@@ -0,0 +1,17 @@
+package com.karan.admin_sunset_point.data.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+
+@Entity(tableName = "daily_category_sales", primaryKeys = {"day", "category"})
+public class DailyCategorySales {
+
+    @NonNull
+    public String day;
+
+    @NonNull
+    public String category;
+
+    public int quantity;
+    public int sales;
+}
@@ -0,0 +1,23 @@
+package com.karan.admin_sunset_point.data.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+
+/**
+ * Non-cancelled item sales per dish and day. Grouped by the name snapshot like
+ * the raw dish performance query, the category is joined in at read time.
+ */
+@Entity(tableName = "daily_dish_sales", primaryKeys = {"day", "dish_id", "dish_name"})
+public class DailyDishSales {
+
+    @NonNull
+    public String day;
+
+    public int dish_id;
+
+    @NonNull
+    public String dish_name;
+
+    public int quantity;
+    public int revenue;
+}
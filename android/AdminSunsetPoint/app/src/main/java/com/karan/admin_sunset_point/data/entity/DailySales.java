@@ -0,0 +1,29 @@
+package com.karan.admin_sunset_point.data.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Per-day totals of closed and paid orders. Rebuilt for a day whenever an
+ * order on that day changes, see {@link com.karan.admin_sunset_point.data.dao.RollupDao}.
+ */
+@Entity(tableName = "daily_sales")
+public class DailySales {
+
+    @PrimaryKey
+    @NonNull
+    public String day;
+
+    public int total_revenue;
+    public int total_orders;
+
+    // Sum of non-cancelled item quantities over the day's orders
+    public int total_items;
+
+    // Order size buckets, same boundaries as getOrderSizeDistribution
+    public int size_1;
+    public int size_2;
+    public int size_3_4;
+    public int size_5_plus;
+}
@@ -0,0 +1,15 @@
+package com.karan.admin_sunset_point.data.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+
+@Entity(tableName = "hourly_orders", primaryKeys = {"day", "hour"})
+public class HourlyOrders {
+
+    @NonNull
+    public String day;
+
+    public int hour;
+
+    public int orders;
+}
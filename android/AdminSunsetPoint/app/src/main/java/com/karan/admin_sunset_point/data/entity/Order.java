@@ -3,9 +3,22 @@ package com.karan.admin_sunset_point.data.entity;
 import androidx.annotation.NonNull;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
-@Entity(tableName = "orders")
+@Entity(
+        tableName = "orders",
+        indices = {
+                // Covers every analytics range query: equality on status/payment,
+                // range on created_at, order_total and item_count read straight
+                // from the index.
+                @Index(
+                        name = "index_orders_status_payment_created_total_items",
+                        value = {"order_status", "is_payment_done", "created_at", "order_total", "item_count"}
+                ),
+                @Index("created_at")
+        }
+)
 public class Order {
 
     @PrimaryKey(autoGenerate = true)
@@ -15,8 +28,13 @@ public class Order {
 
     public boolean is_payment_done = false;
 
+    // Both kept by triggers on order_items over the live (not CANCELLED)
+    // items, see OrderTotalsQueries. Insert new orders with zeros.
     public int order_total = 0;
 
+    @ColumnInfo(defaultValue = "0")
+    public int item_count = 0;
+
     @NonNull
     public OrderStatus order_status = OrderStatus.OPEN;
 
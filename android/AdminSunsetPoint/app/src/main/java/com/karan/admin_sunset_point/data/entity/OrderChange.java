@@ -0,0 +1,19 @@
+package com.karan.admin_sunset_point.data.entity;
+
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * One row per mutation of an order or its items, written in the same
+ * transaction as the mutation. The counter syncs by asking for everything
+ * after the last seq it has seen. No foreign key: the entry has to outlive
+ * a cancelled (deleted) order so the counter learns about the removal.
+ */
+@Entity(tableName = "order_changes")
+public class OrderChange {
+
+    @PrimaryKey(autoGenerate = true)
+    public long seq;
+
+    public int order_id;
+}
@@ -1,6 +1,7 @@
 package com.karan.admin_sunset_point.data.entity;
 
 import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.ForeignKey;
 import androidx.room.Index;
@@ -22,7 +23,12 @@ import androidx.room.PrimaryKey;
                 )
         },
         indices = {
-                @Index("order_id"),
+                // Leading order_id serves the foreign key and per-order lookups;
+                // the remaining columns let analytics joins skip the table rows.
+                @Index(
+                        name = "index_order_items_order_status_dish",
+                        value = {"order_id", "item_status", "dish_id", "quantity", "price_snapshot"}
+                ),
                 @Index("dish_id")
         }
 )
@@ -43,4 +49,8 @@ public class OrderItem {
 
     @NonNull
     public ItemStatus item_status = ItemStatus.PENDING;
+
+    // Which of the order's KOTs sent this item to the kitchen; 0 until printed
+    @ColumnInfo(defaultValue = "0")
+    public int kot_seq = 0;
 }
@@ -0,0 +1,17 @@
+package com.karan.admin_sunset_point.data.entity;
+
+/** An order whose stored item_count / order_total disagree with its items. */
+public class OrderTotalsMismatch {
+    public int order_id;
+    public int item_count;
+    public int order_total;
+    public int expected_item_count;
+    public int expected_order_total;
+
+    @Override
+    public String toString() {
+        return "order " + order_id +
+                ": item_count " + item_count + " (items say " + expected_item_count + ")" +
+                ", order_total " + order_total + " (items say " + expected_order_total + ")";
+    }
+}
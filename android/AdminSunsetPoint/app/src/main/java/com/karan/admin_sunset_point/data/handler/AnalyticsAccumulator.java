@@ -0,0 +1,256 @@
+package com.karan.admin_sunset_point.data.handler;
+
+import com.karan.admin_sunset_point.data.entity.CategoryPerformance;
+import com.karan.admin_sunset_point.data.entity.HourlyRush;
+import com.karan.admin_sunset_point.data.entity.OrderAnalysis;
+import com.karan.admin_sunset_point.data.entity.OrderSizeDistribution;
+import com.karan.admin_sunset_point.data.entity.OrderSummary;
+import com.karan.admin_sunset_point.data.entity.SalesTrend;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Folds the rows of OrderQueries.ANALYTICS_ROWS into a complete
+ * {@link OrderAnalysis}. Every dashboard section is filled from the same pass,
+ * so the five separate rollup queries are no longer needed.
+ *
+ * The output matches the ROLLUP_* queries row for row. This class has no
+ * Android dependencies so it can be exercised from plain JVM tests.
+ */
+public final class AnalyticsAccumulator {
+
+    public static final int KIND_DAY = 1;
+    public static final int KIND_HOUR = 2;
+    public static final int KIND_CATEGORY = 3;
+    public static final int KIND_ORDER = 4;
+    public static final int KIND_ITEM = 5;
+
+    // Column positions of OrderQueries.ANALYTICS_ROWS
+    private static final int COL_KIND = 0;
+    private static final int COL_DAY = 1;
+    private static final int COL_HOUR = 2;
+    private static final int COL_NAME = 3;
+    private static final int COL_ORDERS = 4;
+    private static final int COL_REVENUE = 5;
+    private static final int COL_ITEMS = 6;
+    private static final int COL_S1 = 7;
+    private static final int COL_S2 = 8;
+    private static final int COL_S3 = 9;
+    private static final int COL_S4 = 10;
+
+    /** The subset of a cursor over ANALYTICS_ROWS that {@link #addRows} reads; 0-based columns. */
+    public interface Rows {
+        boolean moveToNext();
+        boolean isNull(int column);
+        int getInt(int column);
+        long getLong(int column);
+        String getString(int column);
+    }
+
+    private static final int TOP_CATEGORIES = 4;
+    private static final String[] SIZE_LABELS = {"1 Item", "2 Items", "3-4 Items", "5+ Items"};
+
+    private long revenue;
+    private long orders;
+    private long items;
+
+    private final int[] hourOrders = new int[24];
+    private final long[] sizes = new long[4];
+
+    private final long firstDay;
+    private final long[] daySales;
+    private final int[] dayOrders;
+
+    // Category -> {sales, quantity}
+    private final Map<String, long[]> categories = new HashMap<>();
+
+    // The partial-day rows all carry the same date; parse it once
+    private String lastDay;
+    private int lastDayIndex;
+
+    /**
+     * @param start range start, yyyy-MM-dd HH:mm:ss
+     * @param end   range end, yyyy-MM-dd HH:mm:ss
+     */
+    public AnalyticsAccumulator(String start, String end) {
+        firstDay = LocalDate.parse(start.substring(0, 10)).toEpochDay();
+        long lastDay = LocalDate.parse(end.substring(0, 10)).toEpochDay();
+        // Like the recursive days CTE: the first day is always present
+        int dayCount = (int) Math.max(1, lastDay - firstDay + 1);
+        daySales = new long[dayCount];
+        dayOrders = new int[dayCount];
+    }
+
+    /** Every row of OrderQueries.ANALYTICS_ROWS, see AnalyticsEngine. */
+    public void addRows(Rows rows) {
+        while (rows.moveToNext()) {
+            switch (rows.getInt(COL_KIND)) {
+                case KIND_DAY:
+                    addDay(rows.getString(COL_DAY), rows.getInt(COL_ORDERS),
+                            rows.getLong(COL_REVENUE), rows.getLong(COL_ITEMS),
+                            rows.getInt(COL_S1), rows.getInt(COL_S2), rows.getInt(COL_S3), rows.getInt(COL_S4));
+                    break;
+                case KIND_HOUR:
+                    addHour(rows.getInt(COL_HOUR), rows.getInt(COL_ORDERS));
+                    break;
+                case KIND_CATEGORY:
+                case KIND_ITEM:
+                    addCategory(rows.getString(COL_NAME), rows.getLong(COL_REVENUE), rows.getLong(COL_ITEMS));
+                    break;
+                case KIND_ORDER:
+                    addOrder(rows.getString(COL_DAY), rows.getInt(COL_HOUR), rows.getLong(COL_REVENUE),
+                            rows.isNull(COL_ITEMS) ? null : rows.getLong(COL_ITEMS));
+                    break;
+            }
+        }
+    }
+
+    /** A daily_sales rollup row. */
+    public void addDay(String day, int dayOrderCount, long dayRevenue, long dayItems,
+                       int size1, int size2, int size3To4, int size5Plus) {
+        orders += dayOrderCount;
+        revenue += dayRevenue;
+        items += dayItems;
+        sizes[0] += size1;
+        sizes[1] += size2;
+        sizes[2] += size3To4;
+        sizes[3] += size5Plus;
+        addTrend(day, dayRevenue, dayOrderCount);
+    }
+
+    /** An hourly_orders rollup row. */
+    public void addHour(int hour, int orderCount) {
+        if (hour >= 0 && hour < 24) {
+            hourOrders[hour] += orderCount;
+        }
+    }
+
+    /** A daily_category_sales rollup row, or a single partial-day item. */
+    public void addCategory(String category, long sales, long quantity) {
+        long[] totals = categories.get(category);
+        if (totals == null) {
+            totals = new long[2];
+            categories.put(category, totals);
+        }
+        totals[0] += sales;
+        totals[1] += quantity;
+    }
+
+    /**
+     * A single order from the partial last day.
+     * @param itemCount live item quantity, or null when every item was cancelled
+     */
+    public void addOrder(String day, int hour, long orderTotal, Long itemCount) {
+        orders++;
+        revenue += orderTotal;
+        addHour(hour, 1);
+        addTrend(day, orderTotal, 1);
+        if (itemCount == null) return;
+
+        long count = itemCount;
+        items += count;
+        if (count == 1) {
+            sizes[0]++;
+        } else if (count == 2) {
+            sizes[1]++;
+        } else if (count == 3 || count == 4) {
+            sizes[2]++;
+        } else {
+            sizes[3]++;
+        }
+    }
+
+    private void addTrend(String day, long sales, int orderCount) {
+        int index;
+        if (day.equals(lastDay)) {
+            index = lastDayIndex;
+        } else {
+            index = (int) (LocalDate.parse(day).toEpochDay() - firstDay);
+            lastDay = day;
+            lastDayIndex = index;
+        }
+        // Orders of the day after the range end only count towards the totals
+        if (index >= 0 && index < daySales.length) {
+            daySales[index] += sales;
+            dayOrders[index] += orderCount;
+        }
+    }
+
+    public OrderAnalysis build() {
+        OrderAnalysis analysis = new OrderAnalysis();
+        analysis.orderSummary = buildSummary();
+        analysis.categoryPerformances = buildCategories();
+        analysis.hourlyRushes = buildHours();
+        analysis.salesTrends = buildTrend();
+        analysis.orderSizeDistribution = buildSizes();
+        return analysis;
+    }
+
+    private OrderSummary buildSummary() {
+        OrderSummary summary = new OrderSummary();
+        summary.total_revenue = (int) revenue;
+        summary.total_orders = (int) orders;
+        if (orders > 0) {
+            summary.avg_order_value = (double) revenue / orders;
+            summary.avg_number_of_items_per_order = (double) items / orders;
+        }
+        return summary;
+    }
+
+    private List<CategoryPerformance> buildCategories() {
+        List<CategoryPerformance> list = new ArrayList<>(categories.size());
+        for (Map.Entry<String, long[]> entry : categories.entrySet()) {
+            CategoryPerformance c = new CategoryPerformance();
+            c.name = entry.getKey();
+            c.sales = entry.getValue()[0];
+            c.quantity = (int) entry.getValue()[1];
+            list.add(c);
+        }
+        list.sort((a, b) -> {
+            int bySales = Double.compare(b.sales, a.sales);
+            return bySales != 0 ? bySales : a.name.compareTo(b.name);
+        });
+        return list.size() > TOP_CATEGORIES ? new ArrayList<>(list.subList(0, TOP_CATEGORIES)) : list;
+    }
+
+    private List<HourlyRush> buildHours() {
+        List<HourlyRush> list = new ArrayList<>(24);
+        for (int hour = 0; hour < 24; hour++) {
+            HourlyRush h = new HourlyRush();
+            h.hour = hour;
+            h.avg_orders = hourOrders[hour];
+            list.add(h);
+        }
+        return list;
+    }
+
+    private List<SalesTrend> buildTrend() {
+        List<SalesTrend> list = new ArrayList<>(daySales.length);
+        for (int i = 0; i < daySales.length; i++) {
+            SalesTrend t = new SalesTrend();
+            t.date = LocalDate.ofEpochDay(firstDay + i).toString();
+            t.sales = (int) daySales[i];
+            t.orders = dayOrders[i];
+            t.aov = dayOrders[i] > 0 ? (int) Math.round((double) daySales[i] / dayOrders[i]) : 0;
+            list.add(t);
+        }
+        return list;
+    }
+
+    private List<OrderSizeDistribution> buildSizes() {
+        List<OrderSizeDistribution> list = new ArrayList<>(4);
+        for (int i = 0; i < sizes.length; i++) {
+            if (sizes[i] > 0) {
+                OrderSizeDistribution d = new OrderSizeDistribution();
+                d.size = SIZE_LABELS[i];
+                d.count = (int) sizes[i];
+                list.add(d);
+            }
+        }
+        return list;
+    }
+}
@@ -0,0 +1,214 @@
+package com.karan.admin_sunset_point.data.handler;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * LRU cache for analytics results, keyed by the resolved order window and
+ * the query parameters.
+ *
+ * Every analytics query reads orders with
+ * {@code created_at >= datetime(:start, 'start of day') AND created_at < datetime(:end, '+1 day')},
+ * so only the date of {@code start} matters. When {@code end + 1 day} lies in
+ * the future the upper bound does not exclude any existing order, and
+ * "Last 7 Days" asked a minute later maps to the same entry.
+ *
+ * MyContentProvider calls {@link #invalidate(String)} with the created_at of
+ * every order it changes; only entries whose window contains it are dropped.
+ */
+public final class AnalyticsCache {
+
+    private static final DateTimeFormatter SQLITE_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /** Rough budget for cached result objects. */
+    static final long DEFAULT_MAX_BYTES = 512 * 1024;
+
+    /** Estimates the retained size of a cached value in bytes. */
+    public interface Weigher<T> {
+        long weigh(T value);
+    }
+
+    private static AnalyticsCache instance;
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    // Bumped by every invalidation; a result computed across one is not stored
+    private long generation;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    public static synchronized AnalyticsCache getInstance() {
+        if (instance == null) {
+            instance = new AnalyticsCache(DEFAULT_MAX_BYTES);
+        }
+        return instance;
+    }
+
+    AnalyticsCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the cached result for this window and query, computing and
+     * storing it on a miss.
+     * @param query names the query and its extra parameters, e.g. "dishes:revenue:5"
+     * @param start range start, yyyy-MM-dd HH:mm:ss
+     * @param end   range end, yyyy-MM-dd HH:mm:ss
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String query, String start, String end,
+                     Weigher<T> weigher, Callable<T> loader) throws Exception {
+        Window window = Window.of(start, end, LocalDateTime.now());
+        if (window == null) {
+            // Not a range this class understands, let SQLite deal with it
+            return loader.call();
+        }
+        String key = query + "|" + window.key;
+
+        long seenGeneration;
+        synchronized (this) {
+            Entry hit = entries.get(key);
+            if (hit != null) {
+                hits++;
+                return (T) hit.value;
+            }
+            misses++;
+            seenGeneration = generation;
+        }
+
+        T value = loader.call();
+
+        synchronized (this) {
+            if (seenGeneration == generation && value != null) {
+                Entry entry = new Entry(window, value, weigher.weigh(value) + key.length() * 2L);
+                Entry old = entries.put(key, entry);
+                if (old != null) bytes -= old.bytes;
+                bytes += entry.bytes;
+                trim();
+            }
+        }
+        return value;
+    }
+
+    /** Drops every entry whose window contains an order created at {@code createdAt}. */
+    public synchronized void invalidate(String createdAt) {
+        generation++;
+        if (createdAt == null) {
+            invalidateAll();
+            return;
+        }
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry e = it.next();
+            if (e.window.contains(createdAt)) {
+                bytes -= e.bytes;
+                invalidations++;
+                it.remove();
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        invalidations += entries.size();
+        entries.clear();
+        bytes = 0;
+    }
+
+    private void trim() {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (bytes > maxBytes && it.hasNext()) {
+            bytes -= it.next().getValue().bytes;
+            evictions++;
+            it.remove();
+        }
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, invalidations, entries.size(), bytes);
+    }
+
+    public static final class Stats {
+        public final long hits;
+        public final long misses;
+        public final long evictions;
+        public final long invalidations;
+        public final int entries;
+        public final long bytes;
+
+        Stats(long hits, long misses, long evictions, long invalidations, int entries, long bytes) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.invalidations = invalidations;
+            this.entries = entries;
+            this.bytes = bytes;
+        }
+    }
+
+    /** The created_at window [lo, hi) a query reads; hi == null means open ended. */
+    static final class Window {
+        final String lo;
+        final String hi;
+        final String key;
+
+        private Window(String lo, String hi, String key) {
+            this.lo = lo;
+            this.hi = hi;
+            this.key = key;
+        }
+
+        /**
+         * @param start yyyy-MM-dd HH:mm:ss or yyyy-MM-dd
+         * @param end   yyyy-MM-dd HH:mm:ss or yyyy-MM-dd
+         * @return null when either bound cannot be parsed
+         */
+        static Window of(String start, String end, LocalDateTime now) {
+            LocalDate startDay;
+            LocalDateTime endPlusDay;
+            try {
+                startDay = LocalDate.parse(start.substring(0, 10));
+                endPlusDay = (end.length() == 10
+                        ? LocalDate.parse(end).atStartOfDay()
+                        : LocalDateTime.parse(end, SQLITE_FORMAT)).plusDays(1);
+            } catch (RuntimeException e) {
+                return null;
+            }
+            String lo = startDay.atStartOfDay().format(SQLITE_FORMAT);
+            // The sales trend lists every day up to date(end), so it stays in the key
+            String endDay = end.substring(0, 10);
+            if (endPlusDay.isAfter(now)) {
+                return new Window(lo, null, startDay + ".." + endDay + "+");
+            }
+            String hi = endPlusDay.format(SQLITE_FORMAT);
+            return new Window(lo, hi, startDay + ".." + endDay + "<" + hi);
+        }
+
+        boolean contains(String createdAt) {
+            return createdAt.compareTo(lo) >= 0 && (hi == null || createdAt.compareTo(hi) < 0);
+        }
+    }
+
+    private static final class Entry {
+        final Window window;
+        final Object value;
+        final long bytes;
+
+        Entry(Window window, Object value, long bytes) {
+            this.window = window;
+            this.value = value;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.karan.admin_sunset_point.data.handler;
+
+import android.database.Cursor;
+
+import com.karan.admin_sunset_point.data.dao.OrderDao;
+import com.karan.admin_sunset_point.data.entity.OrderAnalysis;
+
+/**
+ * Builds the whole dashboard from one cursor over OrderQueries.ANALYTICS_ROWS
+ * instead of running one query per section.
+ */
+public final class AnalyticsEngine {
+
+    private AnalyticsEngine() {}
+
+    public static OrderAnalysis compute(OrderDao dao, String start, String end) {
+        AnalyticsAccumulator acc = new AnalyticsAccumulator(start, end);
+        try (Cursor c = dao.streamAnalyticsRows(start, end)) {
+            acc.addRows(new CursorAnalyticsRows(c));
+        }
+        return acc.build();
+    }
+
+    private static final class CursorAnalyticsRows implements AnalyticsAccumulator.Rows {
+        private final Cursor c;
+
+        CursorAnalyticsRows(Cursor c) {
+            this.c = c;
+        }
+
+        @Override
+        public boolean moveToNext() {
+            return c.moveToNext();
+        }
+
+        @Override
+        public boolean isNull(int column) {
+            return c.isNull(column);
+        }
+
+        @Override
+        public int getInt(int column) {
+            return c.getInt(column);
+        }
+
+        @Override
+        public long getLong(int column) {
+            return c.getLong(column);
+        }
+
+        @Override
+        public String getString(int column) {
+            return c.getString(column);
+        }
+    }
+}
@@ -12,37 +12,56 @@ import java.util.List;
 public class Handler {
     private static Handler handler;
     private AppDatabase db;
+    private final AnalyticsCache cache = AnalyticsCache.getInstance();
 
     private Handler(){
         db = AppDatabase.getInstance(App.context);
     }
 
-    public static Handler getInstance(){
+    // Synchronized: the read pool's threads may all ask at once
+    public static synchronized Handler getInstance(){
         if(handler == null){
             handler = new Handler();
         }
         return handler;
     }
 
-    public OrderAnalysis getAnalyticsByDateRange(String start, String end) {
-        OrderAnalysis orderAnalysis = new OrderAnalysis();
-        orderAnalysis.orderSummary = db.orderDao().getOrderSummary(start, end);
-        orderAnalysis.categoryPerformances = db.orderDao().getTopCategories(start, end);
-        orderAnalysis.hourlyRushes = db.orderDao().getHourlyRush(start, end);
-        orderAnalysis.salesTrends = db.orderDao().getSalesTrend(start, end);
-        orderAnalysis.orderSizeDistribution = db.orderDao().getOrderSizeDistribution(start, end);
-        return orderAnalysis;
+    public OrderAnalysis getAnalyticsByDateRange(String start, String end) throws Exception {
+        return cache.get("analytics", start, end, Handler::weigh,
+                () -> AnalyticsEngine.compute(db.orderDao(), start, end));
     }
 
-    public List<CategoryPerformance> getCategoryPerformanceByDateRange(String start, String end) {
-        return db.orderDao().getTopCategories(start, end);
+    public List<CategoryPerformance> getCategoryPerformanceByDateRange(String start, String end) throws Exception {
+        return cache.get("categories", start, end, Handler::weigh,
+                () -> db.orderDao().getTopCategories(start, end));
     }
 
-    public List<DishPerformance> getDishPerformance(String start, String end, String type, int limit) {
-        if ("revenue".equals(type)) {
-            return db.orderDao().getTopDishesByRevenue(start, end, limit);
-        } else {
-            return db.orderDao().getTopDishesByQuantity(start, end, limit);
-        }
+    public List<DishPerformance> getDishPerformance(String start, String end, String type, int limit) throws Exception {
+        boolean byRevenue = "revenue".equals(type);
+        return cache.get("dishes:" + (byRevenue ? "revenue" : "quantity") + ":" + limit, start, end, Handler::weigh, () -> {
+            if (byRevenue) {
+                return db.orderDao().getTopDishesByRevenue(start, end, limit);
+            } else {
+                return db.orderDao().getTopDishesByQuantity(start, end, limit);
+            }
+        });
+    }
+
+    public AnalyticsCache.Stats getCacheStats() {
+        return cache.stats();
+    }
+
+    public WriteQueue.Stats getWriteQueueStats() {
+        return WriteQueue.getInstance(db::runInTransaction).stats();
+    }
+
+    // Object header + fields + strings, close enough for the cache budget
+    private static long weigh(List<?> rows) {
+        return 64 + rows.size() * 96L;
+    }
+
+    private static long weigh(OrderAnalysis a) {
+        return 128 + weigh(a.categoryPerformances) + weigh(a.hourlyRushes)
+                + weigh(a.salesTrends) + weigh(a.orderSizeDistribution);
     }
 }
@@ -0,0 +1,105 @@
+package com.karan.admin_sunset_point.data.handler;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Log-linear histogram of non-negative longs in the style of HdrHistogram:
+ * every power of two is split into {@link #SUB_BUCKETS} equal buckets, so a
+ * recorded value is off by at most 1/16 of itself. Values below 16 are exact;
+ * values above {@link #MAX_VALUE} count as MAX_VALUE.
+ *
+ * Recording is a few shifts and one atomic increment, safe from any thread.
+ * Percentiles are read from a {@link #snapshot()}.
+ */
+public final class Histogram {
+
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    /** About 19 hours in microseconds, 64 GiB in bytes. */
+    public static final long MAX_VALUE = (1L << 36) - 1;
+    private static final int BUCKETS = indexOf(MAX_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long value) {
+        if (value < 0) value = 0;
+        if (value > MAX_VALUE) value = MAX_VALUE;
+        counts.incrementAndGet(indexOf(value));
+        total.addAndGet(value);
+        long m;
+        while (value > (m = max.get()) && !max.compareAndSet(m, value)) {
+            // lost the race to a concurrent record, retry against its max
+        }
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+        total.set(0);
+        max.set(0);
+    }
+
+    /**
+     * A copy of the counts. Records that run concurrently may or may not be
+     * included, which is fine for monitoring.
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        return new Snapshot(copy, count, total.get(), max.get());
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        // value >> shift is in [16, 32): the bucket within this power of two
+        return SUB_BUCKETS * (shift + 1) + (int) (value >> shift) - SUB_BUCKETS;
+    }
+
+    /** Largest value that lands in bucket {@code index}. */
+    static long highestIn(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int shift = index / SUB_BUCKETS - 1;
+        long mantissa = index % SUB_BUCKETS + SUB_BUCKETS;
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    public static final class Snapshot {
+        private final long[] counts;
+        public final long count;
+        public final long total;
+        public final long max;
+
+        private Snapshot(long[] counts, long count, long total, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.total = total;
+            this.max = max;
+        }
+
+        /**
+         * Upper bound of the bucket holding the {@code q} quantile (0..1),
+         * never above the largest recorded value. 0 when nothing was recorded.
+         */
+        public long percentile(double q) {
+            if (count == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(q * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) return Math.min(highestIn(i), max);
+            }
+            return max;
+        }
+
+        public long mean() {
+            return count == 0 ? 0 : total / count;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.karan.admin_sunset_point.data.handler;
+
+import com.karan.admin_sunset_point.data.Responses.ResponseWriter;
+import com.karan.admin_sunset_point.data.entity.Dish;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The menu as the "dishes" URI serves it, built once per change of the
+ * dishes table instead of once per request.
+ *
+ * {@link #version} is derived from the JSON itself, so it stays the same
+ * across restarts of the admin app and a counter holding it can keep its copy.
+ */
+public final class MenuSnapshot {
+
+    public final String version;
+    public final String json;
+    /** UTF-8 of {@link #json}. Shared, do not modify. */
+    public final byte[] utf8;
+    /** Dishes by category in menu order. The Dish objects must not be modified either. */
+    public final Map<String, List<Dish>> byCategory;
+
+    private MenuSnapshot(String version, String json, byte[] utf8, Map<String, List<Dish>> byCategory) {
+        this.version = version;
+        this.json = json;
+        this.utf8 = utf8;
+        this.byCategory = byCategory;
+    }
+
+    /** Builds the snapshot from the rows of DishDao.streamDishesByCategory. */
+    public static MenuSnapshot build(ResponseWriter.Rows rows) throws IOException {
+        Map<String, List<Dish>> grouped = ResponseWriter.groupDishes(rows);
+        String json = ResponseWriter.writeDishes(grouped);
+        byte[] utf8 = json.getBytes(StandardCharsets.UTF_8);
+
+        Map<String, List<Dish>> byCategory = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Dish>> e : grouped.entrySet()) {
+            byCategory.put(e.getKey(), Collections.unmodifiableList(new ArrayList<>(e.getValue())));
+        }
+        return new MenuSnapshot(versionOf(utf8), json, utf8, Collections.unmodifiableMap(byCategory));
+    }
+
+    public boolean isVersion(String version) {
+        return this.version.equals(version);
+    }
+
+    private static String versionOf(byte[] utf8) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(utf8);
+            StringBuilder hex = new StringBuilder(16);
+            for (int i = 0; i < 8; i++) {
+                hex.append(Character.forDigit((digest[i] >> 4) & 0xf, 16));
+                hex.append(Character.forDigit(digest[i] & 0xf, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java and Android runtime ships SHA-1
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -19,12 +19,11 @@ import com.karan.admin_sunset_point.data.entity.OrderSummary;
 import com.karan.admin_sunset_point.data.entity.SalesTrend;
 import com.karan.admin_sunset_point.data.handler.DateRangeUtil.DateRange;
 
+import java.io.IOException;
 import java.util.List;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Callable;
 
 public class NativeApi {
-    private final Executor executor = Executors.newSingleThreadExecutor();
     private final WebView webView;
 
     public NativeApi(WebView webView) {
@@ -33,48 +32,40 @@ public class NativeApi {
 
     @JavascriptInterface
     public void getAnalyticsByPredefinedRange(String requestId, String range){
-        executor.execute(() -> {
-            String result = "";
-            try{
-                DateRange dateRange = DateRangeUtil.getDateRange(range);
-                OrderAnalysis orderAnalysis = Handler.getInstance().getAnalyticsByDateRange(dateRange.start, dateRange.end);
-                JSONObject obj = new JSONObject();
-                OrderSummary orderSummary = orderAnalysis.orderSummary;
-                obj.put("totalRevenue", orderSummary.total_revenue);
-                obj.put("avgOrdersPerDay", orderSummary.total_orders);
-                obj.put("avgOrderValue", orderSummary.avg_order_value);
-                obj.put("avgNumberOfItemsPerOrder", orderSummary.avg_number_of_items_per_order);
-                obj.put("totalOrders",orderSummary.total_orders);
-
-                JSONArray categoryPerformanceData = getJsonArray(orderAnalysis);
-                obj.put("categoryPerformanceData", categoryPerformanceData);
-
-                JSONArray hourlyRushData = getHourlyRushData(orderAnalysis);
-                obj.put("hourlyRushData", hourlyRushData);
-
-                JSONArray salesTrendData = getSalesTrendData(orderAnalysis);
-                obj.put("salesTrendData", salesTrendData);
-
-                JSONArray orderSizeData = getSizeData(orderAnalysis);
-                obj.put("orderSizeData",orderSizeData);
-
-
-                result = obj.toString();
-            }catch (Exception e){
-                e.printStackTrace();
-            }
-
-            Log.d("result",result);
-
-            String js = "window.__nativeResolve(" +
-                    JSONObject.quote(requestId) + "," +
-                    JSONObject.quote(result) +
-                    ");";
-
-            webView.post(()->webView.evaluateJavascript(js,null));
+        read(requestId, "getAnalyticsByPredefinedRange", () -> {
+            DateRange dateRange = DateRangeUtil.getDateRange(range);
+            OrderAnalysis orderAnalysis = Handler.getInstance().getAnalyticsByDateRange(dateRange.start, dateRange.end);
+            return getAnalyticsJson(orderAnalysis);
         });
     }
 
+    @NonNull
+    private String getAnalyticsJson(OrderAnalysis orderAnalysis) throws JSONException {
+        JSONObject obj = new JSONObject();
+        OrderSummary orderSummary = orderAnalysis.orderSummary;
+        obj.put("totalRevenue", orderSummary.total_revenue);
+        obj.put("avgOrdersPerDay", orderSummary.total_orders);
+        obj.put("avgOrderValue", orderSummary.avg_order_value);
+        obj.put("avgNumberOfItemsPerOrder", orderSummary.avg_number_of_items_per_order);
+        obj.put("totalOrders",orderSummary.total_orders);
+
+        JSONArray categoryPerformanceData = getJsonArray(orderAnalysis);
+        obj.put("categoryPerformanceData", categoryPerformanceData);
+
+        JSONArray hourlyRushData = getHourlyRushData(orderAnalysis);
+        obj.put("hourlyRushData", hourlyRushData);
+
+        JSONArray salesTrendData = getSalesTrendData(orderAnalysis);
+        obj.put("salesTrendData", salesTrendData);
+
+        JSONArray orderSizeData = getSizeData(orderAnalysis);
+        obj.put("orderSizeData",orderSizeData);
+
+        String result = obj.toString();
+        Log.d("result",result);
+        return result;
+    }
+
     private JSONArray getSizeData(OrderAnalysis orderAnalysis) throws JSONException {
         JSONArray orderSizeData = new JSONArray();
         List<OrderSizeDistribution> orderSizeDistribution = orderAnalysis.orderSizeDistribution;
@@ -147,90 +138,31 @@ public class NativeApi {
 
     @JavascriptInterface
     public void getAnalyticsByDateRange(String requestId, String start, String end){
-        executor.execute(() -> {
-            String result = "";
-            try{
-                Log.d(start,end);
-                DateRange dateRange = new DateRange(start, end);
-                OrderAnalysis orderAnalysis = Handler.getInstance().getAnalyticsByDateRange(dateRange.start, dateRange.end);
-                JSONObject obj = new JSONObject();
-                OrderSummary orderSummary = orderAnalysis.orderSummary;
-                obj.put("totalRevenue", orderSummary.total_revenue);
-                obj.put("avgOrdersPerDay", orderSummary.total_orders);
-                obj.put("avgOrderValue", orderSummary.avg_order_value);
-                obj.put("avgNumberOfItemsPerOrder", orderSummary.avg_number_of_items_per_order);
-                obj.put("totalOrders",orderSummary.total_orders);
-
-                JSONArray categoryPerformanceData = getJsonArray(orderAnalysis);
-                obj.put("categoryPerformanceData", categoryPerformanceData);
-
-                JSONArray hourlyRushData = getHourlyRushData(orderAnalysis);
-                obj.put("hourlyRushData", hourlyRushData);
-
-                JSONArray salesTrendData = getSalesTrendData(orderAnalysis);
-                obj.put("salesTrendData", salesTrendData);
-
-                JSONArray orderSizeData = getSizeData(orderAnalysis);
-                obj.put("orderSizeData",orderSizeData);
-
-
-                result = obj.toString();
-            }catch (Exception e){
-                e.printStackTrace();
-            }
-
-            Log.d("result",result);
-
-            String js = "window.__nativeResolve(" +
-                    JSONObject.quote(requestId) + "," +
-                    JSONObject.quote(result) +
-                    ");";
-
-            webView.post(()->webView.evaluateJavascript(js,null));
+        read(requestId, "getAnalyticsByDateRange", () -> {
+            Log.d(start,end);
+            DateRange dateRange = new DateRange(start, end);
+            OrderAnalysis orderAnalysis = Handler.getInstance().getAnalyticsByDateRange(dateRange.start, dateRange.end);
+            return getAnalyticsJson(orderAnalysis);
         });
     }
 
     @JavascriptInterface
     public void getCategoryPerformanceByDateRange(String requestId, String start, String end){
-        executor.execute(() -> {
-            String result = "";
-            try{
-                DateRange dateRange = new DateRange(start, end);
-                List<CategoryPerformance> categoryPerformances = Handler.getInstance().getCategoryPerformanceByDateRange(dateRange.start, dateRange.end);
-                JSONArray categoryPerformanceData = getCategoryPerformanceData(categoryPerformances);
-                result = categoryPerformanceData.toString();
-            } catch (Exception e){
-                e.printStackTrace();
-            }
-
-            String js = "window.__nativeResolve(" +
-                    JSONObject.quote(requestId) + "," +
-                    JSONObject.quote(result) +
-                    ");";
-
-            webView.post(()->webView.evaluateJavascript(js,null));
+        read(requestId, "getCategoryPerformanceByDateRange", () -> {
+            DateRange dateRange = new DateRange(start, end);
+            List<CategoryPerformance> categoryPerformances = Handler.getInstance().getCategoryPerformanceByDateRange(dateRange.start, dateRange.end);
+            JSONArray categoryPerformanceData = getCategoryPerformanceData(categoryPerformances);
+            return categoryPerformanceData.toString();
         });
     }
 
     @JavascriptInterface
     public void getCategoryPerformanceByPredefinedRange(String requestId, String range){
-        executor.execute(() -> {
-            String result = "";
-            try{
-                DateRange dateRange = DateRangeUtil.getDateRange(range);
-                List<CategoryPerformance> categoryPerformances = Handler.getInstance().getCategoryPerformanceByDateRange(dateRange.start, dateRange.end);
-                JSONArray categoryPerformanceData = getCategoryPerformanceData(categoryPerformances);
-                result = categoryPerformanceData.toString();
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-
-            String js = "window.__nativeResolve(" +
-                    JSONObject.quote(requestId) + "," +
-                    JSONObject.quote(result) +
-                    ");";
-
-            webView.post(()->webView.evaluateJavascript(js,null));
+        read(requestId, "getCategoryPerformanceByPredefinedRange", () -> {
+            DateRange dateRange = DateRangeUtil.getDateRange(range);
+            List<CategoryPerformance> categoryPerformances = Handler.getInstance().getCategoryPerformanceByDateRange(dateRange.start, dateRange.end);
+            JSONArray categoryPerformanceData = getCategoryPerformanceData(categoryPerformances);
+            return categoryPerformanceData.toString();
         });
     }
 
@@ -249,34 +181,120 @@ public class NativeApi {
 
     @JavascriptInterface
     public void getDishPerformanceByPredefinedRange(String requestId, String range,String type, String limit_s){
-        executor.execute(() -> {
-            String result = "";
-            try{
-                DateRange dateRange = DateRangeUtil.getDateRange(range);
-                int limit = Integer.parseInt(limit_s);
-                List<DishPerformance> dishPerformances = Handler.getInstance().getDishPerformance(dateRange.start,dateRange.end,type,limit);
-                JSONArray dishPerformanceData = new JSONArray();
-
-                for (DishPerformance d : dishPerformances) {
-                    JSONObject obj = new JSONObject();
-                    obj.put("id", d.id);
-                    obj.put("name", d.name);
-                    obj.put("category", d.category);
-                    obj.put("sales", d.sales);
-                    obj.put("revenue", d.revenue);
-                    dishPerformanceData.put(obj);
-                }
-
-                result = dishPerformanceData.toString();
-            } catch (Exception e) {
-                e.printStackTrace();
+        read(requestId, "getDishPerformanceByPredefinedRange", () -> {
+            DateRange dateRange = DateRangeUtil.getDateRange(range);
+            int limit = Integer.parseInt(limit_s);
+            List<DishPerformance> dishPerformances = Handler.getInstance().getDishPerformance(dateRange.start,dateRange.end,type,limit);
+            JSONArray dishPerformanceData = new JSONArray();
+
+            for (DishPerformance d : dishPerformances) {
+                JSONObject obj = new JSONObject();
+                obj.put("id", d.id);
+                obj.put("name", d.name);
+                obj.put("category", d.category);
+                obj.put("sales", d.sales);
+                obj.put("revenue", d.revenue);
+                dishPerformanceData.put(obj);
             }
-            String js = "window.__nativeResolve(" +
-                    JSONObject.quote(requestId) + "," +
-                    JSONObject.quote(result) +
-                    ");";
 
-            webView.post(()->webView.evaluateJavascript(js,null));
+            return dishPerformanceData.toString();
         });
     }
-}
\ No newline at end of file
+
+    @JavascriptInterface
+    public void getReadPoolStats(String requestId){
+        ReadExecutor pool = ReadExecutor.getInstance();
+        JSONObject obj = new JSONObject();
+        try {
+            obj.put("threads", pool.poolThreads());
+            obj.put("queued", pool.queuedCount());
+            obj.put("completed", pool.completedCount());
+            JSONArray recent = new JSONArray();
+            for (ReadExecutor.RequestTiming t : pool.recentTimings()) {
+                JSONObject timing = new JSONObject();
+                timing.put("name", t.name);
+                timing.put("queueWaitMs", t.queueWaitMs);
+                timing.put("execMs", t.execMs);
+                recent.put(timing);
+            }
+            obj.put("recent", recent);
+        } catch (JSONException e) {
+            e.printStackTrace();
+        }
+        resolve(requestId, obj.toString());
+    }
+
+    @JavascriptInterface
+    public void getAnalyticsCacheStats(String requestId){
+        AnalyticsCache.Stats stats = Handler.getInstance().getCacheStats();
+        JSONObject obj = new JSONObject();
+        try {
+            obj.put("hits", stats.hits);
+            obj.put("misses", stats.misses);
+            obj.put("evictions", stats.evictions);
+            obj.put("invalidations", stats.invalidations);
+            obj.put("entries", stats.entries);
+            obj.put("bytes", stats.bytes);
+        } catch (JSONException e) {
+            e.printStackTrace();
+        }
+        resolve(requestId, obj.toString());
+    }
+
+    @JavascriptInterface
+    public void getWriteQueueStats(String requestId){
+        WriteQueue.Stats stats = Handler.getInstance().getWriteQueueStats();
+        JSONObject obj = new JSONObject();
+        try {
+            obj.put("commits", stats.commits);
+            obj.put("mutations", stats.mutations);
+            obj.put("retries", stats.retries);
+            obj.put("commitsPerSecond", stats.commitsPerSecond);
+            obj.put("p50Ms", stats.p50Ms);
+            obj.put("p99Ms", stats.p99Ms);
+        } catch (JSONException e) {
+            e.printStackTrace();
+        }
+        resolve(requestId, obj.toString());
+    }
+
+    /** The content provider's ProviderMetrics snapshot, as the "metrics" URI serves it. */
+    @JavascriptInterface
+    public void getProviderMetrics(String requestId){
+        String json = "";
+        try {
+            json = ProviderMetrics.getInstance().toJson();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        resolve(requestId, json);
+    }
+
+    @JavascriptInterface
+    public void resetProviderMetrics(String requestId){
+        ProviderMetrics.getInstance().reset();
+        resolve(requestId, "");
+    }
+
+    /**
+     * Runs a read on the shared pool so independent dashboard requests do not
+     * queue behind each other. Failures resolve with "" as before.
+     */
+    private void read(String requestId, String name, Callable<String> work) {
+        ReadExecutor.getInstance().submit(name, work)
+                .exceptionally(e -> {
+                    e.printStackTrace();
+                    return "";
+                })
+                .thenAccept(result -> resolve(requestId, result));
+    }
+
+    private void resolve(String requestId, String result) {
+        String js = "window.__nativeResolve(" +
+                JSONObject.quote(requestId) + "," +
+                JSONObject.quote(result) +
+                ");";
+
+        webView.post(()->webView.evaluateJavascript(js,null));
+    }
+}
@@ -0,0 +1,280 @@
+package com.karan.admin_sunset_point.data.handler;
+
+import com.karan.admin_sunset_point.data.Responses.ResponseWriter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory copy of the counter's order list: every order OrderQueries.TODAY_ORDERS
+ * would return (today's orders plus any still OPEN), each kept as the JSON
+ * ResponseWriter produces for it.
+ *
+ * The provider loads it once from SQLite, then publishes a new version of an
+ * order after every committed write, tagged with that write's order_changes
+ * seq. Publishing happens in commit order (see WriteQueue.afterCommit), so
+ * the store always equals the database as of {@link Snapshot#seq}.
+ *
+ * Readers take the current immutable snapshot without locking; writers
+ * replace it with a modified copy.
+ *
+ * Dish names are snapshotted into order items, but the category comes from
+ * the dishes table. A dish edit is not reflected here until {@link #reset()}
+ * and the next load.
+ */
+public final class OpenOrderStore {
+
+    private static OpenOrderStore instance;
+
+    private static final Comparator<Version> LIST_ORDER =
+            Comparator.comparing((Version v) -> v.createdAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .thenComparingInt(v -> v.id);
+
+    private final Clock clock;
+    private final AtomicReference<Snapshot> current = new AtomicReference<>(Snapshot.EMPTY);
+
+    public static synchronized OpenOrderStore getInstance() {
+        if (instance == null) {
+            // Matches datetime('now', 'start of day') in the SQL, which is UTC
+            instance = new OpenOrderStore(Clock.systemUTC());
+        }
+        return instance;
+    }
+
+    OpenOrderStore(Clock clock) {
+        this.clock = clock;
+    }
+
+    /** One order as of {@link #seq}. A null json means the order no longer exists. */
+    public static final class Version {
+        final int id;
+        final String createdAt;
+        final String status;
+        final String json;
+        final long seq;
+
+        Version(int id, String createdAt, String status, String json, long seq) {
+            this.id = id;
+            this.createdAt = createdAt;
+            this.status = status;
+            this.json = json;
+            this.seq = seq;
+        }
+
+        /** The same order state as of a later change. */
+        public Version withSeq(long seq) {
+            return new Version(id, createdAt, status, json, seq);
+        }
+    }
+
+    /**
+     * Builds the version of {@code orderId} from the rows of
+     * OrderQueries.ORDER_FOR_PRINT. Call inside the write, after logging the change.
+     */
+    public static Version version(ResponseWriter.Rows rows, int orderId, long seq) throws IOException {
+        Version[] found = new Version[1];
+        ResponseWriter.writeEachOrder(rows, (id, createdAt, status, json) ->
+                found[0] = new Version(id, createdAt, status, json, seq));
+        return found[0] != null ? found[0] : new Version(orderId, null, null, null, seq);
+    }
+
+    /**
+     * Installs the rows of OrderQueries.TODAY_ORDERS, read in the same
+     * transaction as {@code seq}, the latest order_changes seq. Versions
+     * published meanwhile are newer and are kept.
+     */
+    public void load(ResponseWriter.Rows rows, long seq) throws IOException {
+        Map<Integer, Version> loaded = new HashMap<>();
+        ResponseWriter.writeEachOrder(rows, (id, createdAt, status, json) ->
+                loaded.put(id, new Version(id, createdAt, status, json, seq)));
+
+        while (true) {
+            Snapshot cur = current.get();
+            Map<Integer, Version> merged = new HashMap<>(loaded);
+            for (Version v : cur.byId.values()) {
+                if (v.seq > seq) merged.put(v.id, v);
+            }
+            Snapshot next = new Snapshot(merged, Math.max(seq, cur.seq), seq, today());
+            if (current.compareAndSet(cur, next)) return;
+        }
+    }
+
+    /** Replaces the stored order with {@code v} unless a newer version is already there. */
+    public void publish(Version v) {
+        while (true) {
+            Snapshot cur = current.get();
+            Version old = cur.byId.get(v.id);
+            if (old != null && old.seq >= v.seq) return;
+            Map<Integer, Version> byId = new HashMap<>(cur.byId);
+            byId.put(v.id, v);
+            Snapshot next = new Snapshot(byId, Math.max(cur.seq, v.seq), cur.baseline, cur.day);
+            if (current.compareAndSet(cur, next)) return;
+        }
+    }
+
+    /** Forgets everything; queries go to SQLite until the next load. */
+    public void reset() {
+        current.set(Snapshot.EMPTY);
+    }
+
+    public boolean isLoaded() {
+        return current.get().baseline >= 0;
+    }
+
+    /** The JSON array the "orders" URI returns, or null when not loaded. */
+    public String ordersJson() {
+        Snapshot snap = snapshot();
+        if (snap == null) return null;
+        String json = snap.ordersJson;
+        if (json == null) {
+            json = joinOrders(snap.listed());
+            snap.ordersJson = json;
+        }
+        return json;
+    }
+
+    /**
+     * The delta ResponseWriter.writeOrderDelta would write for {@code since},
+     * or null when the store cannot answer it and SQLite has to. A caller
+     * whose {@code day} is not the store's synced before the list rolled
+     * over and gets the full list; a null day is not checked.
+     */
+    public String ordersSinceJson(long since, String day) {
+        Snapshot snap = snapshot();
+        if (snap == null) return null;
+        boolean full = since <= 0 || since > snap.seq || (day != null && !day.equals(snap.day));
+        if (full) {
+            return delta(snap.seq, snap.day, true, snap.listed(), Collections.emptyList());
+        }
+        if (since < snap.baseline) {
+            // Changes before the load are only in the change log
+            return null;
+        }
+
+        List<Version> orders = new ArrayList<>();
+        List<Integer> removed = new ArrayList<>();
+        for (Version v : snap.byId.values()) {
+            if (v.seq <= since) continue;
+            if (snap.isListed(v)) {
+                orders.add(v);
+            } else {
+                removed.add(v.id);
+            }
+        }
+        orders.sort(LIST_ORDER);
+        Collections.sort(removed);
+        return delta(snap.seq, snap.day, false, orders, removed);
+    }
+
+    /** The current snapshot, rolled over to today if needed; null when not loaded. */
+    private Snapshot snapshot() {
+        while (true) {
+            Snapshot cur = current.get();
+            if (cur.baseline < 0) return null;
+            String today = today();
+            if (today.equals(cur.day)) return cur;
+
+            // Yesterday's closed orders leave the list without a change
+            // entry; callers still on the old day get a full list instead.
+            Map<Integer, Version> byId = new HashMap<>();
+            Snapshot rolled = new Snapshot(byId, cur.seq, cur.seq, today);
+            for (Version v : cur.byId.values()) {
+                if (rolled.isListed(v)) byId.put(v.id, v);
+            }
+            if (current.compareAndSet(cur, rolled)) return rolled;
+        }
+    }
+
+    private String today() {
+        return LocalDate.now(clock).toString();
+    }
+
+    private static String joinOrders(List<Version> orders) {
+        int length = 2;
+        for (Version v : orders) length += v.json.length() + 1;
+        StringBuilder out = new StringBuilder(length);
+        appendOrders(out, orders);
+        return out.toString();
+    }
+
+    private static void appendOrders(StringBuilder out, List<Version> orders) {
+        out.append('[');
+        for (int i = 0; i < orders.size(); i++) {
+            if (i > 0) out.append(',');
+            out.append(orders.get(i).json);
+        }
+        out.append(']');
+    }
+
+    private static String delta(long seq, String day, boolean full, List<Version> orders,
+                                List<Integer> removed) {
+        StringBuilder out = new StringBuilder();
+        out.append("{\"seq\":").append(seq)
+                .append(",\"day\":\"").append(day).append('"')
+                .append(",\"full\":").append(full)
+                .append(",\"orders\":");
+        appendOrders(out, orders);
+        out.append(",\"removed\":[");
+        for (int i = 0; i < removed.size(); i++) {
+            if (i > 0) out.append(',');
+            out.append(removed.get(i));
+        }
+        out.append("]}");
+        return out.toString();
+    }
+
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(Collections.emptyMap(), 0, -1, "");
+
+        final Map<Integer, Version> byId;
+        /** Every change up to this seq is applied. */
+        final long seq;
+        /** Loaded from SQLite as of this seq; -1 until loaded. */
+        final long baseline;
+        final String day;
+        final String dayStart;
+        final String dayEnd;
+
+        // Built on first read; racing readers compute the same string
+        volatile String ordersJson;
+
+        Snapshot(Map<Integer, Version> byId, long seq, long baseline, String day) {
+            this.byId = byId;
+            this.seq = seq;
+            this.baseline = baseline;
+            this.day = day;
+            if (day.isEmpty()) {
+                dayStart = dayEnd = "";
+            } else {
+                dayStart = day + " 00:00:00";
+                dayEnd = LocalDate.parse(day).plusDays(1) + " 00:00:00";
+            }
+        }
+
+        /** Same condition as OrderQueries.TODAY_ORDERS. */
+        boolean isListed(Version v) {
+            if (v.json == null) return false;
+            if ("OPEN".equals(v.status)) return true;
+            return v.createdAt != null
+                    && v.createdAt.compareTo(dayStart) >= 0
+                    && v.createdAt.compareTo(dayEnd) < 0;
+        }
+
+        List<Version> listed() {
+            List<Version> list = new ArrayList<>();
+            for (Version v : byId.values()) {
+                if (isListed(v)) list.add(v);
+            }
+            list.sort(LIST_ORDER);
+            return list;
+        }
+    }
+}
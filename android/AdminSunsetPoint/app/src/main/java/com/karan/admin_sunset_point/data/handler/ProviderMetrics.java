@@ -0,0 +1,185 @@
+package com.karan.admin_sunset_point.data.handler;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-operation counters and histograms for MyContentProvider. Every call
+ * records its total time plus the part spent in the database and the part
+ * spent building or parsing JSON, and the size of the payload it returned
+ * or received.
+ *
+ * Recording is lock-free (see {@link Histogram}); {@link #toJson()} is what
+ * the "metrics" URI and the dashboard panel show. Times are in microseconds.
+ */
+public final class ProviderMetrics {
+
+    public enum Op {
+        QUERY_ORDERS("query.orders"),
+        QUERY_ORDERS_SINCE("query.ordersSince"),
+        QUERY_ORDER_ROWS("query.orderRows"),
+        QUERY_DISHES("query.dishes"),
+        QUERY_PRINT("query.orderPrint"),
+        QUERY_PRINT_BATCH("query.orderPrintBatch"),
+        QUERY_PRINT_KOT("query.orderPrintKot"),
+        INSERT_ORDER("insert.createOrder"),
+        UPDATE_SERVED("update.toggleServed"),
+        UPDATE_PAYMENT("update.togglePayment"),
+        UPDATE_CLOSE("update.closeOrder"),
+        UPDATE_CANCEL("update.cancelOrder"),
+        UPDATE_REBUILD_ROLLUPS("update.rebuildRollups"),
+        UPDATE_CHECK_TOTALS("update.checkOrderTotals"),
+        UPDATE_RELEASE_KOT("update.releaseKot"),
+        DELETE_ITEM("delete.item"),
+        LOAD_OPEN_ORDERS("load.openOrders");
+
+        public final String key;
+
+        Op(String key) {
+            this.key = key;
+        }
+    }
+
+    private static ProviderMetrics instance;
+
+    private final Stats[] stats = new Stats[Op.values().length];
+    private volatile long sinceNanos = System.nanoTime();
+
+    public static synchronized ProviderMetrics getInstance() {
+        if (instance == null) {
+            instance = new ProviderMetrics();
+        }
+        return instance;
+    }
+
+    ProviderMetrics() {
+        for (Op op : Op.values()) stats[op.ordinal()] = new Stats();
+    }
+
+    /** Starts timing one provider call. Pass the result to {@link #end}. */
+    public Sample begin(Op op) {
+        return new Sample(op);
+    }
+
+    public void end(Sample sample) {
+        long now = System.nanoTime();
+        Stats s = stats[sample.op.ordinal()];
+        s.total.record((now - sample.startNanos) / 1000);
+        s.db.record(sample.dbNanos / 1000);
+        s.serialize.record(sample.serializeNanos / 1000);
+        if (sample.bytes >= 0) s.bytes.record(sample.bytes);
+        if (sample.failed) s.errors.incrementAndGet();
+    }
+
+    public void reset() {
+        for (Stats s : stats) {
+            s.total.reset();
+            s.db.reset();
+            s.serialize.reset();
+            s.bytes.reset();
+            s.errors.set(0);
+        }
+        sinceNanos = System.nanoTime();
+    }
+
+    /**
+     * {"sinceMs": n, "ops": {"query.orders": {"count", "errors",
+     * "totalUs", "dbUs", "serializeUs", "bytes"}, ...}} where each of the last
+     * four is {"p50", "p95", "p99", "max", "mean"}. Operations never called
+     * are left out.
+     */
+    public String toJson() throws IOException {
+        StringWriter out = new StringWriter(1024);
+        JsonWriter json = new JsonWriter(out);
+        json.beginObject();
+        json.name("sinceMs").value((System.nanoTime() - sinceNanos) / 1_000_000);
+        json.name("ops").beginObject();
+        for (Op op : Op.values()) {
+            Stats s = stats[op.ordinal()];
+            Histogram.Snapshot total = s.total.snapshot();
+            if (total.count == 0) continue;
+
+            json.name(op.key).beginObject();
+            json.name("count").value(total.count);
+            json.name("errors").value(s.errors.get());
+            writeSummary(json, "totalUs", total);
+            writeSummary(json, "dbUs", s.db.snapshot());
+            writeSummary(json, "serializeUs", s.serialize.snapshot());
+            writeSummary(json, "bytes", s.bytes.snapshot());
+            json.endObject();
+        }
+        json.endObject();
+        json.endObject();
+        json.flush();
+        return out.toString();
+    }
+
+    private static void writeSummary(JsonWriter json, String name, Histogram.Snapshot h) throws IOException {
+        json.name(name).beginObject();
+        json.name("p50").value(h.percentile(0.50));
+        json.name("p95").value(h.percentile(0.95));
+        json.name("p99").value(h.percentile(0.99));
+        json.name("max").value(h.max);
+        json.name("mean").value(h.mean());
+        json.endObject();
+    }
+
+    private static final class Stats {
+        final Histogram total = new Histogram();
+        final Histogram db = new Histogram();
+        final Histogram serialize = new Histogram();
+        final Histogram bytes = new Histogram();
+        final AtomicLong errors = new AtomicLong();
+    }
+
+    /**
+     * One call in progress. The provider marks the end of each database or
+     * JSON phase; time between marks is attributed to that phase. Used by
+     * one thread only.
+     */
+    public static final class Sample {
+        final Op op;
+        final long startNanos;
+        long dbNanos;
+        long serializeNanos;
+        long bytes = -1;
+        boolean failed;
+        private long mark;
+
+        Sample(Op op) {
+            this.op = op;
+            this.startNanos = System.nanoTime();
+            this.mark = startNanos;
+        }
+
+        /** Restarts the phase clock, e.g. after work that belongs to neither phase. */
+        public void skip() {
+            mark = System.nanoTime();
+        }
+
+        /** The time since the last mark was spent in the database. */
+        public void db() {
+            long now = System.nanoTime();
+            dbNanos += now - mark;
+            mark = now;
+        }
+
+        /** The time since the last mark was spent building or parsing JSON. */
+        public void serialize() {
+            long now = System.nanoTime();
+            serializeNanos += now - mark;
+            mark = now;
+        }
+
+        public void bytes(long bytes) {
+            this.bytes = bytes;
+        }
+
+        public void failed() {
+            failed = true;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.karan.admin_sunset_point.data.handler;
+
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Small bounded pool for dashboard reads. Room keeps WAL mode on, so readers do
+ * not block each other, but the framework only holds a handful of reader
+ * connections; more threads than that would just queue inside SQLite.
+ *
+ * Every task records how long it waited for a thread and how long it ran. The
+ * last {@link #HISTORY} timings are kept for {@link #recentTimings()}.
+ */
+public final class ReadExecutor {
+
+    private static final String TAG = "ReadExecutor";
+    private static final boolean VERBOSE = Log.isLoggable(TAG, Log.DEBUG);
+
+    /** Android opens at most four WAL reader connections per database. */
+    private static final int MAX_READERS = 4;
+    private static final int HISTORY = 64;
+
+    private static ReadExecutor instance;
+
+    private final ThreadPoolExecutor pool;
+
+    private final RequestTiming[] history = new RequestTiming[HISTORY];
+    private int historyNext;
+    private long completed;
+
+    public static synchronized ReadExecutor getInstance() {
+        if (instance == null) {
+            instance = new ReadExecutor(poolSize());
+        }
+        return instance;
+    }
+
+    static int poolSize() {
+        return Math.max(2, Math.min(Runtime.getRuntime().availableProcessors(), MAX_READERS));
+    }
+
+    private ReadExecutor(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread t = new Thread(() -> {
+                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                runnable.run();
+            }, "db-read-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), factory);
+        pool.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Runs {@code work} on the read pool.
+     * @param name short label used in the timing history, e.g. the JS method
+     */
+    public <T> CompletableFuture<T> submit(String name, Callable<T> work) {
+        long enqueuedAt = SystemClock.elapsedRealtime();
+        return CompletableFuture.supplyAsync(() -> {
+            long startedAt = SystemClock.elapsedRealtime();
+            try {
+                return work.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            } finally {
+                long finishedAt = SystemClock.elapsedRealtime();
+                RequestTiming timing = new RequestTiming(name, startedAt - enqueuedAt, finishedAt - startedAt);
+                record(timing);
+                if (VERBOSE) {
+                    Log.d(TAG, name + " waited " + timing.queueWaitMs + "ms, ran " + timing.execMs + "ms");
+                }
+            }
+        }, pool);
+    }
+
+    private synchronized void record(RequestTiming timing) {
+        history[historyNext] = timing;
+        historyNext = (historyNext + 1) % HISTORY;
+        completed++;
+    }
+
+    /** Timings of the most recent requests, oldest first. */
+    public synchronized List<RequestTiming> recentTimings() {
+        List<RequestTiming> list = new ArrayList<>(HISTORY);
+        for (int i = 0; i < HISTORY; i++) {
+            RequestTiming t = history[(historyNext + i) % HISTORY];
+            if (t != null) list.add(t);
+        }
+        return list;
+    }
+
+    public synchronized long completedCount() {
+        return completed;
+    }
+
+    public int poolThreads() {
+        return pool.getMaximumPoolSize();
+    }
+
+    public int queuedCount() {
+        return pool.getQueue().size();
+    }
+
+    public static final class RequestTiming {
+        public final String name;
+        public final long queueWaitMs;
+        public final long execMs;
+
+        RequestTiming(String name, long queueWaitMs, long execMs) {
+            this.name = name;
+            this.queueWaitMs = queueWaitMs;
+            this.execMs = execMs;
+        }
+    }
+}
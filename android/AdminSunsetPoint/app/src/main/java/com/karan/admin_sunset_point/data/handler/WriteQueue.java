@@ -0,0 +1,269 @@
+package com.karan.admin_sunset_point.data.handler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for the provider's mutations. Callers block in
+ * {@link #submit(Callable)} while a single writer thread collects whatever
+ * arrives within {@link #DEFAULT_WINDOW_MS} of the first mutation and runs the
+ * group in one transaction, so a burst of taps at the counter pays for one
+ * journal sync instead of one per tap. Every caller still gets its own return
+ * value.
+ *
+ * If a mutation throws, the group is rolled back and each mutation is retried
+ * in a transaction of its own. Only the failing caller sees the exception,
+ * Errors included; the writer thread keeps running.
+ * Mutations must not have side effects outside the database; the caller runs
+ * those after submit returns, when the change is committed. Work that has to
+ * follow commit order goes to {@link #afterCommit(Runnable)} instead.
+ */
+public final class WriteQueue {
+
+    /** How the queue opens a transaction, e.g. {@code db::runInTransaction}. */
+    public interface Transactions {
+        void runInTransaction(Runnable body);
+    }
+
+    public static final long DEFAULT_WINDOW_MS = 2;
+    static final int MAX_GROUP = 64;
+
+    // Latency samples kept for the percentiles in stats()
+    private static final int HISTORY = 1024;
+
+    private static WriteQueue instance;
+
+    private final Transactions transactions;
+    private final long windowNanos;
+    private final LinkedBlockingQueue<Pending<?>> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+
+    // Writer thread only: hooks registered by the mutations of the open transaction
+    private final List<Runnable> hooks = new ArrayList<>();
+
+    private final long startedAt = System.nanoTime();
+    private final long[] latencies = new long[HISTORY];
+    private int latencyNext;
+    private int latencyCount;
+    private long commits;
+    private long mutations;
+    private long retries;
+
+    /** The app's queue; {@code transactions} only matters on the first call. */
+    public static synchronized WriteQueue getInstance(Transactions transactions) {
+        if (instance == null) {
+            instance = new WriteQueue(transactions, DEFAULT_WINDOW_MS);
+        }
+        return instance;
+    }
+
+    public WriteQueue(Transactions transactions, long windowMs) {
+        this.transactions = transactions;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        writer = new Thread(this::loop, "db-write");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Runs {@code mutation} in the next group transaction and returns its
+     * result once that transaction committed.
+     */
+    public <T> T submit(Callable<T> mutation) throws Exception {
+        if (Thread.currentThread() == writer) {
+            // Already inside a group transaction
+            return mutation.call();
+        }
+        Pending<T> pending = new Pending<>(mutation);
+        queue.add(pending);
+        try {
+            return pending.future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) throw (Exception) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw e;
+        }
+    }
+
+    /**
+     * Runs {@code hook} on the writer thread right after the transaction of
+     * the calling mutation commits, before the next group starts. Hooks
+     * therefore run in commit order. Dropped if the transaction rolls back.
+     * May only be called from inside a mutation.
+     */
+    public void afterCommit(Runnable hook) {
+        if (Thread.currentThread() != writer) {
+            throw new IllegalStateException("afterCommit outside a mutation");
+        }
+        hooks.add(hook);
+    }
+
+    private void loop() {
+        List<Pending<?>> group = new ArrayList<>();
+        while (true) {
+            try {
+                group.add(queue.take());
+                long deadline = System.nanoTime() + windowNanos;
+                while (group.size() < MAX_GROUP) {
+                    long left = deadline - System.nanoTime();
+                    Pending<?> next = left > 0 ? queue.poll(left, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) break;
+                    group.add(next);
+                }
+                commit(group);
+            } catch (InterruptedException e) {
+                return;
+            } catch (Throwable t) {
+                // Whatever broke, no caller of this group may wait forever
+                for (Pending<?> p : group) p.future.completeExceptionally(t);
+                hooks.clear();
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void commit(List<Pending<?>> group) {
+        try {
+            hooks.clear();
+            transactions.runInTransaction(() -> {
+                for (Pending<?> p : group) p.run();
+            });
+            recordCommit();
+            runHooks();
+            for (Pending<?> p : group) finish(p, null);
+            return;
+        } catch (Throwable e) {
+            if (group.size() == 1) {
+                finish(group.get(0), e);
+                return;
+            }
+        }
+
+        // Nothing of the group was committed; find the one that fails
+        synchronized (this) {
+            retries++;
+        }
+        for (Pending<?> p : group) {
+            Throwable failure = null;
+            hooks.clear();
+            try {
+                transactions.runInTransaction(p::run);
+            } catch (Throwable e) {
+                failure = e;
+            }
+            if (failure == null) {
+                recordCommit();
+                runHooks();
+            }
+            finish(p, failure);
+        }
+    }
+
+    private void runHooks() {
+        for (Runnable hook : hooks) {
+            try {
+                hook.run();
+            } catch (Throwable e) {
+                // The data is committed; a broken hook must not fail the callers
+                e.printStackTrace();
+            }
+        }
+        hooks.clear();
+    }
+
+    private void finish(Pending<?> p, Throwable failure) {
+        synchronized (this) {
+            latencies[latencyNext] = System.nanoTime() - p.enqueuedAt;
+            latencyNext = (latencyNext + 1) % HISTORY;
+            latencyCount = Math.min(latencyCount + 1, HISTORY);
+            mutations++;
+        }
+        if (failure == null) {
+            p.complete();
+        } else {
+            p.future.completeExceptionally(
+                    failure instanceof MutationException ? failure.getCause() : failure);
+        }
+    }
+
+    private synchronized void recordCommit() {
+        commits++;
+    }
+
+    public synchronized Stats stats() {
+        long[] sorted = Arrays.copyOf(latencies, latencyCount);
+        Arrays.sort(sorted);
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+        return new Stats(commits, mutations, retries, commits / Math.max(seconds, 1e-3),
+                percentileMs(sorted, 0.5), percentileMs(sorted, 0.99));
+    }
+
+    private static double percentileMs(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))] / 1e6;
+    }
+
+    public static final class Stats {
+        public final long commits;
+        public final long mutations;
+        /** Groups that were rolled back and replayed one mutation at a time. */
+        public final long retries;
+        /** Averaged over the queue's lifetime. */
+        public final double commitsPerSecond;
+        /** Over the last HISTORY mutations, from submit to commit. */
+        public final double p50Ms;
+        public final double p99Ms;
+
+        Stats(long commits, long mutations, long retries, double commitsPerSecond,
+              double p50Ms, double p99Ms) {
+            this.commits = commits;
+            this.mutations = mutations;
+            this.retries = retries;
+            this.commitsPerSecond = commitsPerSecond;
+            this.p50Ms = p50Ms;
+            this.p99Ms = p99Ms;
+        }
+    }
+
+    /** Carries a checked exception out of the transaction body. */
+    private static final class MutationException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        MutationException(Exception cause) {
+            super(cause);
+        }
+    }
+
+    private static final class Pending<T> {
+        final Callable<T> mutation;
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        final long enqueuedAt = System.nanoTime();
+        T result;
+
+        Pending(Callable<T> mutation) {
+            this.mutation = mutation;
+        }
+
+        void run() {
+            try {
+                result = mutation.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new MutationException(e);
+            }
+        }
+
+        void complete() {
+            future.complete(result);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.karan.admin_sunset_point.data.Responses;
+
+import com.google.gson.Gson;
+import com.karan.admin_sunset_point.data.entity.OrderWithItemsRow;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The provider's orders JSON as it was built before ResponseWriter: Room maps
+ * every joined row to an OrderWithItemsRow (OrderDao.getTodayOrders), the
+ * rows are regrouped through a LinkedHashMap of OrderResponse, and Gson
+ * serializes the result. Kept as the reference the streaming writer is
+ * checked and benchmarked against.
+ */
+public final class ReferenceOrders {
+
+    private ReferenceOrders() {}
+
+    public static String toJson(ResponseWriter.Rows rows) {
+        return new Gson().toJson(group(toEntities(rows)));
+    }
+
+    /** What Room's generated code for a List<OrderWithItemsRow> query does. */
+    static List<OrderWithItemsRow> toEntities(ResponseWriter.Rows rows) {
+        int orderId = rows.getColumnIndexOrThrow("order_id");
+        int orderTag = rows.getColumnIndexOrThrow("order_tag");
+        int createdAt = rows.getColumnIndexOrThrow("created_at");
+        int orderStatus = rows.getColumnIndexOrThrow("order_status");
+        int isPaymentDone = rows.getColumnIndexOrThrow("is_payment_done");
+        int orderTotal = rows.getColumnIndexOrThrow("order_total");
+        int orderItemId = rows.getColumnIndexOrThrow("order_item_id");
+        int quantity = rows.getColumnIndexOrThrow("quantity");
+        int itemStatus = rows.getColumnIndexOrThrow("item_status");
+        int price = rows.getColumnIndexOrThrow("price");
+        int dishName = rows.getColumnIndexOrThrow("dish_name");
+        int category = rows.getColumnIndexOrThrow("category");
+
+        List<OrderWithItemsRow> list = new ArrayList<>();
+        while (rows.moveToNext()) {
+            OrderWithItemsRow r = new OrderWithItemsRow();
+            r.order_id = rows.getInt(orderId);
+            r.order_tag = rows.isNull(orderTag) ? null : rows.getString(orderTag);
+            r.created_at = rows.isNull(createdAt) ? null : rows.getString(createdAt);
+            r.order_status = rows.getString(orderStatus);
+            r.is_payment_done = rows.getInt(isPaymentDone) != 0;
+            r.order_total = rows.getInt(orderTotal);
+            r.order_item_id = rows.isNull(orderItemId) ? null : rows.getInt(orderItemId);
+            r.quantity = rows.isNull(quantity) ? null : rows.getInt(quantity);
+            r.item_status = rows.isNull(itemStatus) ? null : rows.getString(itemStatus);
+            r.price = rows.isNull(price) ? null : rows.getInt(price);
+            r.dish_name = rows.isNull(dishName) ? null : rows.getString(dishName);
+            r.category = rows.isNull(category) ? null : rows.getString(category);
+            list.add(r);
+        }
+        return list;
+    }
+
+    static List<OrderResponse> group(List<OrderWithItemsRow> rows) {
+        Map<Integer, OrderResponse> map = new LinkedHashMap<>();
+        for (OrderWithItemsRow row : rows) {
+            OrderResponse order = map.get(row.order_id);
+            if (order == null) {
+                order = new OrderResponse();
+                order.id = row.order_id;
+                order.tag = row.order_tag;
+                order.createdAt = row.created_at;
+                order.status = row.order_status;
+                order.paymentDone = row.is_payment_done;
+                order.orderTotal = row.order_total;
+                map.put(row.order_id, order);
+            }
+
+            if (row.order_item_id != null) {
+                OrderItemResponse item = new OrderItemResponse();
+                item.id = row.order_item_id;
+                item.quantity = row.quantity;
+                item.status = row.item_status;
+                item.name = row.dish_name;
+                item.category = row.category;
+                item.price = row.price;
+                order.items.add(item);
+            }
+        }
+        return new ArrayList<>(map.values());
+    }
+}
@@ -0,0 +1,244 @@
+package com.karan.admin_sunset_point.data.Responses;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.karan.admin_sunset_point.data.ResultSetRows;
+import com.karan.admin_sunset_point.data.TestDatabase;
+import com.karan.admin_sunset_point.data.dao.DishQueries;
+import com.karan.admin_sunset_point.data.dao.OrderQueries;
+
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * The streaming writer must produce the same JSON the provider used to build
+ * from OrderResponse objects with Gson, see ReferenceOrders.
+ */
+public class ResponseWriterTest {
+
+    // About 2.5 item rows per order, so roughly 200 / 2,000 / 20,000 item rows
+    private static final int[] ORDER_COUNTS = {80, 800, 8_000};
+
+    @Test
+    public void orders_matchGsonOutput() throws Exception {
+        for (int orders : ORDER_COUNTS) {
+            try (Connection db = seeded(orders)) {
+                String expected = gsonOrders(db, OrderQueries.TODAY_ORDERS);
+                String actual;
+                try (Statement s = db.createStatement();
+                     ResultSet rs = s.executeQuery(OrderQueries.TODAY_ORDERS)) {
+                    actual = ResponseWriter.writeOrders(new ResultSetRows(rs));
+                }
+                assertTrue(expected.length() > 2);
+                assertEquals(orders + " orders", expected, actual);
+            }
+        }
+    }
+
+    @Test
+    public void orderForPrint_matchesGsonOutput() throws Exception {
+        try (Connection db = seeded(50)) {
+            for (int orderId : new int[]{1, 2, 3, 25}) {
+                String sql = OrderQueries.ORDER_FOR_PRINT.replace(":orderId", String.valueOf(orderId));
+                String expected = gsonOrders(db, sql);
+                // The provider returns the single order, not a list
+                expected = expected.substring(1, expected.length() - 1);
+                try (Statement s = db.createStatement();
+                     ResultSet rs = s.executeQuery(sql)) {
+                    assertEquals(expected, ResponseWriter.writeOrder(new ResultSetRows(rs)));
+                }
+            }
+            try (Statement s = db.createStatement();
+                 ResultSet rs = s.executeQuery(OrderQueries.ORDER_FOR_PRINT.replace(":orderId", "999999"))) {
+                assertEquals("{}", ResponseWriter.writeOrder(new ResultSetRows(rs)));
+            }
+        }
+    }
+
+    @Test
+    public void ordersForPrint_areTheSingleOrdersInIdOrder() throws Exception {
+        try (Connection db = seeded(50)) {
+            StringBuilder expected = new StringBuilder("[");
+            for (int orderId : new int[]{2, 3, 25}) {
+                String sql = OrderQueries.ORDER_FOR_PRINT.replace(":orderId", String.valueOf(orderId));
+                try (Statement s = db.createStatement();
+                     ResultSet rs = s.executeQuery(sql)) {
+                    if (expected.length() > 1) expected.append(',');
+                    expected.append(ResponseWriter.writeOrder(new ResultSetRows(rs)));
+                }
+            }
+            expected.append(']');
+
+            // Unknown ids are left out, whatever order the ids came in
+            String sql = OrderQueries.ORDERS_FOR_PRINT.replace(":orderIds", "25, 999999, 3, 2");
+            try (Statement s = db.createStatement();
+                 ResultSet rs = s.executeQuery(sql)) {
+                assertEquals(expected.toString(), ResponseWriter.writeOrders(new ResultSetRows(rs)));
+            }
+        }
+    }
+
+    @Test
+    public void orders_pooledCharReadsMatchReference() throws Exception {
+        try (Connection db = seeded(800);
+             PreparedStatement ps = db.prepareStatement(OrderQueries.TODAY_ORDERS)) {
+            String expected = gsonOrders(db, OrderQueries.TODAY_ORDERS);
+            // Twice, so the second pass is served from the thread's pool
+            for (int pass = 0; pass < 2; pass++) {
+                try (ResultSet rs = ps.executeQuery()) {
+                    assertEquals(expected, ResponseWriter.writeOrders(new CharCopyRows(new ResultSetRows(rs))));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void dishes_groupedInFirstSeenOrder() throws Exception {
+        try (Connection db = TestDatabase.openInMemory()) {
+            try (Statement s = db.createStatement()) {
+                s.execute("INSERT INTO dishes (dish_name, category, price) VALUES " +
+                        "('Tea', 'Hot Beverage', 2000), ('Fries', 'Fries', 6000), " +
+                        "('Coffee', 'Hot Beverage', 3000), ('Say \"cheese\" / <b>', 'Extra', 3000)");
+            }
+
+            JsonObject expected = new JsonObject();
+            try (Statement s = db.createStatement();
+                 ResultSet rs = s.executeQuery("SELECT * FROM dishes ORDER BY dish_id ASC")) {
+                while (rs.next()) {
+                    String category = rs.getString("category");
+                    if (!expected.has(category)) expected.add(category, new JsonArray());
+                    JsonObject j = new JsonObject();
+                    j.addProperty("id", rs.getInt("dish_id"));
+                    j.addProperty("name", rs.getString("dish_name"));
+                    j.addProperty("price", rs.getInt("price"));
+                    expected.getAsJsonArray(category).add(j);
+                }
+            }
+
+            String actual;
+            try (Statement s = db.createStatement();
+                 ResultSet rs = s.executeQuery(DishQueries.DISHES_BY_CATEGORY)) {
+                actual = ResponseWriter.writeDishes(new ResultSetRows(rs));
+            }
+            assertEquals(expected, JsonParser.parseString(actual));
+            assertEquals(new ArrayList<>(expected.keySet()),
+                    new ArrayList<>(JsonParser.parseString(actual).getAsJsonObject().keySet()));
+        }
+    }
+
+    @Test
+    public void orderDelta_reportsChangedAndRemovedOrders() throws Exception {
+        try (Connection db = seeded(50)) {
+            try (Statement s = db.createStatement()) {
+                s.execute("INSERT INTO order_changes (order_id) VALUES (1), (2), (4), (2)");
+                // Order 4 was cancelled, which deletes it
+                s.execute("DELETE FROM orders WHERE order_id = 4");
+            }
+
+            String json;
+            try (PreparedStatement ps = db.prepareStatement(OrderQueries.TODAY_ORDERS_CHANGED_SINCE)) {
+                ps.setLong(1, 1);
+                try (ResultSet rs = ps.executeQuery()) {
+                    json = ResponseWriter.writeOrderDelta(new ResultSetRows(rs), 4, "2026-10-18", false,
+                            Arrays.asList(2, 4));
+                }
+            }
+
+            JsonObject delta = JsonParser.parseString(json).getAsJsonObject();
+            assertEquals(4, delta.get("seq").getAsLong());
+            assertEquals("2026-10-18", delta.get("day").getAsString());
+            assertFalse(delta.get("full").getAsBoolean());
+            JsonArray orders = delta.getAsJsonArray("orders");
+            assertEquals(1, orders.size());
+            assertEquals(2, orders.get(0).getAsJsonObject().get("id").getAsInt());
+            assertEquals(JsonParser.parseString("[4]"), delta.get("removed"));
+
+            // The order itself is written exactly like in the full list
+            String full = gsonOrders(db, OrderQueries.TODAY_ORDERS);
+            JsonArray all = JsonParser.parseString(full).getAsJsonArray();
+            for (int i = 0; i < all.size(); i++) {
+                if (all.get(i).getAsJsonObject().get("id").getAsInt() == 2) {
+                    assertEquals(all.get(i), orders.get(0));
+                }
+            }
+        }
+    }
+
+    private static Connection seeded(int orders) throws Exception {
+        Connection db = TestDatabase.openInMemory();
+        TestDatabase.seed(db, orders, 1, orders);
+        try (Statement s = db.createStatement()) {
+            // Exercise null handling and Gson's HTML escaping
+            s.executeUpdate("UPDATE orders SET order_tag = NULL WHERE order_id % 7 = 0");
+            s.executeUpdate("UPDATE orders SET order_tag = '<Table & \"5\"> =''' WHERE order_id % 11 = 0");
+            // Orders without items and two orders sharing a timestamp
+            s.executeUpdate("DELETE FROM order_items WHERE order_id % 13 = 0");
+            s.executeUpdate("UPDATE orders SET created_at = (SELECT created_at FROM orders WHERE order_id = 2) " +
+                    "WHERE order_id = 3");
+        }
+        return db;
+    }
+
+    /** The pre-streaming provider code, see ReferenceOrders. */
+    private static String gsonOrders(Connection db, String sql) throws Exception {
+        try (PreparedStatement ps = db.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            return ReferenceOrders.toJson(new ResultSetRows(rs));
+        }
+    }
+
+    /** Reads pooled text through a reused char array, like CursorRows does. */
+    private static final class CharCopyRows implements ResponseWriter.Rows {
+        private final ResponseWriter.Rows rows;
+        private char[] chars = new char[4];
+
+        CharCopyRows(ResponseWriter.Rows rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean moveToNext() {
+            return rows.moveToNext();
+        }
+
+        @Override
+        public int getColumnIndexOrThrow(String column) {
+            return rows.getColumnIndexOrThrow(column);
+        }
+
+        @Override
+        public boolean isNull(int column) {
+            return rows.isNull(column);
+        }
+
+        @Override
+        public int getInt(int column) {
+            return rows.getInt(column);
+        }
+
+        @Override
+        public String getString(int column) {
+            return rows.getString(column);
+        }
+
+        @Override
+        public String getPooledString(int column, StringPool pool) {
+            String s = rows.getString(column);
+            if (s == null) return null;
+            if (s.length() > chars.length) chars = new char[s.length()];
+            s.getChars(0, s.length(), chars, 0);
+            return pool.intern(chars, s.length());
+        }
+    }
+}
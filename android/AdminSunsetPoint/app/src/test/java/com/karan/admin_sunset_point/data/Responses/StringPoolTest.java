@@ -0,0 +1,57 @@
+package com.karan.admin_sunset_point.data.Responses;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class StringPoolTest {
+
+    @Test
+    public void intern_returnsTheSameInstanceForEqualChars() {
+        StringPool pool = new StringPool(16);
+        String served = pool.intern(chars("SERVED"), 6);
+        assertEquals("SERVED", served);
+        assertSame(served, pool.intern(chars("SERVED"), 6));
+        assertSame(served, pool.intern(new String("SERVED")));
+        // Only the first length chars count
+        assertSame(served, pool.intern(chars("SERVEDxyz"), 6));
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    public void intern_keepsDistinctValuesApart() {
+        StringPool pool = new StringPool(64);
+        // "Aa" and "BB" share a hash code
+        String aa = pool.intern(chars("Aa"), 2);
+        String bb = pool.intern(chars("BB"), 2);
+        assertEquals("Aa", aa);
+        assertEquals("BB", bb);
+        assertSame(aa, pool.intern("Aa"));
+        assertSame(bb, pool.intern("BB"));
+        assertEquals("", pool.intern(chars(""), 0));
+        assertNull(pool.intern(null));
+        assertEquals(3, pool.size());
+    }
+
+    @Test
+    public void intern_startsOverWhenFull() {
+        StringPool pool = new StringPool(8);
+        String first = pool.intern(chars("dish 0"), 6);
+        for (int i = 1; i < 8; i++) pool.intern("dish " + i);
+        assertEquals(8, pool.size());
+        assertSame(first, pool.intern(chars("dish 0"), 6));
+
+        pool.intern("dish 8");
+        assertEquals(1, pool.size());
+        String again = pool.intern(chars("dish 0"), 6);
+        assertEquals(first, again);
+        assertNotSame(first, again);
+    }
+
+    private static char[] chars(String s) {
+        return s.toCharArray();
+    }
+}
@@ -0,0 +1,61 @@
+package com.karan.admin_sunset_point.data;
+
+import com.karan.admin_sunset_point.data.handler.AnalyticsAccumulator;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/** JDBC stand-in for AnalyticsEngine's cursor; takes the cursor's 0-based columns. */
+public final class ResultSetAnalyticsRows implements AnalyticsAccumulator.Rows {
+
+    private final ResultSet rs;
+
+    public ResultSetAnalyticsRows(ResultSet rs) {
+        this.rs = rs;
+    }
+
+    @Override
+    public boolean moveToNext() {
+        try {
+            return rs.next();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public boolean isNull(int column) {
+        try {
+            return rs.getObject(column + 1) == null;
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public int getInt(int column) {
+        try {
+            return rs.getInt(column + 1);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public long getLong(int column) {
+        try {
+            return rs.getLong(column + 1);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public String getString(int column) {
+        try {
+            return rs.getString(column + 1);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.karan.admin_sunset_point.data;
+
+import com.karan.admin_sunset_point.data.Responses.ResponseWriter;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/** JDBC stand-in for CursorRows. Column indices are the 1-based JDBC ones. */
+public final class ResultSetRows implements ResponseWriter.Rows {
+
+    private final ResultSet rs;
+
+    public ResultSetRows(ResultSet rs) {
+        this.rs = rs;
+    }
+
+    @Override
+    public boolean moveToNext() {
+        try {
+            return rs.next();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public int getColumnIndexOrThrow(String column) {
+        try {
+            return rs.findColumn(column);
+        } catch (SQLException e) {
+            throw new IllegalArgumentException(column, e);
+        }
+    }
+
+    @Override
+    public boolean isNull(int column) {
+        try {
+            return rs.getObject(column) == null;
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public int getInt(int column) {
+        try {
+            return rs.getInt(column);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public String getString(int column) {
+        try {
+            return rs.getString(column);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
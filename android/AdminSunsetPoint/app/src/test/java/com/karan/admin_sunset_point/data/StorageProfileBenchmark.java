@@ -0,0 +1,180 @@
+package com.karan.admin_sunset_point.data;
+
+import com.karan.admin_sunset_point.data.dao.OrderQueries;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Mixed load against a database file: one counter thread creates 10-item
+ * orders while dashboard threads run the analytics query for the last 30
+ * days. Runs once per profile and prints order throughput and read latency.
+ *
+ * Not a unit test; run main() from the IDE or with
+ * {@code java -cp <test classpath> ...StorageProfileBenchmark [seconds] [readers]}.
+ */
+public final class StorageProfileBenchmark {
+
+    private static final int SEED_ORDERS = 60_000;
+    private static final int SEED_DAYS = 60;
+    private static final int ITEMS_PER_ORDER = 10;
+
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int readers = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+        for (StorageProfile profile : Arrays.asList(StorageProfile.LEGACY, StorageProfile.DEFAULT)) {
+            System.out.println(profile);
+            System.out.println("  " + run(profile, seconds, readers));
+        }
+    }
+
+    static Result run(StorageProfile profile, int seconds, int readers) throws Exception {
+        File dir = Files.createTempDirectory("storage-bench").toFile();
+        String path = new File(dir, "pos_db").getPath();
+        try (Connection setup = TestDatabase.openFile(path, profile, 10_000)) {
+            TestDatabase.seed(setup, SEED_ORDERS, SEED_DAYS, 42);
+            TestDatabase.rebuildRollups(setup);
+        }
+
+        AtomicBoolean stop = new AtomicBoolean();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(readers + 1);
+        try {
+            Future<long[]> writer = pool.submit(() -> {
+                try (Connection c = TestDatabase.openFile(path, profile, 10_000)) {
+                    start.await();
+                    return writeOrders(c, stop);
+                }
+            });
+            List<Future<long[]>> reads = new ArrayList<>();
+            for (int i = 0; i < readers; i++) {
+                reads.add(pool.submit(() -> {
+                    try (Connection c = TestDatabase.openFile(path, profile, 10_000)) {
+                        start.await();
+                        return readAnalytics(c, stop);
+                    }
+                }));
+            }
+
+            start.countDown();
+            Thread.sleep(TimeUnit.SECONDS.toMillis(seconds));
+            stop.set(true);
+
+            long[] writeLatencies = writer.get();
+            List<Long> readLatencies = new ArrayList<>();
+            for (Future<long[]> f : reads) {
+                for (long l : f.get()) readLatencies.add(l);
+            }
+            return new Result(writeLatencies, toArray(readLatencies), seconds);
+        } finally {
+            pool.shutdownNow();
+            for (File f : dir.listFiles()) f.delete();
+            dir.delete();
+        }
+    }
+
+    /** Same statements MyContentProvider.createOrder runs, one transaction per order. */
+    private static long[] writeOrders(Connection c, AtomicBoolean stop) throws SQLException {
+        List<Long> latencies = new ArrayList<>();
+        c.setAutoCommit(false);
+        try (PreparedStatement order = c.prepareStatement(
+                "INSERT INTO orders (order_tag, is_payment_done, order_total, order_status, created_at) " +
+                        "VALUES ('T1', 0, 10000, 'OPEN', datetime('now', 'localtime'))",
+                Statement.RETURN_GENERATED_KEYS);
+             PreparedStatement item = c.prepareStatement(
+                     "INSERT INTO order_items (order_id, dish_id, quantity, dish_name_snapshot, price_snapshot, item_status) " +
+                             "VALUES (?, ?, 1, 'Dish', 1000, 'PENDING')");
+             PreparedStatement change = c.prepareStatement(
+                     "INSERT INTO order_changes (order_id) VALUES (?)")) {
+            while (!stop.get()) {
+                long t0 = System.nanoTime();
+                order.executeUpdate();
+                int id;
+                try (ResultSet keys = order.getGeneratedKeys()) {
+                    keys.next();
+                    id = keys.getInt(1);
+                }
+                for (int i = 1; i <= ITEMS_PER_ORDER; i++) {
+                    item.setInt(1, id);
+                    item.setInt(2, i);
+                    item.addBatch();
+                }
+                item.executeBatch();
+                change.setInt(1, id);
+                change.executeUpdate();
+                c.commit();
+                latencies.add(System.nanoTime() - t0);
+            }
+        }
+        return toArray(latencies);
+    }
+
+    private static long[] readAnalytics(Connection c, AtomicBoolean stop) throws SQLException {
+        List<Long> latencies = new ArrayList<>();
+        String end = LocalDate.now().toString();
+        String start = LocalDate.now().minusDays(29).toString();
+        try (PreparedStatement ps = c.prepareStatement(OrderQueries.ANALYTICS_ROWS)) {
+            ps.setString(1, start);
+            ps.setString(2, end);
+            while (!stop.get()) {
+                long t0 = System.nanoTime();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        rs.getLong(6);
+                    }
+                }
+                latencies.add(System.nanoTime() - t0);
+            }
+        }
+        return toArray(latencies);
+    }
+
+    private static long[] toArray(List<Long> values) {
+        long[] out = new long[values.size()];
+        for (int i = 0; i < out.length; i++) out[i] = values.get(i);
+        Arrays.sort(out);
+        return out;
+    }
+
+    static final class Result {
+        final double ordersPerSecond;
+        final long[] writeNanos;
+        final long[] readNanos;
+
+        Result(long[] writeNanos, long[] readNanos, int seconds) {
+            this.writeNanos = writeNanos;
+            this.readNanos = readNanos;
+            this.ordersPerSecond = writeNanos.length / (double) seconds;
+        }
+
+        private static double ms(long[] sorted, double p) {
+            if (sorted.length == 0) return 0;
+            return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))] / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "orders/s %.0f, order p50 %.2f ms p99 %.2f ms max %.2f ms | " +
+                            "analytics reads %d, p50 %.2f ms p99 %.2f ms",
+                    ordersPerSecond, ms(writeNanos, 0.5), ms(writeNanos, 0.99), ms(writeNanos, 1),
+                    readNanos.length, ms(readNanos, 0.5), ms(readNanos, 0.99));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.karan.admin_sunset_point.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+public class StorageProfileTest {
+
+    @Rule
+    public TemporaryFolder dir = new TemporaryFolder();
+
+    @Test
+    public void defaultProfile_openReadDoesNotBlockOrderEntry() throws Exception {
+        String path = dir.newFile("wal.db").getPath();
+        try (Connection counter = TestDatabase.openFile(path, StorageProfile.DEFAULT, 0);
+             Connection dashboard = TestDatabase.openFile(path, StorageProfile.DEFAULT, 0)) {
+            TestDatabase.seed(counter, 100, 1, 1);
+
+            dashboard.setAutoCommit(false);
+            assertEquals(100, countOrders(dashboard));
+
+            // No busy timeout: this throws if the open read holds a lock the writer needs
+            insertOrder(counter);
+
+            // The reader keeps its snapshot until it ends the transaction
+            assertEquals(100, countOrders(dashboard));
+            dashboard.commit();
+            assertEquals(101, countOrders(dashboard));
+        }
+    }
+
+    @Test
+    public void legacyProfile_openReadBlocksOrderEntry() throws Exception {
+        String path = dir.newFile("legacy.db").getPath();
+        try (Connection counter = TestDatabase.openFile(path, StorageProfile.LEGACY, 0);
+             Connection dashboard = TestDatabase.openFile(path, StorageProfile.LEGACY, 0)) {
+            TestDatabase.seed(counter, 100, 1, 1);
+
+            dashboard.setAutoCommit(false);
+            countOrders(dashboard);
+            try {
+                insertOrder(counter);
+                fail("commit should wait for the reader's shared lock");
+            } catch (SQLException expected) {
+                assertTrue(expected.getMessage(), expected.getMessage().contains("SQLITE_BUSY"));
+            }
+            dashboard.commit();
+        }
+    }
+
+    @Test
+    public void pragmas_areApplied() throws Exception {
+        String path = dir.newFile("pragmas.db").getPath();
+        try (Connection c = TestDatabase.openFile(path, StorageProfile.DEFAULT, 0);
+             Statement s = c.createStatement()) {
+            assertEquals("wal", single(s, "PRAGMA journal_mode"));
+            // NORMAL
+            assertEquals("1", single(s, "PRAGMA synchronous"));
+        }
+    }
+
+    private static int countOrders(Connection c) throws SQLException {
+        try (Statement s = c.createStatement()) {
+            return Integer.parseInt(single(s, "SELECT COUNT(*) FROM orders"));
+        }
+    }
+
+    private static void insertOrder(Connection c) throws SQLException {
+        try (Statement s = c.createStatement()) {
+            s.executeUpdate("INSERT INTO orders (order_tag, is_payment_done, order_total, order_status) " +
+                    "VALUES ('T1', 0, 0, 'OPEN')");
+        }
+    }
+
+    private static String single(Statement s, String sql) throws SQLException {
+        try (ResultSet rs = s.executeQuery(sql)) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.karan.admin_sunset_point.data;
+
+import com.karan.admin_sunset_point.data.dao.OrderTotalsQueries;
+import com.karan.admin_sunset_point.data.dao.RollupQueries;
+import com.karan.admin_sunset_point.data.entity.Dish;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Plain sqlite-jdbc copy of the Room schema for JVM tests. The DDL mirrors what
+ * Room generates for the entities in {@link AppDatabase}; keep the two in sync.
+ */
+public final class TestDatabase {
+
+    /** AppDatabase's version; part of cached seeded file names so they go stale with the schema. */
+    public static final int SCHEMA_VERSION = 9;
+
+    private static final DateTimeFormatter SQLITE_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String[] SCHEMA = {
+            "CREATE TABLE IF NOT EXISTS `dishes` (" +
+                    "`dish_id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                    "`dish_name` TEXT NOT NULL, " +
+                    "`category` TEXT NOT NULL, " +
+                    "`price` INTEGER NOT NULL)",
+            "CREATE TABLE IF NOT EXISTS `orders` (" +
+                    "`order_id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                    "`order_tag` TEXT, " +
+                    "`is_payment_done` INTEGER NOT NULL, " +
+                    "`order_total` INTEGER NOT NULL, " +
+                    "`order_status` TEXT NOT NULL, " +
+                    "`created_at` TEXT DEFAULT CURRENT_TIMESTAMP, " +
+                    "`item_count` INTEGER NOT NULL DEFAULT 0)",
+            "CREATE INDEX IF NOT EXISTS `index_orders_status_payment_created_total_items` " +
+                    "ON `orders` (`order_status`, `is_payment_done`, `created_at`, `order_total`, `item_count`)",
+            "CREATE INDEX IF NOT EXISTS `index_orders_created_at` ON `orders` (`created_at`)",
+            "CREATE TABLE IF NOT EXISTS `order_items` (" +
+                    "`order_item_id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                    "`order_id` INTEGER NOT NULL, " +
+                    "`dish_id` INTEGER NOT NULL, " +
+                    "`quantity` INTEGER NOT NULL, " +
+                    "`dish_name_snapshot` TEXT NOT NULL, " +
+                    "`price_snapshot` INTEGER NOT NULL, " +
+                    "`item_status` TEXT NOT NULL, " +
+                    "`kot_seq` INTEGER NOT NULL DEFAULT 0, " +
+                    "FOREIGN KEY(`order_id`) REFERENCES `orders`(`order_id`) ON UPDATE NO ACTION ON DELETE CASCADE , " +
+                    "FOREIGN KEY(`dish_id`) REFERENCES `dishes`(`dish_id`) ON UPDATE NO ACTION ON DELETE NO ACTION )",
+            "CREATE INDEX IF NOT EXISTS `index_order_items_order_status_dish` " +
+                    "ON `order_items` (`order_id`, `item_status`, `dish_id`, `quantity`, `price_snapshot`)",
+            "CREATE INDEX IF NOT EXISTS `index_order_items_dish_id` ON `order_items` (`dish_id`)",
+            "CREATE TABLE IF NOT EXISTS `daily_sales` (" +
+                    "`day` TEXT NOT NULL, " +
+                    "`total_revenue` INTEGER NOT NULL, " +
+                    "`total_orders` INTEGER NOT NULL, " +
+                    "`total_items` INTEGER NOT NULL, " +
+                    "`size_1` INTEGER NOT NULL, " +
+                    "`size_2` INTEGER NOT NULL, " +
+                    "`size_3_4` INTEGER NOT NULL, " +
+                    "`size_5_plus` INTEGER NOT NULL, " +
+                    "PRIMARY KEY(`day`))",
+            "CREATE TABLE IF NOT EXISTS `hourly_orders` (" +
+                    "`day` TEXT NOT NULL, " +
+                    "`hour` INTEGER NOT NULL, " +
+                    "`orders` INTEGER NOT NULL, " +
+                    "PRIMARY KEY(`day`, `hour`))",
+            "CREATE TABLE IF NOT EXISTS `daily_dish_sales` (" +
+                    "`day` TEXT NOT NULL, " +
+                    "`dish_id` INTEGER NOT NULL, " +
+                    "`dish_name` TEXT NOT NULL, " +
+                    "`quantity` INTEGER NOT NULL, " +
+                    "`revenue` INTEGER NOT NULL, " +
+                    "PRIMARY KEY(`day`, `dish_id`, `dish_name`))",
+            "CREATE TABLE IF NOT EXISTS `daily_category_sales` (" +
+                    "`day` TEXT NOT NULL, " +
+                    "`category` TEXT NOT NULL, " +
+                    "`quantity` INTEGER NOT NULL, " +
+                    "`sales` INTEGER NOT NULL, " +
+                    "PRIMARY KEY(`day`, `category`))",
+            "CREATE TABLE IF NOT EXISTS `order_changes` (" +
+                    "`seq` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                    "`order_id` INTEGER NOT NULL)"
+    };
+
+    private static final String[] CATEGORIES = {
+            "Hot Beverage", "Cold Coffee", "Refresher", "Smoothie", "Shake", "Sandwich",
+            "Maggi", "Pasta", "Fries", "Pizza", "Burger", "Momo", "Extra", "Misc"
+    };
+
+    public static final int DISH_COUNT = 80;
+
+    private TestDatabase() {}
+
+    public static Connection open(String url) throws SQLException {
+        Connection c = DriverManager.getConnection(url);
+        try (Statement s = c.createStatement()) {
+            s.execute("PRAGMA foreign_keys = ON");
+            for (String ddl : SCHEMA) {
+                s.execute(ddl);
+            }
+            for (String trigger : OrderTotalsQueries.TRIGGERS) {
+                s.execute(trigger);
+            }
+        }
+        return c;
+    }
+
+    public static Connection openInMemory() throws SQLException {
+        return open("jdbc:sqlite::memory:");
+    }
+
+    /**
+     * Opens a database file with the same settings AppDatabase applies for
+     * {@code profile}. Every connection waits at most {@code busyTimeoutMs}
+     * for a lock.
+     */
+    public static Connection openFile(String path, StorageProfile profile, int busyTimeoutMs)
+            throws SQLException {
+        Connection c = open("jdbc:sqlite:" + path);
+        try (Statement s = c.createStatement()) {
+            s.execute("PRAGMA busy_timeout = " + busyTimeoutMs);
+            s.execute("PRAGMA journal_mode = " + (profile.writeAheadLog ? "WAL" : "TRUNCATE"));
+            for (String pragma : profile.pragmas()) {
+                s.execute(pragma);
+            }
+        }
+        return c;
+    }
+
+    /** Runs the same rebuild statements as RollupDao.rebuildAll(). */
+    public static void rebuildRollups(Connection c) throws SQLException {
+        for (String sql : RollupQueries.REBUILD) {
+            try (PreparedStatement ps = c.prepareStatement(sql)) {
+                ps.setString(1, RollupQueries.ALL_FROM);
+                ps.setString(2, RollupQueries.ALL_TO);
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * Seeds a menu and {@code orderCount} orders spread evenly over the
+     * {@code days} days ending today, weighted towards the evening rush.
+     */
+    public static void seed(Connection c, int orderCount, int days, long randomSeed) throws SQLException {
+        Random random = new Random(randomSeed);
+        List<Dish> menu = new ArrayList<>();
+        for (int i = 1; i <= DISH_COUNT; i++) {
+            Dish dish = new Dish();
+            dish.dish_name = "Dish " + i;
+            dish.category = CATEGORIES[i % CATEGORIES.length];
+            dish.price = (20 + random.nextInt(19) * 10) * 100;
+            menu.add(dish);
+        }
+        seed(c, menu, orderCount, days, random);
+    }
+
+    /** Same as above with the given menu, e.g. MenuSeed.dishes(). The dishes table must be empty. */
+    public static void seed(Connection c, List<Dish> menu, int orderCount, int days, long randomSeed)
+            throws SQLException {
+        seed(c, menu, orderCount, days, new Random(randomSeed));
+    }
+
+    private static void seed(Connection c, List<Dish> menu, int orderCount, int days, Random random)
+            throws SQLException {
+        boolean autoCommit = c.getAutoCommit();
+        c.setAutoCommit(false);
+
+        try (PreparedStatement dish = c.prepareStatement(
+                "INSERT INTO dishes (dish_name, category, price) VALUES (?, ?, ?)")) {
+            for (Dish d : menu) {
+                dish.setString(1, d.dish_name);
+                dish.setString(2, d.category);
+                dish.setInt(3, d.price);
+                dish.addBatch();
+            }
+            dish.executeBatch();
+        }
+
+        LocalDate firstDay = LocalDate.now().minusDays(days - 1);
+        int perDay = Math.max(1, orderCount / days);
+
+        try (PreparedStatement order = c.prepareStatement(
+                "INSERT INTO orders (order_id, order_tag, is_payment_done, order_total, order_status, created_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?)");
+             PreparedStatement item = c.prepareStatement(
+                     "INSERT INTO order_items (order_id, dish_id, quantity, dish_name_snapshot, price_snapshot, item_status) " +
+                             "VALUES (?, ?, ?, ?, ?, ?)")) {
+
+            for (int id = 1; id <= orderCount; id++) {
+                LocalDate day = firstDay.plusDays(Math.min(days - 1, (id - 1) / perDay));
+                int hour = random.nextInt(10) < 4 ? 19 + random.nextInt(3) : 8 + random.nextInt(15);
+                LocalDateTime createdAt = day.atTime(hour, random.nextInt(60), random.nextInt(60));
+
+                String status;
+                int roll = random.nextInt(100);
+                if (roll < 2) {
+                    status = "OPEN";
+                } else if (roll < 4) {
+                    status = "CANCELLED";
+                } else {
+                    status = "CLOSED";
+                }
+
+                int itemCount = 1 + random.nextInt(4);
+                for (int n = 0; n < itemCount; n++) {
+                    int dishId = 1 + random.nextInt(menu.size());
+                    Dish d = menu.get(dishId - 1);
+                    int quantity = 1 + random.nextInt(3);
+                    item.setInt(1, id);
+                    item.setInt(2, dishId);
+                    item.setInt(3, quantity);
+                    item.setString(4, d.dish_name);
+                    item.setInt(5, d.price);
+                    item.setString(6, random.nextInt(50) == 0 ? "CANCELLED" : "SERVED");
+                    item.addBatch();
+                }
+
+                order.setInt(1, id);
+                order.setString(2, "T" + (id % 20));
+                // A few closed-but-unpaid and paid-but-open orders keep the
+                // payment filter honest
+                order.setInt(3, "CLOSED".equals(status) != (roll % 25 == 7) ? 1 : 0);
+                // The triggers add up order_total as the items go in
+                order.setInt(4, 0);
+                order.setString(5, status);
+                order.setString(6, createdAt.format(SQLITE_FORMAT));
+                order.addBatch();
+
+                if (id % 10_000 == 0) {
+                    order.executeBatch();
+                    item.executeBatch();
+                }
+            }
+            order.executeBatch();
+            item.executeBatch();
+        }
+
+        c.commit();
+        c.setAutoCommit(autoCommit);
+    }
+}
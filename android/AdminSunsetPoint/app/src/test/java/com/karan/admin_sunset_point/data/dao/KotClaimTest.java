@@ -0,0 +1,193 @@
+package com.karan.admin_sunset_point.data.dao;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.karan.admin_sunset_point.data.ResultSetRows;
+import com.karan.admin_sunset_point.data.TestDatabase;
+import com.karan.admin_sunset_point.data.Responses.ResponseWriter;
+
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Each item goes to the kitchen on exactly one KOT: the one printed after it
+ * was added. Mirrors OrderItemDao.claimForKot and MyContentProvider.printKots.
+ */
+public class KotClaimTest {
+
+    @Test
+    public void onlyItemsAddedSinceTheLastKotAreSent() throws Exception {
+        try (Connection db = TestDatabase.openInMemory();
+             Statement s = db.createStatement()) {
+            s.execute("INSERT INTO dishes (dish_name, category, price) VALUES ('Tea', 'Hot Beverage', 2000)");
+            s.execute("INSERT INTO orders (order_id, order_tag, is_payment_done, order_total, order_status) " +
+                    "VALUES (1, 'T1', 0, 0, 'OPEN'), (2, 'T2', 0, 0, 'OPEN')");
+            addItem(s, 1, 1, "Tea", "PENDING");
+            addItem(s, 2, 1, "Coffee", "PENDING");
+            addItem(s, 3, 1, "Fries", "CANCELLED");
+            addItem(s, 4, 2, "Tea", "PENDING");
+
+            // First KOT of order 1 sends what it has, cancelled items aside
+            assertEquals(1, claim(db, 1));
+            JsonArray first = delta(db, 1, 1);
+            assertEquals(1, first.size());
+            assertEquals(1, first.get(0).getAsJsonObject().get("kotSeq").getAsInt());
+            assertEquals("[\"Tea\",\"Coffee\"]", names(first.get(0).getAsJsonObject()));
+
+            // A second tap has nothing new
+            assertEquals(0, claim(db, 1));
+
+            addItem(s, 5, 1, "Samosa", "PENDING");
+            addItem(s, 6, 1, "Chai", "SERVED");
+            assertEquals(2, claim(db, 1));
+            assertEquals(1, claim(db, 2));
+            JsonArray second = delta(db, 2, 1, 2);
+            assertEquals(2, second.size());
+            JsonObject addOn = second.get(0).getAsJsonObject();
+            assertEquals(1, addOn.get("id").getAsInt());
+            assertEquals(2, addOn.get("kotSeq").getAsInt());
+            assertTrue(addOn.get("addOn").getAsBoolean());
+            assertEquals("[\"Samosa\",\"Chai\"]", names(addOn));
+            assertEquals("[\"Tea\"]", names(second.get(1).getAsJsonObject()));
+
+            // A full reprint still has every item and no KOT number
+            try (ResultSet rs = s.executeQuery(OrderQueries.ORDERS_FOR_PRINT.replace(":orderIds", "1"))) {
+                JsonObject full = JsonParser.parseString(
+                        ResponseWriter.writeOrders(new ResultSetRows(rs))).getAsJsonArray().get(0).getAsJsonObject();
+                assertEquals(5, full.getAsJsonArray("items").size());
+                assertFalse(full.has("kotSeq"));
+            }
+
+            // Cancelled items stay unclaimed; one served again goes out then
+            s.execute("UPDATE order_items SET item_status = 'SERVED' WHERE order_item_id = 3");
+            assertEquals(3, claim(db, 1));
+            assertEquals("[\"Fries\"]", names(delta(db, 3, 1).get(0).getAsJsonObject()));
+            try (ResultSet rs = s.executeQuery(
+                    "SELECT COUNT(*) FROM order_items WHERE kot_seq = 0")) {
+                assertTrue(rs.next());
+                assertEquals(0, rs.getInt(1));
+            }
+        }
+    }
+
+    @Test
+    public void releasedKotGoesOutOnTheNextOne() throws Exception {
+        try (Connection db = TestDatabase.openInMemory();
+             Statement s = db.createStatement()) {
+            s.execute("INSERT INTO dishes (dish_name, category, price) VALUES ('Tea', 'Hot Beverage', 2000)");
+            s.execute("INSERT INTO orders (order_tag, is_payment_done, order_total, order_status) " +
+                    "VALUES ('T1', 0, 0, 'OPEN')");
+            addItem(s, 1, 1, "Tea", "PENDING");
+            assertEquals(1, claim(db, 1));
+            addItem(s, 2, 1, "Samosa", "PENDING");
+            assertEquals(2, claim(db, 1));
+
+            // The counter cancelled the add-on before it printed
+            assertEquals(1, release(db, 1, 2));
+            assertEquals(0, release(db, 1, 2));
+
+            addItem(s, 3, 1, "Chai", "PENDING");
+            assertEquals(2, claim(db, 1));
+            assertEquals("[\"Samosa\",\"Chai\"]", names(delta(db, 2, 1).get(0).getAsJsonObject()));
+        }
+    }
+
+    @Test
+    public void fullReprintIsNotAnAddOn() throws Exception {
+        try (Connection db = TestDatabase.openInMemory();
+             Statement s = db.createStatement()) {
+            s.execute("INSERT INTO dishes (dish_name, category, price) VALUES ('Tea', 'Hot Beverage', 2000)");
+            s.execute("INSERT INTO orders (order_tag, is_payment_done, order_total, order_status) " +
+                    "VALUES ('T1', 0, 0, 'OPEN')");
+            addItem(s, 1, 1, "Tea", "PENDING");
+            JsonObject first = full(db, 1);
+            assertEquals(1, first.get("kotSeq").getAsInt());
+            assertFalse(first.has("addOn"));
+
+            // The reprint claims the new item as KOT 2, but is still the whole order
+            addItem(s, 2, 1, "Samosa", "PENDING");
+            JsonObject reprint = full(db, 1);
+            assertEquals(2, reprint.get("kotSeq").getAsInt());
+            assertFalse(reprint.has("addOn"));
+            assertEquals(2, reprint.getAsJsonArray("items").size());
+        }
+    }
+
+    /** MyContentProvider.printKots with kot=all for one order. */
+    private static JsonObject full(Connection db, int orderId) throws Exception {
+        Map<Integer, Integer> kotSeqs = new HashMap<>();
+        int kotSeq = claim(db, orderId);
+        if (kotSeq > 0) kotSeqs.put(orderId, kotSeq);
+        try (Statement s = db.createStatement();
+             ResultSet rs = s.executeQuery(OrderQueries.ORDERS_FOR_PRINT.replace(":orderIds", String.valueOf(orderId)))) {
+            return JsonParser.parseString(ResponseWriter.writeOrders(new ResultSetRows(rs), kotSeqs, false))
+                    .getAsJsonArray().get(0).getAsJsonObject();
+        }
+    }
+
+    /** OrderItemDao.releaseKot for one KOT. */
+    private static int release(Connection db, int orderId, int kotSeq) throws Exception {
+        try (PreparedStatement ps = db.prepareStatement(
+                OrderQueries.RELEASE_KOT.replace(":kotSeqs", String.valueOf(kotSeq)))) {
+            ps.setInt(1, orderId);
+            return ps.executeUpdate();
+        }
+    }
+
+    /** OrderItemDao.claimForKot. */
+    private static int claim(Connection db, int orderId) throws Exception {
+        int kotSeq;
+        try (PreparedStatement ps = db.prepareStatement(OrderQueries.NEXT_KOT_SEQ)) {
+            ps.setInt(1, orderId);
+            try (ResultSet rs = ps.executeQuery()) {
+                assertTrue(rs.next());
+                kotSeq = rs.getInt(1);
+            }
+        }
+        try (PreparedStatement ps = db.prepareStatement(OrderQueries.MARK_PRINTED)) {
+            ps.setInt(1, kotSeq);
+            ps.setInt(2, orderId);
+            return ps.executeUpdate() > 0 ? kotSeq : 0;
+        }
+    }
+
+    private static JsonArray delta(Connection db, int kotSeq, int... orderIds) throws Exception {
+        StringBuilder ids = new StringBuilder();
+        Map<Integer, Integer> kotSeqs = new HashMap<>();
+        for (int id : orderIds) {
+            if (ids.length() > 0) ids.append(", ");
+            ids.append(id);
+            kotSeqs.put(id, id == 1 ? kotSeq : 1);
+        }
+        try (Statement s = db.createStatement();
+             ResultSet rs = s.executeQuery(OrderQueries.KOT_DELTA_FOR_PRINT.replace(":orderIds", ids))) {
+            return JsonParser.parseString(
+                    ResponseWriter.writeOrders(new ResultSetRows(rs), kotSeqs, true)).getAsJsonArray();
+        }
+    }
+
+    private static String names(JsonObject order) {
+        JsonArray names = new JsonArray();
+        for (int i = 0; i < order.getAsJsonArray("items").size(); i++) {
+            names.add(order.getAsJsonArray("items").get(i).getAsJsonObject().get("name"));
+        }
+        return names.toString();
+    }
+
+    private static void addItem(Statement s, int itemId, int orderId, String name, String status) throws Exception {
+        s.execute("INSERT INTO order_items (order_item_id, order_id, dish_id, quantity, " +
+                "dish_name_snapshot, price_snapshot, item_status) VALUES " +
+                "(" + itemId + ", " + orderId + ", 1, 1, '" + name + "', 2000, '" + status + "')");
+    }
+}
@@ -0,0 +1,183 @@
+package com.karan.admin_sunset_point.data.dao;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.karan.admin_sunset_point.data.TestDatabase;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Runs EXPLAIN QUERY PLAN for every {@link OrderDao} range query against a
+ * seeded database and fails if any of them falls back to scanning the growing
+ * tables. {@code dishes} is bounded by the menu size, so scanning it is fine.
+ */
+public class OrderQueryPlanTest {
+
+    private static final int ORDER_COUNT = 500_000;
+    private static final int DAYS = 365;
+
+    private static final Pattern FULL_SCAN = Pattern.compile(
+            "^SCAN (o|oi|orders|order_items|daily_sales|hourly_orders|daily_dish_sales|daily_category_sales)\\b");
+
+    private static Connection db;
+
+    @BeforeClass
+    public static void seed() throws Exception {
+        db = TestDatabase.openInMemory();
+        TestDatabase.seed(db, ORDER_COUNT, DAYS, 42L);
+        TestDatabase.rebuildRollups(db);
+        try (Statement s = db.createStatement()) {
+            // Sampled statistics, like PRAGMA optimize on device, keep ANALYZE cheap
+            s.execute("PRAGMA analysis_limit = 1000");
+        }
+    }
+
+    @AfterClass
+    public static void close() throws Exception {
+        db.close();
+    }
+
+    @Test
+    public void todayOrders_usesIndexes() throws Exception {
+        assertNoFullScan("getTodayOrders", OrderQueries.TODAY_ORDERS);
+    }
+
+    @Test
+    public void todayOrdersChangedSince_usesIndexes() throws Exception {
+        assertNoFullScan("streamTodayOrdersChangedSince", OrderQueries.TODAY_ORDERS_CHANGED_SINCE);
+    }
+
+    @Test
+    public void orderForPrint_usesIndexes() throws Exception {
+        assertNoFullScan("getOrderForPrint", OrderQueries.ORDER_FOR_PRINT);
+    }
+
+    @Test
+    public void ordersForPrint_usesIndexes() throws Exception {
+        assertNoFullScan("streamOrdersForPrint",
+                OrderQueries.ORDERS_FOR_PRINT.replace(":orderIds", "3, 7, 11, 12"));
+    }
+
+    @Test
+    public void kotDeltaForPrint_usesIndexes() throws Exception {
+        assertNoFullScan("streamKotDeltaForPrint",
+                OrderQueries.KOT_DELTA_FOR_PRINT.replace(":orderIds", "3, 7, 11, 12"));
+    }
+
+    @Test
+    public void orderSummary_usesIndexes() throws Exception {
+        assertNoFullScan("getOrderSummary", OrderQueries.ORDER_SUMMARY);
+    }
+
+    @Test
+    public void topCategories_usesIndexes() throws Exception {
+        assertNoFullScan("getTopCategories", OrderQueries.TOP_CATEGORIES);
+    }
+
+    @Test
+    public void hourlyRush_usesIndexes() throws Exception {
+        assertNoFullScan("getHourlyRush", OrderQueries.HOURLY_RUSH);
+    }
+
+    @Test
+    public void salesTrend_usesIndexes() throws Exception {
+        assertNoFullScan("getSalesTrend", OrderQueries.SALES_TREND);
+    }
+
+    @Test
+    public void orderSizeDistribution_usesIndexes() throws Exception {
+        assertNoFullScan("getOrderSizeDistribution", OrderQueries.ORDER_SIZE_DISTRIBUTION);
+    }
+
+    @Test
+    public void topDishesByRevenue_usesIndexes() throws Exception {
+        assertNoFullScan("getTopDishesByRevenue", OrderQueries.TOP_DISHES_BY_REVENUE);
+    }
+
+    @Test
+    public void topDishesByQuantity_usesIndexes() throws Exception {
+        assertNoFullScan("getTopDishesByQuantity", OrderQueries.TOP_DISHES_BY_QUANTITY);
+    }
+
+    @Test
+    public void rollupQueries_useIndexes() throws Exception {
+        assertNoFullScan("rollup getOrderSummary", OrderQueries.ROLLUP_ORDER_SUMMARY);
+        assertNoFullScan("rollup getTopCategories", OrderQueries.ROLLUP_TOP_CATEGORIES);
+        assertNoFullScan("rollup getHourlyRush", OrderQueries.ROLLUP_HOURLY_RUSH);
+        assertNoFullScan("rollup getSalesTrend", OrderQueries.ROLLUP_SALES_TREND);
+        assertNoFullScan("rollup getOrderSizeDistribution", OrderQueries.ROLLUP_ORDER_SIZE_DISTRIBUTION);
+        assertNoFullScan("rollup getTopDishesByRevenue", OrderQueries.ROLLUP_TOP_DISHES_BY_REVENUE);
+        assertNoFullScan("rollup getTopDishesByQuantity", OrderQueries.ROLLUP_TOP_DISHES_BY_QUANTITY);
+    }
+
+    @Test
+    public void analyticsRows_useIndexes() throws Exception {
+        assertNoFullScan("streamAnalyticsRows", OrderQueries.ANALYTICS_ROWS);
+    }
+
+    @Test
+    public void rollupRefresh_usesIndexes() throws Exception {
+        for (String sql : RollupQueries.REBUILD) {
+            assertNoFullScan("rollup refresh", sql);
+        }
+    }
+
+    @Test
+    public void rangeQueries_useCoveringOrdersIndex() throws Exception {
+        for (String sql : new String[]{
+                OrderQueries.ORDER_SUMMARY,
+                OrderQueries.HOURLY_RUSH,
+                OrderQueries.SALES_TREND}) {
+            List<String> plan = plan(sql);
+            assertTrue("Expected covering index in " + plan,
+                    plan.stream().anyMatch(line -> line.contains(
+                            "COVERING INDEX index_orders_status_payment_created_total_items")));
+        }
+    }
+
+    /** Checks the plan both as shipped (no statistics) and after ANALYZE. */
+    private static void assertNoFullScan(String name, String sql) throws Exception {
+        checkPlan(name, sql);
+        try (Statement s = db.createStatement()) {
+            s.execute("ANALYZE");
+        }
+        try {
+            checkPlan(name + " (analyzed)", sql);
+        } finally {
+            try (Statement s = db.createStatement()) {
+                s.execute("DELETE FROM sqlite_stat1");
+                s.execute("ANALYZE sqlite_schema");
+            }
+        }
+    }
+
+    private static void checkPlan(String name, String sql) throws Exception {
+        List<String> plan = plan(sql);
+        for (String line : plan) {
+            if (FULL_SCAN.matcher(line).find()) {
+                fail(name + " scans a whole table: " + line + "\nPlan: " + plan);
+            }
+        }
+    }
+
+    private static List<String> plan(String sql) throws Exception {
+        List<String> lines = new ArrayList<>();
+        try (Statement s = db.createStatement();
+             ResultSet rs = s.executeQuery("EXPLAIN QUERY PLAN " + sql)) {
+            while (rs.next()) {
+                lines.add(rs.getString("detail"));
+            }
+        }
+        return lines;
+    }
+}
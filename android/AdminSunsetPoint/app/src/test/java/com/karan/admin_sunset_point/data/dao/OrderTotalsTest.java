@@ -0,0 +1,173 @@
+package com.karan.admin_sunset_point.data.dao;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.karan.admin_sunset_point.data.TestDatabase;
+
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * orders.item_count / order_total must equal the sums over the order's live
+ * items after any item write, and the checker must find and repair orders
+ * where they do not.
+ */
+public class OrderTotalsTest {
+
+    @Test
+    public void triggers_followEveryItemWrite() throws Exception {
+        try (Connection db = TestDatabase.openInMemory();
+             Statement s = db.createStatement()) {
+            s.execute("INSERT INTO dishes (dish_name, category, price) VALUES ('Tea', 'Hot Beverage', 2000)");
+            s.execute("INSERT INTO orders (order_id, order_tag, is_payment_done, order_total, order_status) " +
+                    "VALUES (1, 'T1', 0, 0, 'OPEN'), (2, 'T2', 0, 0, 'OPEN')");
+            assertTotals(db, 1, 0, 0);
+
+            s.execute("INSERT INTO order_items (order_item_id, order_id, dish_id, quantity, " +
+                    "dish_name_snapshot, price_snapshot, item_status) VALUES " +
+                    "(1, 1, 1, 2, 'Tea', 2000, 'PENDING'), " +
+                    "(2, 1, 1, 1, 'Coffee', 3000, 'PENDING'), " +
+                    "(3, 1, 1, 4, 'Tea', 2000, 'CANCELLED')");
+            assertTotals(db, 1, 3, 7000);
+
+            // PENDING <-> SERVED changes nothing
+            toggleServed(db, 1, 1);
+            assertTotals(db, 1, 3, 7000);
+            toggleServed(db, 1, 1);
+            assertTotals(db, 1, 3, 7000);
+
+            s.execute("UPDATE order_items SET item_status = 'CANCELLED' WHERE order_item_id = 2");
+            assertTotals(db, 1, 2, 4000);
+
+            // The toggle serves a cancelled item, which counts again
+            toggleServed(db, 1, 2);
+            assertTotals(db, 1, 3, 7000);
+
+            s.execute("UPDATE order_items SET quantity = 3 WHERE order_item_id = 1");
+            assertTotals(db, 1, 4, 9000);
+
+            s.execute("UPDATE order_items SET order_id = 2 WHERE order_item_id = 1");
+            assertTotals(db, 1, 1, 3000);
+            assertTotals(db, 2, 3, 6000);
+
+            s.execute("DELETE FROM order_items WHERE order_item_id = 2");
+            assertTotals(db, 1, 0, 0);
+
+            // Deleting a cancelled item changes nothing
+            s.execute("DELETE FROM order_items WHERE order_item_id = 3");
+            assertTotals(db, 1, 0, 0);
+
+            s.execute("DELETE FROM orders WHERE order_id = 2");
+            assertTrue(mismatches(db).isEmpty());
+        }
+    }
+
+    @Test
+    public void seededHistory_isConsistent() throws Exception {
+        try (Connection db = TestDatabase.openInMemory()) {
+            TestDatabase.seed(db, 5_000, 30, 7L);
+            try (Statement s = db.createStatement()) {
+                s.executeUpdate("DELETE FROM order_items WHERE order_id % 13 = 0");
+                s.executeUpdate("UPDATE order_items SET item_status = 'CANCELLED' WHERE order_item_id % 17 = 0");
+                s.executeUpdate("UPDATE order_items SET item_status = 'SERVED' " +
+                        "WHERE order_item_id % 17 = 0 AND order_id % 2 = 0");
+            }
+            assertTrue(mismatches(db).isEmpty());
+
+            // Recomputing everything from scratch gives what the triggers kept
+            Map<Integer, int[]> kept = totals(db);
+            try (Statement s = db.createStatement()) {
+                s.executeUpdate("UPDATE orders SET item_count = 0, order_total = 0");
+                s.executeUpdate(OrderTotalsQueries.RECOMPUTE_ALL);
+            }
+            Map<Integer, int[]> recomputed = totals(db);
+            assertEquals(kept.size(), recomputed.size());
+            for (Map.Entry<Integer, int[]> e : kept.entrySet()) {
+                assertArrayEquals("order " + e.getKey(), e.getValue(), recomputed.get(e.getKey()));
+            }
+        }
+    }
+
+    @Test
+    public void checker_findsAndRepairsDrift() throws Exception {
+        try (Connection db = TestDatabase.openInMemory()) {
+            TestDatabase.seed(db, 500, 5, 11L);
+            Map<Integer, int[]> expected = totals(db);
+            try (Statement s = db.createStatement()) {
+                // Writes that go around the triggers
+                s.executeUpdate("UPDATE orders SET item_count = item_count + 1 WHERE order_id = 10");
+                s.executeUpdate("UPDATE orders SET order_total = 0 WHERE order_id = 20");
+                s.executeUpdate("DROP TRIGGER order_items_totals_delete");
+                s.executeUpdate("DELETE FROM order_items WHERE order_id = 30");
+            }
+
+            List<int[]> found = mismatches(db);
+            assertEquals(3, found.size());
+            assertArrayEquals(new int[]{10, expected.get(10)[0] + 1, expected.get(10)[1],
+                    expected.get(10)[0], expected.get(10)[1]}, found.get(0));
+            assertArrayEquals(new int[]{20, expected.get(20)[0], 0,
+                    expected.get(20)[0], expected.get(20)[1]}, found.get(1));
+            assertArrayEquals(new int[]{30, expected.get(30)[0], expected.get(30)[1], 0, 0}, found.get(2));
+
+            try (PreparedStatement ps = db.prepareStatement(OrderTotalsQueries.RECOMPUTE_ORDER)) {
+                for (int[] row : found) {
+                    ps.setInt(1, row[0]);
+                    assertEquals(1, ps.executeUpdate());
+                }
+            }
+            assertTrue(mismatches(db).isEmpty());
+            assertArrayEquals(expected.get(10), totals(db).get(10));
+            assertArrayEquals(new int[]{0, 0}, totals(db).get(30));
+        }
+    }
+
+    private static void toggleServed(Connection db, int orderId, int itemId) throws Exception {
+        try (PreparedStatement ps = db.prepareStatement(OrderQueries.TOGGLE_ITEM_SERVED)) {
+            ps.setInt(1, orderId);
+            ps.setInt(2, itemId);
+            assertEquals(1, ps.executeUpdate());
+        }
+    }
+
+    private static void assertTotals(Connection db, int orderId, int itemCount, int orderTotal) throws Exception {
+        assertArrayEquals("order " + orderId, new int[]{itemCount, orderTotal}, totals(db).get(orderId));
+        assertTrue(mismatches(db).isEmpty());
+    }
+
+    private static Map<Integer, int[]> totals(Connection db) throws Exception {
+        Map<Integer, int[]> totals = new HashMap<>();
+        try (Statement s = db.createStatement();
+             ResultSet rs = s.executeQuery("SELECT order_id, item_count, order_total FROM orders")) {
+            while (rs.next()) {
+                totals.put(rs.getInt(1), new int[]{rs.getInt(2), rs.getInt(3)});
+            }
+        }
+        return totals;
+    }
+
+    private static List<int[]> mismatches(Connection db) throws Exception {
+        List<int[]> rows = new ArrayList<>();
+        try (Statement s = db.createStatement();
+             ResultSet rs = s.executeQuery(OrderTotalsQueries.MISMATCHES)) {
+            while (rs.next()) {
+                rows.add(new int[]{
+                        rs.getInt("order_id"),
+                        rs.getInt("item_count"),
+                        rs.getInt("order_total"),
+                        rs.getInt("expected_item_count"),
+                        rs.getInt("expected_order_total")});
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,159 @@
+package com.karan.admin_sunset_point.data.dao;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import com.karan.admin_sunset_point.data.TestDatabase;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The rollup-backed analytics queries must return exactly what the reference
+ * queries over raw rows return, including the partial trailing day.
+ */
+public class RollupQueriesTest {
+
+    private static final DateTimeFormatter SQLITE_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static Connection db;
+    private static List<String[]> ranges;
+
+    @BeforeClass
+    public static void seed() throws Exception {
+        db = TestDatabase.openInMemory();
+        TestDatabase.seed(db, 30_000, 60, 7L);
+        TestDatabase.rebuildRollups(db);
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime yesterday = now.minusDays(1).toLocalDate().atStartOfDay();
+        ranges = new ArrayList<>();
+        ranges.add(range(now.toLocalDate().atStartOfDay(), now));               // Today
+        ranges.add(range(yesterday, yesterday.withHour(23).withMinute(59).withSecond(59)));
+        ranges.add(range(now.minusDays(7), now));                               // Last 7 Days
+        ranges.add(range(now.minusDays(30), now));                              // Last 30 Days
+        ranges.add(range(now.minusDays(40), now.minusDays(20).withHour(13)));   // ends mid-day
+        ranges.add(range(now.minusDays(400), now.minusDays(300)));              // no data
+    }
+
+    @AfterClass
+    public static void close() throws Exception {
+        db.close();
+    }
+
+    @Test
+    public void summary_matchesRawRows() throws Exception {
+        assertSameRows(OrderQueries.ORDER_SUMMARY, OrderQueries.ROLLUP_ORDER_SUMMARY);
+    }
+
+    @Test
+    public void topCategories_matchRawRows() throws Exception {
+        assertSameRows(OrderQueries.TOP_CATEGORIES, OrderQueries.ROLLUP_TOP_CATEGORIES);
+    }
+
+    @Test
+    public void hourlyRush_matchesRawRows() throws Exception {
+        assertSameRows(OrderQueries.HOURLY_RUSH, OrderQueries.ROLLUP_HOURLY_RUSH);
+    }
+
+    @Test
+    public void salesTrend_matchesRawRows() throws Exception {
+        assertSameRows(OrderQueries.SALES_TREND, OrderQueries.ROLLUP_SALES_TREND);
+    }
+
+    @Test
+    public void orderSizeDistribution_matchesRawRows() throws Exception {
+        assertSameRows(OrderQueries.ORDER_SIZE_DISTRIBUTION, OrderQueries.ROLLUP_ORDER_SIZE_DISTRIBUTION);
+    }
+
+    @Test
+    public void topDishes_matchRawRows() throws Exception {
+        assertSameRows(OrderQueries.TOP_DISHES_BY_REVENUE, OrderQueries.ROLLUP_TOP_DISHES_BY_REVENUE);
+        assertSameRows(OrderQueries.TOP_DISHES_BY_QUANTITY, OrderQueries.ROLLUP_TOP_DISHES_BY_QUANTITY);
+    }
+
+    @Test
+    public void refreshingOneDay_picksUpChanges() throws Exception {
+        String day = LocalDate.now().minusDays(3).toString();
+        try (Statement s = db.createStatement()) {
+            s.executeUpdate("UPDATE orders SET is_payment_done = 1 - is_payment_done " +
+                    "WHERE order_id IN (SELECT order_id FROM orders WHERE created_at >= '" + day + "' LIMIT 5)");
+        }
+        for (String sql : RollupQueries.REBUILD) {
+            try (PreparedStatement ps = db.prepareStatement(sql)) {
+                ps.setString(1, day);
+                ps.setString(2, LocalDate.parse(day).plusDays(1).toString());
+                ps.executeUpdate();
+            }
+        }
+        assertSameRows(OrderQueries.ORDER_SUMMARY, OrderQueries.ROLLUP_ORDER_SUMMARY);
+        assertSameRows(OrderQueries.SALES_TREND, OrderQueries.ROLLUP_SALES_TREND);
+    }
+
+    private static String[] range(LocalDateTime start, LocalDateTime end) {
+        return new String[]{start.format(SQLITE_FORMAT), end.format(SQLITE_FORMAT)};
+    }
+
+    private static void assertSameRows(String rawSql, String rollupSql) throws Exception {
+        for (String[] r : ranges) {
+            List<List<Object>> expected = rows(rawSql, r);
+            List<List<Object>> actual = rows(rollupSql, r);
+            String label = r[0] + " .. " + r[1];
+            assertEquals(label, expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                List<Object> e = expected.get(i);
+                List<Object> a = actual.get(i);
+                assertEquals(label, e.size(), a.size());
+                for (int c = 0; c < e.size(); c++) {
+                    Object ev = e.get(c);
+                    Object av = a.get(c);
+                    if (ev instanceof Number || av instanceof Number) {
+                        assertFalse(label + " row " + i + " col " + c + ": " + ev + " vs " + av,
+                                (ev == null) != (av == null));
+                        if (ev != null) {
+                            assertEquals(label + " row " + i + " col " + c,
+                                    ((Number) ev).doubleValue(), ((Number) av).doubleValue(), 1e-9);
+                        }
+                    } else {
+                        assertEquals(label + " row " + i + " col " + c, ev, av);
+                    }
+                }
+            }
+        }
+    }
+
+    private static List<List<Object>> rows(String sql, String[] range) throws Exception {
+        List<List<Object>> rows = new ArrayList<>();
+        try (PreparedStatement ps = db.prepareStatement(sql)) {
+            ps.setString(1, range[0]);
+            ps.setString(2, range[1]);
+            if (ps.getParameterMetaData().getParameterCount() > 2) {
+                ps.setInt(3, 10);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                ResultSetMetaData md = rs.getMetaData();
+                while (rs.next()) {
+                    List<Object> row = new ArrayList<>();
+                    for (int c = 1; c <= md.getColumnCount(); c++) {
+                        row.add(rs.getObject(c));
+                    }
+                    rows.add(row);
+                }
+            }
+        }
+        return rows;
+    }
+}
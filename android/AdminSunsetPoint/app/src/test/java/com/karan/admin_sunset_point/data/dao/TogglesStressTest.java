@@ -0,0 +1,121 @@
+package com.karan.admin_sunset_point.data.dao;
+
+import static org.junit.Assert.assertEquals;
+
+import com.karan.admin_sunset_point.data.StorageProfile;
+import com.karan.admin_sunset_point.data.TestDatabase;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Many connections toggle the same order at once, the way the DAO does it:
+ * the flip in one UPDATE, the new value read back in the same transaction.
+ * Starting from PENDING / unpaid, the results must alternate, so exactly half
+ * of an even number of toggles report SERVED / paid and nothing is lost.
+ */
+public class TogglesStressTest {
+
+    private static final int THREADS = 8;
+    private static final int TOGGLES_PER_THREAD = 250;
+
+    @Rule
+    public TemporaryFolder dir = new TemporaryFolder();
+
+    @Test
+    public void toggleServed_neverLosesAFlip() throws Exception {
+        String path = seed();
+        int served = hammer(path,
+                OrderQueries.TOGGLE_ITEM_SERVED,
+                "SELECT item_status FROM order_items WHERE order_item_id = 1",
+                "SERVED", true);
+
+        assertEquals(THREADS * TOGGLES_PER_THREAD / 2, served);
+        assertEquals("PENDING", single(path, "SELECT item_status FROM order_items WHERE order_item_id = 1"));
+    }
+
+    @Test
+    public void togglePayment_neverLosesAFlip() throws Exception {
+        String path = seed();
+        int paid = hammer(path,
+                OrderQueries.TOGGLE_PAYMENT,
+                "SELECT is_payment_done FROM orders WHERE order_id = 1",
+                "1", false);
+
+        assertEquals(THREADS * TOGGLES_PER_THREAD / 2, paid);
+        assertEquals("0", single(path, "SELECT is_payment_done FROM orders WHERE order_id = 1"));
+    }
+
+    private String seed() throws Exception {
+        String path = dir.newFile("toggles.db").getPath();
+        try (Connection c = TestDatabase.openFile(path, StorageProfile.DEFAULT, 10_000);
+             Statement s = c.createStatement()) {
+            s.execute("INSERT INTO dishes (dish_name, category, price) VALUES ('Tea', 'Hot Beverage', 2000)");
+            s.execute("INSERT INTO orders (order_id, order_tag, is_payment_done, order_total, order_status) " +
+                    "VALUES (1, 'T1', 0, 0, 'OPEN')");
+            s.execute("INSERT INTO order_items (order_item_id, order_id, dish_id, quantity, " +
+                    "dish_name_snapshot, price_snapshot, item_status) VALUES (1, 1, 1, 1, 'Tea', 2000, 'PENDING')");
+        }
+        return path;
+    }
+
+    /** Returns how many toggles reported {@code onValue}. */
+    private int hammer(String path, String toggle, String readBack, String onValue,
+                       boolean itemToggle) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                results.add(pool.submit(() -> {
+                    int on = 0;
+                    try (Connection c = TestDatabase.openFile(path, StorageProfile.DEFAULT, 10_000);
+                         PreparedStatement flip = c.prepareStatement(toggle);
+                         PreparedStatement read = c.prepareStatement(readBack)) {
+                        flip.setInt(1, 1);
+                        if (itemToggle) flip.setInt(2, 1);
+                        c.setAutoCommit(false);
+                        go.await();
+                        for (int i = 0; i < TOGGLES_PER_THREAD; i++) {
+                            assertEquals(1, flip.executeUpdate());
+                            try (ResultSet rs = read.executeQuery()) {
+                                rs.next();
+                                if (onValue.equals(rs.getString(1))) on++;
+                            }
+                            c.commit();
+                        }
+                    }
+                    return on;
+                }));
+            }
+            go.countDown();
+
+            int on = 0;
+            for (Future<Integer> f : results) on += f.get();
+            return on;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static String single(String path, String sql) throws Exception {
+        try (Connection c = TestDatabase.openFile(path, StorageProfile.DEFAULT, 10_000);
+             Statement s = c.createStatement();
+             ResultSet rs = s.executeQuery(sql)) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+}
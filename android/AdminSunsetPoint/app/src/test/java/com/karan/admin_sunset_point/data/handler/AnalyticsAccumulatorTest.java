@@ -0,0 +1,135 @@
+package com.karan.admin_sunset_point.data.handler;
+
+import static org.junit.Assert.assertEquals;
+
+import com.karan.admin_sunset_point.data.ResultSetAnalyticsRows;
+import com.karan.admin_sunset_point.data.TestDatabase;
+import com.karan.admin_sunset_point.data.dao.OrderQueries;
+import com.karan.admin_sunset_point.data.entity.CategoryPerformance;
+import com.karan.admin_sunset_point.data.entity.HourlyRush;
+import com.karan.admin_sunset_point.data.entity.OrderAnalysis;
+import com.karan.admin_sunset_point.data.entity.OrderSizeDistribution;
+import com.karan.admin_sunset_point.data.entity.SalesTrend;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The single-pass analytics must produce exactly what the per-section rollup
+ * queries produce. Rows are folded with the same addRows AnalyticsEngine uses.
+ */
+public class AnalyticsAccumulatorTest {
+
+    private static final DateTimeFormatter SQLITE_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static Connection db;
+
+    @BeforeClass
+    public static void seed() throws Exception {
+        db = TestDatabase.openInMemory();
+        TestDatabase.seed(db, 30_000, 60, 11L);
+        TestDatabase.rebuildRollups(db);
+    }
+
+    @AfterClass
+    public static void close() throws Exception {
+        db.close();
+    }
+
+    @Test
+    public void today_matchesRollupQueries() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        assertSameAnalysis(now.toLocalDate().atStartOfDay(), now);
+    }
+
+    @Test
+    public void lastThirtyDays_matchesRollupQueries() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        assertSameAnalysis(now.minusDays(30), now);
+    }
+
+    @Test
+    public void rangeEndingMidDay_matchesRollupQueries() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        assertSameAnalysis(now.minusDays(40), now.minusDays(20).withHour(13));
+    }
+
+    @Test
+    public void emptyRange_matchesRollupQueries() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        assertSameAnalysis(now.minusDays(400), now.minusDays(300));
+    }
+
+    private static void assertSameAnalysis(LocalDateTime from, LocalDateTime to) throws Exception {
+        String start = from.format(SQLITE_FORMAT);
+        String end = to.format(SQLITE_FORMAT);
+        OrderAnalysis actual = singlePass(start, end);
+
+        try (ResultSet rs = query(OrderQueries.ROLLUP_ORDER_SUMMARY, start, end)) {
+            rs.next();
+            assertEquals(rs.getInt("total_revenue"), actual.orderSummary.total_revenue);
+            assertEquals(rs.getInt("total_orders"), actual.orderSummary.total_orders);
+            assertEquals(rs.getDouble("avg_order_value"), actual.orderSummary.avg_order_value, 1e-9);
+            assertEquals(rs.getDouble("avg_number_of_items_per_order"),
+                    actual.orderSummary.avg_number_of_items_per_order, 1e-9);
+        }
+
+        List<String> expected = new ArrayList<>();
+        try (ResultSet rs = query(OrderQueries.ROLLUP_TOP_CATEGORIES, start, end)) {
+            while (rs.next()) expected.add(rs.getString(1) + "|" + rs.getDouble(2) + "|" + rs.getInt(3));
+        }
+        List<String> got = new ArrayList<>();
+        for (CategoryPerformance c : actual.categoryPerformances) got.add(c.name + "|" + c.sales + "|" + c.quantity);
+        assertEquals(expected, got);
+
+        expected.clear();
+        got.clear();
+        try (ResultSet rs = query(OrderQueries.ROLLUP_HOURLY_RUSH, start, end)) {
+            while (rs.next()) expected.add(rs.getInt(1) + "|" + rs.getInt(2));
+        }
+        for (HourlyRush h : actual.hourlyRushes) got.add(h.hour + "|" + h.avg_orders);
+        assertEquals(expected, got);
+
+        expected.clear();
+        got.clear();
+        try (ResultSet rs = query(OrderQueries.ROLLUP_SALES_TREND, start, end)) {
+            while (rs.next()) expected.add(rs.getString(1) + "|" + rs.getInt(2) + "|" + rs.getInt(3) + "|" + rs.getInt(4));
+        }
+        for (SalesTrend t : actual.salesTrends) got.add(t.date + "|" + t.sales + "|" + t.orders + "|" + t.aov);
+        assertEquals(expected, got);
+
+        expected.clear();
+        got.clear();
+        try (ResultSet rs = query(OrderQueries.ROLLUP_ORDER_SIZE_DISTRIBUTION, start, end)) {
+            while (rs.next()) expected.add(rs.getString(1) + "|" + rs.getInt(2));
+        }
+        for (OrderSizeDistribution d : actual.orderSizeDistribution) got.add(d.size + "|" + d.count);
+        assertEquals(expected, got);
+    }
+
+    private static OrderAnalysis singlePass(String start, String end) throws Exception {
+        AnalyticsAccumulator acc = new AnalyticsAccumulator(start, end);
+        try (ResultSet rs = query(OrderQueries.ANALYTICS_ROWS, start, end)) {
+            acc.addRows(new ResultSetAnalyticsRows(rs));
+        }
+        return acc.build();
+    }
+
+    private static ResultSet query(String sql, String start, String end) throws Exception {
+        PreparedStatement ps = db.prepareStatement(sql);
+        ps.setString(1, start);
+        ps.setString(2, end);
+        ps.closeOnCompletion();
+        return ps.executeQuery();
+    }
+}
@@ -0,0 +1,115 @@
+package com.karan.admin_sunset_point.data.handler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AnalyticsCacheTest {
+
+    private static final DateTimeFormatter SQLITE_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private String load(AnalyticsCache cache, String query, String start, String end) throws Exception {
+        return cache.get(query, start, end, v -> 100, () -> query + loads.incrementAndGet());
+    }
+
+    private static String at(LocalDateTime t) {
+        return t.format(SQLITE_FORMAT);
+    }
+
+    @Test
+    public void liveRange_sharesEntryAcrossRequestTimes() throws Exception {
+        AnalyticsCache cache = new AnalyticsCache(AnalyticsCache.DEFAULT_MAX_BYTES);
+        LocalDateTime now = LocalDateTime.now();
+
+        load(cache, "analytics", at(now.minusDays(7)), at(now));
+        load(cache, "analytics", at(now.minusDays(7).plusSeconds(30)), at(now.plusSeconds(30)));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().hits);
+        assertEquals(1, cache.stats().misses);
+    }
+
+    @Test
+    public void parametersArePartOfTheKey() throws Exception {
+        AnalyticsCache cache = new AnalyticsCache(AnalyticsCache.DEFAULT_MAX_BYTES);
+        LocalDateTime now = LocalDateTime.now();
+
+        load(cache, "dishes:revenue:5", at(now.minusDays(7)), at(now));
+        load(cache, "dishes:quantity:5", at(now.minusDays(7)), at(now));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void invalidate_dropsOnlyCoveringRanges() throws Exception {
+        AnalyticsCache cache = new AnalyticsCache(AnalyticsCache.DEFAULT_MAX_BYTES);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime tenDaysAgo = now.minusDays(10).toLocalDate().atStartOfDay();
+
+        load(cache, "analytics", at(now.minusDays(7)), at(now));
+        load(cache, "analytics", at(tenDaysAgo), at(tenDaysAgo.withHour(23)));
+
+        cache.invalidate(at(now.minusDays(2)));
+        assertEquals(1, cache.stats().entries);
+
+        load(cache, "analytics", at(tenDaysAgo), at(tenDaysAgo.withHour(23)));
+        assertEquals(1, cache.stats().hits);
+
+        cache.invalidate(at(tenDaysAgo.withHour(13)));
+        assertEquals(0, cache.stats().entries);
+        assertEquals(2, cache.stats().invalidations);
+    }
+
+    @Test
+    public void closedWindow_endsOneDayAfterEnd() {
+        LocalDateTime now = LocalDateTime.of(2026, 3, 20, 12, 0);
+        AnalyticsCache.Window w = AnalyticsCache.Window.of(
+                "2026-03-01 10:00:00", "2026-03-05 18:30:00", now);
+
+        assertTrue(w.contains("2026-03-01 00:00:00"));
+        assertTrue(w.contains("2026-03-06 18:29:59"));
+        assertFalse(w.contains("2026-03-06 18:30:00"));
+        assertFalse(w.contains("2026-02-28 23:59:59"));
+    }
+
+    @Test
+    public void unparseableRange_bypassesCache() throws Exception {
+        AnalyticsCache cache = new AnalyticsCache(AnalyticsCache.DEFAULT_MAX_BYTES);
+        assertNull(AnalyticsCache.Window.of("bad", "range", LocalDateTime.now()));
+
+        load(cache, "analytics", "bad", "range");
+        load(cache, "analytics", "bad", "range");
+
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.stats().entries);
+    }
+
+    @Test
+    public void memoryCap_evictsLeastRecentlyUsed() throws Exception {
+        AnalyticsCache cache = new AnalyticsCache(400);
+        LocalDateTime now = LocalDateTime.now();
+        String start = at(now.minusDays(7));
+        String end = at(now);
+
+        load(cache, "a", start, end);
+        load(cache, "b", start, end);
+        load(cache, "a", start, end);   // a is now the most recent
+        load(cache, "c", start, end);   // over budget, b goes
+
+        assertEquals(1, cache.stats().evictions);
+        load(cache, "a", start, end);
+        assertEquals(2, cache.stats().hits);
+        load(cache, "b", start, end);
+        assertEquals(4, cache.stats().misses);
+    }
+}
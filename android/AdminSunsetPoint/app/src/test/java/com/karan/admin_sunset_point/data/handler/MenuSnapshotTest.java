@@ -0,0 +1,87 @@
+package com.karan.admin_sunset_point.data.handler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.karan.admin_sunset_point.data.ResultSetRows;
+import com.karan.admin_sunset_point.data.Responses.ResponseWriter;
+import com.karan.admin_sunset_point.data.TestDatabase;
+import com.karan.admin_sunset_point.data.dao.DishQueries;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public class MenuSnapshotTest {
+
+    private Connection db;
+
+    @Before
+    public void setUp() throws Exception {
+        db = TestDatabase.openInMemory();
+        exec("INSERT INTO dishes (dish_name, category, price) VALUES " +
+                "('Tea', 'Hot Beverage', 2000), ('Fries', 'Fries', 6000), " +
+                "('Coffee', 'Hot Beverage', 3000), ('Chai \u2615', 'Extra', 3000)");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        db.close();
+    }
+
+    @Test
+    public void snapshot_servesWhatWriteDishesWrites() throws Exception {
+        MenuSnapshot snap = build();
+
+        String expected;
+        try (Statement s = db.createStatement();
+             ResultSet rs = s.executeQuery(DishQueries.DISHES_BY_CATEGORY)) {
+            expected = ResponseWriter.writeDishes(new ResultSetRows(rs));
+        }
+        assertEquals(expected, snap.json);
+        assertEquals(expected, new String(snap.utf8, StandardCharsets.UTF_8));
+        assertEquals(Arrays.asList("Hot Beverage", "Fries", "Extra"), new ArrayList<>(snap.byCategory.keySet()));
+        assertEquals(2, snap.byCategory.get("Hot Beverage").size());
+    }
+
+    @Test
+    public void version_followsContent() throws Exception {
+        MenuSnapshot first = build();
+        assertTrue(first.isVersion(build().version));
+
+        exec("UPDATE dishes SET price = 2500 WHERE dish_name = 'Tea'");
+        MenuSnapshot changed = build();
+        assertNotEquals(first.version, changed.version);
+        assertFalse(changed.isVersion(first.version));
+
+        exec("UPDATE dishes SET price = 2000 WHERE dish_name = 'Tea'");
+        assertEquals(first.version, build().version);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void byCategory_isImmutable() throws Exception {
+        build().byCategory.get("Fries").clear();
+    }
+
+    private MenuSnapshot build() throws Exception {
+        try (Statement s = db.createStatement();
+             ResultSet rs = s.executeQuery(DishQueries.DISHES_BY_CATEGORY)) {
+            return MenuSnapshot.build(new ResultSetRows(rs));
+        }
+    }
+
+    private void exec(String sql) throws Exception {
+        try (Statement s = db.createStatement()) {
+            s.executeUpdate(sql);
+        }
+    }
+}
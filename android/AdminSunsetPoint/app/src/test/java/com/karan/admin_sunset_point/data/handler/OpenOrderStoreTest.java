@@ -0,0 +1,276 @@
+package com.karan.admin_sunset_point.data.handler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.karan.admin_sunset_point.data.ResultSetRows;
+import com.karan.admin_sunset_point.data.Responses.ResponseWriter;
+import com.karan.admin_sunset_point.data.TestDatabase;
+import com.karan.admin_sunset_point.data.dao.OrderQueries;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Drives the store the way MyContentProvider does and checks every answer
+ * against the SQL the provider would otherwise run.
+ */
+public class OpenOrderStoreTest {
+
+    private Connection db;
+    private MutableClock clock;
+    private OpenOrderStore store;
+
+    @Before
+    public void setUp() throws Exception {
+        db = TestDatabase.openInMemory();
+        TestDatabase.seed(db, 300, 3, 7);
+        // Old orders still OPEN stay in the list
+        exec("UPDATE orders SET order_status = 'OPEN' WHERE order_id IN (3, 5)");
+        // A counter that synced before has a seq > 0
+        logChange(1);
+        clock = new MutableClock(Instant.now());
+        store = new OpenOrderStore(clock);
+        load();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        db.close();
+    }
+
+    @Test
+    public void loaded_matchesSql() throws Exception {
+        assertEquals(sqlOrders(), store.ordersJson());
+    }
+
+    @Test
+    public void notLoaded_leavesQueriesToSql() {
+        OpenOrderStore empty = new OpenOrderStore(clock);
+        assertNull(empty.ordersJson());
+        assertNull(empty.ordersSinceJson(0, today()));
+    }
+
+    @Test
+    public void mutations_keepStoreEqualToSql() throws Exception {
+        int today = lastOrderId();
+        long before = latestSeq();
+
+        exec("UPDATE order_items SET item_status = 'PENDING' WHERE order_id = " + today);
+        change(today);
+        exec("UPDATE orders SET order_status = 'CLOSED' WHERE order_id = 3");
+        change(3);
+        exec("DELETE FROM orders WHERE order_id = " + (today - 1));
+        change(today - 1);
+        exec("INSERT INTO orders (order_id, order_tag, is_payment_done, order_total, order_status, created_at) " +
+                "VALUES (10000, 'New', 0, 0, 'OPEN', datetime('now'))");
+        change(10000);
+
+        assertEquals(sqlOrders(), store.ordersJson());
+        assertDeltaEquals(sqlDelta(before), store.ordersSinceJson(before, today()));
+        assertDeltaEquals(sqlDelta(latestSeq() - 1), store.ordersSinceJson(latestSeq() - 1, today()));
+
+        // Full resync for a seq the store has never seen
+        JsonObject full = JsonParser.parseString(store.ordersSinceJson(0, today())).getAsJsonObject();
+        assertEquals(JsonParser.parseString(sqlOrders()), full.get("orders"));
+    }
+
+    @Test
+    public void olderVersion_doesNotOverwriteNewer() throws Exception {
+        int id = lastOrderId();
+        exec("UPDATE orders SET is_payment_done = 1 WHERE order_id = " + id);
+        OpenOrderStore.Version older = version(id, logChange(id));
+        exec("UPDATE orders SET is_payment_done = 0 WHERE order_id = " + id);
+        OpenOrderStore.Version newer = version(id, logChange(id));
+
+        store.publish(newer);
+        store.publish(older);
+
+        assertEquals(sqlOrders(), store.ordersJson());
+    }
+
+    @Test
+    public void deltaFromBeforeLoad_isLeftToSql() throws Exception {
+        int id = lastOrderId();
+        long before = latestSeq();
+        exec("UPDATE orders SET is_payment_done = 1 WHERE order_id = " + id);
+        logChange(id);
+        load();
+
+        assertNull(store.ordersSinceJson(before, today()));
+        assertNotNull(store.ordersSinceJson(latestSeq(), today()));
+    }
+
+    @Test
+    public void nextDay_dropsClosedOrdersButKeepsOpenOnes() throws Exception {
+        clock.advance(Duration.ofDays(1));
+
+        JsonArray orders = JsonParser.parseString(store.ordersJson()).getAsJsonArray();
+        Set<String> statuses = new HashSet<>();
+        for (JsonElement o : orders) statuses.add(o.getAsJsonObject().get("status").getAsString());
+        assertEquals(Set.of("OPEN"), statuses);
+        assertEquals(openOrderCount(), orders.size());
+    }
+
+    @Test
+    public void nextDay_givesCountersOfTheOldDayTheFullList() throws Exception {
+        String yesterday = today();
+        long seq = latestSeq();
+        clock.advance(Duration.ofDays(1));
+
+        // No change entry says yesterday's closed orders left
+        JsonObject stale = JsonParser.parseString(store.ordersSinceJson(seq, yesterday)).getAsJsonObject();
+        assertEquals(true, stale.get("full").getAsBoolean());
+        assertEquals(today(), stale.get("day").getAsString());
+        assertEquals(JsonParser.parseString(store.ordersJson()), stale.get("orders"));
+
+        JsonObject current = JsonParser.parseString(store.ordersSinceJson(seq, today())).getAsJsonObject();
+        assertEquals(false, current.get("full").getAsBoolean());
+    }
+
+    private void load() throws Exception {
+        long seq = latestSeq();
+        try (Statement s = db.createStatement();
+             ResultSet rs = s.executeQuery(OrderQueries.TODAY_ORDERS)) {
+            store.load(new ResultSetRows(rs), seq);
+        }
+    }
+
+    /** What MyContentProvider.logChange does, with the publish after "commit". */
+    private void change(int orderId) throws Exception {
+        store.publish(version(orderId, logChange(orderId)));
+    }
+
+    private long logChange(int orderId) throws Exception {
+        exec("INSERT INTO order_changes (order_id) VALUES (" + orderId + ")");
+        return latestSeq();
+    }
+
+    private OpenOrderStore.Version version(int orderId, long seq) throws Exception {
+        try (PreparedStatement ps = db.prepareStatement(OrderQueries.ORDER_FOR_PRINT)) {
+            ps.setInt(1, orderId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return OpenOrderStore.version(new ResultSetRows(rs), orderId, seq);
+            }
+        }
+    }
+
+    private String sqlOrders() throws Exception {
+        try (Statement s = db.createStatement();
+             ResultSet rs = s.executeQuery(OrderQueries.TODAY_ORDERS)) {
+            return ResponseWriter.writeOrders(new ResultSetRows(rs));
+        }
+    }
+
+    private String sqlDelta(long since) throws Exception {
+        List<Integer> changed = new ArrayList<>();
+        try (PreparedStatement ps = db.prepareStatement(
+                "SELECT DISTINCT order_id FROM order_changes WHERE seq > ?")) {
+            ps.setLong(1, since);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) changed.add(rs.getInt(1));
+            }
+        }
+        try (PreparedStatement ps = db.prepareStatement(OrderQueries.TODAY_ORDERS_CHANGED_SINCE)) {
+            ps.setLong(1, since);
+            try (ResultSet rs = ps.executeQuery()) {
+                return ResponseWriter.writeOrderDelta(new ResultSetRows(rs), latestSeq(), today(), false, changed);
+            }
+        }
+    }
+
+    // Removed ids may come in any order
+    private static void assertDeltaEquals(String expected, String actual) {
+        JsonObject e = JsonParser.parseString(expected).getAsJsonObject();
+        JsonObject a = JsonParser.parseString(actual).getAsJsonObject();
+        assertEquals(e.get("seq"), a.get("seq"));
+        assertEquals(e.get("day"), a.get("day"));
+        assertEquals(e.get("full"), a.get("full"));
+        assertEquals(e.get("orders"), a.get("orders"));
+        assertEquals(ids(e.getAsJsonArray("removed")), ids(a.getAsJsonArray("removed")));
+    }
+
+    private static Set<Integer> ids(JsonArray array) {
+        Set<Integer> ids = new HashSet<>();
+        for (JsonElement id : array) ids.add(id.getAsInt());
+        return ids;
+    }
+
+    private String today() {
+        return LocalDate.now(clock).toString();
+    }
+
+    private int lastOrderId() throws Exception {
+        return singleInt("SELECT MAX(order_id) FROM orders");
+    }
+
+    private long latestSeq() throws Exception {
+        return singleInt("SELECT COALESCE(MAX(seq), 0) FROM order_changes");
+    }
+
+    private int openOrderCount() throws Exception {
+        return singleInt("SELECT COUNT(*) FROM orders WHERE order_status = 'OPEN'");
+    }
+
+    private int singleInt(String sql) throws Exception {
+        try (Statement s = db.createStatement();
+             ResultSet rs = s.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private void exec(String sql) throws Exception {
+        try (Statement s = db.createStatement()) {
+            s.executeUpdate(sql);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration d) {
+            now = now.plus(d);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
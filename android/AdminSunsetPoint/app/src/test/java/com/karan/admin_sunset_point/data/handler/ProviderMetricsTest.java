@@ -0,0 +1,138 @@
+package com.karan.admin_sunset_point.data.handler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class ProviderMetricsTest {
+
+    @Test
+    public void histogram_bucketsAreContiguousAndWithinOneSixteenth() {
+        int previous = -1;
+        for (long v = 0; v < 1 << 20; v++) {
+            int index = Histogram.indexOf(v);
+            assertTrue("index must not go back at " + v, index >= previous);
+            assertTrue("index must not skip at " + v, index <= previous + 1);
+            assertTrue(v <= Histogram.highestIn(index));
+            assertTrue("bucket too wide at " + v, Histogram.highestIn(index) - v <= v / 16);
+            previous = index;
+        }
+        assertEquals(Histogram.MAX_VALUE, Histogram.highestIn(Histogram.indexOf(Histogram.MAX_VALUE)));
+    }
+
+    @Test
+    public void histogram_percentiles() {
+        Histogram h = new Histogram();
+        for (int v = 1; v <= 1000; v++) h.record(v);
+
+        Histogram.Snapshot s = h.snapshot();
+        assertEquals(1000, s.count);
+        assertEquals(1000, s.max);
+        assertEquals(500, s.mean());
+        assertNear(500, s.percentile(0.50));
+        assertNear(950, s.percentile(0.95));
+        assertNear(990, s.percentile(0.99));
+        assertEquals(1000, s.percentile(1.0));
+        assertEquals(1, s.percentile(0.0));
+    }
+
+    @Test
+    public void histogram_clampsOutOfRangeValues() {
+        Histogram h = new Histogram();
+        h.record(-5);
+        h.record(Long.MAX_VALUE);
+
+        Histogram.Snapshot s = h.snapshot();
+        assertEquals(0, s.percentile(0.5));
+        assertEquals(Histogram.MAX_VALUE, s.max);
+        assertEquals(Histogram.MAX_VALUE, s.percentile(1.0));
+    }
+
+    @Test
+    public void histogram_concurrentRecordsAreAllCounted() throws Exception {
+        Histogram h = new Histogram();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < 4; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 100_000; i++) h.record(i % 5000);
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        Histogram.Snapshot s = h.snapshot();
+        assertEquals(400_000, s.count);
+        assertEquals(4999, s.max);
+    }
+
+    @Test
+    public void toJson_reportsCalledOperationsOnly() throws Exception {
+        ProviderMetrics metrics = new ProviderMetrics();
+
+        ProviderMetrics.Sample ok = metrics.begin(ProviderMetrics.Op.QUERY_ORDERS);
+        ok.db();
+        ok.serialize();
+        ok.bytes(2048);
+        metrics.end(ok);
+
+        ProviderMetrics.Sample failed = metrics.begin(ProviderMetrics.Op.QUERY_ORDERS);
+        failed.failed();
+        metrics.end(failed);
+
+        JsonObject ops = JsonParser.parseString(metrics.toJson()).getAsJsonObject().getAsJsonObject("ops");
+        assertEquals(1, ops.size());
+
+        JsonObject orders = ops.getAsJsonObject("query.orders");
+        assertEquals(2, orders.get("count").getAsLong());
+        assertEquals(1, orders.get("errors").getAsLong());
+        for (String phase : new String[]{"totalUs", "dbUs", "serializeUs", "bytes"}) {
+            JsonObject summary = orders.getAsJsonObject(phase);
+            for (String stat : new String[]{"p50", "p95", "p99", "max", "mean"}) {
+                assertTrue(phase + "." + stat, summary.has(stat));
+            }
+        }
+        // Only the first call had a payload
+        assertEquals(2048, orders.getAsJsonObject("bytes").get("max").getAsLong());
+        assertEquals(2048, orders.getAsJsonObject("bytes").get("p50").getAsLong());
+
+        metrics.reset();
+        ops = JsonParser.parseString(metrics.toJson()).getAsJsonObject().getAsJsonObject("ops");
+        assertFalse(ops.has("query.orders"));
+    }
+
+    @Test
+    public void sample_splitsTimeBetweenPhases() throws Exception {
+        ProviderMetrics.Sample m = new ProviderMetrics().begin(ProviderMetrics.Op.UPDATE_SERVED);
+        Thread.sleep(20);
+        m.db();
+        m.serialize();
+        Thread.sleep(5);
+        m.skip();
+        m.serialize();
+
+        assertTrue(m.dbNanos >= TimeUnit.MILLISECONDS.toNanos(20));
+        assertTrue(m.serializeNanos < TimeUnit.MILLISECONDS.toNanos(5));
+    }
+
+    private static void assertNear(long expected, long actual) {
+        assertTrue("expected about " + expected + " but was " + actual,
+                actual >= expected && actual <= expected + expected / 16);
+    }
+}
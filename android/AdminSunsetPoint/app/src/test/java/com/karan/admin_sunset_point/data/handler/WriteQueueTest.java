@@ -0,0 +1,209 @@
+package com.karan.admin_sunset_point.data.handler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.karan.admin_sunset_point.data.TestDatabase;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class WriteQueueTest {
+
+    private Connection db;
+    private ExecutorService callers;
+
+    @Before
+    public void setUp() throws Exception {
+        db = TestDatabase.openInMemory();
+        callers = Executors.newFixedThreadPool(32);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        callers.shutdownNow();
+        db.close();
+    }
+
+    /** What db::runInTransaction does for Room, on a JDBC connection. */
+    private WriteQueue.Transactions transactions() {
+        return body -> {
+            try {
+                db.setAutoCommit(false);
+                try {
+                    body.run();
+                    db.commit();
+                } catch (RuntimeException | Error e) {
+                    db.rollback();
+                    throw e;
+                } finally {
+                    db.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        };
+    }
+
+    private int insertOrder(String tag) throws SQLException {
+        try (Statement s = db.createStatement()) {
+            s.executeUpdate("INSERT INTO orders (order_tag, is_payment_done, order_total, order_status) " +
+                    "VALUES ('" + tag + "', 0, 0, 'OPEN')");
+            try (ResultSet rs = s.executeQuery("SELECT last_insert_rowid()")) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    private int countOrders() throws SQLException {
+        try (Statement s = db.createStatement();
+             ResultSet rs = s.executeQuery("SELECT COUNT(*) FROM orders")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    /** Starts all mutations at once so they land in the same window. */
+    private <T> List<Future<T>> burst(WriteQueue queue, List<Callable<T>> mutations) {
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<T>> results = new ArrayList<>();
+        for (Callable<T> m : mutations) {
+            results.add(callers.submit(() -> {
+                go.await();
+                return queue.submit(m);
+            }));
+        }
+        go.countDown();
+        return results;
+    }
+
+    @Test
+    public void burst_sharesCommitsAndEachCallerGetsItsOwnResult() throws Exception {
+        WriteQueue queue = new WriteQueue(transactions(), 50);
+        List<Callable<Integer>> mutations = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            String tag = "T" + i;
+            mutations.add(() -> insertOrder(tag));
+        }
+
+        Set<Integer> ids = new HashSet<>();
+        for (Future<Integer> f : burst(queue, mutations)) {
+            ids.add(f.get());
+        }
+
+        assertEquals(20, ids.size());
+        assertEquals(20, countOrders());
+        WriteQueue.Stats stats = queue.stats();
+        assertEquals(20, stats.mutations);
+        assertTrue("commits: " + stats.commits, stats.commits < 20);
+    }
+
+    @Test
+    public void failingMutation_onlyFailsItsCaller() throws Exception {
+        WriteQueue queue = new WriteQueue(transactions(), 50);
+        List<Callable<Integer>> mutations = new ArrayList<>();
+        mutations.add(() -> insertOrder("ok-1"));
+        mutations.add(() -> {
+            insertOrder("broken");
+            throw new IllegalStateException("no such item");
+        });
+        mutations.add(() -> insertOrder("ok-2"));
+
+        List<Future<Integer>> results = burst(queue, mutations);
+        results.get(0).get();
+        results.get(2).get();
+        try {
+            results.get(1).get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+
+        // The broken mutation's insert was rolled back with it
+        assertEquals(2, countOrders());
+        assertEquals(1, queue.stats().retries);
+    }
+
+    @Test
+    public void checkedException_reachesCaller() throws Exception {
+        WriteQueue queue = new WriteQueue(transactions(), 0);
+        try {
+            queue.submit(() -> {
+                throw new IOException("disk");
+            });
+            fail();
+        } catch (IOException expected) {
+            assertEquals("disk", expected.getMessage());
+        }
+
+        // The writer thread survives and keeps serving
+        assertEquals(Integer.valueOf(1), queue.submit(() -> insertOrder("after")));
+    }
+
+    @Test
+    public void error_onlyFailsItsCaller() throws Exception {
+        WriteQueue queue = new WriteQueue(transactions(), 50);
+        List<Callable<Integer>> mutations = new ArrayList<>();
+        mutations.add(() -> insertOrder("ok-1"));
+        mutations.add(() -> {
+            insertOrder("broken");
+            throw new AssertionError("bug");
+        });
+        mutations.add(() -> insertOrder("ok-2"));
+
+        List<Future<Integer>> results = burst(queue, mutations);
+        results.get(0).get();
+        results.get(2).get();
+        try {
+            results.get(1).get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof AssertionError);
+        }
+        assertEquals(2, countOrders());
+
+        // The writer thread survives and keeps serving
+        queue.submit(() -> insertOrder("after"));
+        assertEquals(3, countOrders());
+    }
+
+    @Test
+    public void failingTransaction_failsTheGroupAndTheQueueGoesOn() throws Exception {
+        AtomicBoolean broken = new AtomicBoolean(true);
+        WriteQueue.Transactions inner = transactions();
+        WriteQueue queue = new WriteQueue(body -> {
+            if (broken.get()) throw new OutOfMemoryError("journal");
+            inner.runInTransaction(body);
+        }, 0);
+
+        try {
+            queue.submit(() -> insertOrder("lost"));
+            fail();
+        } catch (OutOfMemoryError expected) {
+            assertEquals("journal", expected.getMessage());
+        }
+
+        broken.set(false);
+        assertEquals(Integer.valueOf(1), queue.submit(() -> insertOrder("after")));
+    }
+}
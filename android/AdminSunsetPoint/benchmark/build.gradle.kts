@@ -0,0 +1,88 @@
+plugins {
+    `java-library`
+    alias(libs.plugins.jmh)
+}
+
+// JVM benchmarks for the admin app's hot paths. They run the app's own SQL
+// constants and JSON writers against sqlite-jdbc, so only sources without
+// Android dependencies are compiled in here. Run with
+//   ./gradlew :benchmark:jmh
+// and keep build/results/jmh/results.json to compare releases. The service
+// day load generator runs with ./gradlew :benchmark:loadgen, see LoadGenerator.
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+sourceSets {
+    main {
+        java {
+            setSrcDirs(listOf(
+                "src/main/java",
+                "../app/src/main/java",
+                "../app/src/test/java",
+                "../../counter/app/src/main/java",
+                "../../counter/app/src/test/java"
+            ))
+            include(
+                "com/karan/admin_sunset_point/loadgen/**",
+                "com/karan/admin_sunset_point/data/MenuSeed.java",
+                "com/karan/admin_sunset_point/data/StorageProfile.java",
+                "com/karan/admin_sunset_point/data/TestDatabase.java",
+                "com/karan/admin_sunset_point/data/ResultSetRows.java",
+                "com/karan/admin_sunset_point/data/ResultSetAnalyticsRows.java",
+                "com/karan/admin_sunset_point/data/entity/Dish.java",
+                "com/karan/admin_sunset_point/data/entity/OrderWithItemsRow.java",
+                "com/karan/admin_sunset_point/data/entity/OrderAnalysis.java",
+                "com/karan/admin_sunset_point/data/entity/OrderSummary.java",
+                "com/karan/admin_sunset_point/data/entity/CategoryPerformance.java",
+                "com/karan/admin_sunset_point/data/entity/HourlyRush.java",
+                "com/karan/admin_sunset_point/data/entity/SalesTrend.java",
+                "com/karan/admin_sunset_point/data/entity/OrderSizeDistribution.java",
+                "com/karan/admin_sunset_point/data/dao/DishQueries.java",
+                "com/karan/admin_sunset_point/data/dao/OrderQueries.java",
+                "com/karan/admin_sunset_point/data/dao/RollupQueries.java",
+                "com/karan/admin_sunset_point/data/dao/OrderTotalsQueries.java",
+                "com/karan/admin_sunset_point/data/Responses/ResponseWriter.java",
+                "com/karan/admin_sunset_point/data/Responses/StringPool.java",
+                "com/karan/admin_sunset_point/data/Responses/ReferenceOrders.java",
+                "com/karan/admin_sunset_point/data/Responses/OrderResponse.java",
+                "com/karan/admin_sunset_point/data/Responses/OrderItemResponse.java",
+                "com/karan/admin_sunset_point/data/handler/AnalyticsAccumulator.java",
+                "com/karan/admin_sunset_point/data/handler/MenuSnapshot.java",
+                "com/karan/admin_sunset_point/data/handler/OpenOrderStore.java",
+                "com/karan/admin_sunset_point/data/handler/WriteQueue.java",
+                "com/karan/sunset_point/data/Responses/OrderResponse.java",
+                "com/karan/sunset_point/data/Responses/OrderItemResponse.java",
+                "com/karan/sunset_point/data/handler/KotFormatter.java",
+                "com/karan/sunset_point/data/handler/KotEncoder.java",
+                "com/karan/sunset_point/data/handler/PrinterConnection.java",
+                "com/karan/sunset_point/data/handler/KotMarkup.java"
+            )
+        }
+    }
+}
+
+dependencies {
+    implementation(libs.gson)
+    implementation(libs.room.common.jvm)
+    implementation(libs.androidx.annotation)
+    implementation(libs.sqlite.jdbc)
+}
+
+jmh {
+    jmhVersion = libs.versions.jmh
+    fork = 1
+    warmupIterations = 3
+    iterations = 5
+    // Adds gc.alloc.rate.norm, the bytes allocated per benchmark call
+    profilers.add("gc")
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("results/jmh/results.json")
+}
+
+tasks.register<JavaExec>("loadgen") {
+    description = "Replays a synthetic service day against the provider logic."
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass = "com.karan.admin_sunset_point.loadgen.LoadGenerator"
+}
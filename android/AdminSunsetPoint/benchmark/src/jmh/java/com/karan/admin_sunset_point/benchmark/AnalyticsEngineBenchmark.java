@@ -0,0 +1,137 @@
+package com.karan.admin_sunset_point.benchmark;
+
+import com.karan.admin_sunset_point.data.ResultSetAnalyticsRows;
+import com.karan.admin_sunset_point.data.dao.OrderQueries;
+import com.karan.admin_sunset_point.data.entity.CategoryPerformance;
+import com.karan.admin_sunset_point.data.entity.HourlyRush;
+import com.karan.admin_sunset_point.data.entity.OrderAnalysis;
+import com.karan.admin_sunset_point.data.entity.OrderSizeDistribution;
+import com.karan.admin_sunset_point.data.entity.OrderSummary;
+import com.karan.admin_sunset_point.data.entity.SalesTrend;
+import com.karan.admin_sunset_point.data.handler.AnalyticsAccumulator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A whole dashboard refresh: AnalyticsEngine's one cursor folded by
+ * AnalyticsAccumulator, against the five rollup queries it replaced, each
+ * mapped to its entities the way Room's generated DAO code does.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class AnalyticsEngineBenchmark {
+
+    @Param({"1", "7", "30", "365"})
+    public int rangeDays;
+
+    private String start;
+    private String end;
+
+    @Setup
+    public void range() {
+        LocalDate today = LocalDate.now();
+        start = today.minusDays(rangeDays - 1) + " 00:00:00";
+        end = today + " 00:00:00";
+    }
+
+    @Benchmark
+    public OrderAnalysis singlePass(SeededDatabase data) throws SQLException {
+        AnalyticsAccumulator acc = new AnalyticsAccumulator(start, end);
+        try (PreparedStatement ps = prepare(data, OrderQueries.ANALYTICS_ROWS);
+             ResultSet rs = ps.executeQuery()) {
+            acc.addRows(new ResultSetAnalyticsRows(rs));
+        }
+        return acc.build();
+    }
+
+    /** Baseline: Handler.getAnalyticsByDateRange before user-003. */
+    @Benchmark
+    public OrderAnalysis fiveQueries(SeededDatabase data) throws SQLException {
+        OrderAnalysis analysis = new OrderAnalysis();
+
+        try (PreparedStatement ps = prepare(data, OrderQueries.ROLLUP_ORDER_SUMMARY);
+             ResultSet rs = ps.executeQuery()) {
+            OrderSummary summary = new OrderSummary();
+            if (rs.next()) {
+                summary.total_revenue = rs.getInt("total_revenue");
+                summary.total_orders = rs.getInt("total_orders");
+                summary.avg_order_value = rs.getDouble("avg_order_value");
+                summary.avg_number_of_items_per_order = rs.getDouble("avg_number_of_items_per_order");
+            }
+            analysis.orderSummary = summary;
+        }
+
+        analysis.categoryPerformances = new ArrayList<>();
+        try (PreparedStatement ps = prepare(data, OrderQueries.ROLLUP_TOP_CATEGORIES);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                CategoryPerformance c = new CategoryPerformance();
+                c.name = rs.getString(1);
+                c.sales = rs.getDouble(2);
+                c.quantity = rs.getInt(3);
+                analysis.categoryPerformances.add(c);
+            }
+        }
+
+        analysis.hourlyRushes = new ArrayList<>();
+        try (PreparedStatement ps = prepare(data, OrderQueries.ROLLUP_HOURLY_RUSH);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                HourlyRush h = new HourlyRush();
+                h.hour = rs.getInt(1);
+                h.avg_orders = rs.getInt(2);
+                analysis.hourlyRushes.add(h);
+            }
+        }
+
+        analysis.salesTrends = new ArrayList<>();
+        try (PreparedStatement ps = prepare(data, OrderQueries.ROLLUP_SALES_TREND);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                SalesTrend t = new SalesTrend();
+                t.date = rs.getString(1);
+                t.sales = rs.getInt(2);
+                t.orders = rs.getInt(3);
+                t.aov = rs.getInt(4);
+                analysis.salesTrends.add(t);
+            }
+        }
+
+        List<OrderSizeDistribution> sizes = new ArrayList<>();
+        try (PreparedStatement ps = prepare(data, OrderQueries.ROLLUP_ORDER_SIZE_DISTRIBUTION);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                OrderSizeDistribution d = new OrderSizeDistribution();
+                d.size = rs.getString(1);
+                d.count = rs.getInt(2);
+                sizes.add(d);
+            }
+        }
+        analysis.orderSizeDistribution = sizes;
+        return analysis;
+    }
+
+    // Numbered by first appearance: :start, :end
+    private PreparedStatement prepare(SeededDatabase data, String sql) throws SQLException {
+        PreparedStatement ps = data.db.prepareStatement(sql);
+        ps.setString(1, start);
+        ps.setString(2, end);
+        return ps;
+    }
+}
@@ -0,0 +1,98 @@
+package com.karan.admin_sunset_point.benchmark;
+
+import com.karan.admin_sunset_point.data.dao.OrderQueries;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/** Every analytics query OrderDao runs, over the ranges the dashboard offers. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class AnalyticsQueryBenchmark {
+
+    private static final int TOP_DISHES = 10;
+
+    @Param({"1", "7", "30", "365"})
+    public int rangeDays;
+
+    private String start;
+    private String end;
+
+    @Setup
+    public void range() {
+        LocalDate today = LocalDate.now();
+        start = today.minusDays(rangeDays - 1) + " 00:00:00";
+        end = today + " 00:00:00";
+    }
+
+    @Benchmark
+    public void streamAnalyticsRows(SeededDatabase data, Blackhole bh) throws SQLException {
+        drain(data, OrderQueries.ANALYTICS_ROWS, bh, false);
+    }
+
+    @Benchmark
+    public void getOrderSummary(SeededDatabase data, Blackhole bh) throws SQLException {
+        drain(data, OrderQueries.ROLLUP_ORDER_SUMMARY, bh, false);
+    }
+
+    @Benchmark
+    public void getTopCategories(SeededDatabase data, Blackhole bh) throws SQLException {
+        drain(data, OrderQueries.ROLLUP_TOP_CATEGORIES, bh, false);
+    }
+
+    @Benchmark
+    public void getHourlyRush(SeededDatabase data, Blackhole bh) throws SQLException {
+        drain(data, OrderQueries.ROLLUP_HOURLY_RUSH, bh, false);
+    }
+
+    @Benchmark
+    public void getSalesTrend(SeededDatabase data, Blackhole bh) throws SQLException {
+        drain(data, OrderQueries.ROLLUP_SALES_TREND, bh, false);
+    }
+
+    @Benchmark
+    public void getOrderSizeDistribution(SeededDatabase data, Blackhole bh) throws SQLException {
+        drain(data, OrderQueries.ROLLUP_ORDER_SIZE_DISTRIBUTION, bh, false);
+    }
+
+    @Benchmark
+    public void getTopDishesByRevenue(SeededDatabase data, Blackhole bh) throws SQLException {
+        drain(data, OrderQueries.ROLLUP_TOP_DISHES_BY_REVENUE, bh, true);
+    }
+
+    @Benchmark
+    public void getTopDishesByQuantity(SeededDatabase data, Blackhole bh) throws SQLException {
+        drain(data, OrderQueries.ROLLUP_TOP_DISHES_BY_QUANTITY, bh, true);
+    }
+
+    // SQLite numbers named parameters by first appearance: :start, :end, :limit
+    private void drain(SeededDatabase data, String sql, Blackhole bh, boolean limit) throws SQLException {
+        try (PreparedStatement ps = data.db.prepareStatement(sql)) {
+            ps.setString(1, start);
+            ps.setString(2, end);
+            if (limit) ps.setInt(3, TOP_DISHES);
+            try (ResultSet rs = ps.executeQuery()) {
+                int columns = rs.getMetaData().getColumnCount();
+                while (rs.next()) {
+                    for (int c = 1; c <= columns; c++) {
+                        bh.consume(rs.getObject(c));
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.karan.admin_sunset_point.benchmark;
+
+import com.karan.admin_sunset_point.data.MenuSeed;
+import com.karan.admin_sunset_point.data.StorageProfile;
+import com.karan.admin_sunset_point.data.TestDatabase;
+import com.karan.admin_sunset_point.data.entity.Dish;
+import com.karan.admin_sunset_point.loadgen.ProviderReplica;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.io.File;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Orders per second for a 10-item order through the provider's createOrder:
+ * the WriteQueue group transaction, header and batched item inserts, the
+ * totals triggers and the change log, on a database file. Four counters
+ * placing orders at once share group commits; one counter does not.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class CreateOrderBenchmark {
+
+    private static final int ITEMS = 10;
+
+    private File file;
+    private ProviderReplica provider;
+    private List<Dish> menu;
+    private final AtomicInteger orders = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void open() throws Exception {
+        file = File.createTempFile("sunset-create", ".db");
+        try (Connection c = TestDatabase.openFile(file.getPath(), StorageProfile.DEFAULT, 10_000)) {
+            TestDatabase.seed(c, MenuSeed.dishes(), 0, 1, 42);
+        }
+        provider = new ProviderReplica(file.getPath());
+        menu = provider.dishes();
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws Exception {
+        provider.close();
+        for (String suffix : new String[]{"", "-wal", "-shm"}) {
+            new File(file.getPath() + suffix).delete();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int oneCounter() throws Exception {
+        return createOrder();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int fourCounters() throws Exception {
+        return createOrder();
+    }
+
+    private int createOrder() throws Exception {
+        int n = orders.getAndIncrement();
+        List<Dish> dishes = new ArrayList<>(ITEMS);
+        int[] quantities = new int[ITEMS];
+        for (int i = 0; i < ITEMS; i++) {
+            dishes.add(menu.get((n * 7 + i * 13) % menu.size()));
+            quantities[i] = 1 + (n + i) % 3;
+        }
+        return provider.createOrder("T" + (n % 20), dishes, quantities);
+    }
+}
@@ -0,0 +1,120 @@
+package com.karan.admin_sunset_point.benchmark;
+
+import com.google.gson.Gson;
+import com.karan.admin_sunset_point.data.ResultSetRows;
+import com.karan.admin_sunset_point.data.Responses.ResponseWriter;
+import com.karan.admin_sunset_point.data.dao.OrderQueries;
+import com.karan.sunset_point.data.Responses.OrderResponse;
+import com.karan.sunset_point.data.handler.KotEncoder;
+import com.karan.sunset_point.data.handler.KotFormatter;
+import com.karan.sunset_point.data.handler.KotMarkup;
+import com.karan.sunset_point.data.handler.PrinterConnection;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.ByteBuffer;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The counter's PrinterNativeApi.printOrder ticket step, over today's last
+ * orders as the counter receives them from "orderPrint/#": the markup that
+ * EscPosPrinter parsed on every print against KotEncoder's bytes, both
+ * written to an in-memory printer. Setup prints the bytes each sends.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class KotFormatBenchmark {
+
+    private final KotEncoder encoder = new KotEncoder();
+    private final CountingConnection printer = new CountingConnection();
+
+    private OrderResponse[] orders;
+    private int next;
+
+    @Setup
+    public void load(SeededDatabase data) throws Exception {
+        int last;
+        try (Statement s = data.db.createStatement();
+             ResultSet rs = s.executeQuery("SELECT MAX(order_id) FROM orders")) {
+            rs.next();
+            last = rs.getInt(1);
+        }
+
+        Gson gson = new Gson();
+        orders = new OrderResponse[64];
+        try (PreparedStatement ps = data.db.prepareStatement(OrderQueries.ORDER_FOR_PRINT)) {
+            for (int i = 0; i < orders.length; i++) {
+                ps.setInt(1, last - i);
+                try (ResultSet rs = ps.executeQuery()) {
+                    orders[i] = gson.fromJson(ResponseWriter.writeOrder(new ResultSetRows(rs)), OrderResponse.class);
+                }
+            }
+        }
+
+        long markupBytes = 0, encodedBytes = 0;
+        for (OrderResponse order : orders) {
+            markupBytes += KotMarkup.render(KotFormatter.formatKotDantsu(order)).length;
+            encodedBytes += encoder.encode(order).remaining();
+        }
+        System.out.printf("%nBytes per ticket: formatted text %d, KotEncoder %d%n",
+                markupBytes / orders.length, encodedBytes / orders.length);
+    }
+
+    @Benchmark
+    public String formatKotDantsu() {
+        return KotFormatter.formatKotDantsu(nextOrder());
+    }
+
+    @Benchmark
+    public long formattedTextPrint() throws Exception {
+        byte[] ticket = KotMarkup.render(KotFormatter.formatKotDantsu(nextOrder()));
+        printer.write(ticket, 0, ticket.length);
+        return printer.bytes;
+    }
+
+    @Benchmark
+    public long kotEncoderPrint() throws Exception {
+        ByteBuffer ticket = encoder.encode(nextOrder());
+        printer.write(ticket.array(), ticket.arrayOffset() + ticket.position(), ticket.remaining());
+        return printer.bytes;
+    }
+
+    private OrderResponse nextOrder() {
+        OrderResponse order = orders[next];
+        next = (next + 1) % orders.length;
+        return order;
+    }
+
+    private static final class CountingConnection implements PrinterConnection {
+        long bytes;
+
+        @Override
+        public void connect() {}
+
+        @Override
+        public boolean isConnected() {
+            return true;
+        }
+
+        @Override
+        public void probe() {}
+
+        @Override
+        public void write(byte[] data, int offset, int length) {
+            bytes += length;
+        }
+
+        @Override
+        public void disconnect() {}
+    }
+}
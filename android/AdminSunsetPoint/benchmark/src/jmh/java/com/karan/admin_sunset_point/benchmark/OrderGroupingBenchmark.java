@@ -0,0 +1,82 @@
+package com.karan.admin_sunset_point.benchmark;
+
+import com.karan.admin_sunset_point.data.MenuSeed;
+import com.karan.admin_sunset_point.data.TestDatabase;
+import com.karan.admin_sunset_point.data.Responses.ReferenceOrders;
+import com.karan.admin_sunset_point.data.Responses.ResponseWriter;
+import com.karan.admin_sunset_point.data.dao.OrderQueries;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turning the rows of "orders" and "orderPrint/#" into JSON, three ways:
+ * <ul>
+ *   <li>reference: an OrderWithItemsRow per row, regrouped in a
+ *       LinkedHashMap and written by Gson (ReferenceOrders)</li>
+ *   <li>streaming: ResponseWriter with a String per text cell</li>
+ *   <li>pooled: ResponseWriter reading repeated text through the StringPool,
+ *       as CursorRows does on the device</li>
+ * </ul>
+ * The gc profiler's gc.alloc.rate.norm is the allocation per request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class OrderGroupingBenchmark {
+
+    /** Today's open orders as the counter sees them at a quiet moment and at the rush. */
+    @Param({"40", "400"})
+    public int orders;
+
+    @Param({"reference", "streaming", "pooled"})
+    public String path;
+
+    private WindowRows today;
+    private WindowRows print;
+
+    @Setup
+    public void load() throws SQLException {
+        boolean copyChars = path.equals("pooled");
+        try (Connection db = TestDatabase.openInMemory()) {
+            TestDatabase.seed(db, MenuSeed.dishes(), orders, 1, 42);
+            try (PreparedStatement ps = db.prepareStatement(OrderQueries.TODAY_ORDERS);
+                 ResultSet rs = ps.executeQuery()) {
+                today = WindowRows.load(rs, copyChars);
+            }
+            try (PreparedStatement ps = db.prepareStatement(OrderQueries.ORDER_FOR_PRINT)) {
+                ps.setInt(1, orders);
+                try (ResultSet rs = ps.executeQuery()) {
+                    print = WindowRows.load(rs, copyChars);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public String getOrdersJson() throws IOException {
+        today.rewind();
+        if (path.equals("reference")) return ReferenceOrders.toJson(today);
+        return ResponseWriter.writeOrders(today);
+    }
+
+    @Benchmark
+    public String getOrderPrintJson() throws IOException {
+        print.rewind();
+        if (path.equals("reference")) return ReferenceOrders.toJson(print);
+        return ResponseWriter.writeOrder(print);
+    }
+}
@@ -0,0 +1,37 @@
+package com.karan.admin_sunset_point.benchmark;
+
+import com.karan.admin_sunset_point.data.TestDatabase;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+
+/**
+ * An in-memory database whose "orders" query (OrderQueries.TODAY_ORDERS)
+ * returns about {@code itemRows} joined rows: today's orders only, at the
+ * seed's 2.5 items per order.
+ */
+@State(Scope.Benchmark)
+public class OrderRowsDatabase {
+
+    @Param({"200", "2000", "20000"})
+    public int itemRows;
+
+    public Connection db;
+
+    @Setup(Level.Trial)
+    public void open() throws Exception {
+        db = TestDatabase.openInMemory();
+        TestDatabase.seed(db, itemRows * 2 / 5, 1, itemRows);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws Exception {
+        db.close();
+    }
+}
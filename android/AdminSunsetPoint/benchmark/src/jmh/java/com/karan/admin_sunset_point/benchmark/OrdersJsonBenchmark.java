@@ -0,0 +1,48 @@
+package com.karan.admin_sunset_point.benchmark;
+
+import com.karan.admin_sunset_point.data.ResultSetRows;
+import com.karan.admin_sunset_point.data.Responses.ReferenceOrders;
+import com.karan.admin_sunset_point.data.Responses.ResponseWriter;
+import com.karan.admin_sunset_point.data.dao.OrderQueries;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The provider's "orders" JSON at 200, 2,000 and 20,000 item rows: the
+ * streaming ResponseWriter against the entity list, LinkedHashMap and Gson
+ * it replaced (ReferenceOrders). Both read the same query, so the gap is the
+ * serialization; compare gc.alloc.rate.norm for the allocation per call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class OrdersJsonBenchmark {
+
+    @Benchmark
+    public String responseWriter(OrderRowsDatabase data) throws SQLException, IOException {
+        try (Statement s = data.db.createStatement();
+             ResultSet rs = s.executeQuery(OrderQueries.TODAY_ORDERS)) {
+            return ResponseWriter.writeOrders(new ResultSetRows(rs));
+        }
+    }
+
+    /** Baseline: the provider before user-006. */
+    @Benchmark
+    public String gsonReference(OrderRowsDatabase data) throws SQLException {
+        try (Statement s = data.db.createStatement();
+             ResultSet rs = s.executeQuery(OrderQueries.TODAY_ORDERS)) {
+            return ReferenceOrders.toJson(new ResultSetRows(rs));
+        }
+    }
+}
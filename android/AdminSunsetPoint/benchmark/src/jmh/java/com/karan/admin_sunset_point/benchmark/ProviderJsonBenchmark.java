@@ -0,0 +1,114 @@
+package com.karan.admin_sunset_point.benchmark;
+
+import com.karan.admin_sunset_point.data.ResultSetRows;
+import com.karan.admin_sunset_point.data.Responses.ResponseWriter;
+import com.karan.admin_sunset_point.data.dao.DishQueries;
+import com.karan.admin_sunset_point.data.dao.OrderQueries;
+import com.karan.admin_sunset_point.data.handler.MenuSnapshot;
+import com.karan.admin_sunset_point.data.handler.OpenOrderStore;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What MyContentProvider does for "orders", "dishes" and "orderPrint/#":
+ * the SQL plus ResponseWriter, and the in-memory paths that stand in front of it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class ProviderJsonBenchmark {
+
+    private OpenOrderStore store;
+    private OpenOrderStore.Version[] versions;
+    private long seq;
+    private int printOrderId;
+
+    @Setup
+    public void load(SeededDatabase data) throws Exception {
+        printOrderId = singleInt(data, "SELECT MAX(order_id) FROM orders");
+
+        store = OpenOrderStore.getInstance();
+        try (Statement s = data.db.createStatement();
+             ResultSet rs = s.executeQuery(OrderQueries.TODAY_ORDERS)) {
+            store.load(new ResultSetRows(rs), 0);
+        }
+        // Replayed in a loop as if the counter kept editing the last orders
+        versions = new OpenOrderStore.Version[16];
+        for (int i = 0; i < versions.length; i++) {
+            versions[i] = printVersion(data, printOrderId - i);
+        }
+    }
+
+    @Benchmark
+    public String getOrdersJson(SeededDatabase data) throws SQLException, IOException {
+        try (Statement s = data.db.createStatement();
+             ResultSet rs = s.executeQuery(OrderQueries.TODAY_ORDERS)) {
+            return ResponseWriter.writeOrders(new ResultSetRows(rs));
+        }
+    }
+
+    /** A write followed by a read, the store's worst case: the list is rebuilt. */
+    @Benchmark
+    public String getOrdersJsonFromStoreAfterChange() throws IOException {
+        OpenOrderStore.Version v = versions[(int) (seq % versions.length)];
+        store.publish(v.withSeq(++seq));
+        return store.ordersJson();
+    }
+
+    @Benchmark
+    public String getDishesJson(SeededDatabase data) throws SQLException, IOException {
+        try (Statement s = data.db.createStatement();
+             ResultSet rs = s.executeQuery(DishQueries.DISHES_BY_CATEGORY)) {
+            return ResponseWriter.writeDishes(new ResultSetRows(rs));
+        }
+    }
+
+    /** The rebuild after a dish edit; reads between edits only return the snapshot. */
+    @Benchmark
+    public MenuSnapshot buildMenuSnapshot(SeededDatabase data) throws SQLException, IOException {
+        try (Statement s = data.db.createStatement();
+             ResultSet rs = s.executeQuery(DishQueries.DISHES_BY_CATEGORY)) {
+            return MenuSnapshot.build(new ResultSetRows(rs));
+        }
+    }
+
+    @Benchmark
+    public String getOrderPrintJson(SeededDatabase data) throws SQLException, IOException {
+        try (PreparedStatement ps = data.db.prepareStatement(OrderQueries.ORDER_FOR_PRINT)) {
+            ps.setInt(1, printOrderId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return ResponseWriter.writeOrder(new ResultSetRows(rs));
+            }
+        }
+    }
+
+    private static OpenOrderStore.Version printVersion(SeededDatabase data, int orderId) throws Exception {
+        try (PreparedStatement ps = data.db.prepareStatement(OrderQueries.ORDER_FOR_PRINT)) {
+            ps.setInt(1, orderId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return OpenOrderStore.version(new ResultSetRows(rs), orderId, 0);
+            }
+        }
+    }
+
+    private static int singleInt(SeededDatabase data, String sql) throws SQLException {
+        try (Statement s = data.db.createStatement();
+             ResultSet rs = s.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.karan.admin_sunset_point.benchmark;
+
+import com.karan.admin_sunset_point.data.MenuSeed;
+import com.karan.admin_sunset_point.data.StorageProfile;
+import com.karan.admin_sunset_point.data.TestDatabase;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.time.LocalDate;
+
+/**
+ * A database file with the shipped menu and a year of orders, opened the way
+ * AppDatabase opens it. Seeding takes a while, so the file is kept in the
+ * temp directory and reused by every fork and benchmark of the same day.
+ */
+@State(Scope.Benchmark)
+public class SeededDatabase {
+
+    @Param("2000")
+    public int ordersPerDay;
+
+    @Param("365")
+    public int days;
+
+    public Connection db;
+
+    @Setup(Level.Trial)
+    public void open() throws Exception {
+        db = TestDatabase.openFile(seededFile(ordersPerDay, days).getPath(), StorageProfile.DEFAULT, 10_000);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws Exception {
+        db.close();
+    }
+
+    // Orders are placed relative to today, so yesterday's file is stale, as is
+    // one seeded with an older schema
+    private static synchronized File seededFile(int ordersPerDay, int days) throws Exception {
+        File dir = new File(System.getProperty("java.io.tmpdir"));
+        File file = new File(dir, "sunset-bench-v" + TestDatabase.SCHEMA_VERSION + "-" + LocalDate.now()
+                + "-" + ordersPerDay + "x" + days + ".db");
+        if (file.exists()) return file;
+
+        File partial = File.createTempFile("sunset-bench", ".db", dir);
+        try (Connection c = TestDatabase.openFile(partial.getPath(), StorageProfile.DEFAULT, 10_000)) {
+            TestDatabase.seed(c, MenuSeed.dishes(), ordersPerDay * days, days, 42);
+            TestDatabase.rebuildRollups(c);
+        }
+        Files.move(partial.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        return file;
+    }
+}
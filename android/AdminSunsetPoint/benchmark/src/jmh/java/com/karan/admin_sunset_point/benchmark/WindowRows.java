@@ -0,0 +1,108 @@
+package com.karan.admin_sunset_point.benchmark;
+
+import com.karan.admin_sunset_point.data.Responses.ResponseWriter;
+import com.karan.admin_sunset_point.data.Responses.StringPool;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Query rows held in memory the way a CursorWindow holds them, so the
+ * benchmarks measure the writer and not the JDBC driver: getInt reads a
+ * primitive, getString makes a new String per call, and getPooledString
+ * either copies the chars into a reused buffer (CursorRows with
+ * copyStringToBuffer) or, for the old path, goes through getString.
+ */
+final class WindowRows implements ResponseWriter.Rows {
+
+    private final String[] columns;
+    // Per row and column: an Integer, a char[] or null
+    private final Object[][] cells;
+    private final boolean copyChars;
+    private char[] buffer = new char[64];
+    private int row = -1;
+
+    private WindowRows(String[] columns, Object[][] cells, boolean copyChars) {
+        this.columns = columns;
+        this.cells = cells;
+        this.copyChars = copyChars;
+    }
+
+    static WindowRows load(ResultSet rs, boolean copyChars) throws SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        String[] columns = new String[meta.getColumnCount()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = meta.getColumnLabel(i + 1);
+        }
+        List<Object[]> rows = new ArrayList<>();
+        while (rs.next()) {
+            Object[] cells = new Object[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                Object value = rs.getObject(i + 1);
+                if (value instanceof Number) {
+                    cells[i] = ((Number) value).intValue();
+                } else if (value != null) {
+                    cells[i] = value.toString().toCharArray();
+                }
+            }
+            rows.add(cells);
+        }
+        return new WindowRows(columns, rows.toArray(new Object[0][]), copyChars);
+    }
+
+    /** Back before the first row, like a new query. */
+    WindowRows rewind() {
+        row = -1;
+        return this;
+    }
+
+    int rowCount() {
+        return cells.length;
+    }
+
+    @Override
+    public boolean moveToNext() {
+        return ++row < cells.length;
+    }
+
+    @Override
+    public int getColumnIndexOrThrow(String column) {
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i].equals(column)) return i;
+        }
+        throw new IllegalArgumentException(column);
+    }
+
+    @Override
+    public boolean isNull(int column) {
+        return cells[row][column] == null;
+    }
+
+    @Override
+    public int getInt(int column) {
+        Object v = cells[row][column];
+        return v == null ? 0 : (Integer) v;
+    }
+
+    @Override
+    public String getString(int column) {
+        Object v = cells[row][column];
+        if (v == null) return null;
+        if (v instanceof Integer) return v.toString();
+        return new String((char[]) v);
+    }
+
+    @Override
+    public String getPooledString(int column, StringPool pool) {
+        if (!copyChars) return ResponseWriter.Rows.super.getPooledString(column, pool);
+        Object v = cells[row][column];
+        if (v == null) return null;
+        char[] chars = (char[]) v;
+        if (chars.length > buffer.length) buffer = new char[chars.length];
+        System.arraycopy(chars, 0, buffer, 0, chars.length);
+        return pool.intern(buffer, chars.length);
+    }
+}
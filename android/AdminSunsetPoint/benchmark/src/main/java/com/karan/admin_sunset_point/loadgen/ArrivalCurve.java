@@ -0,0 +1,51 @@
+package com.karan.admin_sunset_point.loadgen;
+
+/**
+ * New orders per hour over the day, written as {@code from-to:rate} ranges,
+ * e.g. {@code "8-19:40,19-21:180,21-23:60"}. Hours not covered get no orders.
+ */
+final class ArrivalCurve {
+
+    /** A cafe day with the 7-9 PM rush. */
+    static final String DEFAULT = "8-12:30,12-15:60,15-19:40,19-21:180,21-23:70";
+
+    private final double[] perHour = new double[24];
+
+    private ArrivalCurve() {}
+
+    static ArrivalCurve parse(String spec) {
+        ArrivalCurve curve = new ArrivalCurve();
+        for (String range : spec.split(",")) {
+            String[] hoursAndRate = range.trim().split(":");
+            String[] hours = hoursAndRate[0].split("-");
+            int from = Integer.parseInt(hours[0].trim());
+            int to = Integer.parseInt(hours[1].trim());
+            double rate = Double.parseDouble(hoursAndRate[1].trim());
+            if (from < 0 || to > 24 || from >= to || rate < 0) {
+                throw new IllegalArgumentException("Bad arrival range: " + range);
+            }
+            for (int h = from; h < to; h++) {
+                curve.perHour[h] = rate;
+            }
+        }
+        return curve;
+    }
+
+    /** Orders per hour during {@code hour}. */
+    double rate(int hour) {
+        return perHour[hour];
+    }
+
+    int firstHour() {
+        for (int h = 0; h < 24; h++) {
+            if (perHour[h] > 0) return h;
+        }
+        return 24;
+    }
+
+    double ordersPerDay() {
+        double total = 0;
+        for (double r : perHour) total += r;
+        return total;
+    }
+}
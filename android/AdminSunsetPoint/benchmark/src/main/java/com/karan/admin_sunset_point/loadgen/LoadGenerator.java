@@ -0,0 +1,389 @@
+package com.karan.admin_sunset_point.loadgen;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.karan.admin_sunset_point.data.MenuSeed;
+import com.karan.admin_sunset_point.data.StorageProfile;
+import com.karan.admin_sunset_point.data.TestDatabase;
+import com.karan.admin_sunset_point.data.entity.Dish;
+import com.karan.admin_sunset_point.data.handler.WriteQueue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plays a service day of counter traffic against ProviderReplica and reports
+ * per-operation latency, throughput and how much the database grew.
+ *
+ * <pre>
+ * ./gradlew :benchmark:loadgen --args="--speed 600"
+ *
+ *   --db PATH          database file; a fresh temp file when omitted
+ *   --history DAYS     seed DAYS of past orders first (2000 per day)
+ *   --curve SPEC       orders per hour, default "8-12:30,12-15:60,15-19:40,19-21:180,21-23:70"
+ *   --speed N          simulated seconds per real second; 0 replays back to back
+ *   --clients N        concurrent callers, default 4
+ *   --seed N           workload random seed, default 1
+ *   --record FILE      write the generated day as a trace
+ *   --replay FILE      play a recorded trace instead of generating one
+ *   --json FILE        also write the report as JSON
+ * </pre>
+ */
+public final class LoadGenerator {
+
+    private static final int HISTORY_ORDERS_PER_DAY = 2000;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = options(args);
+
+        File db;
+        boolean temporary = !opts.containsKey("db");
+        if (temporary) {
+            db = File.createTempFile("sunset-loadgen", ".db");
+            db.deleteOnExit();
+        } else {
+            db = new File(opts.get("db"));
+        }
+        prepare(db, Integer.parseInt(opts.getOrDefault("history", "0")));
+
+        long before = size(db);
+        long[] rowsBefore = rowCounts(db);
+        Report report;
+        try (ProviderReplica provider = new ProviderReplica(db.getPath())) {
+            List<Dish> menu = provider.dishes();
+            Workload workload = opts.containsKey("replay")
+                    ? Workload.read(Paths.get(opts.get("replay")))
+                    : Workload.generate(ArrivalCurve.parse(opts.getOrDefault("curve", ArrivalCurve.DEFAULT)),
+                            menu.size(), Long.parseLong(opts.getOrDefault("seed", "1")));
+            if (opts.containsKey("record")) {
+                workload.write(Paths.get(opts.get("record")));
+            }
+
+            System.out.println("Replaying " + workload.ops.size() + " operations, "
+                    + workload.orderCount + " orders, on " + db);
+            report = new Replay(provider, menu, workload,
+                    Double.parseDouble(opts.getOrDefault("speed", "600")),
+                    Integer.parseInt(opts.getOrDefault("clients", "4"))).run();
+            report.writeStats = provider.writeStats();
+        }
+        report.bytesBefore = before;
+        report.bytesAfter = size(db);
+        report.rowsBefore = rowsBefore;
+        report.rowsAfter = rowCounts(db);
+
+        System.out.print(report.text());
+        if (opts.containsKey("json")) {
+            Files.write(Paths.get(opts.get("json")), report.json().getBytes(StandardCharsets.UTF_8));
+        }
+        if (temporary) {
+            new File(db.getPath() + "-wal").delete();
+            new File(db.getPath() + "-shm").delete();
+        }
+        System.exit(0);
+    }
+
+    private static Map<String, String> options(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 == args.length) {
+                throw new IllegalArgumentException("Expected --name value, got " + Arrays.toString(args));
+            }
+            opts.put(args[i].substring(2), args[++i]);
+        }
+        return opts;
+    }
+
+    /** Creates the schema and menu on a new file, plus optional history. */
+    private static void prepare(File db, int historyDays) throws Exception {
+        try (Connection c = TestDatabase.openFile(db.getPath(), StorageProfile.DEFAULT, 10_000)) {
+            try (Statement s = c.createStatement();
+                 ResultSet rs = s.executeQuery("SELECT COUNT(*) FROM dishes")) {
+                rs.next();
+                if (rs.getInt(1) > 0) return;
+            }
+            if (historyDays > 0) {
+                // Seeded history ends today; start the replayed day after it
+                TestDatabase.seed(c, MenuSeed.dishes(), historyDays * HISTORY_ORDERS_PER_DAY, historyDays, 42);
+                try (Statement s = c.createStatement()) {
+                    s.execute("UPDATE orders SET created_at = datetime(created_at, '-1 day')");
+                }
+                TestDatabase.rebuildRollups(c);
+            } else {
+                TestDatabase.seed(c, MenuSeed.dishes(), 0, 1, 42);
+            }
+        }
+    }
+
+    private static long size(File db) {
+        return db.length() + new File(db.getPath() + "-wal").length();
+    }
+
+    private static final String[] TABLES = {"orders", "order_items", "order_changes", "daily_sales"};
+
+    private static long[] rowCounts(File db) throws Exception {
+        long[] counts = new long[TABLES.length];
+        try (Connection c = TestDatabase.openFile(db.getPath(), StorageProfile.DEFAULT, 10_000);
+             Statement s = c.createStatement()) {
+            for (int i = 0; i < TABLES.length; i++) {
+                try (ResultSet rs = s.executeQuery("SELECT COUNT(*) FROM " + TABLES[i])) {
+                    rs.next();
+                    counts[i] = rs.getLong(1);
+                }
+            }
+        }
+        return counts;
+    }
+
+    // ---------------- REPLAY ----------------
+
+    private static final class Replay {
+        private final ProviderReplica provider;
+        private final List<Dish> menu;
+        private final Workload workload;
+        private final double speed;
+        private final ExecutorService clients;
+        private final Report report = new Report();
+
+        // The counter's own state: its delta seq and menu version
+        private final AtomicLong seq = new AtomicLong();
+        private volatile String menuVersion = "";
+
+        /** Per order key: order id and item ids once created. */
+        private final List<CompletableFuture<int[]>> created = new ArrayList<>();
+        /** Per order key: completes when the order's last dispatched operation is done. */
+        private final List<CompletableFuture<int[]>> orders = new ArrayList<>();
+
+        Replay(ProviderReplica provider, List<Dish> menu, Workload workload, double speed, int clients) {
+            this.provider = provider;
+            this.menu = menu;
+            this.workload = workload;
+            this.speed = speed;
+            this.clients = Executors.newFixedThreadPool(clients);
+            for (int i = 0; i < workload.orderCount; i++) {
+                CompletableFuture<int[]> f = new CompletableFuture<>();
+                created.add(f);
+                orders.add(f);
+            }
+        }
+
+        Report run() throws Exception {
+            long dayStart = workload.ops.isEmpty() ? 0 : workload.ops.get(0).atMillis;
+            long started = System.nanoTime();
+            List<CompletableFuture<Void>> pending = new ArrayList<>();
+
+            for (Workload.Op op : workload.ops) {
+                long due = started + (speed > 0 ? (long) ((op.atMillis - dayStart) * 1_000_000 / speed) : 0);
+                long wait = due - System.nanoTime();
+                if (wait > 0) TimeUnit.NANOSECONDS.sleep(wait);
+
+                if (op.order < 0 || op.type == Workload.Type.CREATE_ORDER) {
+                    pending.add(CompletableFuture.runAsync(() -> execute(op, null, due), clients));
+                } else {
+                    // One order's operations run in workload order, after it exists
+                    CompletableFuture<int[]> next = orders.get(op.order).thenApplyAsync(ids -> {
+                        execute(op, ids, due);
+                        return ids;
+                    }, clients);
+                    orders.set(op.order, next);
+                    pending.add(next.thenAccept(ids -> { }));
+                }
+            }
+            CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).join();
+            report.elapsedNanos = System.nanoTime() - started;
+            clients.shutdown();
+            return report;
+        }
+
+        private void execute(Workload.Op op, int[] ids, long due) {
+            long start = System.nanoTime();
+            report.lag(start - due);
+            try {
+                switch (op.type) {
+                    case CREATE_ORDER: {
+                        List<Dish> dishes = new ArrayList<>();
+                        for (int d : op.dishes) dishes.add(menu.get(d));
+                        int id = provider.createOrder("T" + (op.order % 20), dishes, op.quantities);
+                        report.record(op.type, System.nanoTime() - start);
+                        List<Integer> items = provider.itemIds(id);
+                        int[] created = new int[1 + items.size()];
+                        created[0] = id;
+                        for (int i = 0; i < items.size(); i++) created[i + 1] = items.get(i);
+                        this.created.get(op.order).complete(created);
+                        return;
+                    }
+                    case TOGGLE_SERVED:
+                        provider.toggleServed(ids[0], ids[1 + op.item]);
+                        break;
+                    case TOGGLE_PAYMENT:
+                        provider.togglePayment(ids[0]);
+                        break;
+                    case CLOSE_ORDER:
+                        provider.closeOrder(ids[0]);
+                        break;
+                    case CANCEL_ORDER:
+                        provider.cancelOrder(ids[0]);
+                        break;
+                    case DELETE_ITEM:
+                        provider.deleteItem(ids[1 + op.item]);
+                        break;
+                    case GET_ORDERS:
+                        // A replay does not wait for midnight; no day to check
+                        seq.accumulateAndGet(seqOf(provider.getOrdersSince(seq.get(), null)), Math::max);
+                        break;
+                    case GET_DISHES:
+                        if (provider.getDishes(menuVersion) != null) menuVersion = provider.menuVersion();
+                        break;
+                    case PRINT_FETCH:
+                        provider.getOrderPrint(ids[0]);
+                        break;
+                }
+                report.record(op.type, System.nanoTime() - start);
+            } catch (Exception e) {
+                report.fail(op.type);
+                if (op.type == Workload.Type.CREATE_ORDER) {
+                    created.get(op.order).completeExceptionally(e);
+                }
+            }
+        }
+
+        /** The "seq" at the start of a delta: {"seq":123,... */
+        private static long seqOf(String delta) {
+            int start = delta.indexOf(':') + 1;
+            int end = delta.indexOf(',', start);
+            return Long.parseLong(delta.substring(start, end));
+        }
+    }
+
+    // ---------------- REPORT ----------------
+
+    private static final class Report {
+        private final Map<Workload.Type, long[]> samples = new EnumMap<>(Workload.Type.class);
+        private final Map<Workload.Type, Integer> counts = new EnumMap<>(Workload.Type.class);
+        private final Map<Workload.Type, Integer> failures = new EnumMap<>(Workload.Type.class);
+        private long maxLagNanos;
+        long elapsedNanos;
+        WriteQueue.Stats writeStats;
+        long bytesBefore;
+        long bytesAfter;
+        long[] rowsBefore;
+        long[] rowsAfter;
+
+        synchronized void record(Workload.Type type, long nanos) {
+            int n = counts.getOrDefault(type, 0);
+            long[] s = samples.computeIfAbsent(type, t -> new long[256]);
+            if (n == s.length) {
+                s = Arrays.copyOf(s, n * 2);
+                samples.put(type, s);
+            }
+            s[n] = nanos;
+            counts.put(type, n + 1);
+        }
+
+        synchronized void fail(Workload.Type type) {
+            failures.merge(type, 1, Integer::sum);
+        }
+
+        synchronized void lag(long nanos) {
+            maxLagNanos = Math.max(maxLagNanos, nanos);
+        }
+
+        private double seconds() {
+            return elapsedNanos / 1e9;
+        }
+
+        private static double percentile(long[] sorted, int n, double p) {
+            if (n == 0) return 0;
+            return sorted[Math.min(n - 1, (int) Math.ceil(p * n) - 1)] / 1e6;
+        }
+
+        synchronized String text() {
+            StringBuilder out = new StringBuilder();
+            out.append(String.format(Locale.ROOT, "%-15s %8s %8s %9s %9s %9s %9s %6s%n",
+                    "operation", "count", "ops/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "failed"));
+            long total = 0;
+            for (Workload.Type type : Workload.Type.values()) {
+                int n = counts.getOrDefault(type, 0);
+                if (n == 0 && !failures.containsKey(type)) continue;
+                long[] sorted = Arrays.copyOf(samples.getOrDefault(type, new long[0]), n);
+                Arrays.sort(sorted);
+                total += n;
+                out.append(String.format(Locale.ROOT, "%-15s %8d %8.1f %9.3f %9.3f %9.3f %9.3f %6d%n",
+                        type, n, n / seconds(),
+                        percentile(sorted, n, 0.50), percentile(sorted, n, 0.95),
+                        percentile(sorted, n, 0.99), percentile(sorted, n, 1.0),
+                        failures.getOrDefault(type, 0)));
+            }
+            out.append(String.format(Locale.ROOT, "%ntotal %d operations in %.1f s, %.1f ops/s; max start lag %.1f ms%n",
+                    total, seconds(), total / seconds(), maxLagNanos / 1e6));
+            out.append(String.format(Locale.ROOT, "write queue: %d mutations in %d commits (%.2f per commit), %d retries%n",
+                    writeStats.mutations, writeStats.commits,
+                    writeStats.commits == 0 ? 0 : (double) writeStats.mutations / writeStats.commits,
+                    writeStats.retries));
+            long newOrders = rowsAfter[0] - rowsBefore[0];
+            out.append(String.format(Locale.ROOT, "database: %,d -> %,d bytes (+%,d", bytesBefore, bytesAfter,
+                    bytesAfter - bytesBefore));
+            if (newOrders > 0) out.append(String.format(Locale.ROOT, ", %,d per order", (bytesAfter - bytesBefore) / newOrders));
+            out.append(")\n");
+            for (int i = 0; i < TABLES.length; i++) {
+                out.append(String.format(Locale.ROOT, "  %-14s %,10d -> %,10d rows%n", TABLES[i], rowsBefore[i], rowsAfter[i]));
+            }
+            return out.toString();
+        }
+
+        synchronized String json() {
+            JsonObject root = new JsonObject();
+            root.addProperty("elapsedSeconds", seconds());
+            root.addProperty("maxLagMs", maxLagNanos / 1e6);
+            JsonArray ops = new JsonArray();
+            for (Workload.Type type : Workload.Type.values()) {
+                int n = counts.getOrDefault(type, 0);
+                if (n == 0) continue;
+                long[] sorted = Arrays.copyOf(samples.get(type), n);
+                Arrays.sort(sorted);
+                JsonObject o = new JsonObject();
+                o.addProperty("operation", type.name());
+                o.addProperty("count", n);
+                o.addProperty("opsPerSecond", n / seconds());
+                o.addProperty("p50Ms", percentile(sorted, n, 0.50));
+                o.addProperty("p95Ms", percentile(sorted, n, 0.95));
+                o.addProperty("p99Ms", percentile(sorted, n, 0.99));
+                o.addProperty("maxMs", percentile(sorted, n, 1.0));
+                o.addProperty("failed", failures.getOrDefault(type, 0));
+                ops.add(o);
+            }
+            root.add("operations", ops);
+            JsonObject writes = new JsonObject();
+            writes.addProperty("mutations", writeStats.mutations);
+            writes.addProperty("commits", writeStats.commits);
+            writes.addProperty("retries", writeStats.retries);
+            root.add("writeQueue", writes);
+            JsonObject growth = new JsonObject();
+            growth.addProperty("bytesBefore", bytesBefore);
+            growth.addProperty("bytesAfter", bytesAfter);
+            for (int i = 0; i < TABLES.length; i++) {
+                growth.addProperty(TABLES[i] + "Before", rowsBefore[i]);
+                growth.addProperty(TABLES[i] + "After", rowsAfter[i]);
+            }
+            root.add("database", growth);
+            return new GsonBuilder().setPrettyPrinting().create().toJson(root);
+        }
+    }
+}
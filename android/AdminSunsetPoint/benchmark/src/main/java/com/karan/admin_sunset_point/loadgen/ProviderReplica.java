@@ -0,0 +1,364 @@
+package com.karan.admin_sunset_point.loadgen;
+
+import com.karan.admin_sunset_point.data.ResultSetRows;
+import com.karan.admin_sunset_point.data.Responses.ResponseWriter;
+import com.karan.admin_sunset_point.data.StorageProfile;
+import com.karan.admin_sunset_point.data.TestDatabase;
+import com.karan.admin_sunset_point.data.dao.DishQueries;
+import com.karan.admin_sunset_point.data.dao.OrderQueries;
+import com.karan.admin_sunset_point.data.dao.RollupQueries;
+import com.karan.admin_sunset_point.data.entity.Dish;
+import com.karan.admin_sunset_point.data.handler.MenuSnapshot;
+import com.karan.admin_sunset_point.data.handler.OpenOrderStore;
+import com.karan.admin_sunset_point.data.handler.WriteQueue;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * MyContentProvider's operations on a sqlite-jdbc file: the same SQL, the
+ * same WriteQueue group commit, OpenOrderStore and MenuSnapshot. Each method
+ * does what the provider does for one counter request. Keep it in step with
+ * the provider. Public for CreateOrderBenchmark.
+ */
+public final class ProviderReplica implements AutoCloseable {
+
+    private static final DateTimeFormatter CREATED_AT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final String path;
+    private final Connection writer;
+    private final WriteQueue writes;
+    private final OpenOrderStore openOrders = OpenOrderStore.getInstance();
+    private final List<Connection> readers = new ArrayList<>();
+    private final ThreadLocal<Connection> reader = ThreadLocal.withInitial(this::openReader);
+    private volatile MenuSnapshot menu;
+
+    public ProviderReplica(String path) throws SQLException, IOException {
+        this.path = path;
+        writer = TestDatabase.openFile(path, StorageProfile.DEFAULT, 10_000);
+        writes = new WriteQueue(this::runInTransaction, WriteQueue.DEFAULT_WINDOW_MS);
+        loadOpenOrders();
+    }
+
+    /** The dishes of the menu in dish_id order, for placing orders. */
+    public List<Dish> dishes() throws SQLException {
+        List<Dish> dishes = new ArrayList<>();
+        try (Statement s = reader().createStatement();
+             ResultSet rs = s.executeQuery("SELECT * FROM dishes ORDER BY dish_id")) {
+            while (rs.next()) {
+                Dish d = new Dish();
+                d.dish_id = rs.getInt("dish_id");
+                d.dish_name = rs.getString("dish_name");
+                d.category = rs.getString("category");
+                d.price = rs.getInt("price");
+                dishes.add(d);
+            }
+        }
+        return dishes;
+    }
+
+    /** Item ids of an order in insertion order. Bookkeeping for the harness, not a provider call. */
+    List<Integer> itemIds(int orderId) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (PreparedStatement ps = reader().prepareStatement(
+                "SELECT order_item_id FROM order_items WHERE order_id = ? ORDER BY order_item_id")) {
+            ps.setInt(1, orderId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) ids.add(rs.getInt(1));
+            }
+        }
+        return ids;
+    }
+
+    WriteQueue.Stats writeStats() {
+        return writes.stats();
+    }
+
+    // ---------------- READS ----------------
+
+    /** "orders/since/#?day=" */
+    String getOrdersSince(long since, String day) throws SQLException, IOException {
+        String json = openOrders.ordersSinceJson(since, day);
+        if (json != null) return json;
+
+        // One read transaction, like the provider's runInTransaction: seqs,
+        // day and rows all come from the same snapshot
+        Connection c = reader();
+        c.setAutoCommit(false);
+        try {
+            return ordersSince(c, since, day);
+        } finally {
+            c.commit();
+            c.setAutoCommit(true);
+        }
+    }
+
+    private static String ordersSince(Connection c, long since, String day) throws SQLException, IOException {
+        long latest = singleLong(c, "SELECT COALESCE(MAX(seq), 0) FROM order_changes");
+        long oldest = singleLong(c, "SELECT COALESCE(MIN(seq), 0) FROM order_changes");
+        String today;
+        try (Statement s = c.createStatement();
+             ResultSet rs = s.executeQuery(OrderQueries.TODAY_KEY)) {
+            rs.next();
+            today = rs.getString(1);
+        }
+        if (since <= 0 || since > latest || since < oldest - 1 || (day != null && !day.equals(today))) {
+            try (Statement s = c.createStatement();
+                 ResultSet rs = s.executeQuery(OrderQueries.TODAY_ORDERS)) {
+                return ResponseWriter.writeOrderDelta(new ResultSetRows(rs), latest, today, true, new ArrayList<>());
+            }
+        }
+        List<Integer> changed = new ArrayList<>();
+        try (PreparedStatement ps = c.prepareStatement("SELECT DISTINCT order_id FROM order_changes WHERE seq > ?")) {
+            ps.setLong(1, since);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) changed.add(rs.getInt(1));
+            }
+        }
+        try (PreparedStatement ps = c.prepareStatement(OrderQueries.TODAY_ORDERS_CHANGED_SINCE)) {
+            ps.setLong(1, since);
+            try (ResultSet rs = ps.executeQuery()) {
+                return ResponseWriter.writeOrderDelta(new ResultSetRows(rs), latest, today, false, changed);
+            }
+        }
+    }
+
+    /** "dishes?v=": the menu JSON, or null when {@code version} is current. */
+    byte[] getDishes(String version) throws SQLException, IOException {
+        MenuSnapshot snap = menu;
+        if (snap == null) {
+            try (Statement s = reader().createStatement();
+                 ResultSet rs = s.executeQuery(DishQueries.DISHES_BY_CATEGORY)) {
+                snap = MenuSnapshot.build(new ResultSetRows(rs));
+            }
+            menu = snap;
+        }
+        return snap.isVersion(version) ? null : snap.utf8;
+    }
+
+    String menuVersion() {
+        MenuSnapshot snap = menu;
+        return snap != null ? snap.version : "";
+    }
+
+    /** "orderPrint/#" */
+    String getOrderPrint(int orderId) throws SQLException, IOException {
+        try (PreparedStatement ps = reader().prepareStatement(OrderQueries.ORDER_FOR_PRINT)) {
+            ps.setInt(1, orderId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return ResponseWriter.writeOrder(new ResultSetRows(rs));
+            }
+        }
+    }
+
+    // ---------------- WRITES ----------------
+
+    public int createOrder(String tag, List<Dish> dishes, int[] quantities) throws Exception {
+        String createdAt = LocalDateTime.now().format(CREATED_AT);
+
+        return writes.submit(() -> {
+            int id;
+            try (PreparedStatement ps = writer.prepareStatement(
+                    "INSERT INTO orders (order_tag, is_payment_done, order_total, order_status, created_at) " +
+                            "VALUES (?, 0, 0, 'OPEN', ?)")) {
+                ps.setString(1, tag);
+                ps.setString(2, createdAt);
+                ps.executeUpdate();
+                id = (int) lastInsertId();
+            }
+            try (PreparedStatement ps = writer.prepareStatement(
+                    "INSERT INTO order_items (order_id, dish_id, quantity, dish_name_snapshot, price_snapshot, item_status) " +
+                            "VALUES (?, ?, ?, ?, ?, 'PENDING')")) {
+                for (int i = 0; i < dishes.size(); i++) {
+                    Dish d = dishes.get(i);
+                    ps.setInt(1, id);
+                    ps.setInt(2, d.dish_id);
+                    ps.setInt(3, quantities[i]);
+                    ps.setString(4, d.dish_name);
+                    ps.setInt(5, d.price);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            logChange(id);
+            update(OrderQueries.PRUNE_CHANGES, OrderQueries.RETAINED_CHANGES);
+            return id;
+        });
+    }
+
+    /** 1 if now SERVED, 2 if PENDING, 0 if there is no such item. */
+    int toggleServed(int orderId, int itemId) throws Exception {
+        return writes.submit(() -> {
+            if (update(OrderQueries.TOGGLE_ITEM_SERVED, orderId, itemId) == 0) return 0;
+            String status = singleString("SELECT item_status FROM order_items WHERE order_item_id = ?", itemId);
+            logChange(orderId);
+            return "SERVED".equals(status) ? 1 : 2;
+        });
+    }
+
+    /** 1 if now paid, 2 if unpaid, 0 if there is no such order. */
+    int togglePayment(int orderId) throws Exception {
+        return writes.submit(() -> {
+            if (update(OrderQueries.TOGGLE_PAYMENT, orderId) == 0) return 0;
+            String paid = singleString("SELECT is_payment_done FROM orders WHERE order_id = ?", orderId);
+            logChange(orderId);
+            refreshRollups(orderId);
+            return "1".equals(paid) ? 1 : 2;
+        });
+    }
+
+    void closeOrder(int orderId) throws Exception {
+        writes.submit(() -> {
+            update("UPDATE order_items SET item_status = 'SERVED' WHERE order_id = ?", orderId);
+            update("UPDATE orders SET order_status = 'CLOSED', is_payment_done = 1 WHERE order_id = ?", orderId);
+            logChange(orderId);
+            refreshRollups(orderId);
+            return null;
+        });
+    }
+
+    void cancelOrder(int orderId) throws Exception {
+        writes.submit(() -> {
+            update("DELETE FROM orders WHERE order_id = ?", orderId);
+            logChange(orderId);
+            return null;
+        });
+    }
+
+    void deleteItem(int itemId) throws Exception {
+        writes.submit(() -> {
+            String orderId = singleString("SELECT order_id FROM order_items WHERE order_item_id = ?", itemId);
+            update("DELETE FROM order_items WHERE order_item_id = ?", itemId);
+            if (orderId != null) {
+                logChange(Integer.parseInt(orderId));
+                refreshRollups(Integer.parseInt(orderId));
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void close() throws SQLException {
+        synchronized (readers) {
+            for (Connection c : readers) c.close();
+        }
+        writer.close();
+    }
+
+    // ---------------- PROVIDER INTERNALS ----------------
+
+    private void loadOpenOrders() throws SQLException, IOException {
+        runInTransaction(() -> {
+            try {
+                long seq = singleLong(writer, "SELECT COALESCE(MAX(seq), 0) FROM order_changes");
+                try (Statement s = writer.createStatement();
+                     ResultSet rs = s.executeQuery(OrderQueries.TODAY_ORDERS)) {
+                    openOrders.load(new ResultSetRows(rs), seq);
+                }
+            } catch (SQLException | IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    /** MyContentProvider.logChange: log, then publish the order's new state after commit. */
+    private void logChange(int orderId) throws SQLException, IOException {
+        update("INSERT INTO order_changes (order_id) VALUES (?)", orderId);
+        long seq = lastInsertId();
+        OpenOrderStore.Version version;
+        try (PreparedStatement ps = writer.prepareStatement(OrderQueries.ORDER_FOR_PRINT)) {
+            ps.setInt(1, orderId);
+            try (ResultSet rs = ps.executeQuery()) {
+                version = OpenOrderStore.version(new ResultSetRows(rs), orderId, seq);
+            }
+        }
+        writes.afterCommit(() -> openOrders.publish(version));
+    }
+
+    /** RollupDao.refreshDayOf for CLOSED orders. */
+    private void refreshRollups(int orderId) throws SQLException {
+        String createdAt = singleString(
+                "SELECT created_at FROM orders WHERE order_id = ? AND order_status = 'CLOSED'", orderId);
+        if (createdAt == null || createdAt.length() < 10) return;
+        String day = createdAt.substring(0, 10);
+        String next = LocalDate.parse(day).plusDays(1).toString();
+        for (String sql : RollupQueries.REBUILD) {
+            try (PreparedStatement ps = writer.prepareStatement(sql)) {
+                ps.setString(1, day);
+                ps.setString(2, next);
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    /** What Room's runInTransaction does, on the writer connection. */
+    private void runInTransaction(Runnable body) {
+        try {
+            writer.setAutoCommit(false);
+            try {
+                body.run();
+                writer.commit();
+            } catch (RuntimeException | Error e) {
+                writer.rollback();
+                throw e;
+            } finally {
+                writer.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Connection reader() {
+        return reader.get();
+    }
+
+    private Connection openReader() {
+        try {
+            Connection c = TestDatabase.openFile(path, StorageProfile.DEFAULT, 10_000);
+            synchronized (readers) {
+                readers.add(c);
+            }
+            return c;
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private int update(String sql, Object... args) throws SQLException {
+        try (PreparedStatement ps = writer.prepareStatement(sql)) {
+            for (int i = 0; i < args.length; i++) ps.setObject(i + 1, args[i]);
+            return ps.executeUpdate();
+        }
+    }
+
+    private String singleString(String sql, Object arg) throws SQLException {
+        try (PreparedStatement ps = writer.prepareStatement(sql)) {
+            ps.setObject(1, arg);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    private long lastInsertId() throws SQLException {
+        return singleLong(writer, "SELECT last_insert_rowid()");
+    }
+
+    private static long singleLong(Connection c, String sql) throws SQLException {
+        try (Statement s = c.createStatement();
+             ResultSet rs = s.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
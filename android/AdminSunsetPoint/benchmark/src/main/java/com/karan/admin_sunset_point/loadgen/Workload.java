@@ -0,0 +1,197 @@
+package com.karan.admin_sunset_point.loadgen;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * One service day of counter operations, in the order the counter issues
+ * them through its Handler. Orders and items are referred to by their
+ * position in the day (order key, item index) because the database assigns
+ * the real ids while the day is replayed.
+ *
+ * The lifecycle of an order: the new-order screen fetches the menu, the order
+ * is created and its KOT fetched for printing, items are served over the next
+ * minutes, the bill is paid and the order closed. A few orders lose an item or
+ * are cancelled instead. Every write is followed by the order list refresh the
+ * ordersChanged event triggers.
+ */
+final class Workload {
+
+    enum Type {
+        CREATE_ORDER, TOGGLE_SERVED, TOGGLE_PAYMENT, CLOSE_ORDER, CANCEL_ORDER, DELETE_ITEM,
+        GET_ORDERS, GET_DISHES, PRINT_FETCH
+    }
+
+    static final class Op {
+        /** Since the start of the day, in simulated time. */
+        final long atMillis;
+        final Type type;
+        /** Order key, -1 for operations not about an order. */
+        final int order;
+        /** Item index within the order, -1 when not about an item. */
+        final int item;
+        /** CREATE_ORDER only: menu positions and quantities of the lines. */
+        final int[] dishes;
+        final int[] quantities;
+
+        Op(long atMillis, Type type, int order, int item, int[] dishes, int[] quantities) {
+            this.atMillis = atMillis;
+            this.type = type;
+            this.order = order;
+            this.item = item;
+            this.dishes = dishes;
+            this.quantities = quantities;
+        }
+    }
+
+    private static final long SECOND = 1000;
+    private static final long MINUTE = 60 * SECOND;
+
+    final List<Op> ops;
+    final int orderCount;
+
+    private Workload(List<Op> ops, int orderCount) {
+        this.ops = ops;
+        this.orderCount = orderCount;
+    }
+
+    static Workload generate(ArrivalCurve curve, int menuSize, long seed) {
+        Random random = new Random(seed);
+        List<Op> ops = new ArrayList<>();
+        ops.add(new Op(curve.firstHour() * 60 * MINUTE, Type.GET_DISHES, -1, -1, null, null));
+
+        int order = 0;
+        double t = curve.firstHour() * 3600.0;
+        while (t < 24 * 3600) {
+            int hour = (int) (t / 3600);
+            double rate = curve.rate(hour);
+            if (rate == 0) {
+                t = (hour + 1) * 3600.0;
+                continue;
+            }
+            // Poisson arrivals at this hour's rate
+            t += -Math.log(1 - random.nextDouble()) * 3600 / rate;
+            if (t >= 24 * 3600) break;
+            // Ran into a closed hour; the next round skips past it
+            if (curve.rate((int) (t / 3600)) == 0) continue;
+            addOrder(ops, order++, (long) (t * 1000), menuSize, random);
+        }
+
+        ops.sort(Comparator.comparingLong(op -> op.atMillis));
+        return new Workload(ops, order);
+    }
+
+    private static void addOrder(List<Op> ops, int order, long at, int menuSize, Random random) {
+        int lines = 1 + random.nextInt(4);
+        int[] dishes = new int[lines];
+        int[] quantities = new int[lines];
+        for (int i = 0; i < lines; i++) {
+            dishes[i] = random.nextInt(menuSize);
+            quantities[i] = random.nextInt(5) == 0 ? 2 : 1;
+        }
+
+        ops.add(new Op(at - 20 * SECOND, Type.GET_DISHES, -1, -1, null, null));
+        addWrite(ops, new Op(at, Type.CREATE_ORDER, order, -1, dishes, quantities));
+        ops.add(new Op(at + SECOND, Type.PRINT_FETCH, order, -1, null, null));
+
+        int roll = random.nextInt(100);
+        if (roll < 3) {
+            addWrite(ops, new Op(at + between(random, 1, 5), Type.CANCEL_ORDER, order, -1, null, null));
+            return;
+        }
+
+        int deleted = -1;
+        if (roll < 5 && lines > 1) {
+            deleted = lines - 1;
+            addWrite(ops, new Op(at + between(random, 0.5, 3), Type.DELETE_ITEM, order, deleted, null, null));
+        }
+
+        long lastServed = at;
+        for (int i = 0; i < lines; i++) {
+            if (i == deleted) continue;
+            long served = at + between(random, 3, 20);
+            addWrite(ops, new Op(served, Type.TOGGLE_SERVED, order, i, null, null));
+            if (random.nextInt(30) == 0) {
+                // Tapped by mistake and undone
+                addWrite(ops, new Op(served + 2 * SECOND, Type.TOGGLE_SERVED, order, i, null, null));
+                addWrite(ops, new Op(served + 4 * SECOND, Type.TOGGLE_SERVED, order, i, null, null));
+            }
+            lastServed = Math.max(lastServed, served);
+        }
+
+        long paid = at + between(random, 15, 45);
+        addWrite(ops, new Op(paid, Type.TOGGLE_PAYMENT, order, -1, null, null));
+        if (random.nextInt(20) == 0) {
+            addWrite(ops, new Op(paid + 3 * SECOND, Type.TOGGLE_PAYMENT, order, -1, null, null));
+            addWrite(ops, new Op(paid + 6 * SECOND, Type.TOGGLE_PAYMENT, order, -1, null, null));
+        }
+        addWrite(ops, new Op(Math.max(paid, lastServed) + between(random, 1, 10), Type.CLOSE_ORDER, order, -1, null, null));
+    }
+
+    /** A write and the list refresh its ordersChanged event causes. */
+    private static void addWrite(List<Op> ops, Op op) {
+        ops.add(op);
+        ops.add(new Op(op.atMillis + 300, Type.GET_ORDERS, -1, -1, null, null));
+    }
+
+    private static long between(Random random, double fromMinutes, double toMinutes) {
+        return (long) ((fromMinutes + random.nextDouble() * (toMinutes - fromMinutes)) * MINUTE);
+    }
+
+    // ---------------- TRACE FILES ----------------
+    // One op per line: atMillis, type, order, item, then dish:quantity pairs
+
+    void write(Path file) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (Op op : ops) {
+                out.write(op.atMillis + "\t" + op.type + "\t" + op.order + "\t" + op.item);
+                if (op.dishes != null) {
+                    out.write('\t');
+                    for (int i = 0; i < op.dishes.length; i++) {
+                        if (i > 0) out.write(',');
+                        out.write(op.dishes[i] + ":" + op.quantities[i]);
+                    }
+                }
+                out.write('\n');
+            }
+        }
+    }
+
+    static Workload read(Path file) throws IOException {
+        List<Op> ops = new ArrayList<>();
+        int orders = 0;
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isEmpty()) continue;
+                String[] f = line.split("\t");
+                int[] dishes = null;
+                int[] quantities = null;
+                if (f.length > 4) {
+                    String[] lines = f[4].split(",");
+                    dishes = new int[lines.length];
+                    quantities = new int[lines.length];
+                    for (int i = 0; i < lines.length; i++) {
+                        String[] dq = lines[i].split(":");
+                        dishes[i] = Integer.parseInt(dq[0]);
+                        quantities[i] = Integer.parseInt(dq[1]);
+                    }
+                }
+                Op op = new Op(Long.parseLong(f[0]), Type.valueOf(f[1]),
+                        Integer.parseInt(f[2]), Integer.parseInt(f[3]), dishes, quantities);
+                orders = Math.max(orders, op.order + 1);
+                ops.add(op);
+            }
+        }
+        ops.sort(Comparator.comparingLong(op -> op.atMillis));
+        return new Workload(ops, orders);
+    }
+}
@@ -21,4 +21,5 @@ dependencyResolutionManagement {
 
 rootProject.name = "Admin-Sunset-Point"
 include(":app")
+include(":benchmark")
  
\ No newline at end of file
@@ -0,0 +1,92 @@
+package com.karan.sunset_point;
+
+import android.Manifest;
+import android.bluetooth.BluetoothAdapter;
+import android.content.pm.PackageManager;
+
+import androidx.core.app.ActivityCompat;
+
+import com.dantsu.escposprinter.connection.bluetooth.BluetoothConnection;
+import com.dantsu.escposprinter.connection.bluetooth.BluetoothPrintersConnections;
+import com.dantsu.escposprinter.exceptions.EscPosConnectionException;
+import com.karan.sunset_point.data.handler.PrinterConnection;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/** The first paired Bluetooth printer, through DantSu's connection. */
+public class BluetoothPrinterConnection implements PrinterConnection {
+
+    private static final byte[] STATUS_REQUEST = {0x10, 0x04, 0x01};
+
+    private BluetoothConnection connection;
+
+    @Override
+    public synchronized void connect() throws IOException {
+        if (connection != null) return;
+
+        if (ActivityCompat.checkSelfPermission(
+                App.context,
+                Manifest.permission.BLUETOOTH_SCAN
+        ) != PackageManager.PERMISSION_GRANTED) {
+            throw new IOException("Bluetooth permission not granted");
+        }
+
+        BluetoothAdapter.getDefaultAdapter().cancelDiscovery();
+
+        BluetoothConnection c = BluetoothPrintersConnections.selectFirstPaired();
+        if (c == null) {
+            throw new IOException("No printer found");
+        }
+
+        try {
+            c.connect();
+        } catch (EscPosConnectionException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        connection = c;
+    }
+
+    @Override
+    public synchronized boolean isConnected() {
+        return connection != null && connection.isConnected();
+    }
+
+    @Override
+    public synchronized void write(byte[] data, int offset, int length) throws IOException {
+        if (connection == null) throw new IOException("Printer not connected");
+        try {
+            // DantSu buffers writes until send()
+            connection.write(offset == 0 && length == data.length
+                    ? data : Arrays.copyOfRange(data, offset, offset + length));
+            connection.send();
+        } catch (EscPosConnectionException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public synchronized void probe() throws IOException {
+        // DLE EOT 1, transmit printer status. The reply is not read; a write
+        // on a socket the printer dropped is what fails.
+        write(STATUS_REQUEST, 0, STATUS_REQUEST.length);
+    }
+
+    @Override
+    public synchronized void disconnect() {
+        try {
+            if (connection != null) connection.disconnect();
+        } catch (Exception ignored) {}
+
+        connection = null;
+    }
+
+    /** The printer's name, or null if not connected or not allowed to ask. */
+    public synchronized String deviceName() {
+        if (connection == null) return null;
+        if (ActivityCompat.checkSelfPermission(App.context, Manifest.permission.BLUETOOTH_CONNECT) != PackageManager.PERMISSION_GRANTED) {
+            return null;
+        }
+        return connection.getDevice().getName();
+    }
+}
@@ -9,10 +9,13 @@ import android.webkit.WebViewClient;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.karan.sunset_point.data.handler.NativeApi;
+import com.karan.sunset_point.data.handler.OrderChangeObserver;
 import com.karan.sunset_point.data.handler.PrinterNativeApi;
 
 public class MainActivity extends AppCompatActivity {
 
+    private OrderChangeObserver orderChangeObserver;
+
     @SuppressLint("SetJavaScriptEnabled")
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -35,7 +38,19 @@ public class MainActivity extends AppCompatActivity {
         webView.addJavascriptInterface(new PrinterNativeApi(webView), "PrinterNativeApi");
         webView.setWebViewClient(new WebViewClient());
 
+        // Provider pushes order changes; the page refreshes instead of polling
+        orderChangeObserver = new OrderChangeObserver(webView);
+        orderChangeObserver.register();
+
         // Load React build
         webView.loadUrl("http://10.254.173.21:5173/");
     }
-}
\ No newline at end of file
+
+    @Override
+    protected void onDestroy() {
+        if (orderChangeObserver != null) {
+            orderChangeObserver.unregister();
+        }
+        super.onDestroy();
+    }
+}
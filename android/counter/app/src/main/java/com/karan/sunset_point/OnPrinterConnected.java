@@ -1,8 +1,7 @@
 package com.karan.sunset_point;
 
-import com.dantsu.escposprinter.EscPosPrinter;
-import com.dantsu.escposprinter.connection.bluetooth.BluetoothConnection;
+import com.karan.sunset_point.data.handler.PrinterConnection;
 
 public interface OnPrinterConnected {
-    void onConnected(String deviceName, BluetoothConnection connection, EscPosPrinter printer);
+    void onConnected(String deviceName, PrinterConnection connection);
 }
@@ -1,115 +1,73 @@
 package com.karan.sunset_point;
 
-import android.Manifest;
-import android.bluetooth.BluetoothAdapter;
-import android.content.pm.PackageManager;
-import android.util.Log;
+import com.karan.sunset_point.data.Responses.OrderResponse;
+import com.karan.sunset_point.data.handler.Handler;
+import com.karan.sunset_point.data.handler.KotEncoder;
+import com.karan.sunset_point.data.handler.PrintSpooler;
+import com.karan.sunset_point.data.handler.PrinterConnection;
+import com.karan.sunset_point.data.handler.PrinterSupervisor;
 
-import androidx.core.app.ActivityCompat;
-
-import com.dantsu.escposprinter.EscPosPrinter;
-import com.dantsu.escposprinter.connection.bluetooth.BluetoothConnection;
-import com.dantsu.escposprinter.connection.bluetooth.BluetoothPrintersConnections;
-import com.dantsu.escposprinter.connection.bluetooth.BluetoothConnection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 
 public class PrinterManager {
 
-    private static BluetoothConnection connection;
-    private static EscPosPrinter printer;
-
-    private static Boolean inititalizing = false;
-
-    public static synchronized void connect(OnPrinterConnected callback) throws Exception {
-
-        if (printer != null && connection != null) {
-            if (callback != null) {
-                if (ActivityCompat.checkSelfPermission(App.context, Manifest.permission.BLUETOOTH_CONNECT) != PackageManager.PERMISSION_GRANTED) {
-                    // TODO: Consider calling
-                    //    ActivityCompat#requestPermissions
-                    // here to request the missing permissions, and then overriding
-                    //   public void onRequestPermissionsResult(int requestCode, String[] permissions,
-                    //                                          int[] grantResults)
-                    // to handle the case where the user grants the permission. See the documentation
-                    // for ActivityCompat#requestPermissions for more details.
-                    return;
-                }
-                String name = connection.getDevice().getName();
-                callback.onConnected(name, connection, printer);
-            }
-            return;
-        }
-
-        inititalizing = true;
-
-        if (ActivityCompat.checkSelfPermission(
-                App.context,
-                Manifest.permission.BLUETOOTH_SCAN
-        ) != PackageManager.PERMISSION_GRANTED) {
-
-            inititalizing = false;
-            throw new Exception("Bluetooth permission not granted");
-        }
-
-        BluetoothAdapter.getDefaultAdapter().cancelDiscovery();
-
-        connection = BluetoothPrintersConnections.selectFirstPaired();
-
-        if (connection == null) {
-            inititalizing = false;
-            throw new Exception("No printer found");
-        }
+    private static final BluetoothPrinterConnection connection = new BluetoothPrinterConnection();
 
-        printer = new EscPosPrinter(connection, 203, 48f, 32);
+    // Guarded by the class lock
+    private static final KotEncoder kotEncoder = new KotEncoder();
 
-        inititalizing = false;
+    public static void connect(OnPrinterConnected callback) throws Exception {
+        connection.connect();
+        // Keeps it connected from now on
+        PrinterSupervisor.getInstance().start();
 
         if (callback != null) {
-            String name = connection.getDevice().getName();
-            callback.onConnected(name, connection, printer);
+            callback.onConnected(connection.deviceName(), connection);
         }
     }
 
-    public static void print(String text) {
-
-        new Thread(() -> {
-
-            try {
-
-                if (inititalizing) return;
-
-                try {
-
-                    connect((name, conn, pr) -> {
-                        try {
-                            pr.printFormattedText(text);
-                        } catch (Exception e) {
-                            e.printStackTrace();
-                        }
-                    });
-
-                } catch (Exception firstFail) {
-
-                    try {
-                        if (connection != null) connection.disconnect();
-                    } catch (Exception ignored) {}
-
-                    printer = null;
-                    connection = null;
-
-                    connect((name, conn, pr) -> {
-                        try {
-                            pr.printFormattedText(text);
-                        } catch (Exception e) {
-                            e.printStackTrace();
-                        }
-                    });
-                }
+    /**
+     * Fetches the orders in one provider query, encodes their KOTs and queues
+     * them together on the print spooler, which prints them on its own worker
+     * thread. Returns the jobs, in id order, once they are on disk; orders
+     * that were not found have none.
+     */
+    public static List<PrintSpooler.JobState> printOrders(List<Integer> orderIds) {
+        return printOrders(orderIds, false);
+    }
 
-            } catch (Exception e) {
-                e.printStackTrace();
+    /**
+     * Like {@link #printOrders(List)}; with {@code onlyNew} the KOTs are
+     * add-on tickets of the items added since each order's last KOT, and
+     * orders with nothing new have no job.
+     */
+    public static synchronized List<PrintSpooler.JobState> printOrders(List<Integer> orderIds, boolean onlyNew) {
+        List<OrderResponse> orders = Handler.getInstance().getOrdersForPrint(orderIds, onlyNew);
+        Map<Integer, byte[]> tickets = new LinkedHashMap<>();
+        Map<Integer, Integer> kotSeqs = new HashMap<>();
+        try {
+            for (OrderResponse order : orders) {
+                tickets.put(order.id, kotEncoder.encodeToArray(order));
+                if (order.kotSeq > 0) kotSeqs.put(order.id, order.kotSeq);
             }
+            if (tickets.isEmpty()) return Collections.emptyList();
+            return PrintSpooler.getInstance().submitAll(tickets, kotSeqs, onlyNew);
+        } catch (RuntimeException e) {
+            // Claimed by the fetch but never queued: give the items back
+            for (OrderResponse order : orders) {
+                if (order.kotSeq > 0) Handler.getInstance().releaseKots(order.id, new int[]{order.kotSeq});
+            }
+            throw e;
+        }
+    }
 
-        }).start();
+    /** How the spooler's worker reaches the printer. */
+    public static PrinterConnection spoolerConnection() {
+        return connection;
     }
 }
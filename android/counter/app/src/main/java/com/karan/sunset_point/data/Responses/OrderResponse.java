@@ -11,4 +11,8 @@ public class OrderResponse {
     public String status;
     public boolean paymentDone;
     public int orderTotal;
+    // The KOT the admin app recorded this ticket's new items under, 0 if none; see Handler.getOrdersForPrint
+    public int kotSeq;
+    // True when the ticket has only that KOT's items, not the whole order
+    public boolean addOn;
 }
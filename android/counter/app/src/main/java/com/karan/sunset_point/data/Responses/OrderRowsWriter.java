@@ -0,0 +1,99 @@
+package com.karan.sunset_point.data.Responses;
+
+import android.database.Cursor;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+/**
+ * Turns the typed row cursor of the admin provider's "orders/rows" URI into
+ * the same JSON array the "orders" URI returns. Rows are consumed as the
+ * cursor windows arrive, so no single value has to hold the whole day.
+ */
+public final class OrderRowsWriter {
+
+    private OrderRowsWriter() {}
+
+    /** True when the cursor has the typed columns rather than the legacy "json" cell. */
+    public static boolean isRowCursor(Cursor c) {
+        return c.getColumnIndex("order_id") >= 0;
+    }
+
+    public static String write(Cursor c) throws IOException {
+        int orderId = c.getColumnIndexOrThrow("order_id");
+        int orderTag = c.getColumnIndexOrThrow("order_tag");
+        int createdAt = c.getColumnIndexOrThrow("created_at");
+        int orderStatus = c.getColumnIndexOrThrow("order_status");
+        int isPaymentDone = c.getColumnIndexOrThrow("is_payment_done");
+        int orderTotal = c.getColumnIndexOrThrow("order_total");
+        int orderItemId = c.getColumnIndexOrThrow("order_item_id");
+        int quantity = c.getColumnIndexOrThrow("quantity");
+        int itemStatus = c.getColumnIndexOrThrow("item_status");
+        int price = c.getColumnIndexOrThrow("price");
+        int dishName = c.getColumnIndexOrThrow("dish_name");
+        int category = c.getColumnIndexOrThrow("category");
+
+        StringWriter out = new StringWriter(Math.max(16, c.getCount() * 160));
+        JsonWriter json = new JsonWriter(out);
+        // Match Gson.toJson, which the JSON URI uses
+        json.setHtmlSafe(true);
+        json.setSerializeNulls(false);
+
+        json.beginArray();
+        boolean open = false;
+        int current = 0;
+        // Order level fields go after "items", like Gson writes OrderResponse
+        String tag = null, created = null, status = null;
+        boolean paid = false;
+        int total = 0;
+
+        while (c.moveToNext()) {
+            int id = c.getInt(orderId);
+            if (!open || id != current) {
+                if (open) {
+                    endOrder(json, tag, created, status, paid, total);
+                }
+                json.beginObject();
+                json.name("id").value(id);
+                json.name("items").beginArray();
+                tag = c.isNull(orderTag) ? null : c.getString(orderTag);
+                created = c.isNull(createdAt) ? null : c.getString(createdAt);
+                status = c.getString(orderStatus);
+                paid = c.getInt(isPaymentDone) != 0;
+                total = c.getInt(orderTotal);
+                current = id;
+                open = true;
+            }
+
+            if (!c.isNull(orderItemId)) {
+                json.beginObject();
+                json.name("id").value(c.getInt(orderItemId));
+                json.name("quantity").value(c.getInt(quantity));
+                json.name("status").value(c.getString(itemStatus));
+                json.name("name").value(c.getString(dishName));
+                json.name("category").value(c.isNull(category) ? null : c.getString(category));
+                json.name("price").value(c.getInt(price));
+                json.endObject();
+            }
+        }
+        if (open) {
+            endOrder(json, tag, created, status, paid, total);
+        }
+        json.endArray();
+        json.flush();
+        return out.toString();
+    }
+
+    private static void endOrder(JsonWriter json, String tag, String createdAt, String status,
+                                 boolean paid, int total) throws IOException {
+        json.endArray();
+        json.name("tag").value(tag);
+        json.name("createdAt").value(createdAt);
+        json.name("status").value(status);
+        json.name("paymentDone").value(paid);
+        json.name("orderTotal").value(total);
+        json.endObject();
+    }
+}
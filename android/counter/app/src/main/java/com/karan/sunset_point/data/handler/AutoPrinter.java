@@ -0,0 +1,137 @@
+package com.karan.sunset_point.data.handler;
+
+import com.karan.sunset_point.PrinterManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "Auto-print new orders": orders created at this counter are gathered for
+ * a short window after the first one and printed as one batch, so a rush at
+ * the counter becomes one provider query and one printer write instead of
+ * one per order. Off until the page turns it on.
+ */
+public final class AutoPrinter {
+
+    /** Prints a batch of order ids; called on the auto-printer's own thread. */
+    public interface Batch {
+        void print(List<Integer> orderIds) throws Exception;
+    }
+
+    /** How long the first new order waits for others to join its batch. */
+    static final long WINDOW_MS = 1_500;
+
+    /** A batch this big goes out without waiting out the window. */
+    static final int MAX_BATCH = PrintSpooler.MAX_BATCH_JOBS;
+
+    private static AutoPrinter instance;
+
+    private final ScheduledExecutorService executor;
+    private final Batch batch;
+    private final long windowMs;
+
+    // Guarded by this
+    private final Set<Integer> pending = new LinkedHashSet<>();
+    private ScheduledFuture<?> flush;
+    private boolean enabled;
+    private long batches;
+    private long orders;
+    private String lastError;
+
+    public static synchronized AutoPrinter getInstance() {
+        if (instance == null) {
+            instance = new AutoPrinter(PrinterManager::printOrders, WINDOW_MS);
+        }
+        return instance;
+    }
+
+    AutoPrinter(Batch batch, long windowMs) {
+        this.batch = batch;
+        this.windowMs = windowMs;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "auto-print");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** Turning it off drops orders still waiting for their window. */
+    public synchronized void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            pending.clear();
+            if (flush != null) flush.cancel(false);
+            flush = null;
+        }
+    }
+
+    public synchronized boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Called once the order is committed; ignored while auto-print is off. */
+    public synchronized void orderCreated(int orderId) {
+        if (!enabled || !pending.add(orderId)) return;
+
+        if (pending.size() >= MAX_BATCH) {
+            if (flush != null) flush.cancel(false);
+            flush = executor.schedule(this::flush, 0, TimeUnit.MILLISECONDS);
+        } else if (flush == null) {
+            flush = executor.schedule(this::flush, windowMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(enabled, pending.size(), batches, orders, lastError);
+    }
+
+    /** Stops the thread. For tests. */
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private void flush() {
+        List<Integer> ids;
+        synchronized (this) {
+            flush = null;
+            if (pending.isEmpty()) return;
+            ids = new ArrayList<>(pending);
+            pending.clear();
+            batches++;
+            orders += ids.size();
+        }
+
+        try {
+            batch.print(ids);
+        } catch (Exception e) {
+            // The tickets can still be printed by hand from the order list
+            synchronized (this) {
+                lastError = e.toString();
+            }
+            e.printStackTrace();
+        }
+    }
+
+    public static final class Stats {
+        public final boolean enabled;
+        public final int pending;
+        public final long batches;
+        public final long orders;
+        public final String lastError;
+
+        Stats(boolean enabled, int pending, long batches, long orders, String lastError) {
+            this.enabled = enabled;
+            this.pending = pending;
+            this.batches = batches;
+            this.orders = orders;
+            this.lastError = lastError;
+        }
+    }
+}
@@ -5,16 +5,27 @@ import android.database.Cursor;
 import android.net.Uri;
 
 import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
 import com.karan.sunset_point.App;
 import com.karan.sunset_point.data.Responses.OrderResponse;
+import com.karan.sunset_point.data.Responses.OrderRowsWriter;
 import com.karan.sunset_point.data.entity.OrderItem;
 
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 
 public class Handler {
 
     private static Handler handler;
 
+    private static final Type ORDER_LIST = new TypeToken<List<OrderResponse>>() {}.getType();
+
+    // Last menu received from the admin app and its version
+    private String dishesVersion = "";
+    private String dishesJson = "{}";
+
     private static final String BASE =
             "content://com.karan.sunset_point.provider/";
 
@@ -33,9 +44,9 @@ public class Handler {
                 .query(uri, null, null, null, null);
     }
 
-    private void insert(String path, ContentValues values) {
+    private Uri insert(String path, ContentValues values) {
         Uri uri = Uri.parse(BASE + path);
-        App.context.getContentResolver().insert(uri, values);
+        return App.context.getContentResolver().insert(uri, values);
     }
 
     private int update(String path, ContentValues values) {
@@ -53,6 +64,16 @@ public class Handler {
     // ---------------- READ ----------------
 
     public String getOrders() {
+        // Row cursor first; it never packs the whole day into one cell
+        try (Cursor c = query("orders/rows")) {
+            if (c != null && OrderRowsWriter.isRowCursor(c)) {
+                return OrderRowsWriter.write(c);
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+
+        // Admin builds without "orders/rows" answer the JSON URI only
         try {
             Cursor c = query("orders");
             if (c != null && c.moveToFirst()) {
@@ -67,18 +88,44 @@ public class Handler {
         }
     }
 
-    public String getDishes() {
-        try {
-            Cursor c = query("dishes");
+    /**
+     * Delta of today's orders after change {@code since}; 0 asks for everything.
+     * {@code day} is the "day" of the last delta; the admin app sends the full
+     * list when its day has moved on. Returns "" when the admin app is too old
+     * to know the URI, so the caller can fall back to getOrders().
+     */
+    public String getOrdersSince(long since, String day) {
+        String path = "orders/since/" + since;
+        if (day != null && !day.isEmpty()) path += "?day=" + Uri.encode(day);
+        try (Cursor c = query(path)) {
             if (c != null && c.moveToFirst()) {
                 String json = c.getString(0);
-                c.close();
-                return json;
+                // Unknown URIs come back as "{}"
+                return json != null && json.contains("\"seq\"") ? json : "";
             }
-            return "{}";
         } catch (Exception e) {
             e.printStackTrace();
-            return "{}";
+        }
+        return "";
+    }
+
+    public synchronized String getDishes() {
+        // Conditional fetch; the admin app only sends the menu when it changed
+        try (Cursor c = query("dishes?v=" + Uri.encode(dishesVersion))) {
+            if (c == null || !c.moveToFirst()) return dishesJson;
+            int version = c.getColumnIndex("version");
+            if (version < 0) {
+                // Admin app without menu versions
+                return c.getString(0);
+            }
+            if (!c.isNull(1)) {
+                dishesJson = new String(c.getBlob(1), StandardCharsets.UTF_8);
+                dishesVersion = c.getString(version);
+            }
+            return dishesJson;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return dishesJson;
         }
     }
 
@@ -96,17 +143,80 @@ public class Handler {
         return null;
     }
 
+    /**
+     * The orders to print, in id order, from one provider query. Ids with no
+     * order are left out. Admin builds without "orderPrint?ids=" are asked
+     * one order at a time.
+     *
+     * The admin app records the items as sent to the kitchen. With
+     * {@code onlyNew} each order has only the items added since its last
+     * KOT, with that KOT's number in kotSeq and addOn set, and orders with
+     * none are left out; admin builds that do not track this send whole
+     * orders. Whole orders carry the kotSeq of any items they sent too.
+     */
+    public List<OrderResponse> getOrdersForPrint(List<Integer> orderIds, boolean onlyNew) {
+        StringBuilder ids = new StringBuilder();
+        for (int id : orderIds) {
+            if (ids.length() > 0) ids.append(',');
+            ids.append(id);
+        }
+        try (Cursor c = query("orderPrint?ids=" + ids + "&kot=" + (onlyNew ? "new" : "all"))) {
+            if (c != null && c.moveToFirst()) {
+                String json = c.getString(0);
+                // Unknown URIs come back as "{}"
+                if (json != null && json.startsWith("[")) {
+                    return new Gson().fromJson(json, ORDER_LIST);
+                }
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+
+        List<OrderResponse> orders = new ArrayList<>();
+        for (int id : orderIds) {
+            OrderResponse order = getOrderForPrint(id);
+            if (order != null && order.items != null) orders.add(order);
+        }
+        return orders;
+    }
+
     // ---------------- WRITE ----------------
 
-    public void createOrder(String tag, List<OrderItem> items) {
+    /**
+     * Gives the items of the order's KOTs {@code kotSeqs} back, so its next
+     * KOT sends them; for tickets the print queue dropped unprinted.
+     */
+    public void releaseKots(int orderId, int[] kotSeqs) {
+        try {
+            StringBuilder seqs = new StringBuilder();
+            for (int kotSeq : kotSeqs) {
+                if (seqs.length() > 0) seqs.append(',');
+                seqs.append(kotSeq);
+            }
+            ContentValues v = new ContentValues();
+            v.put("orderId", orderId);
+            v.put("kotSeqs", seqs.toString());
+            update("releaseKot", v);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /** Returns the new order's id, or -1 if it is not known. */
+    public int createOrder(String tag, List<OrderItem> items) {
         try {
             ContentValues v = new ContentValues();
             v.put("tag", tag);
             v.put("items", new Gson().toJson(items));
-            insert("createOrder", v);
+            Uri created = insert("createOrder", v);
+            // "orders/{id}"; admin builds that predate it echo the request URI
+            if (created != null && "orders".equals(created.getPathSegments().get(0))) {
+                return Integer.parseInt(created.getLastPathSegment());
+            }
         } catch (Exception e){
             e.printStackTrace();
         }
+        return -1;
     }
 
     public String toggleServedStatus(int orderId, int itemId) {
@@ -0,0 +1,238 @@
+package com.karan.sunset_point.data.handler;
+
+import com.karan.sunset_point.data.Responses.OrderItemResponse;
+import com.karan.sunset_point.data.Responses.OrderResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The KOT from {@link KotFormatter} as raw ESC/POS bytes, with no markup for
+ * EscPosPrinter to parse on every print. The fixed parts of the ticket are
+ * encoded once, each dish name's line once per name, and tickets are written
+ * into one reused buffer. Not thread-safe.
+ *
+ * Lines are laid out on the same 32 columns as EscPosPrinter's markup, minus
+ * the trailing padding it sends. Lines too long for the paper wrap, item
+ * names under the name column.
+ */
+public final class KotEncoder {
+
+    /** Characters per line: 48 mm of paper at 203 dpi, like PrinterManager's EscPosPrinter. */
+    public static final int LINE_WIDTH = 32;
+
+    // Windows-1252, EscPosPrinter's default code page (ESC t 16)
+    static final Charset CHARSET = Charset.forName("windows-1252");
+
+    private static final byte ESC = 0x1B;
+    private static final byte LF = 0x0A;
+
+    // ESC @ resets the printer's modes, ESC t selects the code page
+    private static final byte[] INIT = {ESC, '@', ESC, 't', 16};
+
+    // ESC J 160: the 20 mm printFormattedText feeds after the text
+    private static final byte[] FEED = {ESC, 'J', (byte) 160};
+
+    // "%-4d " in KotFormatter
+    private static final int QTY_WIDTH = 5;
+
+    private static final int CACHED_QUANTITIES = 100;
+    private static final int CACHED_NAMES = 512;
+
+    private static final String DOUBLE_RULE = repeat('=', LINE_WIDTH);
+    private static final String RULE = repeat('-', LINE_WIDTH);
+
+    private static final byte[] HEADER = header("KOT");
+    private static final byte[] ORDER_LABEL = encode("Order : ");
+    private static final byte[] TAG_LABEL = encode("Tag   : ");
+    private static final byte[] ITEMS_HEADER = lines("", RULE, "QTY  ITEM", RULE, "");
+    private static final byte[] TOTAL_LABEL = concat(lines("", RULE), encode("Total Items : "));
+    // Ends the total line; the blank lines are KotFormatter's trailing "\n "s
+    private static final byte[] FOOTER = concat(new byte[]{LF},
+            lines("", center(DOUBLE_RULE), "", "", "", "", ""), FEED);
+
+    private static final byte[][] QUANTITIES = new byte[CACHED_QUANTITIES][];
+
+    static {
+        for (int q = 0; q < CACHED_QUANTITIES; q++) {
+            QUANTITIES[q] = encode(quantityField(q));
+        }
+    }
+
+    // Dish name -> its wrapped line(s) after the quantity column, with LF
+    private final Map<String, byte[]> nameLines = new HashMap<>();
+
+    private ByteBuffer buffer = ByteBuffer.allocate(1024);
+
+    /** Encodes the ticket. The buffer is reused: read it before the next call. */
+    public ByteBuffer encode(OrderResponse order) {
+        buffer.clear();
+
+        // Add-on tickets are the rare case; their header is not kept
+        put(KotFormatter.isAddOn(order) ? header(KotFormatter.title(order)) : HEADER);
+        put(ORDER_LABEL);
+        putDigits(order.id);
+        put(LF);
+
+        if (order.tag != null && !order.tag.isEmpty()) {
+            put(TAG_LABEL);
+            put(wrap(encode(order.tag), LINE_WIDTH - TAG_LABEL.length, 0));
+        }
+
+        if (order.createdAt != null && order.createdAt.length() >= 16) {
+            // Right aligned HH:MM
+            putSpaces(LINE_WIDTH - 5);
+            for (int i = 11; i < 16; i++) put((byte) order.createdAt.charAt(i));
+            put(LF);
+        }
+
+        put(ITEMS_HEADER);
+
+        int totalItems = 0;
+        for (OrderItemResponse item : order.items) {
+            if ("CANCELLED".equalsIgnoreCase(item.status)) continue;
+            totalItems += item.quantity;
+
+            if (item.quantity >= 0 && item.quantity < CACHED_QUANTITIES) {
+                put(QUANTITIES[item.quantity]);
+                put(nameLine(item.name));
+            } else {
+                byte[] qty = encode(quantityField(item.quantity));
+                put(qty);
+                put(wrap(encode(String.valueOf(item.name)), LINE_WIDTH - qty.length, QTY_WIDTH));
+            }
+        }
+
+        put(TOTAL_LABEL);
+        putDigits(totalItems);
+        put(FOOTER);
+
+        buffer.flip();
+        return buffer;
+    }
+
+    /** A copy of the encoded ticket, e.g. for the print queue. */
+    public byte[] encodeToArray(OrderResponse order) {
+        ByteBuffer encoded = encode(order);
+        byte[] ticket = new byte[encoded.remaining()];
+        encoded.get(ticket);
+        return ticket;
+    }
+
+    private byte[] nameLine(String name) {
+        String key = String.valueOf(name);
+        byte[] line = nameLines.get(key);
+        if (line == null) {
+            // A renamed menu, say; start over rather than grow
+            if (nameLines.size() == CACHED_NAMES) nameLines.clear();
+            line = wrap(encode(key), LINE_WIDTH - QTY_WIDTH, QTY_WIDTH);
+            nameLines.put(key, line);
+        }
+        return line;
+    }
+
+    private void put(byte[] bytes) {
+        ensure(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private void put(byte b) {
+        ensure(1);
+        buffer.put(b);
+    }
+
+    private void putSpaces(int count) {
+        ensure(count);
+        for (int i = 0; i < count; i++) buffer.put((byte) ' ');
+    }
+
+    private void putDigits(int value) {
+        if (value < 0) {
+            put((byte) '-');
+            value = -value;
+        }
+        int start = buffer.position();
+        do {
+            put((byte) ('0' + value % 10));
+            value /= 10;
+        } while (value > 0);
+        // Written least significant first
+        for (int i = start, j = buffer.position() - 1; i < j; i++, j--) {
+            byte t = buffer.get(i);
+            buffer.put(i, buffer.get(j));
+            buffer.put(j, t);
+        }
+    }
+
+    private void ensure(int bytes) {
+        if (buffer.remaining() >= bytes) return;
+        ByteBuffer bigger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+        buffer.flip();
+        bigger.put(buffer);
+        buffer = bigger;
+    }
+
+    /**
+     * The text split into lines of at most {@code room} bytes on the first
+     * line and {@code LINE_WIDTH - indent} after, each continuation indented
+     * by {@code indent} spaces and every line ended with LF.
+     */
+    static byte[] wrap(byte[] text, int room, int indent) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(text.length + 2);
+        int pos = 0;
+        while (true) {
+            int n = Math.min(Math.max(room, 1), text.length - pos);
+            out.write(text, pos, n);
+            out.write(LF);
+            pos += n;
+            if (pos >= text.length) break;
+            for (int i = 0; i < indent; i++) out.write(' ');
+            room = LINE_WIDTH - indent;
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] header(String title) {
+        return concat(INIT, lines(center(DOUBLE_RULE), center(title), center(DOUBLE_RULE), ""));
+    }
+
+    private static String quantityField(int quantity) {
+        StringBuilder sb = new StringBuilder().append(quantity);
+        while (sb.length() < QTY_WIDTH - 1) sb.append(' ');
+        return sb.append(' ').toString();
+    }
+
+    private static String center(String text) {
+        return repeat(' ', (LINE_WIDTH - text.length()) / 2) + text;
+    }
+
+    private static String repeat(char c, int count) {
+        char[] chars = new char[Math.max(0, count)];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+
+    private static byte[] encode(String text) {
+        return text.getBytes(CHARSET);
+    }
+
+    private static byte[] lines(String... lines) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (String line : lines) {
+            byte[] bytes = encode(line);
+            out.write(bytes, 0, bytes.length);
+            out.write(LF);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) out.write(part, 0, part.length);
+        return out.toByteArray();
+    }
+}
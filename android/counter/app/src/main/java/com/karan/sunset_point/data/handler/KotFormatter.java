@@ -0,0 +1,85 @@
+package com.karan.sunset_point.data.handler;
+
+import com.karan.sunset_point.data.Responses.OrderItemResponse;
+import com.karan.sunset_point.data.Responses.OrderResponse;
+
+import java.util.Locale;
+
+/** Kitchen order ticket text. Plain Java so it can be benchmarked off-device. */
+public final class KotFormatter {
+
+    private KotFormatter() {}
+
+    /**
+     * The KOT as DantSu EscPosPrinter markup ([L], [C], [R] line prefixes).
+     * Printing goes through {@link KotEncoder}; this is the layout it follows.
+     */
+    public static String formatKotDantsu(OrderResponse order) {
+
+        StringBuilder sb = new StringBuilder();
+
+        int totalItems = 0;
+
+        // Header
+        sb.append("[C]================================\n");
+        sb.append("[C]").append(title(order)).append("\n");
+        sb.append("[C]================================\n");
+        sb.append("\n");
+
+        // Order Info
+        sb.append("[L]Order : ").append(order.id).append("\n");
+
+        if (order.tag != null && !order.tag.isEmpty()) {
+            sb.append("[L]Tag   : ").append(order.tag).append("\n");
+        }
+
+        if (order.createdAt != null && order.createdAt.length() >= 16) {
+            String time = order.createdAt.substring(11, 16);
+            sb.append("[R]").append(time).append("\n");
+        }
+
+        sb.append("\n");
+
+        // Items Header
+        sb.append("[L]--------------------------------\n");
+        sb.append("[L]QTY  ITEM\n");
+        sb.append("[L]--------------------------------\n");
+        sb.append("\n");
+
+        // Items
+        for (OrderItemResponse item : order.items) {
+
+            // Skip cancelled
+            if ("CANCELLED".equalsIgnoreCase(item.status)) continue;
+
+            totalItems += item.quantity;
+
+            sb.append("[L]");
+            sb.append(String.format(Locale.ROOT, "%-4d %s", item.quantity, item.name));
+            sb.append("\n");
+        }
+
+        sb.append("\n");
+
+        // Footer
+        sb.append("[L]--------------------------------\n");
+        sb.append("[L]Total Items : ").append(totalItems).append("\n");
+        sb.append("\n");
+        sb.append("[C]================================\n");
+        for (int i = 0;i<4;i++){
+            sb.append("\n ");
+        }
+
+        return sb.toString();
+    }
+
+    /** "KOT", or "ADD-ON KOT #n" for a ticket of items added to an order already sent. */
+    static String title(OrderResponse order) {
+        return isAddOn(order) ? "ADD-ON KOT #" + order.kotSeq : "KOT";
+    }
+
+    // A whole-order reprint also has a kotSeq, but its items were sent before
+    static boolean isAddOn(OrderResponse order) {
+        return order.addOn && order.kotSeq > 1;
+    }
+}
@@ -66,7 +66,8 @@ public class NativeApi {
                     items.add(item);
                 }
 
-                Handler.getInstance().createOrder(tag, items);
+                int orderId = Handler.getInstance().createOrder(tag, items);
+                if (orderId > 0) AutoPrinter.getInstance().orderCreated(orderId);
 
             } catch (Exception e) {
                 e.printStackTrace();
@@ -101,6 +102,28 @@ public class NativeApi {
         });
     }
 
+    /**
+     * Resolves with {"seq", "day", "full", "orders", "removed"}: the orders
+     * changed after {@code since_s} plus the ids that left today's list, or
+     * all of them when {@code day} is not the admin app's day any more.
+     */
+    @JavascriptInterface
+    public void getOrdersSince(String requestId, String since_s, String day){
+        executor.execute(() -> {
+            String result = "";
+            try {
+                long since = Long.parseLong(since_s);
+                result = Handler.getInstance().getOrdersSince(since, day);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+
+            String js = "window.__nativeResolve(" +
+                    JSONObject.quote(requestId) + "," + JSONObject.quote(result) + ");";
+            webView.post(() -> webView.evaluateJavascript(js, null));
+        });
+    }
+
     @JavascriptInterface
     public void toggleServedStatus(String requestId,String orderId_s,String itemId_s){
         executor.execute(() -> {
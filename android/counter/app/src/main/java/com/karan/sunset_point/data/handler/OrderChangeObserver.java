@@ -0,0 +1,120 @@
+package com.karan.sunset_point.data.handler;
+
+import android.database.ContentObserver;
+import android.net.Uri;
+import android.os.Looper;
+import android.util.Log;
+import android.webkit.WebView;
+
+import com.karan.sunset_point.App;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Listens for the admin provider's per-order change notifications
+ * ("orders/{id}") and forwards them to the WebView as one
+ * {@code window.__nativeEvent} per coalescing window:
+ * {"type": "ordersChanged", "orderIds": [...]}.
+ *
+ * Everything runs on the main looper, so the pending set needs no locking.
+ */
+public class OrderChangeObserver extends ContentObserver {
+
+    private static final String TAG = "OrderChangeObserver";
+
+    private static final Uri ORDERS =
+            Uri.parse("content://com.karan.sunset_point.provider/orders");
+
+    /** A burst of writes (e.g. closing an order) becomes a single event. */
+    static final long COALESCE_MS = 250;
+
+    private final android.os.Handler main;
+    private final WebView webView;
+    private final Set<Integer> pending = new LinkedHashSet<>();
+    private boolean flushScheduled;
+    private boolean unknownChange;
+
+    private final Runnable flush = this::flush;
+
+    public OrderChangeObserver(WebView webView) {
+        this(new android.os.Handler(Looper.getMainLooper()), webView);
+    }
+
+    private OrderChangeObserver(android.os.Handler main, WebView webView) {
+        super(main);
+        this.main = main;
+        this.webView = webView;
+    }
+
+    public void register() {
+        App.context.getContentResolver().registerContentObserver(ORDERS, true, this);
+    }
+
+    public void unregister() {
+        App.context.getContentResolver().unregisterContentObserver(this);
+        main.removeCallbacks(flush);
+        pending.clear();
+        flushScheduled = false;
+    }
+
+    @Override
+    public void onChange(boolean selfChange) {
+        onChange(selfChange, null);
+    }
+
+    @Override
+    public void onChange(boolean selfChange, Uri uri) {
+        Integer orderId = orderIdOf(uri);
+        if (orderId != null) {
+            pending.add(orderId);
+        } else {
+            unknownChange = true;
+        }
+        if (!flushScheduled) {
+            flushScheduled = true;
+            main.postDelayed(flush, COALESCE_MS);
+        }
+    }
+
+    private void flush() {
+        flushScheduled = false;
+        if (pending.isEmpty() && !unknownChange) return;
+
+        String event;
+        try {
+            JSONObject payload = new JSONObject();
+            payload.put("type", "ordersChanged");
+            // An empty list means "something changed", the page reloads everything it shows
+            payload.put("orderIds", unknownChange ? new JSONArray() : new JSONArray(pending));
+            event = payload.toString();
+        } catch (JSONException e) {
+            Log.e(TAG, "flush: could not build event", e);
+            return;
+        } finally {
+            pending.clear();
+            unknownChange = false;
+        }
+
+        String js = "window.__nativeEvent && window.__nativeEvent(" +
+                JSONObject.quote(event) +
+                ")";
+        webView.evaluateJavascript(js, null);
+    }
+
+    /** The id of "orders/{id}", or null for any other orders URI. */
+    private static Integer orderIdOf(Uri uri) {
+        if (uri == null) return null;
+        String last = uri.getLastPathSegment();
+        if (last == null) return null;
+        try {
+            return Integer.valueOf(last);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
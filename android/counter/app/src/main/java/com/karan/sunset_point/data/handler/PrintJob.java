@@ -0,0 +1,48 @@
+package com.karan.sunset_point.data.handler;
+
+import java.util.Arrays;
+
+/** One KOT in the print queue. Mutable state is guarded by the PrintSpooler. */
+final class PrintJob {
+
+    static final int[] NO_KOTS = new int[0];
+
+    final long id;
+    final int orderId;
+    final long queuedAt;
+
+    // Encoded ticket; replaced when the same order is queued again before it
+    // printed, or extended by an add-on ticket, see PrintSpooler.submitAll
+    byte[] data;
+
+    // The admin app's KOT numbers this job's items were claimed under; given
+    // back if the job is dropped unprinted
+    int[] kotSeqs = NO_KOTS;
+
+    PrintSpooler.Status status = PrintSpooler.Status.QUEUED;
+    int attempts;
+    String lastError;
+    long finishedAt;
+
+    PrintJob(long id, int orderId, byte[] data, long queuedAt) {
+        this.id = id;
+        this.orderId = orderId;
+        this.data = data;
+        this.queuedAt = queuedAt;
+    }
+
+    /** Adds a claimed KOT; false if there is none or it is already here. */
+    boolean claim(int kotSeq) {
+        if (kotSeq <= 0) return false;
+        for (int k : kotSeqs) {
+            if (k == kotSeq) return false;
+        }
+        kotSeqs = Arrays.copyOf(kotSeqs, kotSeqs.length + 1);
+        kotSeqs[kotSeqs.length - 1] = kotSeq;
+        return true;
+    }
+
+    PrintSpooler.JobState state() {
+        return new PrintSpooler.JobState(id, orderId, status, attempts, lastError, queuedAt, finishedAt);
+    }
+}
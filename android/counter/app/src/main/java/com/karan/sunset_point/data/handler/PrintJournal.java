@@ -0,0 +1,160 @@
+package com.karan.sunset_point.data.handler;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only log of the print queue, so jobs survive the app being killed.
+ * One line per event, synced to disk before the call returns:
+ *
+ * <pre>
+ * Q id orderId queuedAtMs base64(data) [kotSeq,...]
+ *                                        queued, or its ticket replaced
+ * P id                                   printed
+ * X id                                   dropped (cancelled or expired)
+ * </pre>
+ *
+ * Replaying the lines gives the pending jobs in queue order. A last line
+ * without its newline was torn by a crash mid-write and is skipped.
+ */
+final class PrintJournal implements Closeable {
+
+    // Truncated once the queue drains and the log has grown past this
+    private static final long COMPACT_BYTES = 64 * 1024;
+
+    private final File file;
+    private FileOutputStream out;
+    private Writer writer;
+
+    PrintJournal(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Reads the pending jobs and rewrites the log with only those, then opens
+     * it for appending. Call once, before anything else.
+     */
+    List<PrintJob> open() throws IOException {
+        Map<Long, PrintJob> pending = new LinkedHashMap<>();
+        if (file.exists()) {
+            String log = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+            // Only newline-terminated lines were written completely
+            int start = 0;
+            for (int end = log.indexOf('\n'); end >= 0; end = log.indexOf('\n', start)) {
+                replay(log.substring(start, end), pending);
+                start = end + 1;
+            }
+        }
+
+        File tmp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream fos = new FileOutputStream(tmp);
+             Writer w = new OutputStreamWriter(fos, StandardCharsets.UTF_8)) {
+            for (PrintJob job : pending.values()) {
+                w.write(queuedLine(job));
+            }
+            w.flush();
+            fos.getFD().sync();
+        }
+        if (!tmp.renameTo(file)) {
+            throw new IOException("Could not replace " + file);
+        }
+
+        out = new FileOutputStream(file, true);
+        writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        return new ArrayList<>(pending.values());
+    }
+
+    void queued(PrintJob job) throws IOException {
+        append(queuedLine(job));
+    }
+
+    /** Several jobs queued together, with one sync. */
+    void queued(List<PrintJob> jobs) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (PrintJob job : jobs) lines.append(queuedLine(job));
+        append(lines.toString());
+    }
+
+    /** Jobs that went out in one write, with one sync. */
+    void printed(List<PrintJob> jobs) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (PrintJob job : jobs) lines.append("P ").append(job.id).append('\n');
+        append(lines.toString());
+    }
+
+    void dropped(long jobId) throws IOException {
+        append("X " + jobId + "\n");
+    }
+
+    /** Empties the log if it is large; only valid while nothing is pending. */
+    void compactIfDrained() throws IOException {
+        if (out.getChannel().size() < COMPACT_BYTES) return;
+        writer.flush();
+        out.getChannel().truncate(0);
+        out.getFD().sync();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (writer != null) writer.close();
+    }
+
+    private void append(String line) throws IOException {
+        writer.write(line);
+        writer.flush();
+        out.getFD().sync();
+    }
+
+    private static String queuedLine(PrintJob job) {
+        StringBuilder line = new StringBuilder("Q ").append(job.id).append(' ')
+                .append(job.orderId).append(' ').append(job.queuedAt).append(' ')
+                .append(Base64.getEncoder().encodeToString(job.data));
+        for (int i = 0; i < job.kotSeqs.length; i++) {
+            line.append(i == 0 ? ' ' : ',').append(job.kotSeqs[i]);
+        }
+        return line.append('\n').toString();
+    }
+
+    private static void replay(String line, Map<Long, PrintJob> pending) {
+        String[] f = line.split(" ");
+        try {
+            switch (f[0]) {
+                case "Q":
+                    // Lines written before KOT claims have no sixth field
+                    if (f.length != 5 && f.length != 6) return;
+                    long id = Long.parseLong(f[1]);
+                    byte[] data = Base64.getDecoder().decode(f[4]);
+                    PrintJob job = pending.get(id);
+                    if (job != null) {
+                        job.data = data;
+                    } else {
+                        job = new PrintJob(id, Integer.parseInt(f[2]), data, Long.parseLong(f[3]));
+                        pending.put(id, job);
+                    }
+                    if (f.length == 6) {
+                        for (String kotSeq : f[5].split(",")) job.claim(Integer.parseInt(kotSeq));
+                    }
+                    break;
+                case "P":
+                case "X":
+                    if (f.length == 2) pending.remove(Long.parseLong(f[1]));
+                    break;
+                default:
+                    break;
+            }
+        } catch (IllegalArgumentException corrupt) {
+            // Not a line this class wrote; skip it
+        }
+    }
+}
@@ -0,0 +1,523 @@
+package com.karan.sunset_point.data.handler;
+
+import com.karan.sunset_point.App;
+import com.karan.sunset_point.PrinterManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Print queue for KOTs. Jobs are journaled to disk before {@link #submit}
+ * returns and printed in the order they were queued by a single worker
+ * thread that is the only user of the printer. Jobs waiting together go out
+ * as one write, so a rush costs one Bluetooth round trip, not one per ticket.
+ *
+ * A failed write stays at the head of the queue and is retried with
+ * exponential backoff; later jobs wait behind it, so the kitchen never gets
+ * tickets out of order. Queuing an order that is still waiting replaces its
+ * ticket instead of adding a second ticket, and the same ticket queued again
+ * right after it printed (a double tap) is ignored. Add-on tickets, for items
+ * added to an order already sent, are never dropped: one for a waiting order
+ * prints right after its ticket, in the same job.
+ *
+ * The admin app marks a ticket's items as sent when the ticket is fetched
+ * (a KOT claim). A job cancelled or expired before it printed hands its
+ * claims to {@link KotClaims#release}, so the order's next KOT sends them.
+ */
+public final class PrintSpooler {
+
+    public enum Status { QUEUED, PRINTING, RETRYING, PRINTED, CANCELLED, EXPIRED }
+
+    /** Where claims of jobs dropped unprinted go; called without the spooler's lock. */
+    public interface KotClaims {
+        KotClaims NONE = (orderId, kotSeqs) -> {};
+
+        void release(int orderId, int[] kotSeqs);
+    }
+
+    static final String JOURNAL_FILE = "print-jobs.log";
+
+    static final long FIRST_BACKOFF_MS = 500;
+    static final long MAX_BACKOFF_MS = 30_000;
+
+    // The same ticket for the same order within this long of printing is a double tap
+    static final long DUPLICATE_WINDOW_MS = 5_000;
+
+    // Tickets left over from an earlier run are not printed once this old
+    static final long MAX_REPLAY_AGE_MS = 6 * 60 * 60 * 1000L;
+
+    // One write carries at most this much; a failed write is printed again whole
+    static final int MAX_BATCH_JOBS = 10;
+    static final int MAX_BATCH_BYTES = 8 * 1024;
+
+    private static final int RECENT_JOBS = 20;
+    private static final long THROUGHPUT_WINDOW_MS = 60_000;
+
+    private static PrintSpooler instance;
+
+    private final Object lock = new Object();
+    private final PrintJournal journal;
+    private final PrinterConnection printer;
+    private final KotClaims claims;
+    private final long firstBackoffMs;
+    private final Thread worker;
+
+    // Guarded by lock
+    private final ArrayDeque<PrintJob> queue = new ArrayDeque<>();
+    private final Map<Integer, PrintJob> waitingByOrder = new HashMap<>();
+    private final ArrayDeque<PrintJob> recent = new ArrayDeque<>();
+    private final ArrayDeque<Long> printedTimes = new ArrayDeque<>();
+    private List<PrintJob> printing = Collections.emptyList();
+    private long nextJobId = 1;
+    private long retryAt;
+    private boolean stopped;
+
+    private long submitted;
+    private long printed;
+    private long writes;
+    private long deduplicated;
+    private long cancelled;
+    private long expired;
+    private long failures;
+    private long journalErrors;
+    private long totalPrintMs;
+    private long maxPrintMs;
+    private long totalWaitMs;
+    private long maxWaitMs;
+    private String lastError;
+
+    public static synchronized PrintSpooler getInstance() {
+        if (instance == null) {
+            File file = new File(App.context.getFilesDir(), JOURNAL_FILE);
+            try {
+                instance = new PrintSpooler(file, PrinterManager.spoolerConnection(), FIRST_BACKOFF_MS,
+                        Handler.getInstance()::releaseKots);
+            } catch (IOException e) {
+                throw new IllegalStateException("Print journal unavailable: " + file, e);
+            }
+        }
+        return instance;
+    }
+
+    PrintSpooler(File journalFile, PrinterConnection printer, long firstBackoffMs) throws IOException {
+        this(journalFile, printer, firstBackoffMs, KotClaims.NONE);
+    }
+
+    /** Replays the journal and starts the worker; leftover jobs print first. */
+    PrintSpooler(File journalFile, PrinterConnection printer, long firstBackoffMs, KotClaims claims)
+            throws IOException {
+        this.journal = new PrintJournal(journalFile);
+        this.printer = printer;
+        this.claims = claims;
+        this.firstBackoffMs = firstBackoffMs;
+
+        long now = System.currentTimeMillis();
+        for (PrintJob job : journal.open()) {
+            nextJobId = Math.max(nextJobId, job.id + 1);
+            if (now - job.queuedAt > MAX_REPLAY_AGE_MS) {
+                expired++;
+                finish(job, Status.EXPIRED, now);
+                record(() -> journal.dropped(job.id));
+                release(job.orderId, job.kotSeqs);
+            } else {
+                queue.addLast(job);
+                waitingByOrder.put(job.orderId, job);
+            }
+        }
+
+        worker = new Thread(this::work, "print-spooler");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /** Queues a ticket for the order and returns the job it ended up in. */
+    public JobState submit(int orderId, byte[] data) {
+        return submitAll(Collections.singletonMap(orderId, data)).get(0);
+    }
+
+    /**
+     * Queues tickets for several orders, in the map's order, with one journal
+     * write. Returns the job each ended up in.
+     */
+    public List<JobState> submitAll(Map<Integer, byte[]> tickets) {
+        return submitAll(tickets, false);
+    }
+
+    /**
+     * Like {@link #submitAll(Map)}; with {@code addOn} the tickets are only
+     * the items added since the order's last KOT, so they add to a waiting
+     * ticket instead of replacing it and are never taken for a double tap.
+     */
+    public List<JobState> submitAll(Map<Integer, byte[]> tickets, boolean addOn) {
+        return submitAll(tickets, Collections.emptyMap(), addOn);
+    }
+
+    /**
+     * Like {@link #submitAll(Map, boolean)}; {@code kotSeqs} are the KOT
+     * claims the tickets were fetched under, by order id.
+     */
+    public List<JobState> submitAll(Map<Integer, byte[]> tickets, Map<Integer, Integer> kotSeqs,
+                                    boolean addOn) {
+        List<JobState> states = new ArrayList<>(tickets.size());
+        Map<Integer, Integer> unused = new HashMap<>();
+        synchronized (lock) {
+            long now = System.currentTimeMillis();
+            List<PrintJob> changed = new ArrayList<>();
+            for (Map.Entry<Integer, byte[]> ticket : tickets.entrySet()) {
+                int orderId = ticket.getKey();
+                Integer kotSeq = kotSeqs.get(orderId);
+                states.add(enqueue(orderId, ticket.getValue(), kotSeq == null ? 0 : kotSeq,
+                        addOn, now, changed, unused).state());
+            }
+            if (!changed.isEmpty()) {
+                record(() -> journal.queued(changed));
+                lock.notifyAll();
+            }
+        }
+        for (Map.Entry<Integer, Integer> claim : unused.entrySet()) {
+            release(claim.getKey(), new int[]{claim.getValue()});
+        }
+        return states;
+    }
+
+    /** Drops the order's waiting ticket; false if there is none or it is printing. */
+    public boolean cancel(int orderId) {
+        PrintJob job;
+        synchronized (lock) {
+            job = waitingByOrder.remove(orderId);
+            if (job == null) return false;
+
+            boolean head = queue.peekFirst() == job;
+            queue.remove(job);
+            if (head) retryAt = 0;
+            cancelled++;
+            finish(job, Status.CANCELLED, System.currentTimeMillis());
+            record(() -> journal.dropped(job.id));
+            lock.notifyAll();
+        }
+        release(job.orderId, job.kotSeqs);
+        return true;
+    }
+
+    /** Retries a failing head job now instead of waiting out its backoff. */
+    public void retryNow() {
+        synchronized (lock) {
+            retryAt = 0;
+            lock.notifyAll();
+        }
+    }
+
+    /** Waiting and printing jobs in print order, then recently finished ones, newest first. */
+    public List<JobState> jobs() {
+        synchronized (lock) {
+            List<JobState> jobs = new ArrayList<>();
+            // Printing jobs are the head of the queue
+            for (PrintJob job : queue) jobs.add(job.state());
+            Iterator<PrintJob> done = recent.descendingIterator();
+            while (done.hasNext()) jobs.add(done.next().state());
+            return jobs;
+        }
+    }
+
+    public Stats stats() {
+        synchronized (lock) {
+            long now = System.currentTimeMillis();
+            trimPrintedTimes(now);
+            PrintJob head = queue.peekFirst();
+            return new Stats(
+                    queue.size(),
+                    head == null ? 0 : now - head.queuedAt,
+                    head == null ? 0 : Math.max(0, retryAt - now),
+                    submitted, printed, writes, deduplicated, cancelled, expired, failures, journalErrors,
+                    printedTimes.size(),
+                    writes == 0 ? 0 : totalPrintMs / writes, maxPrintMs,
+                    printed == 0 ? 0 : totalWaitMs / printed, maxWaitMs,
+                    lastError);
+        }
+    }
+
+    /** Stops the worker after its current job. For tests. */
+    void shutdown() throws Exception {
+        synchronized (lock) {
+            stopped = true;
+            lock.notifyAll();
+        }
+        worker.join();
+        journal.close();
+    }
+
+    private void work() {
+        while (true) {
+            List<PrintJob> batch;
+            synchronized (lock) {
+                try {
+                    while (true) {
+                        if (stopped) return;
+                        if (!queue.isEmpty()) {
+                            long wait = retryAt - System.currentTimeMillis();
+                            if (wait <= 0) break;
+                            lock.wait(wait);
+                        } else {
+                            lock.wait();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                batch = nextBatch();
+                for (PrintJob job : batch) {
+                    waitingByOrder.remove(job.orderId, job);
+                    job.status = Status.PRINTING;
+                    job.attempts++;
+                }
+                printing = batch;
+            }
+
+            byte[] data = concat(batch);
+            long start = System.currentTimeMillis();
+            Exception error = null;
+            try {
+                if (!printer.isConnected()) printer.connect();
+                printer.write(data, 0, data.length);
+            } catch (Exception e) {
+                error = e;
+            }
+            // May block on the Bluetooth socket; never under the lock.
+            // The next attempt starts from a fresh connection.
+            if (error != null) printer.disconnect();
+
+            synchronized (lock) {
+                long now = System.currentTimeMillis();
+                printing = Collections.emptyList();
+                if (error == null) {
+                    writes++;
+                    totalPrintMs += now - start;
+                    maxPrintMs = Math.max(maxPrintMs, now - start);
+                    retryAt = 0;
+                    for (PrintJob job : batch) {
+                        queue.removeFirst();
+                        printed++;
+                        totalWaitMs += now - job.queuedAt;
+                        maxWaitMs = Math.max(maxWaitMs, now - job.queuedAt);
+                        printedTimes.addLast(now);
+                        finish(job, Status.PRINTED, now);
+                    }
+                    trimPrintedTimes(now);
+                    record(() -> journal.printed(batch));
+                    if (queue.isEmpty()) record(journal::compactIfDrained);
+                } else {
+                    failures++;
+                    lastError = error.toString();
+                    for (PrintJob job : batch) {
+                        job.status = Status.RETRYING;
+                        job.lastError = lastError;
+                        waitingByOrder.put(job.orderId, job);
+                    }
+                    retryAt = now + backoff(batch.get(0).attempts);
+                }
+            }
+        }
+    }
+
+    // The jobs at the head of the queue that fit in one write; at least one
+    private List<PrintJob> nextBatch() {
+        List<PrintJob> batch = new ArrayList<>();
+        int bytes = 0;
+        for (PrintJob job : queue) {
+            if (!batch.isEmpty() && (batch.size() == MAX_BATCH_JOBS
+                    || bytes + job.data.length > MAX_BATCH_BYTES)) {
+                break;
+            }
+            batch.add(job);
+            bytes += job.data.length;
+        }
+        return batch;
+    }
+
+    private static byte[] concat(List<PrintJob> batch) {
+        if (batch.size() == 1) return batch.get(0).data;
+        int length = 0;
+        for (PrintJob job : batch) length += job.data.length;
+        byte[] data = new byte[length];
+        int offset = 0;
+        for (PrintJob job : batch) {
+            System.arraycopy(job.data, 0, data, offset, job.data.length);
+            offset += job.data.length;
+        }
+        return data;
+    }
+
+    private long backoff(int attempts) {
+        return Math.min(MAX_BACKOFF_MS, firstBackoffMs << Math.min(attempts - 1, 16));
+    }
+
+    // Guarded by lock. New and replaced jobs are added to changed, for the
+    // journal; a claim no job keeps goes to unused, for release.
+    private PrintJob enqueue(int orderId, byte[] data, int kotSeq, boolean addOn, long now,
+                             List<PrintJob> changed, Map<Integer, Integer> unused) {
+        PrintJob waiting = waitingByOrder.get(orderId);
+        if (waiting != null && addOn) {
+            byte[] both = Arrays.copyOf(waiting.data, waiting.data.length + data.length);
+            System.arraycopy(data, 0, both, waiting.data.length, data.length);
+            waiting.data = both;
+            waiting.claim(kotSeq);
+            if (!changed.contains(waiting)) changed.add(waiting);
+            return waiting;
+        }
+        if (waiting != null) {
+            deduplicated++;
+            // A replaced ticket's items are all on the new one, so its claims stay
+            boolean claimed = waiting.claim(kotSeq);
+            if (!Arrays.equals(waiting.data, data)) {
+                waiting.data = data;
+                claimed = true;
+            }
+            if (claimed && !changed.contains(waiting)) changed.add(waiting);
+            return waiting;
+        }
+
+        PrintJob duplicate = addOn ? null : justPrinted(orderId, data, now);
+        if (duplicate != null) {
+            deduplicated++;
+            if (kotSeq > 0) unused.put(orderId, kotSeq);
+            return duplicate;
+        }
+
+        PrintJob job = new PrintJob(nextJobId++, orderId, data, now);
+        job.claim(kotSeq);
+        queue.addLast(job);
+        waitingByOrder.put(orderId, job);
+        submitted++;
+        changed.add(job);
+        return job;
+    }
+
+    private PrintJob justPrinted(int orderId, byte[] data, long now) {
+        for (PrintJob job : printing) {
+            if (job.orderId == orderId) {
+                return Arrays.equals(job.data, data) ? job : null;
+            }
+        }
+        Iterator<PrintJob> it = recent.descendingIterator();
+        while (it.hasNext()) {
+            PrintJob job = it.next();
+            if (job.orderId != orderId) continue;
+            boolean same = job.status == Status.PRINTED
+                    && now - job.finishedAt < DUPLICATE_WINDOW_MS
+                    && Arrays.equals(job.data, data);
+            return same ? job : null;
+        }
+        return null;
+    }
+
+    private void finish(PrintJob job, Status status, long now) {
+        job.status = status;
+        job.finishedAt = now;
+        recent.addLast(job);
+        if (recent.size() > RECENT_JOBS) recent.removeFirst();
+    }
+
+    private void release(int orderId, int[] kotSeqs) {
+        if (kotSeqs.length == 0) return;
+        try {
+            claims.release(orderId, kotSeqs);
+        } catch (RuntimeException e) {
+            // The items stay marked as sent; a full reprint still has them
+            e.printStackTrace();
+        }
+    }
+
+    private void trimPrintedTimes(long now) {
+        while (!printedTimes.isEmpty() && now - printedTimes.peekFirst() > THROUGHPUT_WINDOW_MS) {
+            printedTimes.removeFirst();
+        }
+    }
+
+    private interface JournalWrite {
+        void run() throws IOException;
+    }
+
+    // A journal failure costs durability, not the ticket: keep printing
+    private void record(JournalWrite write) {
+        try {
+            write.run();
+        } catch (IOException e) {
+            journalErrors++;
+            lastError = "Journal: " + e;
+        }
+    }
+
+    /** A job as the UI sees it. */
+    public static final class JobState {
+        public final long id;
+        public final int orderId;
+        public final Status status;
+        public final int attempts;
+        public final String lastError;
+        public final long queuedAt;
+        public final long finishedAt;
+
+        JobState(long id, int orderId, Status status, int attempts, String lastError,
+                 long queuedAt, long finishedAt) {
+            this.id = id;
+            this.orderId = orderId;
+            this.status = status;
+            this.attempts = attempts;
+            this.lastError = lastError;
+            this.queuedAt = queuedAt;
+            this.finishedAt = finishedAt;
+        }
+    }
+
+    public static final class Stats {
+        public final int backlog;
+        public final long oldestWaitingMs;
+        public final long retryInMs;
+        public final long submitted;
+        public final long printed;
+        public final long writes;
+        public final long deduplicated;
+        public final long cancelled;
+        public final long expired;
+        public final long failures;
+        public final long journalErrors;
+        public final int printedLastMinute;
+        // Per write, which may carry several jobs
+        public final long avgPrintMs;
+        public final long maxPrintMs;
+        public final long avgWaitMs;
+        public final long maxWaitMs;
+        public final String lastError;
+
+        Stats(int backlog, long oldestWaitingMs, long retryInMs, long submitted, long printed,
+              long writes, long deduplicated, long cancelled, long expired, long failures, long journalErrors,
+              int printedLastMinute, long avgPrintMs, long maxPrintMs, long avgWaitMs, long maxWaitMs,
+              String lastError) {
+            this.backlog = backlog;
+            this.oldestWaitingMs = oldestWaitingMs;
+            this.retryInMs = retryInMs;
+            this.submitted = submitted;
+            this.printed = printed;
+            this.writes = writes;
+            this.deduplicated = deduplicated;
+            this.cancelled = cancelled;
+            this.expired = expired;
+            this.failures = failures;
+            this.journalErrors = journalErrors;
+            this.printedLastMinute = printedLastMinute;
+            this.avgPrintMs = avgPrintMs;
+            this.maxPrintMs = maxPrintMs;
+            this.avgWaitMs = avgWaitMs;
+            this.maxWaitMs = maxWaitMs;
+            this.lastError = lastError;
+        }
+    }
+}
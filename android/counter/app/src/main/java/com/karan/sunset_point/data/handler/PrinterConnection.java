@@ -0,0 +1,25 @@
+package com.karan.sunset_point.data.handler;
+
+import java.io.IOException;
+
+/**
+ * A byte link to the KOT printer. The app uses Bluetooth; tests and
+ * benchmarks plug in an in-memory sink.
+ */
+public interface PrinterConnection {
+
+    /** Opens the link; does nothing if it is already open. */
+    void connect() throws IOException;
+
+    /** Whether the link is open; a link the printer dropped may still look open. */
+    boolean isConnected();
+
+    /** A small status request that fails if the printer is no longer reachable. */
+    void probe() throws IOException;
+
+    /** Sends the bytes; returns once the link has taken them. */
+    void write(byte[] data, int offset, int length) throws IOException;
+
+    /** Closes the link; safe to call when it is not open. */
+    void disconnect();
+}
@@ -1,16 +1,11 @@
 package com.karan.sunset_point.data.handler;
 
-import android.annotation.SuppressLint;
 import android.util.Log;
 import android.webkit.JavascriptInterface;
 import android.webkit.WebView;
 
-import com.dantsu.escposprinter.EscPosPrinter;
-import com.dantsu.escposprinter.connection.bluetooth.BluetoothConnection;
 import com.karan.sunset_point.OnPrinterConnected;
 import com.karan.sunset_point.PrinterManager;
-import com.karan.sunset_point.data.Responses.OrderItemResponse;
-import com.karan.sunset_point.data.Responses.OrderResponse;
 import com.karan.sunset_point.data.entity.OrderItem;
 
 import org.json.JSONArray;
@@ -18,6 +13,7 @@ import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
@@ -28,13 +24,19 @@ public class PrinterNativeApi {
 
     public PrinterNativeApi(WebView webView) {
         this.webView = webView;
+        // Replays the print journal, so tickets left from a crash print now,
+        // and connects to the printer before the first ticket needs it
+        executor.execute(() -> {
+            PrintSpooler.getInstance();
+            PrinterSupervisor.getInstance().start();
+        });
     }
 
     @JavascriptInterface
     public void connectPrinter(String requestId){
         executor.execute(() -> {
             try {
-                PrinterManager.connect((deviceName, connection, printer) -> {
+                PrinterManager.connect((deviceName, connection) -> {
                     JSONObject obj = new JSONObject();
                     try {
                         obj.put("name",deviceName);
@@ -57,82 +59,227 @@ public class PrinterNativeApi {
         });
     }
 
-    @SuppressLint("DefaultLocale")
-    private String formatKotDantsu(OrderResponse order) {
-
-        StringBuilder sb = new StringBuilder();
-
-        int totalItems = 0;
-
-        // Header
-        sb.append("[C]================================\n");
-        sb.append("[C]KOT\n");
-        sb.append("[C]================================\n");
-        sb.append("\n");
-
-        // Order Info
-        sb.append("[L]Order : ").append(order.id).append("\n");
-
-        if (order.tag != null && !order.tag.isEmpty()) {
-            sb.append("[L]Tag   : ").append(order.tag).append("\n");
-        }
-
-        if (order.createdAt != null && order.createdAt.length() >= 16) {
-            String time = order.createdAt.substring(11, 16);
-            sb.append("[R]").append(time).append("\n");
-        }
-
-        sb.append("\n");
-
-        // Items Header
-        sb.append("[L]--------------------------------\n");
-        sb.append("[L]QTY  ITEM\n");
-        sb.append("[L]--------------------------------\n");
-        sb.append("\n");
-
-        // Items
-        for (OrderItemResponse item : order.items) {
-
-            // Skip cancelled
-            if ("CANCELLED".equalsIgnoreCase(item.status)) continue;
+    /** Resolves with the print job once it is queued, or with nothing if it could not be. */
+    @JavascriptInterface
+    public void printOrder(String requestId, String orderId_s){
+        executor.execute(() -> {
+            String result = null;
+            try {
+                int orderId = Integer.parseInt(orderId_s);
+                List<PrintSpooler.JobState> jobs =
+                        PrinterManager.printOrders(Collections.singletonList(orderId));
+                if (!jobs.isEmpty()) result = toJson(jobs.get(0)).toString();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+            resolve(requestId, result);
+        });
+    }
 
-            totalItems += item.quantity;
+    /**
+     * Prints a KOT of only the items added to the order since its last one,
+     * for the kitchen. Resolves with the print job, with
+     * {"orderId", "status": "NOTHING_NEW"} if every item was already sent,
+     * or with nothing if it could not be queued. printOrder reprints the
+     * whole order.
+     */
+    @JavascriptInterface
+    public void printOrderDelta(String requestId, String orderId_s) {
+        executor.execute(() -> {
+            String result = null;
+            try {
+                int orderId = Integer.parseInt(orderId_s);
+                List<PrintSpooler.JobState> jobs =
+                        PrinterManager.printOrders(Collections.singletonList(orderId), true);
+                if (jobs.isEmpty()) {
+                    JSONObject obj = new JSONObject();
+                    obj.put("orderId", orderId);
+                    obj.put("status", "NOTHING_NEW");
+                    result = obj.toString();
+                } else {
+                    result = toJson(jobs.get(0)).toString();
+                }
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+            resolve(requestId, result);
+        });
+    }
 
-            sb.append("[L]");
-            sb.append(String.format("%-4d %s", item.quantity, item.name));
-            sb.append("\n");
-        }
+    /**
+     * Prints several orders' KOTs in one go; {@code orderIds_json} is a JSON
+     * array of ids. Resolves with the jobs, in id order, or with nothing if
+     * they could not be queued.
+     */
+    @JavascriptInterface
+    public void printOrders(String requestId, String orderIds_json) {
+        executor.execute(() -> {
+            String result = null;
+            try {
+                JSONArray ids = new JSONArray(orderIds_json);
+                List<Integer> orderIds = new ArrayList<>(ids.length());
+                for (int i = 0; i < ids.length(); i++) {
+                    orderIds.add(ids.getInt(i));
+                }
+                JSONArray jobs = new JSONArray();
+                if (!orderIds.isEmpty()) {
+                    for (PrintSpooler.JobState job : PrinterManager.printOrders(orderIds)) {
+                        jobs.put(toJson(job));
+                    }
+                }
+                result = jobs.toString();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+            resolve(requestId, result);
+        });
+    }
 
-        sb.append("\n");
+    /** Turns "auto-print new orders" on or off; resolves with the new setting. */
+    @JavascriptInterface
+    public void setAutoPrint(String requestId, String enabled_s) {
+        executor.execute(() -> {
+            AutoPrinter.getInstance().setEnabled(Boolean.parseBoolean(enabled_s));
+            resolve(requestId, String.valueOf(AutoPrinter.getInstance().isEnabled()));
+        });
+    }
 
-        // Footer
-        sb.append("[L]--------------------------------\n");
-        sb.append("[L]Total Items : ").append(totalItems).append("\n");
-        sb.append("\n");
-        sb.append("[C]================================\n");
-        for (int i = 0;i<4;i++){
-            sb.append("\n ");
-        }
+    /**
+     * {"stats": {...}, "printer": {...}, "autoPrint": {...}, "jobs": [...]}:
+     * backlog, throughput, the printer link, the auto-print state and every
+     * waiting or recent job.
+     */
+    @JavascriptInterface
+    public void getPrintQueue(String requestId) {
+        executor.execute(() -> {
+            String result = null;
+            try {
+                PrintSpooler spooler = PrintSpooler.getInstance();
+                JSONArray jobs = new JSONArray();
+                for (PrintSpooler.JobState job : spooler.jobs()) {
+                    jobs.put(toJson(job));
+                }
+                JSONObject obj = new JSONObject();
+                obj.put("stats", toJson(spooler.stats()));
+                obj.put("printer", toJson(PrinterSupervisor.getInstance().status()));
+                obj.put("autoPrint", toJson(AutoPrinter.getInstance().stats()));
+                obj.put("jobs", jobs);
+                result = obj.toString();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+            resolve(requestId, result);
+        });
+    }
 
-        return sb.toString();
+    @JavascriptInterface
+    public void cancelPrintJob(String requestId, String orderId_s) {
+        executor.execute(() -> {
+            boolean cancelled = PrintSpooler.getInstance().cancel(Integer.parseInt(orderId_s));
+            resolve(requestId, String.valueOf(cancelled));
+        });
     }
 
+    /**
+     * The printer link: {"state", "connectedForMs", "connects", "reconnects",
+     * "drops", "probes", "probeFailures", "connectFailures", "lastProbeAgoMs",
+     * "lastError"}.
+     */
     @JavascriptInterface
-    public void printOrder(String requestId, String orderId_s){
+    public void getPrinterStatus(String requestId) {
         executor.execute(() -> {
+            String result = null;
             try {
-                int orderId = Integer.parseInt(orderId_s);
-                OrderResponse order = Handler.getInstance().getOrderForPrint(orderId);
-                String text = formatKotDantsu(order);
-                PrinterManager.print(text);
+                result = toJson(PrinterSupervisor.getInstance().status()).toString();
             } catch (Exception e) {
                 e.printStackTrace();
             }
+            resolve(requestId, result);
+        });
+    }
+
+    /** Reconnects a lost printer now instead of waiting out the backoff. */
+    @JavascriptInterface
+    public void reconnectPrinter(String requestId) {
+        executor.execute(() -> {
+            PrinterSupervisor.getInstance().reconnectNow();
+            resolve(requestId, "true");
+        });
+    }
 
-            String js = "window.__nativeResolve(" +
-                    JSONObject.quote(requestId) +
-                    ");";
-            webView.post(()->webView.evaluateJavascript(js,null));
+    /** Skips the backoff of a failing ticket, e.g. after the printer was switched back on. */
+    @JavascriptInterface
+    public void retryPrintQueue(String requestId) {
+        executor.execute(() -> {
+            PrintSpooler.getInstance().retryNow();
+            resolve(requestId, "true");
         });
     }
+
+    private static JSONObject toJson(PrintSpooler.JobState job) throws JSONException {
+        JSONObject obj = new JSONObject();
+        obj.put("id", job.id);
+        obj.put("orderId", job.orderId);
+        obj.put("status", job.status.name());
+        obj.put("attempts", job.attempts);
+        obj.put("lastError", job.lastError);
+        obj.put("queuedAt", job.queuedAt);
+        obj.put("finishedAt", job.finishedAt);
+        return obj;
+    }
+
+    private static JSONObject toJson(PrintSpooler.Stats s) throws JSONException {
+        JSONObject obj = new JSONObject();
+        obj.put("backlog", s.backlog);
+        obj.put("oldestWaitingMs", s.oldestWaitingMs);
+        obj.put("retryInMs", s.retryInMs);
+        obj.put("submitted", s.submitted);
+        obj.put("printed", s.printed);
+        obj.put("writes", s.writes);
+        obj.put("deduplicated", s.deduplicated);
+        obj.put("cancelled", s.cancelled);
+        obj.put("expired", s.expired);
+        obj.put("failures", s.failures);
+        obj.put("journalErrors", s.journalErrors);
+        obj.put("printedLastMinute", s.printedLastMinute);
+        obj.put("avgPrintMs", s.avgPrintMs);
+        obj.put("maxPrintMs", s.maxPrintMs);
+        obj.put("avgWaitMs", s.avgWaitMs);
+        obj.put("maxWaitMs", s.maxWaitMs);
+        obj.put("lastError", s.lastError);
+        return obj;
+    }
+
+    private static JSONObject toJson(PrinterSupervisor.Status s) throws JSONException {
+        JSONObject obj = new JSONObject();
+        obj.put("state", s.state.name());
+        obj.put("connectedForMs", s.connectedForMs);
+        obj.put("connects", s.connects);
+        obj.put("reconnects", s.reconnects);
+        obj.put("drops", s.drops);
+        obj.put("probes", s.probes);
+        obj.put("probeFailures", s.probeFailures);
+        obj.put("connectFailures", s.connectFailures);
+        obj.put("lastProbeAgoMs", s.lastProbeAgoMs);
+        obj.put("lastError", s.lastError);
+        return obj;
+    }
+
+    private static JSONObject toJson(AutoPrinter.Stats s) throws JSONException {
+        JSONObject obj = new JSONObject();
+        obj.put("enabled", s.enabled);
+        obj.put("pending", s.pending);
+        obj.put("batches", s.batches);
+        obj.put("orders", s.orders);
+        obj.put("lastError", s.lastError);
+        return obj;
+    }
+
+    private void resolve(String requestId, String result) {
+        String js = "window.__nativeResolve(" +
+                JSONObject.quote(requestId) +
+                (result != null ? "," + JSONObject.quote(result) : "") +
+                ");";
+        webView.post(()->webView.evaluateJavascript(js,null));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,259 @@
+package com.karan.sunset_point.data.handler;
+
+import com.karan.sunset_point.PrinterManager;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the printer link up between tickets, so the first KOT after a quiet
+ * spell does not pay for finding and connecting to the printer.
+ *
+ * A background thread checks the link every couple of seconds and sends a
+ * status probe every so often, since a link the printer dropped can still
+ * look open. A link found down, by the probe or because a print failed, is
+ * reconnected with backoff; once it is back, the spooler retries at once.
+ */
+public final class PrinterSupervisor {
+
+    public enum State { STOPPED, CONNECTING, CONNECTED, DISCONNECTED }
+
+    /** How often the link is checked; the spooler drops it on a failed print. */
+    static final long CHECK_INTERVAL_MS = 2_000;
+
+    /** How often an open link is probed. */
+    static final long PROBE_INTERVAL_MS = 20_000;
+
+    static final long FIRST_RETRY_MS = 1_000;
+    static final long MAX_RETRY_MS = 30_000;
+
+    private static PrinterSupervisor instance;
+
+    private final PrinterConnection connection;
+    private final Runnable onReconnected;
+    private final long checkIntervalMs;
+    private final long probeIntervalMs;
+    private final long firstRetryMs;
+    private final ScheduledExecutorService executor;
+
+    // Guarded by this
+    private State state = State.STOPPED;
+    private ScheduledFuture<?> next;
+    private boolean everConnected;
+    private int failedAttempts;
+    private long connectedSince;
+    // Last time the link was known good: connected or probed
+    private long verifiedAt;
+    private long lastProbeAt;
+    private long connects;
+    private long reconnects;
+    private long drops;
+    private long probes;
+    private long probeFailures;
+    private long connectFailures;
+    private String lastError;
+
+    public static synchronized PrinterSupervisor getInstance() {
+        if (instance == null) {
+            instance = new PrinterSupervisor(PrinterManager.spoolerConnection(),
+                    () -> PrintSpooler.getInstance().retryNow(),
+                    CHECK_INTERVAL_MS, PROBE_INTERVAL_MS, FIRST_RETRY_MS);
+        }
+        return instance;
+    }
+
+    PrinterSupervisor(PrinterConnection connection, Runnable onReconnected,
+                      long checkIntervalMs, long probeIntervalMs, long firstRetryMs) {
+        this.connection = connection;
+        this.onReconnected = onReconnected;
+        this.checkIntervalMs = checkIntervalMs;
+        this.probeIntervalMs = probeIntervalMs;
+        this.firstRetryMs = firstRetryMs;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "printer-supervisor");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** Starts supervising, connecting first if needed. Does nothing if already started. */
+    public synchronized void start() {
+        if (state != State.STOPPED) return;
+        state = State.CONNECTING;
+        schedule(0);
+    }
+
+    /** Skips the backoff of a link that is down, e.g. after the printer was switched on. */
+    public synchronized void reconnectNow() {
+        if (state == State.STOPPED) {
+            start();
+        } else if (state != State.CONNECTED) {
+            failedAttempts = 0;
+            schedule(0);
+        }
+    }
+
+    public synchronized Status status() {
+        long now = System.currentTimeMillis();
+        return new Status(state,
+                state == State.CONNECTED ? now - connectedSince : 0,
+                connects, reconnects, drops, probes, probeFailures, connectFailures,
+                lastProbeAt == 0 ? -1 : now - lastProbeAt,
+                lastError);
+    }
+
+    /** Stops the thread. For tests. */
+    void stop() throws InterruptedException {
+        synchronized (this) {
+            state = State.STOPPED;
+            if (next != null) next.cancel(false);
+        }
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    // Guarded by this
+    private void schedule(long delayMs) {
+        if (next != null) next.cancel(false);
+        next = executor.schedule(this::check, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void check() {
+        // Waits while the spooler is writing; not under our lock
+        boolean open = connection.isConnected();
+        boolean probe;
+        synchronized (this) {
+            if (state == State.STOPPED) return;
+            if (open) {
+                probe = System.currentTimeMillis() - verifiedAt >= probeIntervalMs;
+                if (!probe) {
+                    // Connected by someone else, e.g. the spooler's own retry
+                    if (state != State.CONNECTED) connected(System.currentTimeMillis(), false);
+                    schedule(checkIntervalMs);
+                    return;
+                }
+            } else {
+                probe = false;
+                if (state == State.CONNECTED) {
+                    drops++;
+                    failedAttempts = 0;
+                }
+                state = State.CONNECTING;
+            }
+        }
+
+        // Blocking Bluetooth calls; never under the lock
+        if (probe) {
+            probe();
+        } else {
+            connect();
+        }
+    }
+
+    private void probe() {
+        IOException error = null;
+        try {
+            connection.probe();
+        } catch (IOException e) {
+            error = e;
+        }
+        if (error != null) connection.disconnect();
+
+        synchronized (this) {
+            if (state == State.STOPPED) return;
+            long now = System.currentTimeMillis();
+            probes++;
+            lastProbeAt = now;
+            if (error == null) {
+                verifiedAt = now;
+                if (state != State.CONNECTED) connected(now, false);
+                schedule(checkIntervalMs);
+            } else {
+                probeFailures++;
+                if (state == State.CONNECTED) drops++;
+                lastError = error.toString();
+                state = State.DISCONNECTED;
+                failedAttempts = 0;
+                schedule(0);
+            }
+        }
+    }
+
+    private void connect() {
+        IOException error = null;
+        try {
+            connection.connect();
+        } catch (IOException e) {
+            error = e;
+        }
+
+        boolean reconnected;
+        synchronized (this) {
+            if (state == State.STOPPED) return;
+            long now = System.currentTimeMillis();
+            if (error == null) {
+                reconnected = everConnected;
+                connected(now, true);
+                schedule(checkIntervalMs);
+            } else {
+                reconnected = false;
+                connectFailures++;
+                failedAttempts++;
+                lastError = error.toString();
+                state = State.DISCONNECTED;
+                schedule(backoff(failedAttempts));
+            }
+        }
+        if (reconnected) onReconnected.run();
+    }
+
+    // Guarded by this
+    private void connected(long now, boolean byUs) {
+        if (byUs) {
+            connects++;
+            if (everConnected) reconnects++;
+        }
+        everConnected = true;
+        state = State.CONNECTED;
+        connectedSince = now;
+        // The link was just opened; no need to probe it straight away
+        verifiedAt = now;
+        failedAttempts = 0;
+    }
+
+    private long backoff(int attempts) {
+        return Math.min(MAX_RETRY_MS, firstRetryMs << Math.min(attempts - 1, 16));
+    }
+
+    public static final class Status {
+        public final State state;
+        public final long connectedForMs;
+        public final long connects;
+        public final long reconnects;
+        public final long drops;
+        public final long probes;
+        public final long probeFailures;
+        public final long connectFailures;
+        // -1 before the first probe
+        public final long lastProbeAgoMs;
+        public final String lastError;
+
+        Status(State state, long connectedForMs, long connects, long reconnects, long drops,
+               long probes, long probeFailures, long connectFailures, long lastProbeAgoMs,
+               String lastError) {
+            this.state = state;
+            this.connectedForMs = connectedForMs;
+            this.connects = connects;
+            this.reconnects = reconnects;
+            this.drops = drops;
+            this.probes = probes;
+            this.probeFailures = probeFailures;
+            this.connectFailures = connectFailures;
+            this.lastProbeAgoMs = lastProbeAgoMs;
+            this.lastError = lastError;
+        }
+    }
+}
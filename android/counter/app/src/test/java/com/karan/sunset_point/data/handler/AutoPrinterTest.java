@@ -0,0 +1,87 @@
+package com.karan.sunset_point.data.handler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class AutoPrinterTest {
+
+    @Test
+    public void ordersInOneWindowPrintTogether() throws Exception {
+        Batches batches = new Batches();
+        AutoPrinter auto = new AutoPrinter(batches, 100);
+        try {
+            auto.orderCreated(1);
+            auto.setEnabled(true);
+            auto.orderCreated(2);
+            auto.orderCreated(3);
+            auto.orderCreated(3);
+            batches.await(1);
+
+            auto.orderCreated(4);
+            batches.await(2);
+
+            assertEquals(Arrays.asList(Arrays.asList(2, 3), Arrays.asList(4)), batches.printed());
+            AutoPrinter.Stats stats = auto.stats();
+            assertEquals(2, stats.batches);
+            assertEquals(3, stats.orders);
+            assertEquals(0, stats.pending);
+        } finally {
+            auto.shutdown();
+        }
+    }
+
+    @Test
+    public void fullBatchDoesNotWaitAndOffDropsPending() throws Exception {
+        Batches batches = new Batches();
+        AutoPrinter auto = new AutoPrinter(batches, 60_000);
+        try {
+            auto.setEnabled(true);
+            List<Integer> rush = new ArrayList<>();
+            for (int orderId = 1; orderId <= AutoPrinter.MAX_BATCH; orderId++) {
+                auto.orderCreated(orderId);
+                rush.add(orderId);
+            }
+            batches.await(1);
+            assertEquals(rush, batches.printed().get(0));
+
+            auto.orderCreated(100);
+            assertEquals(1, auto.stats().pending);
+            auto.setEnabled(false);
+            assertEquals(0, auto.stats().pending);
+            auto.orderCreated(101);
+            assertEquals(0, auto.stats().pending);
+            assertEquals(1, batches.printed().size());
+        } finally {
+            auto.shutdown();
+        }
+    }
+
+    private static final class Batches implements AutoPrinter.Batch {
+        private final List<List<Integer>> printed = new ArrayList<>();
+
+        @Override
+        public synchronized void print(List<Integer> orderIds) {
+            printed.add(orderIds);
+            notifyAll();
+        }
+
+        synchronized List<List<Integer>> printed() {
+            return new ArrayList<>(printed);
+        }
+
+        synchronized void await(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (printed.size() < count) {
+                long left = deadline - System.currentTimeMillis();
+                assertTrue("timed out waiting for " + count + " batches", left > 0);
+                wait(left);
+            }
+        }
+    }
+}
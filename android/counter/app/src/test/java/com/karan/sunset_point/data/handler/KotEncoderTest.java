@@ -0,0 +1,137 @@
+package com.karan.sunset_point.data.handler;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.karan.sunset_point.data.Responses.OrderItemResponse;
+import com.karan.sunset_point.data.Responses.OrderResponse;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class KotEncoderTest {
+
+    @Test
+    public void ticketMatchesFormattedText() {
+        KotEncoder encoder = new KotEncoder();
+        for (OrderResponse order : Arrays.asList(
+                order(7, "T4", "2026-10-18 19:42:05",
+                        item(2, "Masala Chai", "PENDING"),
+                        item(1, "Veg Sandwich", "CANCELLED"),
+                        item(12, "Cold Coffee", "SERVED")),
+                order(1234567, null, null, item(0, "Water", "PENDING")),
+                order(8, "", "bad", new OrderItemResponse[0]),
+                addOn(order(7, "T4", null, item(1, "Samosa", "PENDING")), 3))) {
+
+            byte[] markup = KotMarkup.render(KotFormatter.formatKotDantsu(order));
+            byte[] encoded = encoder.encodeToArray(order);
+
+            assertEquals(lines(markup), lines(encoded));
+            assertArrayEquals(Arrays.copyOf(markup, 5), Arrays.copyOf(encoded, 5));
+            assertArrayEquals(Arrays.copyOfRange(markup, markup.length - 3, markup.length),
+                    Arrays.copyOfRange(encoded, encoded.length - 3, encoded.length));
+            assertTrue(encoded.length < markup.length);
+        }
+    }
+
+    @Test
+    public void addOnTicketsAreNumbered() {
+        KotEncoder encoder = new KotEncoder();
+        OrderResponse order = order(7, "T4", null, item(1, "Samosa", "PENDING"));
+        assertEquals("KOT", lines(encoder.encodeToArray(addOn(order, 1))).get(1).trim());
+        assertEquals("ADD-ON KOT #2", lines(encoder.encodeToArray(addOn(order, 2))).get(1).trim());
+        // The shared header is untouched
+        assertEquals("KOT", lines(encoder.encodeToArray(addOn(order, 0))).get(1).trim());
+    }
+
+    @Test
+    public void wholeOrderReprintIsNotAnAddOn() {
+        KotEncoder encoder = new KotEncoder();
+        // Printed as KOT 1, then a Samosa was added and the whole order reprinted
+        OrderResponse order = order(7, "T4", null, item(1, "Tea", "PENDING"), item(1, "Samosa", "PENDING"));
+        order.kotSeq = 2;
+        List<String> lines = lines(encoder.encodeToArray(order));
+        assertEquals("KOT", lines.get(1).trim());
+        assertEquals("KOT", KotFormatter.title(order));
+    }
+
+    @Test
+    public void longNamesWrapUnderTheNameColumn() {
+        OrderResponse order = order(3, "A very long table tag for the garden", null,
+                item(1, "Paneer Tikka Butter Masala With Extra Gravy", "PENDING"),
+                item(250, "Samosa", "PENDING"));
+        List<String> lines = lines(new KotEncoder().encodeToArray(order));
+
+        assertTrue(lines.contains("Tag   : A very long table tag fo"));
+        assertTrue(lines.contains("r the garden"));
+        assertTrue(lines.contains("1    Paneer Tikka Butter Masala"));
+        assertTrue(lines.contains("     With Extra Gravy"));
+        assertTrue(lines.contains("250  Samosa"));
+        assertTrue(lines.contains("Total Items : 251"));
+        for (String line : lines) {
+            assertTrue(line, line.length() <= KotEncoder.LINE_WIDTH);
+        }
+    }
+
+    @Test
+    public void bufferIsReusedAndGrows() {
+        KotEncoder encoder = new KotEncoder();
+        OrderItemResponse[] items = new OrderItemResponse[200];
+        for (int i = 0; i < items.length; i++) items[i] = item(i % 3 + 1, "Dish " + i, "PENDING");
+        OrderResponse big = order(1, "T1", null, items);
+        OrderResponse small = order(2, "T2", null, item(1, "Tea", "PENDING"));
+
+        byte[] first = encoder.encodeToArray(big);
+        byte[] second = encoder.encodeToArray(big);
+        assertArrayEquals(first, second);
+
+        ByteBuffer a = encoder.encode(small);
+        int length = a.remaining();
+        ByteBuffer b = encoder.encode(small);
+        assertTrue(a == b);
+        assertEquals(length, b.remaining());
+        assertEquals(lines(KotMarkup.render(KotFormatter.formatKotDantsu(small))),
+                lines(encoder.encodeToArray(small)));
+    }
+
+    /** The printed lines, right-trimmed, between the init and the feed. */
+    private static List<String> lines(byte[] ticket) {
+        String text = new String(ticket, 5, ticket.length - 8, KotEncoder.CHARSET);
+        assertTrue(text.endsWith("\n"));
+        List<String> lines = new ArrayList<>();
+        for (String line : text.substring(0, text.length() - 1).split("\n", -1)) {
+            int end = line.length();
+            while (end > 0 && line.charAt(end - 1) == ' ') end--;
+            lines.add(line.substring(0, end));
+        }
+        return lines;
+    }
+
+    private static OrderResponse order(int id, String tag, String createdAt, OrderItemResponse... items) {
+        OrderResponse order = new OrderResponse();
+        order.id = id;
+        order.tag = tag;
+        order.createdAt = createdAt;
+        order.items = new ArrayList<>(Arrays.asList(items));
+        return order;
+    }
+
+    private static OrderResponse addOn(OrderResponse order, int kotSeq) {
+        order.kotSeq = kotSeq;
+        order.addOn = true;
+        return order;
+    }
+
+    private static OrderItemResponse item(int quantity, String name, String status) {
+        OrderItemResponse item = new OrderItemResponse();
+        item.quantity = quantity;
+        item.name = name;
+        item.status = status;
+        return item;
+    }
+}
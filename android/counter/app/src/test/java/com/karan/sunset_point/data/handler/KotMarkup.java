@@ -0,0 +1,47 @@
+package com.karan.sunset_point.data.handler;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * What EscPosPrinter.printFormattedText sends for {@link KotFormatter}'s
+ * markup, short of its per-line style commands: every line parsed and padded
+ * to the full width, then the 20 mm feed. The baseline {@link KotEncoder} is
+ * measured against.
+ */
+public final class KotMarkup {
+
+    private KotMarkup() {}
+
+    public static byte[] render(String markup) {
+        int width = KotEncoder.LINE_WIDTH;
+        ByteArrayOutputStream out = new ByteArrayOutputStream(markup.length() * 2);
+        out.write(0x1B);
+        out.write('@');
+        out.write(0x1B);
+        out.write('t');
+        out.write(16);
+
+        for (String line : markup.split("\n", -1)) {
+            char align = 'L';
+            if (line.length() >= 3 && line.charAt(0) == '[' && line.charAt(2) == ']') {
+                align = line.charAt(1);
+                line = line.substring(3);
+            }
+            int pad = Math.max(0, width - line.length());
+            int left = align == 'R' ? pad : align == 'C' ? pad / 2 : 0;
+
+            StringBuilder sb = new StringBuilder(width);
+            for (int i = 0; i < left; i++) sb.append(' ');
+            sb.append(line);
+            while (sb.length() < width) sb.append(' ');
+            byte[] bytes = sb.toString().getBytes(KotEncoder.CHARSET);
+            out.write(bytes, 0, bytes.length);
+            out.write('\n');
+        }
+
+        out.write(0x1B);
+        out.write('J');
+        out.write(160);
+        return out.toByteArray();
+    }
+}
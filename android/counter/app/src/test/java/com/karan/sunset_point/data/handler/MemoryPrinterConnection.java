@@ -0,0 +1,94 @@
+package com.karan.sunset_point.data.handler;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * A printer that keeps what it is sent; can be told to fail, to stall, to
+ * refuse connections or to drop the link while it still looks open.
+ */
+public final class MemoryPrinterConnection implements PrinterConnection {
+
+    public final CountDownLatch started = new CountDownLatch(1);
+    public volatile CountDownLatch hold;
+    public volatile int failures;
+    public volatile int connectFailures;
+    // The printer went away; the link looks open but every write fails
+    public volatile boolean dropped;
+    public volatile int probes;
+    public volatile int connects;
+    public volatile int disconnects;
+    public long bytesWritten;
+
+    private final List<byte[]> writes = new ArrayList<>();
+    private volatile boolean connected;
+
+    @Override
+    public void connect() throws IOException {
+        if (connected) return;
+        if (connectFailures > 0) {
+            connectFailures--;
+            throw new IOException("printer not found");
+        }
+        connects++;
+        dropped = false;
+        connected = true;
+    }
+
+    @Override
+    public void probe() throws IOException {
+        probes++;
+        if (!connected || dropped) throw new IOException("link lost");
+    }
+
+    @Override
+    public boolean isConnected() {
+        return connected;
+    }
+
+    @Override
+    public void write(byte[] data, int offset, int length) throws IOException {
+        started.countDown();
+        if (!connected || dropped) throw new IOException("not connected");
+        CountDownLatch h = hold;
+        if (h != null) {
+            try {
+                h.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+        }
+        if (failures > 0) {
+            failures--;
+            throw new IOException("paper out");
+        }
+        synchronized (writes) {
+            byte[] copy = new byte[length];
+            System.arraycopy(data, offset, copy, 0, length);
+            writes.add(copy);
+            bytesWritten += length;
+        }
+    }
+
+    @Override
+    public void disconnect() {
+        disconnects++;
+        connected = false;
+    }
+
+    public List<byte[]> writes() {
+        synchronized (writes) {
+            return new ArrayList<>(writes);
+        }
+    }
+
+    /** Each write as text, for tickets written as plain ASCII. */
+    public List<String> written() {
+        List<String> text = new ArrayList<>();
+        for (byte[] w : writes()) text.add(new String(w, StandardCharsets.ISO_8859_1));
+        return text;
+    }
+}
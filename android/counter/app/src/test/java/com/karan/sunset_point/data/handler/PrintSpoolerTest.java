@@ -0,0 +1,238 @@
+package com.karan.sunset_point.data.handler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class PrintSpoolerTest {
+
+    @Rule
+    public TemporaryFolder dir = new TemporaryFolder();
+
+    @Test
+    public void failedWriteIsRetriedBeforeLaterTickets() throws Exception {
+        MemoryPrinterConnection printer = new MemoryPrinterConnection();
+        printer.failures = 2;
+        PrintSpooler spooler = new PrintSpooler(journal(), printer, 5);
+        try {
+            Map<Integer, byte[]> tickets = new LinkedHashMap<>();
+            tickets.put(1, bytes("kot 1"));
+            tickets.put(2, bytes("kot 2"));
+            tickets.put(3, bytes("kot 3"));
+            spooler.submitAll(tickets);
+            awaitPrinted(spooler, 3);
+
+            // Queued together, so one write
+            assertEquals(Collections.singletonList("kot 1kot 2kot 3"), printer.written());
+            assertEquals(2, printer.disconnects);
+            assertEquals(3, printer.connects);
+
+            PrintSpooler.Stats stats = spooler.stats();
+            assertEquals(0, stats.backlog);
+            assertEquals(3, stats.submitted);
+            assertEquals(3, stats.printed);
+            assertEquals(1, stats.writes);
+            assertEquals(2, stats.failures);
+            assertEquals(3, stats.printedLastMinute);
+            assertTrue(stats.lastError.contains("paper out"));
+            for (PrintSpooler.JobState job : spooler.jobs()) {
+                assertEquals(3, job.attempts);
+            }
+        } finally {
+            spooler.shutdown();
+        }
+    }
+
+    @Test
+    public void waitingTicketsShareAWrite() throws Exception {
+        MemoryPrinterConnection printer = new MemoryPrinterConnection();
+        printer.hold = new CountDownLatch(1);
+        PrintSpooler spooler = new PrintSpooler(journal(), printer, 5);
+        try {
+            spooler.submit(0, bytes("kot 0"));
+            printer.started.await(5, TimeUnit.SECONDS);
+
+            // A rush while the printer is busy
+            int count = PrintSpooler.MAX_BATCH_JOBS + 2;
+            for (int orderId = 1; orderId <= count; orderId++) {
+                spooler.submit(orderId, bytes("kot " + orderId));
+            }
+            printer.hold.countDown();
+            awaitPrinted(spooler, count + 1);
+
+            List<String> written = printer.written();
+            assertEquals(3, written.size());
+            assertEquals("kot 0", written.get(0));
+            assertTrue(written.get(1).startsWith("kot 1kot 2"));
+            assertEquals("kot 11kot 12", written.get(2));
+            assertEquals(3, spooler.stats().writes);
+        } finally {
+            spooler.shutdown();
+        }
+    }
+
+    @Test
+    public void sameOrderIsPrintedOnce() throws Exception {
+        MemoryPrinterConnection printer = new MemoryPrinterConnection();
+        printer.hold = new CountDownLatch(1);
+        PrintSpooler spooler = new PrintSpooler(journal(), printer, 5);
+        try {
+            spooler.submit(1, bytes("kot 1"));
+            printer.started.await(5, TimeUnit.SECONDS);
+
+            // Order 1 is on the printer, order 2 waits behind it
+            assertEquals(PrintSpooler.Status.PRINTING, spooler.submit(1, bytes("kot 1")).status);
+            long waiting = spooler.submit(2, bytes("kot 2")).id;
+            assertEquals(waiting, spooler.submit(2, bytes("kot 2 + tea")).id);
+
+            printer.hold.countDown();
+            awaitPrinted(spooler, 2);
+            assertEquals(Arrays.asList("kot 1", "kot 2 + tea"), printer.written());
+
+            // A second tap right after printing is the same ticket; new items are not
+            assertEquals(PrintSpooler.Status.PRINTED, spooler.submit(2, bytes("kot 2 + tea")).status);
+            spooler.submit(2, bytes("kot 2 + tea + fries"));
+            awaitPrinted(spooler, 3);
+            assertEquals("kot 2 + tea + fries", printer.written().get(2));
+            assertEquals(3, spooler.stats().deduplicated);
+        } finally {
+            spooler.shutdown();
+        }
+    }
+
+    @Test
+    public void addOnTicketsAreNeverDropped() throws Exception {
+        MemoryPrinterConnection printer = new MemoryPrinterConnection();
+        printer.hold = new CountDownLatch(1);
+        PrintSpooler spooler = new PrintSpooler(journal(), printer, 5);
+        try {
+            spooler.submit(1, bytes("kot 1"));
+            printer.started.await(5, TimeUnit.SECONDS);
+
+            // Order 2's add-on goes in the job of its waiting ticket; order
+            // 1's is a job of its own, since its ticket is on the printer
+            long waiting = spooler.submit(2, bytes("kot 2")).id;
+            assertEquals(PrintSpooler.Status.QUEUED,
+                    addOn(spooler, 1, "add-on 1").status);
+            assertEquals(waiting, addOn(spooler, 2, "add-on 2").id);
+
+            printer.hold.countDown();
+            awaitPrinted(spooler, 3);
+            assertEquals(Arrays.asList("kot 1", "kot 2add-on 2add-on 1"), printer.written());
+
+            // The same add-on bytes again are new items, not a double tap
+            addOn(spooler, 2, "add-on 2");
+            awaitPrinted(spooler, 4);
+            assertEquals("add-on 2", printer.written().get(2));
+        } finally {
+            spooler.shutdown();
+        }
+    }
+
+    @Test
+    public void queuedTicketsSurviveARestart() throws Exception {
+        File journal = journal();
+        MemoryPrinterConnection offline = new MemoryPrinterConnection();
+        offline.failures = Integer.MAX_VALUE;
+        PrintSpooler spooler = new PrintSpooler(journal, offline, 60_000);
+        spooler.submit(1, bytes("kot 1"));
+        spooler.submit(2, bytes("kot 2"));
+        spooler.submit(3, bytes("kot 3\nwith a second line"));
+        spooler.submit(2, bytes("kot 2 + tea"));
+        assertTrue(spooler.cancel(1));
+        assertFalse(spooler.cancel(1));
+        spooler.shutdown();
+
+        // Killed while writing the next job
+        try (FileWriter w = new FileWriter(journal, true)) {
+            w.write("Q 9 9 0 a290IDk");
+        }
+
+        MemoryPrinterConnection printer = new MemoryPrinterConnection();
+        spooler = new PrintSpooler(journal, printer, 5);
+        try {
+            awaitPrinted(spooler, 2);
+            assertEquals("kot 2 + teakot 3\nwith a second line", String.join("", printer.written()));
+            // New ids continue after the replayed ones
+            assertEquals(4, spooler.submit(4, bytes("kot 4")).id);
+            awaitPrinted(spooler, 3);
+        } finally {
+            spooler.shutdown();
+        }
+
+        spooler = new PrintSpooler(journal, new MemoryPrinterConnection(), 5);
+        try {
+            assertEquals(0, spooler.stats().backlog);
+        } finally {
+            spooler.shutdown();
+        }
+    }
+
+    @Test
+    public void droppedTicketsGiveTheirKotBack() throws Exception {
+        File journal = journal();
+        List<String> released = new ArrayList<>();
+        PrintSpooler.KotClaims claims =
+                (orderId, kotSeqs) -> released.add(orderId + ":" + Arrays.toString(kotSeqs));
+        MemoryPrinterConnection offline = new MemoryPrinterConnection();
+        offline.failures = Integer.MAX_VALUE;
+        PrintSpooler spooler = new PrintSpooler(journal, offline, 60_000, claims);
+        spooler.submitAll(Collections.singletonMap(1, bytes("add-on 1")), Collections.singletonMap(1, 2), true);
+        spooler.submitAll(Collections.singletonMap(1, bytes("add-on 1b")), Collections.singletonMap(1, 3), true);
+        spooler.submitAll(Collections.singletonMap(2, bytes("kot 2")), Collections.singletonMap(2, 1), false);
+        assertTrue(spooler.cancel(1));
+        assertEquals(Collections.singletonList("1:[2, 3]"), released);
+        spooler.shutdown();
+
+        // Left over from a day ago, claimed under KOT 4
+        try (FileWriter w = new FileWriter(journal, true)) {
+            w.write("Q 9 5 0 a290IDU 4\n");
+        }
+
+        MemoryPrinterConnection printer = new MemoryPrinterConnection();
+        spooler = new PrintSpooler(journal, printer, 5, claims);
+        try {
+            awaitPrinted(spooler, 1);
+            assertEquals(Collections.singletonList("kot 2"), printer.written());
+            assertEquals(Arrays.asList("1:[2, 3]", "5:[4]"), released);
+        } finally {
+            spooler.shutdown();
+        }
+    }
+
+    private File journal() throws Exception {
+        return new File(dir.getRoot(), PrintSpooler.JOURNAL_FILE);
+    }
+
+    private static PrintSpooler.JobState addOn(PrintSpooler spooler, int orderId, String ticket) {
+        return spooler.submitAll(Collections.singletonMap(orderId, bytes(ticket)), true).get(0);
+    }
+
+    private static void awaitPrinted(PrintSpooler spooler, int count) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (spooler.stats().printed < count) {
+            assertTrue("timed out waiting for " + count + " prints", System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private static byte[] bytes(String ticket) {
+        return ticket.getBytes(StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,96 @@
+package com.karan.sunset_point.data.handler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+public class PrinterSupervisorTest {
+
+    @Test
+    public void droppedLinkIsFoundByProbeAndReconnected() throws Exception {
+        MemoryPrinterConnection printer = new MemoryPrinterConnection();
+        AtomicInteger retries = new AtomicInteger();
+        PrinterSupervisor supervisor = new PrinterSupervisor(printer, retries::incrementAndGet, 5, 20, 5);
+        try {
+            supervisor.start();
+            await(() -> supervisor.status().state == PrinterSupervisor.State.CONNECTED);
+            await(() -> supervisor.status().probes >= 2);
+            assertEquals(1, supervisor.status().connects);
+            assertEquals(0, retries.get());
+
+            // Looks open, but the printer is gone
+            printer.dropped = true;
+            await(() -> supervisor.status().reconnects == 1);
+
+            PrinterSupervisor.Status status = supervisor.status();
+            assertEquals(PrinterSupervisor.State.CONNECTED, status.state);
+            assertEquals(2, status.connects);
+            assertEquals(1, status.drops);
+            assertEquals(1, status.probeFailures);
+            assertTrue(status.lastError.contains("link lost"));
+            assertEquals(1, retries.get());
+            assertEquals(2, printer.connects);
+        } finally {
+            supervisor.stop();
+        }
+    }
+
+    @Test
+    public void printerThatIsOffIsRetriedWithBackoff() throws Exception {
+        MemoryPrinterConnection printer = new MemoryPrinterConnection();
+        AtomicInteger retries = new AtomicInteger();
+        PrinterSupervisor supervisor = new PrinterSupervisor(printer, retries::incrementAndGet, 5, 60_000, 5);
+        try {
+            supervisor.start();
+            await(() -> supervisor.status().state == PrinterSupervisor.State.CONNECTED);
+
+            // A failed print closes the link; the printer is off for a while
+            printer.connectFailures = 3;
+            printer.disconnect();
+            await(() -> supervisor.status().reconnects == 1);
+
+            PrinterSupervisor.Status status = supervisor.status();
+            assertEquals(1, status.drops);
+            assertEquals(3, status.connectFailures);
+            assertEquals(0, status.probes);
+            assertTrue(status.lastError.contains("printer not found"));
+            assertEquals(1, retries.get());
+        } finally {
+            supervisor.stop();
+        }
+    }
+
+    @Test
+    public void reconnectNowSkipsTheBackoff() throws Exception {
+        MemoryPrinterConnection printer = new MemoryPrinterConnection();
+        printer.connectFailures = 2;
+        PrinterSupervisor supervisor = new PrinterSupervisor(printer, () -> {}, 5, 60_000, 60_000);
+        try {
+            supervisor.start();
+            await(() -> supervisor.status().connectFailures == 1);
+            assertEquals(PrinterSupervisor.State.DISCONNECTED, supervisor.status().state);
+
+            // The next attempt is a minute away; the second one fails too
+            supervisor.reconnectNow();
+            await(() -> supervisor.status().connectFailures == 2);
+            supervisor.reconnectNow();
+            await(() -> supervisor.status().state == PrinterSupervisor.State.CONNECTED);
+            assertEquals(1, supervisor.status().connects);
+            assertEquals(0, supervisor.status().reconnects);
+        } finally {
+            supervisor.stop();
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue("timed out", System.currentTimeMillis() < deadline);
+            Thread.sleep(2);
+        }
+    }
+}
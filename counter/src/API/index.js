@@ -9,6 +9,20 @@ window.__nativeResolve = function (id, response) {
   }
 };
 
+// Events the native side pushes without a request, e.g. "ordersChanged".
+const nativeListeners = {};
+window.__nativeEvent = function (event) {
+  const parsed = JSON.parse(event);
+  (nativeListeners[parsed.type] || []).forEach((listener) => listener(parsed));
+};
+
+export function onNativeEvent(type, listener) {
+  nativeListeners[type] = [...(nativeListeners[type] || []), listener];
+  return () => {
+    nativeListeners[type] = nativeListeners[type].filter((l) => l !== listener);
+  };
+}
+
 
 const apiClient = axios.create({
   baseURL: 'http://localhost:3000',
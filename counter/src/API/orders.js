@@ -15,7 +15,7 @@ async function getOrders_w() {
   return response.data;
 }
 
-async function getOrders_a() {
+async function getAllOrders_a() {
   let result = await (new Promise((resolve) => {
     const id = crypto?.randomUUID ? crypto.randomUUID() : uuid();
     window.__nativePromises[id] = resolve;
@@ -26,6 +26,49 @@ async function getOrders_a() {
   return result;
 }
 
+// Orders seen so far, kept in sync through the provider's change log.
+const orderSync = { seq: 0, day: null, byId: new Map() };
+
+function compareOrders(a, b) {
+  if (a.createdAt !== b.createdAt) return a.createdAt < b.createdAt ? -1 : 1;
+  return a.id - b.id;
+}
+
+async function getOrders_a() {
+  if (!window.NativeApi.getOrdersSince) {
+    return getAllOrders_a();
+  }
+
+  const delta = await (new Promise((resolve) => {
+    const id = crypto?.randomUUID ? crypto.randomUUID() : uuid();
+    window.__nativePromises[id] = resolve;
+    window.NativeApi.getOrdersSince(
+      id,
+      String(orderSync.seq),
+      // The admin app sends the full list once its day has moved on
+      orderSync.day || ""
+    );
+  }));
+
+  if (!delta || delta.seq === undefined) {
+    return getAllOrders_a();
+  }
+
+  if (delta.full) {
+    orderSync.byId = new Map();
+  }
+  for (const order of delta.orders) {
+    orderSync.byId.set(order.id, order);
+  }
+  for (const id of delta.removed) {
+    orderSync.byId.delete(id);
+  }
+  orderSync.seq = delta.seq;
+  orderSync.day = delta.day || null;
+
+  return Array.from(orderSync.byId.values()).sort(compareOrders);
+}
+
 let createOrder;
 
 async function createOrder_a(order) {
@@ -16,8 +16,9 @@ async function connect_a() {
     }))
 }
 
+// Resolves with the queued print job ({id, orderId, status, ...}) or null
 async function printOrder_a(orderId) {
-    await (new Promise((resolve)=>{
+    return await (new Promise((resolve)=>{
         const id = crypto?.randomUUID ? crypto.randomUUID() : uuid();
         window.__nativePromises[id] = resolve;
         window.PrinterNativeApi.printOrder(
@@ -27,5 +28,86 @@ async function printOrder_a(orderId) {
     }));
 }
 
+// Prints only the items added since the order's last KOT; resolves with the
+// job, {orderId, status: "NOTHING_NEW"} or null. printOrder reprints it all
+async function printOrderDelta_a(orderId) {
+    return await (new Promise((resolve)=>{
+        const id = crypto?.randomUUID ? crypto.randomUUID() : uuid();
+        window.__nativePromises[id] = resolve;
+        window.PrinterNativeApi.printOrderDelta(id, orderId);
+    }));
+}
+
+// Prints several orders' KOTs in one printer write; resolves with their jobs or null
+async function printOrders_a(orderIds) {
+    return await (new Promise((resolve)=>{
+        const id = crypto?.randomUUID ? crypto.randomUUID() : uuid();
+        window.__nativePromises[id] = resolve;
+        window.PrinterNativeApi.printOrders(id, JSON.stringify(orderIds));
+    }));
+}
+
+// Orders created at this counter are printed in batches while on; off after a restart
+async function setAutoPrint_a(enabled) {
+    return await (new Promise((resolve)=>{
+        const id = crypto?.randomUUID ? crypto.randomUUID() : uuid();
+        window.__nativePromises[id] = resolve;
+        window.PrinterNativeApi.setAutoPrint(id, String(!!enabled));
+    }));
+}
+
+// {state: "CONNECTED" | "CONNECTING" | "DISCONNECTED" | "STOPPED", reconnects, drops, ...}
+async function getPrinterStatus_a() {
+    return await (new Promise((resolve)=>{
+        const id = crypto?.randomUUID ? crypto.randomUUID() : uuid();
+        window.__nativePromises[id] = resolve;
+        window.PrinterNativeApi.getPrinterStatus(id);
+    }));
+}
+
+async function reconnectPrinter_a() {
+    return await (new Promise((resolve)=>{
+        const id = crypto?.randomUUID ? crypto.randomUUID() : uuid();
+        window.__nativePromises[id] = resolve;
+        window.PrinterNativeApi.reconnectPrinter(id);
+    }));
+}
+
+// {stats: {backlog, printedLastMinute, ...}, printer: {state, ...}, autoPrint: {enabled, ...}, jobs: [...]}
+async function getPrintQueue_a() {
+    return await (new Promise((resolve)=>{
+        const id = crypto?.randomUUID ? crypto.randomUUID() : uuid();
+        window.__nativePromises[id] = resolve;
+        window.PrinterNativeApi.getPrintQueue(id);
+    }));
+}
+
+async function cancelPrintJob_a(orderId) {
+    return await (new Promise((resolve)=>{
+        const id = crypto?.randomUUID ? crypto.randomUUID() : uuid();
+        window.__nativePromises[id] = resolve;
+        window.PrinterNativeApi.cancelPrintJob(id, orderId);
+    }));
+}
+
+async function retryPrintQueue_a() {
+    return await (new Promise((resolve)=>{
+        const id = crypto?.randomUUID ? crypto.randomUUID() : uuid();
+        window.__nativePromises[id] = resolve;
+        window.PrinterNativeApi.retryPrintQueue(id);
+    }));
+}
+
 
-export { connect_a as connectPrinter, printOrder_a as printOrder };
\ No newline at end of file
+export {
+    connect_a as connectPrinter,
+    printOrder_a as printOrder,
+    printOrderDelta_a as printOrderDelta,
+    printOrders_a as printOrders,
+    setAutoPrint_a as setAutoPrint,
+    getPrintQueue_a as getPrintQueue,
+    cancelPrintJob_a as cancelPrintJob,
+    retryPrintQueue_a as retryPrintQueue,
+    getPrinterStatus_a as getPrinterStatus,
+    reconnectPrinter_a as reconnectPrinter
+};
\ No newline at end of file
@@ -7,11 +7,12 @@ import {
   Printer,
   AlertCircle,
   Loader2, // Imported Loader
+  ChefHat,
 } from "lucide-react";
 import OrderItemsList from "./OrderItemsList";
 import dayjs from "dayjs";
 import { useState } from "react";
-import { printOrder } from "../API/printer";
+import { printOrder, printOrderDelta } from "../API/printer";
 
 function OrderCard({
   order,
@@ -42,6 +43,11 @@ function OrderCard({
     printOrder(order.id);
   };
 
+  // KOT of only the items added since the last one
+  const handleKotPrint = async () => {
+    printOrderDelta(order.id);
+  };
+
   const handleCancel = async () => {
     setIsCancelling(true);
     onCancelOrder(async () => {
@@ -91,14 +97,26 @@ function OrderCard({
         </div>
 
         {/* Top Actions (Print) */}
-        <button
-          className="p-2.5 text-gray-400 hover:text-gray-600 hover:bg-gray-100 rounded-lg transition-colors cursor-pointer"
-          title="Print Receipt"
-          onClick={handleOrderPrint}
-          disabled={isBusy}
-        >
-          <Printer size={20} />
-        </button>
+        <div className="flex items-center gap-1">
+          {!isClosed && (
+            <button
+              className="p-2.5 text-gray-400 hover:text-gray-600 hover:bg-gray-100 rounded-lg transition-colors cursor-pointer"
+              title="Print KOT of New Items"
+              onClick={handleKotPrint}
+              disabled={isBusy}
+            >
+              <ChefHat size={20} />
+            </button>
+          )}
+          <button
+            className="p-2.5 text-gray-400 hover:text-gray-600 hover:bg-gray-100 rounded-lg transition-colors cursor-pointer"
+            title="Print Receipt"
+            onClick={handleOrderPrint}
+            disabled={isBusy}
+          >
+            <Printer size={20} />
+          </button>
+        </div>
       </div>
 
       {/* --- Scrollable Content: Items List --- */}
@@ -10,6 +10,7 @@ import {
   toggleOrderPayment,
   cancelOrder,
 } from "../API/orders.js";
+import { printOrders, setAutoPrint, getPrintQueue } from "../API/printer.js";
 import {
   Plus,
   Search,
@@ -23,8 +24,12 @@ import {
   AlertCircle,
   Utensils,
   Hourglass, // Added Hourglass for warning stage
+  Printer,
+  Square,
+  SquareCheck,
 } from "lucide-react";
 import dayjs from "dayjs";
+import { onNativeEvent } from "../API/index.js";
 
 function OrdersPage() {
   const [orders, setOrders] = useState([]);
@@ -34,6 +39,13 @@ function OrdersPage() {
   const [selectedOrderId, setSelectedOrderId] = useState(null);
   const [isSidebarOpen, setIsSidebarOpen] = useState(false);
 
+  // --- Printing ---
+  const hasPrinter = !!window.PrinterNativeApi;
+  const [autoPrint, setAutoPrintEnabled] = useState(false);
+  const [printBacklog, setPrintBacklog] = useState(0);
+  const [printSelection, setPrintSelection] = useState([]);
+  const [isPrintingSelection, setIsPrintingSelection] = useState(false);
+
   // --- Timer State ---
   const [currentTime, setCurrentTime] = useState(dayjs());
 
@@ -49,6 +61,18 @@ function OrdersPage() {
     fetchOrders();
   }, []);
 
+  // --- Auto-print state lives on the native side and resets on restart ---
+  useEffect(() => {
+    if (hasPrinter) refreshPrintQueue();
+  }, []);
+
+  // --- Orders changed on another screen or device ---
+  useEffect(() => {
+    return onNativeEvent("ordersChanged", () => {
+      fetchOrders();
+    });
+  }, []);
+
   // --- Update Timer every 30 seconds ---
   useEffect(() => {
     const timer = setInterval(() => {
@@ -62,6 +86,13 @@ function OrdersPage() {
     setOrders(fetchedOrders);
   };
 
+  const refreshPrintQueue = async () => {
+    const queue = await getPrintQueue();
+    if (!queue) return;
+    setAutoPrintEnabled(!!queue.autoPrint?.enabled);
+    setPrintBacklog(queue.stats?.backlog || 0);
+  };
+
   // --- Computed Stats & Helpers ---
   const getOrderTotal = (order) => {
     return order.orderTotal;
@@ -175,6 +206,32 @@ function OrdersPage() {
     })();
   };
 
+  const handleToggleAutoPrint = async () => {
+    const enabled = await setAutoPrint(!autoPrint);
+    if (enabled !== null) setAutoPrintEnabled(enabled);
+  };
+
+  const togglePrintSelection = (orderId) => {
+    setPrintSelection((prev) =>
+      prev.includes(orderId)
+        ? prev.filter((id) => id !== orderId)
+        : [...prev, orderId],
+    );
+  };
+
+  // One query and one printer write for all the ticked orders
+  const handlePrintSelection = async () => {
+    setIsPrintingSelection(true);
+    try {
+      const ids = printSelection.filter((id) => orders.some((o) => o.id === id));
+      const jobs = await printOrders(ids);
+      if (jobs) setPrintSelection([]);
+      await refreshPrintQueue();
+    } finally {
+      setIsPrintingSelection(false);
+    }
+  };
+
   const openConfirmDialog = (type, orderId, callBack) =>
     setConfirmDialog({ show: true, type, orderId, callBack });
 
@@ -273,10 +330,31 @@ function OrdersPage() {
 
           {/* Search Header */}
           <div className="px-5 py-4 border-b border-gray-100 bg-white z-10">
-            <h2 className="text-lg font-bold text-gray-800 mb-3 flex items-center gap-2">
-              <ReceiptIndianRupeeIcon size={18} className="text-blue-600" />
-              Orders List
-            </h2>
+            <div className="flex items-center justify-between mb-3">
+              <h2 className="text-lg font-bold text-gray-800 flex items-center gap-2">
+                <ReceiptIndianRupeeIcon size={18} className="text-blue-600" />
+                Orders List
+              </h2>
+              {hasPrinter && (
+                <button
+                  onClick={handleToggleAutoPrint}
+                  title="Print new orders from this counter automatically"
+                  className={`flex items-center gap-1.5 px-2.5 py-1 rounded-full text-[10px] font-bold uppercase tracking-wide border transition-colors cursor-pointer ${
+                    autoPrint
+                      ? "bg-green-50 text-green-700 border-green-200"
+                      : "bg-gray-50 text-gray-500 border-gray-200 hover:text-gray-700"
+                  }`}
+                >
+                  <Printer size={12} />
+                  Auto {autoPrint ? "On" : "Off"}
+                  {printBacklog > 0 && (
+                    <span className="ml-1 px-1.5 rounded-full bg-orange-100 text-orange-700">
+                      {printBacklog}
+                    </span>
+                  )}
+                </button>
+              )}
+            </div>
             <div className="relative mb-3 group">
               <Search
                 className="absolute left-3 top-1/2 -translate-y-1/2 text-gray-400 group-focus-within:text-blue-500 transition-colors"
@@ -309,6 +387,25 @@ function OrdersPage() {
                 </button>
               ))}
             </div>
+
+            {hasPrinter && printSelection.length > 0 && (
+              <div className="flex items-center gap-2 mt-3">
+                <button
+                  onClick={handlePrintSelection}
+                  disabled={isPrintingSelection}
+                  className="flex-1 flex items-center justify-center gap-2 py-2 bg-gray-900 hover:bg-black text-white rounded-lg text-xs font-bold transition-colors cursor-pointer disabled:opacity-50"
+                >
+                  <Printer size={14} />
+                  Print {printSelection.length} selected
+                </button>
+                <button
+                  onClick={() => setPrintSelection([])}
+                  className="px-3 py-2 text-xs font-bold text-gray-500 hover:text-gray-700 hover:bg-gray-100 rounded-lg cursor-pointer"
+                >
+                  Clear
+                </button>
+              </div>
+            )}
           </div>
 
           {/* Scrollable List */}
@@ -431,6 +528,22 @@ function OrdersPage() {
                     {/* Top Row: ID and Timer */}
                     <div className="flex justify-between items-start mb-2">
                       <div className="flex items-center gap-2">
+                        {hasPrinter && (
+                          <button
+                            onClick={(e) => {
+                              e.stopPropagation();
+                              togglePrintSelection(order.id);
+                            }}
+                            title="Select for printing"
+                            className={`cursor-pointer ${textSubColor}`}
+                          >
+                            {printSelection.includes(order.id) ? (
+                              <SquareCheck size={14} />
+                            ) : (
+                              <Square size={14} />
+                            )}
+                          </button>
+                        )}
                         <span className={`text-sm font-bold ${textMainColor}`}>
                           #{order.tag}
                         </span>